@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive for the startup-optimized build.
+#
+#   mvn -Pstartup package && scripts/cds-train.sh [extra app args]
+#
+# The training run starts the context with the 'startup' profile and exits as
+# soon as it is refreshed (-Dspring.context.exit=onRefresh), so it needs the
+# same environment as a real start (database, JWT secret, ...). The output in
+# target/cds/ is the flattened application, app.jsa and app.args; launch with
+#
+#   java @target/cds/app.args --spring.profiles.active=startup
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/fit-track-*.jar | grep -v '\.original$' | head -1)
+OUT="$(pwd)/target/cds"
+MAIN=com.fit_track.FitTrackApplication
+
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked" "$OUT/lib"
+(cd "$OUT/unpacked" && jar -xf "$OLDPWD/$JAR")
+
+# CDS only archives classes loaded from plain jars and requires the exact same
+# classpath at runtime, so the nested fat jar is flattened into lib/.
+jar --create --file "$OUT/lib/application.jar" -C "$OUT/unpacked/BOOT-INF/classes" .
+cp "$OUT"/unpacked/BOOT-INF/lib/*.jar "$OUT/lib/"
+
+JVM_OPTS=()
+if [ -f "$OUT/unpacked/BOOT-INF/classes/com/fit_track/FitTrackApplication__ApplicationContextInitializer.class" ]; then
+    JVM_OPTS+=(-Dspring.aot.enabled=true)
+fi
+rm -rf "$OUT/unpacked"
+
+CLASSPATH="$OUT/lib/application.jar"
+for jar in $(ls "$OUT"/lib/*.jar | grep -v '/application\.jar$' | sort); do
+    CLASSPATH="$CLASSPATH:$jar"
+done
+
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" "${JVM_OPTS[@]}" \
+    -Dspring.context.exit=onRefresh \
+    -cp "$CLASSPATH" "$MAIN" --spring.profiles.active=startup "$@"
+
+{
+    echo "-XX:SharedArchiveFile=$OUT/app.jsa"
+    for opt in "${JVM_OPTS[@]}"; do echo "$opt"; done
+    echo "-cp $CLASSPATH"
+    echo "$MAIN"
+} > "$OUT/app.args"
+
+echo "CDS archive: $OUT/app.jsa ($(du -h "$OUT/app.jsa" | cut -f1))"
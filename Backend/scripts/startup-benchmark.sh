@@ -0,0 +1,99 @@
+#!/usr/bin/env bash
+# Time-to-first-request and resident memory of each launch mode (Linux).
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Modes, skipped when their artifact is missing:
+#   default  fat jar, default profile           (mvn package)
+#   startup  AOT + CDS, 'startup' profile       (mvn -Pstartup package && scripts/cds-train.sh)
+#   native   GraalVM image, 'startup' profile   (mvn -Pnative native:compile)
+#
+# Each run launches the app on PORT and polls PROBE_PATH until it gets any HTTP
+# response. The elapsed wall time from launch is the time to first request;
+# RSS is read right after. The app needs its usual environment (database, JWT
+# secret). Results are printed and written to target/startup-benchmark.csv.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+PROBE_PATH=${PROBE_PATH:-/actuator/health}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+RESULTS=target/startup-benchmark.csv
+
+JAR=$(ls target/fit-track-*.jar 2>/dev/null | grep -v '\.original$' | head -1 || true)
+NATIVE=target/fit-track
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+rss_kb() {
+    awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+}
+
+# Prints "<ttfr ms> <rss kB>" for one launch of the given command.
+measure() {
+    local start pid ttfr rss
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+
+    while ! curl -s -o /dev/null "http://localhost:$PORT$PROBE_PATH"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "process exited before serving a request: $*" >&2
+            return 1
+        fi
+        if [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            kill "$pid"
+            echo "timed out waiting for $PROBE_PATH: $*" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    ttfr=$(( $(now_ms) - start ))
+    rss=$(rss_kb "$pid")
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$ttfr $rss"
+}
+
+run_mode() {
+    local mode=$1
+    shift
+    local ttfr_total=0 rss_total=0 result ttfr rss
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(measure "$@")
+        read -r ttfr rss <<< "$result"
+        echo "$mode,$i,$ttfr,$rss" >> "$RESULTS"
+        ttfr_total=$(( ttfr_total + ttfr ))
+        rss_total=$(( rss_total + rss ))
+    done
+    printf "%-8s %6d runs %10d ms %10d MB\n" "$mode" "$RUNS" \
+        $(( ttfr_total / RUNS )) $(( rss_total / RUNS / 1024 ))
+}
+
+mkdir -p target
+echo "mode,run,ttfr_ms,rss_kb" > "$RESULTS"
+printf "%-8s %11s %13s %13s\n" "mode" "" "avg ttfr" "avg rss"
+
+if [ -n "$JAR" ]; then
+    run_mode default java -jar "$JAR"
+else
+    echo "default: no jar in target/, run mvn package" >&2
+fi
+
+if [ -f target/cds/app.args ]; then
+    run_mode startup java @target/cds/app.args --spring.profiles.active=startup
+else
+    echo "startup: no CDS archive, run scripts/cds-train.sh" >&2
+fi
+
+if [ -x "$NATIVE" ]; then
+    run_mode native "$NATIVE" --spring.profiles.active=startup
+else
+    echo "native: no image, run mvn -Pnative native:compile" >&2
+fi
+
+echo "Per-run results: $RESULTS"
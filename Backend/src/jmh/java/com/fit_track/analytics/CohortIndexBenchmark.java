@@ -0,0 +1,121 @@
+package com.fit_track.analytics;
+
+import com.fit_track.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cohort queries over ten million users against a scan of the same
+ * attributes held as one byte per user and attribute, and the cost of
+ * moving one user to new values. Query cost depends on the number of
+ * attribute combinations, not on the number of users.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CohortIndexBenchmark {
+
+    private static final int USERS = 10_000_000;
+    private static final Attribute[] ATTRIBUTES = Attribute.values();
+
+    private final CohortFilter oneAttribute = CohortFilter.ALL.with(Attribute.GOAL, List.of(User.Goal.LOSE_WEIGHT));
+    private final CohortFilter threeAttributes = CohortFilter.ALL
+            .with(Attribute.GOAL, List.of(User.Goal.LOSE_WEIGHT, User.Goal.MAINTAIN_WEIGHT))
+            .with(Attribute.GENDER, List.of(User.Gender.FEMALE))
+            .with(Attribute.AGE_BAND, List.of(AgeBand.AGE_25_34, AgeBand.AGE_35_44));
+
+    private CohortIndex index;
+    // values[attribute][user], -1 when unknown
+    private byte[][] values;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        index = new CohortIndex();
+        values = new byte[ATTRIBUTES.length][USERS];
+        for (int id = 0; id < USERS; id++) {
+            CohortUser user = randomUser(id);
+            index.put(user);
+            for (Attribute attribute : ATTRIBUTES) {
+                values[attribute.ordinal()][id] = (byte) user.value(attribute);
+            }
+        }
+    }
+
+    @Benchmark
+    public int countOneAttribute() {
+        return index.count(oneAttribute);
+    }
+
+    @Benchmark
+    public int countThreeAttributes() {
+        return index.count(threeAttributes);
+    }
+
+    @Benchmark
+    public CohortIndex.Funnel funnel() {
+        return index.funnel(threeAttributes);
+    }
+
+    @Benchmark
+    public int[] breakdownByActivityLevel() {
+        return index.breakdown(threeAttributes, Attribute.ACTIVITY_LEVEL);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int countThreeAttributesByScan() {
+        int count = 0;
+        for (int id = 0; id < USERS; id++) {
+            boolean matches = true;
+            for (Attribute attribute : ATTRIBUTES) {
+                int mask = threeAttributes.mask(attribute);
+                int value = values[attribute.ordinal()][id];
+                if (mask != 0 && (value < 0 || (mask & 1 << value) == 0)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void put() {
+        index.put(randomUser(random.nextInt(USERS)));
+    }
+
+    // Three in four verified, two thirds of those onboarded
+    private CohortUser randomUser(long id) {
+        boolean verified = random.nextInt(4) != 0;
+        if (!verified || random.nextInt(3) == 0) {
+            return new CohortUser(id, null, null, null, null, verified, false);
+        }
+        return new CohortUser(id, pick(User.Goal.values()), pick(User.ActivityLevel.values()),
+                pick(User.Gender.values()), 16 + random.nextInt(60), true, true);
+    }
+
+    private <E> E pick(E[] options) {
+        return options[random.nextInt(options.length)];
+    }
+}
@@ -0,0 +1,88 @@
+package com.fit_track.audit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * What recording an audit record costs: the request thread's hand-off to
+ * the ring under contention, and the writer's append into a mapped segment
+ * against flushing every record to disk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuditLogBenchmark {
+
+    private final AuditRecord record = new AuditRecord(0, Instant.now(), AuditAction.LOGIN, "BAD_CREDENTIALS",
+            42L, "someone@fittrack.test", "203.0.113.9");
+
+    private Path dir;
+    private AuditSegmentWriter writer;
+    private AuditRing ring;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("audit-benchmark");
+        writer = new AuditSegmentWriter(dir, 64 << 20, 2, () -> Long.MAX_VALUE);
+        ring = new AuditRing(65_536);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return writer.append(record);
+    }
+
+    @Benchmark
+    public long appendAndForce() throws IOException {
+        long sequence = writer.append(record);
+        writer.force();
+        return sequence;
+    }
+
+    // Four request threads offering while the writer drains; a full ring refuses
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(4)
+    public boolean offer() {
+        return ring.offer(record);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public AuditRecord poll() {
+        return ring.poll();
+    }
+}
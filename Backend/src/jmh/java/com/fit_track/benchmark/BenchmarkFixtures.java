@@ -0,0 +1,77 @@
+package com.fit_track.benchmark;
+
+import com.fit_track.audit.AuditLog;
+import com.fit_track.entity.User;
+import com.fit_track.repository.UserRepository;
+import com.fit_track.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Builds production objects outside a Spring context so benchmarks measure
+ * the code itself rather than container overhead.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String SECRET_KEY = "benchmark-secret-key-that-is-at-least-256-bits-long!!";
+
+    private BenchmarkFixtures() {}
+
+    public static JwtService jwtService() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 1_209_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    /**
+     * Started audit log in a temporary directory, with shipping off, as the
+     * auth paths under test record every failure.
+     */
+    public static AuditLog auditLog() {
+        try {
+            AuditLog auditLog = new AuditLog(new SimpleMeterRegistry(), Files.createTempDirectory("audit-benchmark"),
+                    DataSize.ofMegabytes(64), 2, Duration.ofSeconds(1), 65_536, false);
+            auditLog.start();
+            return auditLog;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static User user() {
+        User user = new User("athlete@fittrack.com", "$2a$10$abcdefghijklmnopqrstuv", "Alex", "Runner");
+        user.setId(42L);
+        user.setEmailVerified(true);
+        user.setEnabled(true);
+        user.setProfileCompleted(true);
+        user.setTokenVersion(3);
+        return user;
+    }
+
+    /**
+     * Repository answering {@code findByEmail} from a single in-memory user; any
+     * other call fails so a benchmark cannot silently measure the wrong path.
+     */
+    public static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByEmail")) {
+                        return user.getEmail().equals(args[0]) ? Optional.of(user) : Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
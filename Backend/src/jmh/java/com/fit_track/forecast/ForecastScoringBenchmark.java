@@ -0,0 +1,130 @@
+package com.fit_track.forecast;
+
+import com.fit_track.entity.User;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.service.UserProfile;
+import com.fit_track.streak.StreakRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory side of nightly scoring at one million users, sequentially
+ * and in the job's parallel chunks, plus the per-weigh-in cost of an
+ * incremental update against a refit over a year of weigh-ins.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ForecastScoringBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int PARALLELISM = 4;
+
+    private final LocalDate today = LocalDate.of(2026, 6, 1);
+
+    private ForecastModel model;
+    private List<ForecastInput> inputs;
+    private List<List<ForecastInput>> chunks;
+    private ExecutorService workers;
+    private List<WeighIn> yearOfWeighIns;
+    private WeightTrend trend;
+    private WeighIn next;
+
+    @Setup
+    public void setUp() {
+        model = new ForecastModel(new StreakRules(0.1, 3), 0.1, 0.05, 10, 0.05, 730, 14, 7);
+        Random random = new Random(42);
+        long todayEpochDay = today.toEpochDay();
+        inputs = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            double weight = 60 + random.nextDouble() * 50;
+            boolean losing = random.nextBoolean();
+            UserProfile profile = new UserProfile(id, null, null, null, true, true,
+                    losing ? User.Goal.LOSE_WEIGHT : User.Goal.GAIN_WEIGHT, User.ActivityLevel.LIGHTLY_ACTIVE,
+                    weight, weight + (losing ? -8 : 5), 160 + random.nextInt(40), 20 + random.nextInt(45),
+                    random.nextBoolean() ? User.Gender.MALE : User.Gender.FEMALE);
+            // A third with no weigh-ins yet, a third with no usable intake
+            int points = random.nextInt(3) == 0 ? 0 : 2 + random.nextInt(200);
+            WeightTrend userTrend = points == 0 ? new WeightTrend()
+                    : new WeightTrend(weight, random.nextGaussian() * 0.05, 0.5,
+                    todayEpochDay - random.nextInt(30), points);
+            OptionalDouble intake = random.nextInt(3) == 0 ? OptionalDouble.empty()
+                    : OptionalDouble.of(1500 + random.nextInt(1500));
+            inputs.add(new ForecastInput(profile, userTrend, intake));
+        }
+        chunks = new ArrayList<>();
+        for (int from = 0; from < USERS; from += CHUNK_SIZE) {
+            chunks.add(inputs.subList(from, Math.min(from + CHUNK_SIZE, USERS)));
+        }
+        workers = Executors.newFixedThreadPool(PARALLELISM);
+
+        yearOfWeighIns = new ArrayList<>(365);
+        for (int day = 0; day < 365; day++) {
+            yearOfWeighIns.add(new WeighIn(1L, today.minusDays(365 - day), 90 - 0.03 * day + random.nextGaussian()));
+        }
+        trend = model.fit(yearOfWeighIns);
+        next = new WeighIn(1L, today, 80);
+    }
+
+    @TearDown
+    public void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Long, WeightForecast> scoreMillionSequential() {
+        return ForecastScoringJob.score(model, inputs, today);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int scoreMillionInParallelChunks() throws InterruptedException, ExecutionException {
+        List<Future<Map<Long, WeightForecast>>> results = new ArrayList<>(chunks.size());
+        for (List<ForecastInput> chunk : chunks) {
+            results.add(workers.submit(() -> ForecastScoringJob.score(model, chunk, today)));
+        }
+        int scored = 0;
+        for (Future<Map<Long, WeightForecast>> result : results) {
+            scored += result.get().size();
+        }
+        return scored;
+    }
+
+    @Benchmark
+    public boolean incrementalUpdate() {
+        // Each call is one day later than the last, like a daily weigh-in
+        next = new WeighIn(1L, next.measuredOn().plusDays(1), next.weightKg());
+        return model.update(trend, next);
+    }
+
+    @Benchmark
+    public WeightTrend refitYear() {
+        return model.fit(yearOfWeighIns);
+    }
+}
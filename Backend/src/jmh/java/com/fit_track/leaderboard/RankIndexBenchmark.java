@@ -0,0 +1,113 @@
+package com.fit_track.leaderboard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard operations at ten million ranked users, against a linear scan
+ * of the same scores as the cost of ranking one user without an index. Scores
+ * are skewed like real activity: most users low, a long tail high.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RankIndexBenchmark {
+
+    private static final int USERS = 10_000_000;
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"7", "1000", "3650"})
+    public int maxScore;
+
+    private RankIndex index;
+    private int[] scores;
+    private byte[] snapshot;
+    private int[] sampleUsers;
+    private int[] sampleScores;
+    private int sample;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new RankIndex(maxScore);
+        scores = new int[USERS + 1];
+        for (int user = 1; user <= USERS; user++) {
+            scores[user] = skewedScore(random);
+            index.set(user, scores[user]);
+        }
+        snapshot = index.snapshot();
+        sampleUsers = new int[SAMPLES];
+        sampleScores = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            sampleUsers[i] = 1 + random.nextInt(USERS);
+            sampleScores[i] = skewedScore(random);
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        int i = sample++ & (SAMPLES - 1);
+        index.set(sampleUsers[i], sampleScores[i]);
+    }
+
+    @Benchmark
+    public int rank() {
+        return index.rank(sampleUsers[sample++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public List<RankIndex.Entry> top10() {
+        return index.top(10);
+    }
+
+    @Benchmark
+    public List<RankIndex.Entry> top100() {
+        return index.top(100);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int rankByScan() {
+        int score = scores[sampleUsers[sample++ & (SAMPLES - 1)]];
+        int ahead = 0;
+        for (int other : scores) {
+            if (other > score) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] snapshot() {
+        return index.snapshot();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void restore() {
+        index.restore(snapshot);
+    }
+
+    // Exponential with a mean of a tenth of the range, so every board has a crowded bottom and a thin top
+    private int skewedScore(Random random) {
+        return Math.min(maxScore, 1 + (int) (-Math.log(1 - random.nextDouble()) * Math.max(1, maxScore / 10.0)));
+    }
+}
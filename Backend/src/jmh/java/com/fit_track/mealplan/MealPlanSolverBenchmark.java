@@ -0,0 +1,73 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.service.NutritionTargets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one full annealing run against catalog size: the shipped
+ * catalog, then copies of it with jittered nutrients up to a thousand times
+ * larger. Moves are scored from running totals, so only memory locality
+ * should change with size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MealPlanSolverBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int catalogCopies;
+
+    private final NutritionTargets targets = new NutritionTargets(2300, 150, 250, 70);
+
+    private MealPlanSolver solver;
+    private long seed;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Food> shipped;
+        try (InputStream csv = MealPlanSolverBenchmark.class.getResourceAsStream("/mealplan/foods.csv")) {
+            shipped = FoodCatalog.load(csv).foods();
+        }
+        Random random = new Random(42);
+        List<Food> foods = new ArrayList<>(shipped.size() * catalogCopies);
+        for (int copy = 0; copy < catalogCopies; copy++) {
+            for (Food food : shipped) {
+                double jitter = copy == 0 ? 1 : 0.9 + random.nextDouble() * 0.2;
+                foods.add(new Food(food.name() + " #" + copy, food.meals(), food.serving(),
+                        (int) Math.round(food.calories() * jitter), food.proteinG() * jitter,
+                        food.carbsG() * jitter, food.fatG() * jitter));
+            }
+        }
+        solver = new MealPlanSolver(FoodCatalog.of(foods), 20_000);
+    }
+
+    @Benchmark
+    public MealPlanSolver.Solution solveDay() {
+        return solver.solve(targets, seed++, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public MealPlan solveDayAndBuildPlan() {
+        return solver.toPlan(solver.solve(targets, seed++, Long.MAX_VALUE), targets);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fit_track.security;
+
+import com.fit_track.benchmark.BenchmarkFixtures;
+import com.fit_track.entity.User;
+import com.fit_track.service.JwtService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the filter against a no-op chain. The token version is pre-seeded in
+ * {@link TokenVersionCache}, so the valid-token case is the steady-state path
+ * with no database access.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest validRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest tamperedRequest;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        User user = BenchmarkFixtures.user();
+        TokenVersionCache tokenVersionCache = new TokenVersionCache();
+        tokenVersionCache.update(user.getId(), user.getTokenVersion());
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "tokenVersionCache", tokenVersionCache);
+        ReflectionTestUtils.setField(filter, "auditLog", BenchmarkFixtures.auditLog());
+
+        String token = jwtService.generateToken(user);
+        validRequest = request("Bearer " + token);
+        anonymousRequest = request(null);
+        tamperedRequest = request("Bearer " + token.substring(0, token.length() - 2) + "xx");
+        response = new MockHttpServletResponse();
+        chain = (request, response) ->
+                this.blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Benchmark
+    public void validToken() throws Exception {
+        run(validRequest);
+    }
+
+    @Benchmark
+    public void noAuthorizationHeader() throws Exception {
+        run(anonymousRequest);
+    }
+
+    @Benchmark
+    public void tamperedToken() throws Exception {
+        run(tamperedRequest);
+    }
+
+    private void run(MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+}
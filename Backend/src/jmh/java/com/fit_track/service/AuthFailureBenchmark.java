@@ -0,0 +1,132 @@
+package com.fit_track.service;
+
+import com.fit_track.benchmark.BenchmarkFixtures;
+import com.fit_track.dto.request.LoginRequest;
+import com.fit_track.dto.request.VerifyEmailRequest;
+import com.fit_track.entity.User;
+import com.fit_track.exception.AuthException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of a rejected login and a rejected verification code, before (stack
+ * trace filled for every failure, login through the AuthenticationManager)
+ * and after (stackless {@link AuthException}, direct password check). Each
+ * failure is raised {@code depth} frames down to stand in for the servlet and
+ * proxy frames above a real request. BCrypt runs at strength 4 so the hash
+ * does not hide the difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthFailureBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"20", "150"})
+    private int depth;
+
+    private AuthService authService;
+    private AuthenticationManager authenticationManager;
+    private LoginRequest wrongPassword;
+    private VerifyEmailRequest wrongCode;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        User user = BenchmarkFixtures.user();
+        user.setPassword(encoder.encode(PASSWORD));
+        user.setEmailVerified(false);
+        user.setVerificationCode("123456");
+        user.setVerificationCodeExpiresAt(LocalDateTime.now().plusDays(1));
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", BenchmarkFixtures.userRepository(user));
+        ReflectionTestUtils.setField(authService, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(authService, "auditLog", BenchmarkFixtures.auditLog());
+        authService.init();
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(email -> org.springframework.security.core.userdetails.User
+                .withUsername(email)
+                .password(user.getPassword())
+                .authorities("USER")
+                .build());
+        authenticationManager = new ProviderManager(provider);
+
+        wrongPassword = new LoginRequest();
+        wrongPassword.setEmail(user.getEmail());
+        wrongPassword.setPassword("wrong password");
+
+        wrongCode = new VerifyEmailRequest();
+        wrongCode.setEmail(user.getEmail());
+        wrongCode.setCode("654321");
+    }
+
+    @Benchmark
+    public Object invalidCodeBefore() {
+        try {
+            return atDepth(depth, () -> {
+                throw new RuntimeException("Invalid verification code");
+            });
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public Object invalidCodeAfter() {
+        try {
+            return atDepth(depth, () -> authService.verifyEmail(wrongCode));
+        } catch (AuthException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Benchmark
+    public Object invalidLoginBefore() {
+        try {
+            return atDepth(depth, () -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(wrongPassword.getEmail(), wrongPassword.getPassword())));
+        } catch (AuthenticationException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public Object invalidLoginAfter() {
+        try {
+            return atDepth(depth, () -> authService.login(wrongPassword));
+        } catch (AuthException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    private static <T> T atDepth(int remaining, Supplier<T> call) {
+        return remaining == 0 ? call.get() : atDepth(remaining - 1, call);
+    }
+}
@@ -0,0 +1,59 @@
+package com.fit_track.service;
+
+import com.fit_track.benchmark.BenchmarkFixtures;
+import com.fit_track.entity.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService();
+        user = BenchmarkFixtures.user();
+        accessToken = jwtService.generateToken(user);
+        refreshToken = jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public String signAccessToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String signRefreshToken() {
+        return jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public Claims verifyAccessToken() {
+        return jwtService.extractAllClaims(accessToken);
+    }
+
+    @Benchmark
+    public Claims verifyRefreshToken() {
+        return jwtService.extractAllClaims(refreshToken);
+    }
+}
@@ -0,0 +1,42 @@
+package com.fit_track.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VerificationCodeBenchmark {
+
+    private AuthService authService;
+
+    @Setup
+    public void setUp() {
+        authService = new AuthService();
+    }
+
+    @Benchmark
+    public String generateVerificationCode() {
+        return authService.generateVerificationCode();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateVerificationCodeContended() {
+        return authService.generateVerificationCode();
+    }
+}
@@ -0,0 +1,35 @@
+package com.fit_track.analytics;
+
+/**
+ * Age ranges cohorts are sliced by; bands are inclusive of {@code min}.
+ */
+public enum AgeBand {
+    UNDER_18(0),
+    AGE_18_24(18),
+    AGE_25_34(25),
+    AGE_35_44(35),
+    AGE_45_54(45),
+    AGE_55_64(55),
+    AGE_65_PLUS(65);
+
+    private static final AgeBand[] BANDS = values();
+
+    private final int min;
+
+    AgeBand(int min) {
+        this.min = min;
+    }
+
+    // Null when the user has not given an age
+    public static AgeBand of(Integer age) {
+        if (age == null) {
+            return null;
+        }
+        for (int i = BANDS.length - 1; i > 0; i--) {
+            if (age >= BANDS[i].min) {
+                return BANDS[i];
+            }
+        }
+        return UNDER_18;
+    }
+}
@@ -0,0 +1,39 @@
+package com.fit_track.analytics;
+
+import com.fit_track.entity.User;
+
+/**
+ * Profile attributes users can be sliced by. Each value of an attribute is
+ * identified by its ordinal: the enum constant's for enums, 0 and 1 for
+ * false and true.
+ */
+public enum Attribute {
+    GOAL(names(User.Goal.values())),
+    ACTIVITY_LEVEL(names(User.ActivityLevel.values())),
+    GENDER(names(User.Gender.values())),
+    AGE_BAND(names(AgeBand.values())),
+    EMAIL_VERIFIED(new String[]{"false", "true"}),
+    PROFILE_COMPLETED(new String[]{"false", "true"});
+
+    private final String[] valueNames;
+
+    Attribute(String[] valueNames) {
+        this.valueNames = valueNames;
+    }
+
+    public int valueCount() {
+        return valueNames.length;
+    }
+
+    public String valueName(int value) {
+        return valueNames[value];
+    }
+
+    private static String[] names(Enum<?>[] values) {
+        String[] names = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,59 @@
+package com.fit_track.analytics;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Which users a cohort query covers: for each constrained attribute, the
+ * values a user may have. Values of one attribute are alternatives, the
+ * attributes all have to match. Immutable; {@code with} returns a copy.
+ */
+public final class CohortFilter {
+
+    public static final CohortFilter ALL = new CohortFilter(new int[Attribute.values().length]);
+
+    // Bit v of masks[a] is set when value v of attribute a is allowed; 0 means unconstrained
+    private final int[] masks;
+
+    private CohortFilter(int[] masks) {
+        this.masks = masks;
+    }
+
+    public CohortFilter with(Attribute attribute, int value) {
+        if (value < 0 || value >= attribute.valueCount()) {
+            throw new IllegalArgumentException("No value " + value + " for " + attribute);
+        }
+        int[] copy = masks.clone();
+        copy[attribute.ordinal()] |= 1 << value;
+        return new CohortFilter(copy);
+    }
+
+    // Null or empty leaves the attribute unconstrained
+    public CohortFilter with(Attribute attribute, Collection<? extends Enum<?>> values) {
+        CohortFilter filter = this;
+        if (values != null) {
+            for (Enum<?> value : values) {
+                filter = filter.with(attribute, value.ordinal());
+            }
+        }
+        return filter;
+    }
+
+    public CohortFilter with(Attribute attribute, Boolean value) {
+        return value == null ? this : with(attribute, value ? 1 : 0);
+    }
+
+    public int mask(Attribute attribute) {
+        return masks[attribute.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CohortFilter other && Arrays.equals(masks, other.masks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(masks);
+    }
+}
@@ -0,0 +1,200 @@
+package com.fit_track.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts of users by profile attributes. A user has exactly one value (or
+ * none) of each {@link Attribute}, so every user falls in one cell of the
+ * product of all attribute values, a few thousand cells in all. The index
+ * keeps the number of users per cell and the cell of each user, by id.
+ * A query sums the cells its filter matches, which costs the same for ten
+ * users as for ten million, and an update moves one user between two cells.
+ *
+ * <p>User ids must fit in an int. Queries share a read lock; updates take
+ * the write lock.
+ */
+public class CohortIndex {
+
+    /**
+     * Users of a cohort at each step from registration to a completed profile.
+     */
+    public record Funnel(int registered, int verified, int onboarded) {
+    }
+
+    private static final Attribute[] ATTRIBUTES = Attribute.values();
+
+    // Each attribute has a slot per value and one more for users without a value
+    private static final int[] STRIDES = new int[ATTRIBUTES.length];
+    private static final int CELLS;
+
+    static {
+        int cells = 1;
+        for (Attribute attribute : ATTRIBUTES) {
+            STRIDES[attribute.ordinal()] = cells;
+            cells *= attribute.valueCount() + 1;
+        }
+        if (cells > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many attribute combinations for a short cell: " + cells);
+        }
+        CELLS = cells;
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int[] counts = new int[CELLS];
+    // Cell + 1 of each user by id, 0 when not indexed; grown by half as ids grow
+    private short[] cellOf = new short[1024];
+    private int size;
+
+    // Adds the user, or moves them to their current values
+    public void put(CohortUser user) {
+        int id = Math.toIntExact(user.id());
+        int cell = cell(user);
+        lock.writeLock().lock();
+        try {
+            if (id >= cellOf.length) {
+                cellOf = Arrays.copyOf(cellOf, Math.max(id + 1, cellOf.length + (cellOf.length >> 1)));
+            }
+            int previous = cellOf[id] - 1;
+            if (previous == cell) {
+                return;
+            }
+            if (previous < 0) {
+                size++;
+            } else {
+                counts[previous]--;
+            }
+            counts[cell]++;
+            cellOf[id] = (short) (cell + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long userId) {
+        int id = Math.toIntExact(userId);
+        lock.writeLock().lock();
+        try {
+            if (id >= cellOf.length || cellOf[id] == 0) {
+                return false;
+            }
+            counts[cellOf[id] - 1]--;
+            cellOf[id] = 0;
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(CohortFilter filter) {
+        int[] cells = cells(filter);
+        lock.readLock().lock();
+        try {
+            int users = 0;
+            for (int cell : cells) {
+                users += counts[cell];
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Funnel funnel(CohortFilter filter) {
+        int[] cells = cells(filter);
+        lock.readLock().lock();
+        try {
+            int registered = 0;
+            int verified = 0;
+            int onboarded = 0;
+            for (int cell : cells) {
+                int users = counts[cell];
+                registered += users;
+                if (slot(cell, Attribute.EMAIL_VERIFIED) == 1) {
+                    verified += users;
+                    if (slot(cell, Attribute.PROFILE_COMPLETED) == 1) {
+                        onboarded += users;
+                    }
+                }
+            }
+            return new Funnel(registered, verified, onboarded);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return users of the cohort with each value of the attribute, by value
+     * ordinal, followed by those with no value for it
+     */
+    public int[] breakdown(CohortFilter filter, Attribute by) {
+        int[] cells = cells(filter);
+        int[] users = new int[by.valueCount() + 1];
+        lock.readLock().lock();
+        try {
+            for (int cell : cells) {
+                users[slot(cell, by)] += counts[cell];
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return cellOf.length * 2L + counts.length * 4L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int cell(CohortUser user) {
+        int cell = 0;
+        for (Attribute attribute : ATTRIBUTES) {
+            int value = user.value(attribute);
+            cell += (value < 0 ? attribute.valueCount() : value) * STRIDES[attribute.ordinal()];
+        }
+        return cell;
+    }
+
+    private static int slot(int cell, Attribute attribute) {
+        return cell / STRIDES[attribute.ordinal()] % (attribute.valueCount() + 1);
+    }
+
+    // Every cell the filter matches: an unconstrained attribute matches all its slots, unknown included
+    private static int[] cells(CohortFilter filter) {
+        int[] cells = {0};
+        for (Attribute attribute : ATTRIBUTES) {
+            int slots = attribute.valueCount() + 1;
+            int mask = filter.mask(attribute);
+            if (mask == 0) {
+                mask = (1 << slots) - 1;
+            }
+            int stride = STRIDES[attribute.ordinal()];
+            int[] next = new int[cells.length * Integer.bitCount(mask)];
+            int n = 0;
+            for (int cell : cells) {
+                for (int slot = 0; slot < slots; slot++) {
+                    if ((mask & 1 << slot) != 0) {
+                        next[n++] = cell + slot * stride;
+                    }
+                }
+            }
+            cells = next;
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,113 @@
+package com.fit_track.analytics;
+
+import com.fit_track.event.UserChangedEvent;
+import com.fit_track.repository.AnalyticsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this instance's {@link CohortIndex} in step with the users table.
+ *
+ * <p>The index is built from a full read of the replica at startup and
+ * rebuilt every {@code fittrack.analytics.rebuild-interval}; a rebuild fills
+ * a new index off to the side and swaps it in, so queries never wait on it.
+ * In between, users changed on this instance are re-read from the primary
+ * as soon as the change commits, and every instance polls for rows whose
+ * {@code updated_at} is older than {@code fittrack.analytics.poll-lag}, by
+ * which time the write has committed and reached the replica. The lag also
+ * covers clock skew between the nodes that set {@code updated_at}.
+ *
+ * <p>Accounts deleted by the janitor drop out at the next rebuild.
+ */
+@Component
+public class CohortSync implements ApplicationRunner {
+
+    private final AnalyticsRepository analyticsRepository;
+    private final Timer rebuildDuration;
+    private final Duration pollLag;
+    private volatile CohortIndex index = new CohortIndex();
+    // Rows changed up to here are applied; null until the first build
+    private volatile LocalDateTime appliedThrough;
+
+    public CohortSync(
+            AnalyticsRepository analyticsRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.analytics.poll-lag:10s}") Duration pollLag) {
+        this.analyticsRepository = analyticsRepository;
+        this.rebuildDuration = Timer.builder("fittrack.analytics.rebuild.duration").register(meterRegistry);
+        this.pollLag = pollLag;
+        Gauge.builder("fittrack.analytics.cohort.users", this, sync -> sync.index.size())
+                .register(meterRegistry);
+        Gauge.builder("fittrack.analytics.cohort.bytes", this, sync -> sync.index.sizeInBytes())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    public CohortIndex getIndex() {
+        return index;
+    }
+
+    @Scheduled(fixedDelayString = "${fittrack.analytics.rebuild-interval:PT1H}",
+            initialDelayString = "${fittrack.analytics.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime loadStart = analyticsRepository.now();
+            CohortIndex rebuilt = new CohortIndex();
+            analyticsRepository.forEachUser(rebuilt::put);
+            index = rebuilt;
+            // Changes committed while the load ran may be missing from it
+            appliedThrough = loadStart.minus(pollLag);
+        } catch (RuntimeException e) {
+            System.err.println("Cohort index rebuild failed: " + e.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        rebuildDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Built cohort index of " + index.size() + " users (" + index.sizeInBytes() / 1024
+                + " KiB) in " + elapsed / 1_000_000 + " ms");
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${fittrack.analytics.poll-interval:PT5S}")
+    public synchronized void poll() {
+        LocalDateTime after = appliedThrough;
+        if (after == null) {
+            return;
+        }
+        try {
+            LocalDateTime until = analyticsRepository.now().minus(pollLag);
+            if (until.isAfter(after)) {
+                analyticsRepository.forEachUpdatedBetween(after, until, index::put);
+                appliedThrough = until;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Cohort index poll failed: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        try {
+            analyticsRepository.findUser(event.userId()).ifPresent(user -> index.put(user));
+        } catch (RuntimeException e) {
+            // The poll picks the change up anyway
+            System.err.println("Cohort index update failed for user " + event.userId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.fit_track.analytics;
+
+import com.fit_track.entity.User;
+
+/**
+ * The attributes of one user that the cohort index keeps; the profile ones
+ * are null until onboarding.
+ */
+public record CohortUser(long id, User.Goal goal, User.ActivityLevel activityLevel, User.Gender gender,
+                         Integer age, boolean emailVerified, boolean profileCompleted) {
+
+    // Ordinal of this user's value of the attribute, -1 when unknown
+    public int value(Attribute attribute) {
+        return switch (attribute) {
+            case GOAL -> goal == null ? -1 : goal.ordinal();
+            case ACTIVITY_LEVEL -> activityLevel == null ? -1 : activityLevel.ordinal();
+            case GENDER -> gender == null ? -1 : gender.ordinal();
+            case AGE_BAND -> age == null ? -1 : AgeBand.of(age).ordinal();
+            case EMAIL_VERIFIED -> emailVerified ? 1 : 0;
+            case PROFILE_COMPLETED -> profileCompleted ? 1 : 0;
+        };
+    }
+}
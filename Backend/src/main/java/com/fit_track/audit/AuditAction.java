@@ -0,0 +1,37 @@
+package com.fit_track.audit;
+
+/**
+ * Audited auth operations. Segments store {@code code}, which must never be
+ * reused for a different action once written.
+ */
+public enum AuditAction {
+    LOGIN(1),
+    VERIFY_EMAIL(2),
+    RESEND_VERIFICATION_CODE(3),
+    COMPLETE_ONBOARDING(4),
+    // A bearer token that was forged, malformed or revoked; expired ones are routine and not audited
+    TOKEN_REJECTED(5);
+
+    private static final AuditAction[] BY_CODE = new AuditAction[6];
+
+    static {
+        for (AuditAction action : values()) {
+            BY_CODE[action.code] = action;
+        }
+    }
+
+    private final int code;
+
+    AuditAction(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    // Null for a code this build does not know
+    public static AuditAction of(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
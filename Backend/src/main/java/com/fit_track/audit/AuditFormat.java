@@ -0,0 +1,207 @@
+package com.fit_track.audit;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk layout of the audit log, shared by the writer and readers.
+ *
+ * <p>A log is a directory holding a {@code log.id} file and segments named
+ * after the sequence of their first record. A segment is a 16-byte header
+ * (magic, version, first sequence) followed by records back to back:
+ *
+ * <pre>
+ *  0 int   length of the record, header included; 0 past the last record
+ *  4 int   CRC32C of bytes 8 to length
+ *  8 long  sequence
+ * 16 long  epoch millis
+ * 24 long  user id, 0 when unknown
+ * 32 byte  action code
+ * 33 byte  address length: 0, 4 or 16
+ * 34 byte  failure length, 0 on success
+ * 35 byte  email length
+ * 36       address, failure (ASCII), email (UTF-8, at most 255 bytes)
+ * </pre>
+ *
+ * A record that fails its checks, such as one torn by a crash, ends the log.
+ */
+final class AuditFormat {
+
+    static final int SEGMENT_HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 36;
+    static final int MAX_RECORD_BYTES = RECORD_HEADER_BYTES + 16 + 255 + 255;
+
+    private static final int MAGIC = 0x46544155;
+    private static final short VERSION = 1;
+    private static final String SEGMENT_SUFFIX = ".audit";
+    private static final String LOG_ID_FILE = "log.id";
+    private static final byte[] NONE = new byte[0];
+
+    private AuditFormat() {
+    }
+
+    static Path segmentPath(Path dir, long firstSequence) {
+        return dir.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Ascending by first sequence; the zero-padded names sort that way
+    static List<Path> segments(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    static void putSegmentHeader(ByteBuffer buffer, long firstSequence) {
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(firstSequence);
+    }
+
+    // Leaves the buffer at the first record
+    static void checkSegmentHeader(ByteBuffer buffer, Path segment) throws IOException {
+        if (buffer.limit() < SEGMENT_HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                || buffer.getLong(8) != firstSequence(segment)) {
+            throw new IOException("Not an audit segment: " + segment);
+        }
+        buffer.position(SEGMENT_HEADER_BYTES);
+    }
+
+    static UUID readLogId(Path dir) throws IOException {
+        Path file = dir.resolve(LOG_ID_FILE);
+        return Files.exists(file) ? UUID.fromString(Files.readString(file).trim()) : null;
+    }
+
+    static UUID createLogId(Path dir) throws IOException {
+        UUID logId = UUID.randomUUID();
+        Path temporary = dir.resolve(LOG_ID_FILE + ".tmp");
+        Files.writeString(temporary, logId.toString());
+        Files.move(temporary, dir.resolve(LOG_ID_FILE), StandardCopyOption.ATOMIC_MOVE);
+        return logId;
+    }
+
+    /**
+     * Writes the record at the buffer's position and moves past it.
+     *
+     * @return false, writing nothing, when the record does not fit
+     */
+    static boolean encode(ByteBuffer buffer, long sequence, AuditRecord record) {
+        byte[] address = address(record.address());
+        byte[] failure = record.failure() == null ? NONE : truncate(record.failure().getBytes(StandardCharsets.US_ASCII));
+        byte[] email = record.email() == null ? NONE : truncate(record.email().getBytes(StandardCharsets.UTF_8));
+        int length = RECORD_HEADER_BYTES + address.length + failure.length + email.length;
+        if (buffer.remaining() < length) {
+            return false;
+        }
+        int start = buffer.position();
+        buffer.position(start + 8);
+        buffer.putLong(sequence)
+                .putLong(record.occurredAt().toEpochMilli())
+                .putLong(record.userId() == null ? 0 : record.userId())
+                .put((byte) record.action().getCode())
+                .put((byte) address.length)
+                .put((byte) failure.length)
+                .put((byte) email.length)
+                .put(address)
+                .put(failure)
+                .put(email);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + 8, length - 8));
+        // Length last, so a concurrent reader sees no record rather than half of one
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, length);
+        return true;
+    }
+
+    /**
+     * Reads the record at the buffer's position and moves past it.
+     *
+     * @return null, leaving the position alone, at the end of the log or a
+     * record that is torn, corrupt or out of sequence
+     */
+    static AuditRecord decode(ByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        if (buffer.limit() - start < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length < RECORD_HEADER_BYTES || length > MAX_RECORD_BYTES || length > buffer.limit() - start) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + 8, length - 8));
+        if ((int) crc.getValue() != buffer.getInt(start + 4) || buffer.getLong(start + 8) != expectedSequence) {
+            return null;
+        }
+        AuditAction action = AuditAction.of(buffer.get(start + 32));
+        int addressLength = buffer.get(start + 33) & 0xFF;
+        int failureLength = buffer.get(start + 34) & 0xFF;
+        int emailLength = buffer.get(start + 35) & 0xFF;
+        if (action == null || RECORD_HEADER_BYTES + addressLength + failureLength + emailLength != length) {
+            return null;
+        }
+        long userId = buffer.getLong(start + 24);
+        int offset = start + RECORD_HEADER_BYTES;
+        byte[] address = bytes(buffer, offset, addressLength);
+        byte[] failure = bytes(buffer, offset + addressLength, failureLength);
+        byte[] email = bytes(buffer, offset + addressLength + failureLength, emailLength);
+        buffer.position(start + length);
+        return new AuditRecord(expectedSequence, Instant.ofEpochMilli(buffer.getLong(start + 16)), action,
+                failureLength == 0 ? null : new String(failure, StandardCharsets.US_ASCII),
+                userId == 0 ? null : userId,
+                emailLength == 0 ? null : new String(email, StandardCharsets.UTF_8),
+                address(address));
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+
+    private static byte[] truncate(byte[] bytes) {
+        return bytes.length > 255 ? Arrays.copyOf(bytes, 255) : bytes;
+    }
+
+    // Only literals are parsed: a host name would be looked up
+    private static byte[] address(String address) {
+        if (address == null || address.isEmpty()
+                || (address.indexOf(':') < 0 && !address.chars().allMatch(c -> c == '.' || Character.isDigit(c)))) {
+            return NONE;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return NONE;
+        }
+    }
+
+    private static String address(byte[] address) {
+        if (address.length == 0) {
+            return null;
+        }
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
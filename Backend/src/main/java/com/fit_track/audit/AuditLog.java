@@ -0,0 +1,180 @@
+package com.fit_track.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of auth operations, kept in local segment files
+ * (see {@link AuditFormat}) and shipped to Postgres by {@link AuditShipper}.
+ *
+ * <p>Recording never blocks or touches the database: the caller hands the
+ * record to a lock-free ring and one writer thread appends it to the mapped
+ * segment, flushing to disk every {@code fittrack.audit.fsync-interval}.
+ * A crash loses at most that interval. When the ring is full the record is
+ * dropped and counted rather than slowing the request down.
+ *
+ * <p>The client address is taken from the current servlet request; reactive
+ * requests are recorded without one.
+ */
+@Component
+public class AuditLog {
+
+    // How long the writer sleeps when the ring is empty, bounding the delay of a lone record
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int retainSegments;
+    private final long fsyncIntervalNanos;
+    private final AuditRing ring;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private volatile long lastSequence;
+    private volatile long shippedThrough;
+    private AuditSegmentWriter writer;
+    private Thread worker;
+
+    public AuditLog(
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.audit.dir:data/audit}") Path dir,
+            @Value("${fittrack.audit.segment-size:64MB}") DataSize segmentSize,
+            @Value("${fittrack.audit.retain-segments:16}") int retainSegments,
+            @Value("${fittrack.audit.fsync-interval:1s}") Duration fsyncInterval,
+            @Value("${fittrack.audit.ring-capacity:65536}") int ringCapacity,
+            @Value("${fittrack.audit.ship.enabled:true}") boolean shipping) {
+        this.dir = dir;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.retainSegments = retainSegments;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.ring = new AuditRing(ringCapacity);
+        // Without shipping, segments past the retained ones are simply deleted
+        this.shippedThrough = shipping ? 0 : Long.MAX_VALUE;
+        this.written = recordCounter(meterRegistry, "written");
+        this.dropped = recordCounter(meterRegistry, "dropped");
+        this.failed = recordCounter(meterRegistry, "failed");
+        Gauge.builder("fittrack.audit.ring.size", ring, AuditRing::size)
+                .register(meterRegistry);
+        Gauge.builder("fittrack.audit.unshipped", this, log -> Math.max(0, log.lastSequence - log.shippedThrough))
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            writer = new AuditSegmentWriter(dir, segmentSize, retainSegments, () -> shippedThrough);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit log in " + dir.toAbsolutePath(), e);
+        }
+        lastSequence = writer.getLastSequence();
+        running = true;
+        worker = new Thread(this::writeLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Writes and flushes what is already queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void succeeded(AuditAction action, Long userId, String email) {
+        record(action, null, userId, email);
+    }
+
+    /**
+     * @param reason why it failed, usually the {@code ErrorCode} name
+     */
+    public void failed(AuditAction action, Long userId, String email, String reason) {
+        record(action, reason, userId, email);
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    public UUID getLogId() {
+        return writer.getLogId();
+    }
+
+    // Lets segments up to this sequence be deleted once they are old enough
+    public void setShippedThrough(long sequence) {
+        shippedThrough = sequence;
+    }
+
+    private void record(AuditAction action, String failure, Long userId, String email) {
+        AuditRecord record = new AuditRecord(0, Instant.now(), action, failure, userId,
+                email == null ? null : email.toLowerCase().trim(), clientAddress());
+        if (!ring.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        while (running || ring.size() > 0) {
+            AuditRecord record = ring.poll();
+            if (record != null) {
+                try {
+                    lastSequence = writer.append(record);
+                    written.increment();
+                } catch (IOException | RuntimeException e) {
+                    failed.increment();
+                    System.err.println("Failed to append audit record: " + e.getMessage());
+                }
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                force();
+                lastForce = System.nanoTime();
+            }
+        }
+        force();
+    }
+
+    private void force() {
+        try {
+            writer.force();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to flush audit log: " + e.getMessage());
+        }
+    }
+
+    private static String clientAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getRemoteAddr() : null;
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fittrack.audit.records")
+                .description("Audit records by what became of them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
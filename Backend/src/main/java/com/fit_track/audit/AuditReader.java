@@ -0,0 +1,155 @@
+package com.fit_track.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads an audit log in sequence order, from its files alone; safe to use
+ * while the log is being written, and picks up records as they are
+ * appended.
+ *
+ * <p>Also a command-line query tool for a log directory, e.g. on a node
+ * whose database is unreachable:
+ * <pre>
+ * java -Dloader.main=com.fit_track.audit.AuditReader -cp fit-track.jar \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     data/audit --user 42 --action LOGIN --failures --since 2026-10-01
+ * </pre>
+ */
+public class AuditReader {
+
+    private final Path dir;
+    private MappedByteBuffer segment;
+    // Sequence of the record at the cursor
+    private long nextSequence;
+
+    public AuditReader(Path dir) {
+        this.dir = dir;
+    }
+
+    public UUID getLogId() throws IOException {
+        return AuditFormat.readLogId(dir);
+    }
+
+    /**
+     * Moves the cursor to the first record after {@code sequence}, or to the
+     * oldest record kept when that one was already deleted.
+     */
+    public void seekAfter(long sequence) throws IOException {
+        List<Path> segments = AuditFormat.segments(dir);
+        segment = null;
+        nextSequence = sequence + 1;
+        if (segments.isEmpty()) {
+            return;
+        }
+        Path from = segments.getFirst();
+        for (Path candidate : segments) {
+            if (AuditFormat.firstSequence(candidate) <= nextSequence) {
+                from = candidate;
+            }
+        }
+        open(from);
+        skipTo(sequence + 1);
+    }
+
+    /**
+     * @return up to {@code max} records from the cursor, fewer at the end of
+     * the log
+     */
+    public List<AuditRecord> read(int max) throws IOException {
+        List<AuditRecord> records = new ArrayList<>(Math.min(max, 1024));
+        if (segment == null && !openSegmentStartingAt(nextSequence)) {
+            return records;
+        }
+        while (records.size() < max) {
+            AuditRecord record = AuditFormat.decode(segment, nextSequence);
+            if (record == null) {
+                // The end of this segment's records, or of the log
+                if (!openSegmentStartingAt(nextSequence)) {
+                    break;
+                }
+                continue;
+            }
+            records.add(record);
+            nextSequence++;
+        }
+        return records;
+    }
+
+    // Reads past records before the target, stopping early at the end of the segment
+    private void skipTo(long target) {
+        while (nextSequence < target && AuditFormat.decode(segment, nextSequence) != null) {
+            nextSequence++;
+        }
+    }
+
+    private boolean openSegmentStartingAt(long sequence) throws IOException {
+        Path path = AuditFormat.segmentPath(dir, sequence);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        open(path);
+        return true;
+    }
+
+    private void open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        AuditFormat.checkSegmentHeader(segment, path);
+        nextSequence = AuditFormat.firstSequence(path);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditReader <dir> [--since yyyy-mm-dd] [--user id] [--email address]"
+                    + " [--action ACTION] [--failures]");
+            System.exit(2);
+        }
+        Instant since = null;
+        Long userId = null;
+        String email = null;
+        AuditAction action = null;
+        boolean failuresOnly = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--since" -> since = LocalDate.parse(args[++i]).atStartOfDay(ZoneId.systemDefault()).toInstant();
+                case "--user" -> userId = Long.parseLong(args[++i]);
+                case "--email" -> email = args[++i].toLowerCase().trim();
+                case "--action" -> action = AuditAction.valueOf(args[++i]);
+                case "--failures" -> failuresOnly = true;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        AuditReader reader = new AuditReader(Path.of(args[0]));
+        System.out.println("# log " + reader.getLogId());
+        reader.seekAfter(0);
+        List<AuditRecord> records;
+        do {
+            records = reader.read(10_000);
+            for (AuditRecord r : records) {
+                if ((since == null || !r.occurredAt().isBefore(since))
+                        && (userId == null || userId.equals(r.userId()))
+                        && (email == null || email.equals(r.email()))
+                        && (action == null || action == r.action())
+                        && (!failuresOnly || !r.succeeded())) {
+                    System.out.println(r.sequence() + "\t" + r.occurredAt() + "\t" + r.action() + "\t"
+                            + (r.succeeded() ? "OK" : r.failure()) + "\t" + (r.userId() == null ? "-" : r.userId())
+                            + "\t" + (r.email() == null ? "-" : r.email())
+                            + "\t" + (r.address() == null ? "-" : r.address()));
+                }
+            }
+        } while (!records.isEmpty());
+    }
+}
@@ -0,0 +1,21 @@
+package com.fit_track.audit;
+
+import java.time.Instant;
+
+/**
+ * One audited auth operation.
+ *
+ * @param sequence position in this instance's log, from 1; 0 until written
+ * @param failure  why the operation failed, usually an {@code ErrorCode}
+ *                 name; null when it succeeded
+ * @param userId   null when the user is unknown, e.g. a login for an
+ *                 unregistered email
+ * @param address  client IP address, null when not known
+ */
+public record AuditRecord(long sequence, Instant occurredAt, AuditAction action, String failure, Long userId,
+                          String email, String address) {
+
+    public boolean succeeded() {
+        return failure == null;
+    }
+}
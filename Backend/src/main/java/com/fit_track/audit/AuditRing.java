@@ -0,0 +1,56 @@
+package com.fit_track.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded hand-off from request threads to the single writer. Producers
+ * claim a slot with one compare-and-set on the tail and publish into it;
+ * the consumer reads slots in order and frees them. Nothing blocks: a full
+ * ring refuses the record.
+ */
+final class AuditRing {
+
+    private final AtomicReferenceArray<AuditRecord> slots;
+    private final int mask;
+    // Next slot to claim
+    private final AtomicLong tail = new AtomicLong();
+    // Next slot to read; only the consumer writes it
+    private volatile long head;
+
+    // Capacity is rounded up to a power of two
+    AuditRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(AuditRecord record) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.setRelease((int) claimed & mask, record);
+        return true;
+    }
+
+    // Consumer only. Null when empty, or while the next producer is still publishing
+    AuditRecord poll() {
+        long next = head;
+        int slot = (int) next & mask;
+        AuditRecord record = slots.getAcquire(slot);
+        if (record == null) {
+            return null;
+        }
+        slots.setRelease(slot, null);
+        head = next + 1;
+        return record;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,138 @@
+package com.fit_track.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Appends records to the memory-mapped tail segment of an audit log. Not
+ * thread-safe: {@link AuditLog} gives it a thread of its own.
+ *
+ * <p>Segments are created at full size, so appending is a copy into mapped
+ * memory and never grows a file. Opening an existing log continues after
+ * its last intact record, overwriting whatever a crash left behind it.
+ * When a segment fills up it is flushed and a new one started; the oldest
+ * segments beyond {@code retainSegments} are deleted once shipped.
+ */
+final class AuditSegmentWriter {
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int retainSegments;
+    private final LongSupplier shippedThrough;
+    private final UUID logId;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    // Bytes of the current segment known to be on disk
+    private int forcedThrough;
+
+    /**
+     * @param shippedThrough last sequence that is safe to delete
+     */
+    AuditSegmentWriter(Path dir, int segmentSize, int retainSegments, LongSupplier shippedThrough)
+            throws IOException {
+        if (segmentSize < AuditFormat.SEGMENT_HEADER_BYTES + AuditFormat.MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Audit segments must hold at least one record");
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.retainSegments = Math.max(1, retainSegments);
+        this.shippedThrough = shippedThrough;
+
+        Files.createDirectories(dir);
+        List<Path> segments = AuditFormat.segments(dir);
+        UUID existing = AuditFormat.readLogId(dir);
+        // An empty log restarts at sequence 1, so it must not reuse an id whose records may be shipped
+        this.logId = existing != null && !segments.isEmpty() ? existing : AuditFormat.createLogId(dir);
+        if (segments.isEmpty()) {
+            startSegment(1);
+        } else {
+            Path last = segments.getLast();
+            segment = map(last);
+            AuditFormat.checkSegmentHeader(segment, last);
+            long sequence = AuditFormat.firstSequence(last);
+            while (AuditFormat.decode(segment, sequence) != null) {
+                sequence++;
+            }
+            nextSequence = sequence;
+            forcedThrough = segment.position();
+        }
+    }
+
+    UUID getLogId() {
+        return logId;
+    }
+
+    // Sequence of the last record written, 0 when there is none
+    long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    long append(AuditRecord record) throws IOException {
+        if (!AuditFormat.encode(segment, nextSequence, record)) {
+            rotate();
+            AuditFormat.encode(segment, nextSequence, record);
+        }
+        return nextSequence++;
+    }
+
+    // Flushes what was appended since the last call
+    void force() {
+        int position = segment.position();
+        if (position > forcedThrough) {
+            segment.force(forcedThrough, position - forcedThrough);
+            forcedThrough = position;
+        }
+    }
+
+    private void rotate() throws IOException {
+        force();
+        startSegment(nextSequence);
+        deleteShippedSegments();
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        Path path = AuditFormat.segmentPath(dir, firstSequence);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(AuditFormat.SEGMENT_HEADER_BYTES);
+            AuditFormat.putSegmentHeader(header, firstSequence);
+            channel.write(header.flip());
+            // Sized up front; the rest reads as zeros, which is "no record"
+            channel.write(ByteBuffer.allocate(1), segmentSize - 1);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        segment = map(path);
+        segment.position(AuditFormat.SEGMENT_HEADER_BYTES);
+        forcedThrough = AuditFormat.SEGMENT_HEADER_BYTES;
+        nextSequence = firstSequence;
+    }
+
+    private void deleteShippedSegments() throws IOException {
+        List<Path> segments = AuditFormat.segments(dir);
+        long shipped = shippedThrough.getAsLong();
+        for (int i = 0; i < segments.size() - retainSegments; i++) {
+            // Its last record is the one before the next segment's first
+            if (AuditFormat.firstSequence(segments.get(i + 1)) - 1 > shipped) {
+                break;
+            }
+            Files.delete(segments.get(i));
+        }
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+}
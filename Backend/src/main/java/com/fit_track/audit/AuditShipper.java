@@ -0,0 +1,68 @@
+package com.fit_track.audit;
+
+import com.fit_track.repository.AuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Copies this instance's audit log to the auth_audit_log table. Resumes
+ * after the highest sequence the table holds for the log, so neither a
+ * restart nor a failed batch loses or duplicates records; segments are only
+ * deleted locally once shipped.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fittrack.audit.ship", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditShipper {
+
+    private final AuditLog auditLog;
+    private final AuditRepository auditRepository;
+    private final int batchSize;
+    private final Counter shipped;
+    private AuditReader reader;
+
+    public AuditShipper(
+            AuditLog auditLog,
+            AuditRepository auditRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.audit.ship.batch-size:1000}") int batchSize) {
+        this.auditLog = auditLog;
+        this.auditRepository = auditRepository;
+        this.batchSize = batchSize;
+        this.shipped = Counter.builder("fittrack.audit.shipped")
+                .description("Audit records copied to the database")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${fittrack.audit.ship.interval:PT5S}")
+    public synchronized void ship() {
+        UUID logId = auditLog.getLogId();
+        try {
+            if (reader == null) {
+                long shippedThrough = auditRepository.findShippedThrough(logId);
+                auditLog.setShippedThrough(shippedThrough);
+                reader = new AuditReader(auditLog.getDir());
+                reader.seekAfter(shippedThrough);
+            }
+            List<AuditRecord> records;
+            do {
+                records = reader.read(batchSize);
+                if (!records.isEmpty()) {
+                    auditRepository.saveAll(logId, records);
+                    shipped.increment(records.size());
+                    auditLog.setShippedThrough(records.getLast().sequence());
+                }
+            } while (records.size() == batchSize);
+        } catch (Exception e) {
+            // Start over from what the table holds
+            reader = null;
+            System.err.println("Audit log shipping failed: " + e.getMessage());
+        }
+    }
+}
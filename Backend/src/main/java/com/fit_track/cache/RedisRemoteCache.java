@@ -0,0 +1,55 @@
+package com.fit_track.cache;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Shared tier on Redis: values are plain keys with a TTL, invalidations go
+ * over pub/sub.
+ */
+public class RedisRemoteCache implements RemoteCache {
+
+    private final RedisTemplate<String, byte[]> values;
+    private final StringRedisTemplate messages;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisRemoteCache(RedisTemplate<String, byte[]> values, StringRedisTemplate messages,
+                            RedisMessageListenerContainer listenerContainer) {
+        this.values = values;
+        this.messages = messages;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return values.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        values.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public void delete(String key) {
+        values.delete(key);
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        messages.convertAndSend(channel, message);
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+    }
+}
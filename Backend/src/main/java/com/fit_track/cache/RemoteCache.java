@@ -0,0 +1,22 @@
+package com.fit_track.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Second-tier cache shared by every node, plus the channel used to tell the
+ * other nodes to drop their local copies. Backed by Redis in multi-node
+ * deployments and by {@link LocalRemoteCache} otherwise.
+ */
+public interface RemoteCache {
+
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void delete(String key);
+
+    void publish(String channel, String message);
+
+    void subscribe(String channel, Consumer<String> listener);
+}
@@ -0,0 +1,174 @@
+package com.fit_track.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache with a node-local Caffeine tier in front of the shared
+ * {@link RemoteCache}. Concurrent misses for one key on a node share a single
+ * load. Created and invalidated through {@link TieredCacheManager}, which
+ * propagates invalidations to every node.
+ */
+public final class TieredCache<V> {
+
+    private final String name;
+    private final Class<V> type;
+    private final Cache<String, V> local;
+    private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on every invalidation: a load that overlapped one may have read stale data
+    private final AtomicLong invalidations = new AtomicLong();
+    private final RemoteCache remote;
+    private final Duration remoteTtl;
+    private final ObjectMapper objectMapper;
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter remoteErrors;
+
+    TieredCache(String name, Class<V> type, Duration localTtl, Duration remoteTtl, long maximumSize,
+                RemoteCache remote, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.local = Caffeine.newBuilder()
+                .expireAfterWrite(localTtl)
+                .maximumSize(maximumSize)
+                .build();
+        this.remote = remote;
+        this.remoteTtl = remoteTtl;
+        this.objectMapper = objectMapper;
+
+        this.localHits = requests(meterRegistry, "l1_hit");
+        this.remoteHits = requests(meterRegistry, "l2_hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.coalesced = requests(meterRegistry, "coalesced");
+        this.remoteErrors = Counter.builder("fittrack.cache.remote.errors")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss. A {@code null} from the
+     * loader is returned but not cached.
+     */
+    public V get(String key, Function<String, V> loader) {
+        V cached = local.getIfPresent(key);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            V value = load(key, loader);
+            created.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Coalesced callers are joined on this future, so an Error has to reach them as well
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private V load(String key, Function<String, V> loader) {
+        long generation = invalidations.get();
+
+        V value = readRemote(key);
+        if (value != null) {
+            remoteHits.increment();
+        } else {
+            misses.increment();
+            value = loader.apply(key);
+            if (value == null) {
+                return null;
+            }
+            if (invalidations.get() == generation) {
+                writeRemote(key, value);
+            }
+        }
+
+        if (invalidations.get() == generation) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    void invalidateLocal(String key) {
+        invalidations.incrementAndGet();
+        local.invalidate(key);
+    }
+
+    void invalidateRemote(String key) {
+        try {
+            remote.delete(remoteKey(key));
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            System.err.println("Failed to invalidate " + remoteKey(key) + ": " + e.getMessage());
+        }
+    }
+
+    // The shared tier is an optimization: when it is unreachable, fall back to the loader
+    private V readRemote(String key) {
+        try {
+            byte[] bytes = remote.get(remoteKey(key));
+            return bytes != null ? objectMapper.readValue(bytes, type) : null;
+        } catch (IOException | RuntimeException e) {
+            remoteErrors.increment();
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, V value) {
+        try {
+            remote.put(remoteKey(key), objectMapper.writeValueAsBytes(value), remoteTtl);
+        } catch (IOException | RuntimeException e) {
+            remoteErrors.increment();
+        }
+    }
+
+    private String remoteKey(String key) {
+        return "fittrack:" + name + ":" + key;
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fittrack.cache.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,120 @@
+package com.fit_track.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Owns the {@link TieredCache}s of this node and the invalidation channel
+ * between nodes. An invalidation drops the shared entry and is broadcast so
+ * every other node drops its local copy; plain node-local caches (such as
+ * {@code TokenVersionCache}) can listen on the same channel by name.
+ *
+ * <p>The shared entry is deleted a second time after {@code second-delete-delay}:
+ * a node that loaded the old row just before the change may only hear of the
+ * invalidation after writing its copy back to the shared tier.
+ */
+@Component
+public class TieredCacheManager {
+
+    static final String CHANNEL = "fittrack:cache:invalidate";
+
+    private final RemoteCache remote;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration secondDeleteDelay;
+    private final ScheduledExecutorService secondDeletes = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-second-delete").daemon().factory());
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TieredCache<?>> caches = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(RemoteCache remote, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(remote, objectMapper, meterRegistry, Duration.ofSeconds(2));
+    }
+
+    @Autowired
+    public TieredCacheManager(
+            RemoteCache remote,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.cache.second-delete-delay:2s}") Duration secondDeleteDelay) {
+        this.remote = remote;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.secondDeleteDelay = secondDeleteDelay;
+        remote.subscribe(CHANNEL, this::onInvalidation);
+    }
+
+    @PreDestroy
+    public void stop() {
+        secondDeletes.shutdownNow();
+    }
+
+    public <V> TieredCache<V> create(String name, Class<V> type, Duration localTtl, Duration remoteTtl,
+                                     long maximumSize) {
+        TieredCache<V> cache = new TieredCache<>(name, type, localTtl, remoteTtl, maximumSize,
+                remote, objectMapper, meterRegistry);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Cache '" + name + "' already exists");
+        }
+        return cache;
+    }
+
+    /**
+     * Called with the key whenever any node invalidates {@code name}.
+     */
+    public void addListener(String name, Consumer<String> listener) {
+        listeners.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void invalidate(String name, String key) {
+        TieredCache<?> cache = caches.get(name);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+            cache.invalidateRemote(key);
+            secondDeletes.schedule(() -> cache.invalidateRemote(key),
+                    secondDeleteDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        notifyListeners(name, key);
+
+        try {
+            remote.publish(CHANNEL, nodeId + '\t' + name + '\t' + key);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to publish invalidation of " + name + ":" + key + ": " + e.getMessage());
+        }
+    }
+
+    private void onInvalidation(String message) {
+        String[] parts = message.split("\t", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+
+        TieredCache<?> cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts[2]);
+        }
+        notifyListeners(parts[1], parts[2]);
+    }
+
+    private void notifyListeners(String name, String key) {
+        for (Consumer<String> listener : listeners.getOrDefault(name, List.of())) {
+            listener.accept(key);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.fit_track.cache;
+
+import com.fit_track.event.UserChangedEvent;
+import com.fit_track.security.TokenVersionCache;
+import com.fit_track.service.UserProfileCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops every cached copy of a changed user on all nodes. Runs after commit,
+ * so a node reloading on the invalidation sees the new row.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    @Autowired
+    private TieredCacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cacheManager.invalidate(UserProfileCache.CACHE_NAME, event.email());
+        cacheManager.invalidate(TokenVersionCache.CACHE_NAME, String.valueOf(event.userId()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.fit_track.config;
+
+import com.fit_track.cache.LocalRemoteCache;
+import com.fit_track.cache.RedisRemoteCache;
+import com.fit_track.cache.RemoteCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Picks the shared cache tier: Redis with {@code fittrack.cache.remote=redis},
+ * otherwise an in-process stand-in suitable for a single node.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "fittrack.cache", name = "remote", havingValue = "local", matchIfMissing = true)
+    public RemoteCache localRemoteCache() {
+        return new LocalRemoteCache();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "fittrack.cache", name = "remote", havingValue = "redis")
+    static class RedisCacheConfig {
+
+        @Bean
+        RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        RemoteCache redisRemoteCache(RedisConnectionFactory connectionFactory, StringRedisTemplate messages,
+                                     RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+            RedisTemplate<String, byte[]> values = new RedisTemplate<>();
+            values.setConnectionFactory(connectionFactory);
+            values.setKeySerializer(RedisSerializer.string());
+            values.setValueSerializer(RedisSerializer.byteArray());
+            values.afterPropertiesSet();
+            return new RedisRemoteCache(values, messages, cacheInvalidationListenerContainer);
+        }
+    }
+}
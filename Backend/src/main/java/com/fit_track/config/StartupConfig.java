@@ -0,0 +1,24 @@
+package com.fit_track.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Keeps work that no request needs out of context refresh. The auto-configured
+ * mail sender is marked lazy so Jakarta Mail is only loaded when the first
+ * email goes out.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static BeanFactoryPostProcessor lazyMailSender() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanNamesForType(JavaMailSender.class, true, false)) {
+                beanFactory.getBeanDefinition(name).setLazyInit(true);
+            }
+        };
+    }
+}
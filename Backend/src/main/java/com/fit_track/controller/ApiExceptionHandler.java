@@ -0,0 +1,97 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.response.JsonBodies;
+import com.fit_track.exception.ApiException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.reactive.ReactiveAuthController;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.stream.Collectors;
+
+
+/**
+ * Maps failures to JSON error bodies for the API controllers, servlet and
+ * reactive. Known failures carry a stable {@link ErrorCode}; other invalid
+ * input is a 400 listing the violated constraints, or with a fixed message.
+ * Anything else is a bug or an outage: it is logged and answered with a
+ * generic 500, never with the exception's own message.
+ */
+@RestControllerAdvice(assignableTypes = {AuthController.class, ReactiveAuthController.class, LogController.class,
+        DashboardController.class, SyncController.class, StreakController.class, ForecastController.class,
+        MealPlanController.class, ProgressController.class, LeaderboardController.class,
+        CohortController.class})
+public class ApiExceptionHandler {
+
+    private static final byte[] INVALID_REQUEST = JsonBodies.error("Invalid request");
+    private static final byte[] MALFORMED_REQUEST = JsonBodies.error("Malformed request body");
+    private static final byte[] INTERNAL_ERROR = JsonBodies.error("Internal server error");
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<byte[]> handleApiException(ApiException e) {
+        ErrorCode errorCode = e.getErrorCode();
+        return json(errorCode.getStatus(), errorCode.getBody());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<byte[]> handleConstraintViolation(ConstraintViolationException e) {
+        String message = e.getConstraintViolations().stream()
+                .map(violation -> leafName(violation.getPropertyPath()) + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return json(HttpStatus.BAD_REQUEST, JsonBodies.error(message));
+    }
+
+    // Rejected input the services did not give an ErrorCode; the message may come from a library
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleInvalidInput(IllegalArgumentException e) {
+        return json(HttpStatus.BAD_REQUEST, INVALID_REQUEST);
+    }
+
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(TypeMismatchException e) {
+        return json(HttpStatus.BAD_REQUEST, JsonBodies.error("Invalid value for '" + e.getPropertyName() + "'"));
+    }
+
+    // The parser's message describes our classes, not the client's mistake
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleUnreadableBody(HttpMessageNotReadableException e) {
+        return json(HttpStatus.BAD_REQUEST, MALFORMED_REQUEST);
+    }
+
+    // Spring's own failures, such as reactive binding errors, already know their status
+    @ExceptionHandler(ErrorResponseException.class)
+    public ResponseEntity<byte[]> handleErrorResponse(ErrorResponseException e) {
+        String detail = e.getBody().getDetail();
+        return json(e.getStatusCode(), JsonBodies.error(detail != null ? detail : e.getBody().getTitle()));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<byte[]> handleRuntimeException(RuntimeException e) {
+        System.err.println("Unhandled error in API request: " + e);
+        return json(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_ERROR);
+    }
+
+    private static String leafName(Path path) {
+        String name = null;
+        for (Path.Node node : path) {
+            name = node.getName();
+        }
+        return name;
+    }
+
+    private static ResponseEntity<byte[]> json(HttpStatusCode status, byte[] body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
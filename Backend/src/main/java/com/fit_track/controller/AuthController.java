@@ -2,14 +2,22 @@ package com.fit_track.controller;
 
 import com.fit_track.dto.request.LoginRequest;
 import com.fit_track.dto.request.OnboardingRequest;
+import com.fit_track.dto.request.RefreshTokenRequest;
 import com.fit_track.dto.request.RegisterRequest;
 import com.fit_track.dto.request.VerifyEmailRequest;
 import com.fit_track.dto.response.AuthResponse;
+import com.fit_track.dto.response.CurrentUserResponse;
+import com.fit_track.dto.response.JsonBodies;
 import com.fit_track.dto.response.RegisterResponse;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.security.JwtPrincipal;
 import com.fit_track.service.AuthService;
 import com.fit_track.service.JwtService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,9 +26,11 @@ import org.springframework.web.bind.annotation.*;
 import java.util.Map;
 
 
+// Failures are mapped to error bodies by ApiExceptionHandler
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
 
     @Autowired
@@ -30,80 +40,65 @@ public class AuthController {
     private JwtService jwtService;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        try {
-            RegisterResponse response = authService.register(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<RegisterResponse> register(
+            @Valid @RequestBody RegisterRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(authService.register(request, idempotencyKey));
     }
 
     @PostMapping("/verify-email")
-    public ResponseEntity<?> verifyEmail(@Valid @RequestBody VerifyEmailRequest request) {
-        try {
-            AuthResponse response = authService.verifyEmail(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<AuthResponse> verifyEmail(@Valid @RequestBody VerifyEmailRequest request) {
+        return ResponseEntity.ok(authService.verifyEmail(request));
     }
 
     @PostMapping("/onboarding")
-    public ResponseEntity<?> completeOnboarding(@Valid @RequestBody OnboardingRequest request) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String userEmail = authentication.getName();
-
-            AuthResponse response = authService.completeOnboarding(request, userEmail);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<AuthResponse> completeOnboarding(@Valid @RequestBody OnboardingRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String userEmail = authentication.getName();
+
+        return ResponseEntity.ok(authService.completeOnboarding(request, userEmail));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+        return ResponseEntity.ok(authService.login(request));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<byte[]> logout() {
+        authService.logout(JwtPrincipal.current().getId());
+        return message("Logged out");
     }
 
     @PostMapping("/resend-verification")
-    public ResponseEntity<?> resendVerificationCode(@RequestBody Map<String, String> request) {
-        try {
-            String email = request.get("email");
-            if (email == null || email.trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Email is required"));
-            }
-
-            authService.resendVerificationCode(email);
-            return ResponseEntity.ok(Map.of("message", "Verification code sent successfully"));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", e.getMessage()));
+    public ResponseEntity<byte[]> resendVerificationCode(@RequestBody Map<String, String> request) {
+        String email = request.get("email");
+        if (email == null || email.trim().isEmpty()) {
+            throw new AuthException(ErrorCode.EMAIL_REQUIRED);
         }
+
+        authService.resendVerificationCode(email);
+        return message("Verification code sent successfully");
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String userEmail = authentication.getName();
+    public ResponseEntity<CurrentUserResponse> getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new AuthException(ErrorCode.CURRENT_USER_UNAVAILABLE);
+        }
 
+        return ResponseEntity.ok(new CurrentUserResponse(authentication.getName()));
+    }
 
-            return ResponseEntity.ok(Map.of("email", userEmail));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Unable to get current user"));
-        }
+    private static ResponseEntity<byte[]> message(String message) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonBodies.message(message));
     }
-}
\ No newline at end of file
+}
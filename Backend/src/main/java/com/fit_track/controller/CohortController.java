@@ -0,0 +1,44 @@
+package com.fit_track.controller;
+
+import com.fit_track.analytics.AgeBand;
+import com.fit_track.analytics.Attribute;
+import com.fit_track.analytics.CohortFilter;
+import com.fit_track.dto.response.CohortResponse;
+import com.fit_track.entity.User;
+import com.fit_track.service.CohortService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Admin only, see SecurityConfig. Repeat a parameter to allow several values
+@RestController
+@RequestMapping("/api/admin/cohorts")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CohortController {
+
+    @Autowired
+    private CohortService cohortService;
+
+    @GetMapping
+    public ResponseEntity<CohortResponse> getCohort(
+            @RequestParam(required = false) List<User.Goal> goal,
+            @RequestParam(required = false) List<User.ActivityLevel> activityLevel,
+            @RequestParam(required = false) List<User.Gender> gender,
+            @RequestParam(required = false) List<AgeBand> ageBand,
+            @RequestParam(required = false) Boolean emailVerified,
+            @RequestParam(required = false) Boolean profileCompleted,
+            @RequestParam(required = false) Attribute by) {
+        CohortFilter filter = CohortFilter.ALL
+                .with(Attribute.GOAL, goal)
+                .with(Attribute.ACTIVITY_LEVEL, activityLevel)
+                .with(Attribute.GENDER, gender)
+                .with(Attribute.AGE_BAND, ageBand)
+                .with(Attribute.EMAIL_VERIFIED, emailVerified)
+                .with(Attribute.PROFILE_COMPLETED, profileCompleted);
+        return ResponseEntity.ok(cohortService.getCohort(filter, by));
+    }
+}
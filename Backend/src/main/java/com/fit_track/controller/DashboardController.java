@@ -0,0 +1,41 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.response.DashboardResponse;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.DashboardService;
+import com.fit_track.service.DashboardStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+// All dashboard tiles behind one authenticated request
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        JwtPrincipal principal = JwtPrincipal.current();
+        return ResponseEntity.ok(dashboardService.getDashboard(principal.getId(), principal.getEmail()));
+    }
+
+    // Tile deltas as server-sent events; load GET /api/dashboard first, then apply them
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        JwtPrincipal principal = JwtPrincipal.current();
+        return dashboardStreamService.subscribe(principal.getId(), principal.getTokenVersion(),
+                principal.getExpiresAt());
+    }
+}
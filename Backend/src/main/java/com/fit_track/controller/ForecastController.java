@@ -0,0 +1,26 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.response.ForecastResponse;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.ForecastService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@RequestMapping("/api/forecast")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ForecastController {
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @GetMapping
+    public ResponseEntity<ForecastResponse> getForecast() {
+        JwtPrincipal principal = JwtPrincipal.current();
+        return ResponseEntity.ok(forecastService.getForecast(principal.getId(), principal.getEmail()));
+    }
+}
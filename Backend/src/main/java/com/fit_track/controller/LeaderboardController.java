@@ -0,0 +1,61 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.request.FriendRequest;
+import com.fit_track.dto.response.FriendRequestResponse;
+import com.fit_track.dto.response.LeaderboardResponse;
+import com.fit_track.leaderboard.Board;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.LeaderboardService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @GetMapping("/{board}")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(
+            @PathVariable Board board,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(JwtPrincipal.current().getId(), board, limit));
+    }
+
+    @GetMapping("/{board}/friends")
+    public ResponseEntity<LeaderboardResponse> getFriendsLeaderboard(@PathVariable Board board) {
+        return ResponseEntity.ok(leaderboardService.getFriends(JwtPrincipal.current().getId(), board));
+    }
+
+    @PostMapping("/friends")
+    public ResponseEntity<Void> addFriend(@Valid @RequestBody FriendRequest request) {
+        leaderboardService.addFriend(JwtPrincipal.current().getId(), request.getEmail());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/friends/requests")
+    public ResponseEntity<List<FriendRequestResponse>> getFriendRequests() {
+        return ResponseEntity.ok(leaderboardService.getFriendRequests(JwtPrincipal.current().getId()));
+    }
+
+    @PostMapping("/friends/{friendId}/accept")
+    public ResponseEntity<Void> acceptFriend(@PathVariable Long friendId) {
+        return leaderboardService.acceptFriend(JwtPrincipal.current().getId(), friendId)
+                ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/friends/{friendId}")
+    public ResponseEntity<Void> removeFriend(@PathVariable Long friendId) {
+        return leaderboardService.removeFriend(JwtPrincipal.current().getId(), friendId)
+                ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.request.FoodLogRequest;
+import com.fit_track.dto.request.WeighInRequest;
+import com.fit_track.dto.request.WorkoutSetRequest;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.LogService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+// Failures are mapped to error bodies by ApiExceptionHandler
+@RestController
+@RequestMapping("/api/logs")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LogController {
+
+    @Autowired
+    private LogService logService;
+
+    @PostMapping("/food")
+    public ResponseEntity<FoodLog> logFood(@Valid @RequestBody FoodLogRequest request) {
+        return ResponseEntity.ok(logService.logFood(JwtPrincipal.current().getId(), request));
+    }
+
+    @GetMapping("/food")
+    public ResponseEntity<List<FoodLog>> getFoodLogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(logService.getFoodLogs(JwtPrincipal.current().getId(), from, to));
+    }
+
+    @DeleteMapping("/food/{id}")
+    public ResponseEntity<Void> deleteFoodLog(@PathVariable Long id) {
+        return deleted(logService.deleteFoodLog(JwtPrincipal.current().getId(), id));
+    }
+
+    @PostMapping("/workouts")
+    public ResponseEntity<WorkoutSet> logWorkoutSet(@Valid @RequestBody WorkoutSetRequest request) {
+        return ResponseEntity.ok(logService.logWorkoutSet(JwtPrincipal.current().getId(), request));
+    }
+
+    @GetMapping("/workouts")
+    public ResponseEntity<List<WorkoutSet>> getWorkoutSets(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(logService.getWorkoutSets(JwtPrincipal.current().getId(), from, to));
+    }
+
+    @DeleteMapping("/workouts/{id}")
+    public ResponseEntity<Void> deleteWorkoutSet(@PathVariable Long id) {
+        return deleted(logService.deleteWorkoutSet(JwtPrincipal.current().getId(), id));
+    }
+
+    @PutMapping("/weigh-ins")
+    public ResponseEntity<WeighIn> logWeighIn(@Valid @RequestBody WeighInRequest request) {
+        return ResponseEntity.ok(logService.logWeighIn(JwtPrincipal.current().getId(), request));
+    }
+
+    @GetMapping("/weigh-ins")
+    public ResponseEntity<List<WeighIn>> getWeighIns(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(logService.getWeighIns(JwtPrincipal.current().getId(), from, to));
+    }
+
+    @DeleteMapping("/weigh-ins/{measuredOn}")
+    public ResponseEntity<Void> deleteWeighIn(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate measuredOn) {
+        return deleted(logService.deleteWeighIn(JwtPrincipal.current().getId(), measuredOn));
+    }
+
+    private static ResponseEntity<Void> deleted(boolean deleted) {
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
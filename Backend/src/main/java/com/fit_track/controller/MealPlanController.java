@@ -0,0 +1,33 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.response.MealPlanResponse;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.MealPlanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/api/meal-plan")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MealPlanController {
+
+    @Autowired
+    private MealPlanService mealPlanService;
+
+    @GetMapping
+    public ResponseEntity<MealPlanResponse> getDayPlan() {
+        return ResponseEntity.ok(mealPlanService.getDayPlan(JwtPrincipal.current().getEmail()));
+    }
+
+    // Monday to Sunday of the current week
+    @GetMapping("/week")
+    public ResponseEntity<List<MealPlanResponse>> getWeekPlan() {
+        return ResponseEntity.ok(mealPlanService.getWeekPlan(JwtPrincipal.current().getEmail()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.response.ProgressResponse;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.ProgressService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@RequestMapping("/api/progress")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProgressController {
+
+    @Autowired
+    private ProgressService progressService;
+
+    @GetMapping
+    public ResponseEntity<ProgressResponse> getProgress() {
+        return ResponseEntity.ok(progressService.getProgress(JwtPrincipal.current().getId()));
+    }
+}
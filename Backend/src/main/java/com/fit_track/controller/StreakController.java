@@ -0,0 +1,25 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.response.StreakResponse;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.StreakService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@RequestMapping("/api/streaks")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StreakController {
+
+    @Autowired
+    private StreakService streakService;
+
+    @GetMapping
+    public ResponseEntity<StreakResponse> getStreaks() {
+        return ResponseEntity.ok(streakService.getStreaks(JwtPrincipal.current().getId()));
+    }
+}
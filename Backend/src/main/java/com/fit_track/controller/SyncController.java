@@ -0,0 +1,36 @@
+package com.fit_track.controller;
+
+import com.fit_track.dto.request.SyncUploadRequest;
+import com.fit_track.dto.response.SyncResponse;
+import com.fit_track.dto.response.SyncUploadResponse;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.service.SyncService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+// Delta sync: pull with GET ?since=<last seq>, adding &resync=true while paging through
+// a pull from 0 or a reset; push offline edits with POST
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncResponse> pull(@RequestParam(defaultValue = "0") long since,
+                                             @RequestParam(defaultValue = "false") boolean resync) {
+        return ResponseEntity.ok(syncService.changesSince(JwtPrincipal.current().getId(), since, resync));
+    }
+
+    @PostMapping
+    public ResponseEntity<SyncUploadResponse> push(@Valid @RequestBody SyncUploadRequest request) {
+        return ResponseEntity.ok(syncService.upload(JwtPrincipal.current().getId(), request));
+    }
+}
@@ -0,0 +1,120 @@
+package com.fit_track.datasource;
+
+import com.fit_track.cache.RemoteCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary
+ * until the replica has had time to catch up.
+ *
+ * <p>Writes are announced to every node over the {@link RemoteCache}
+ * channel, so a request that lands on another node right after a write is
+ * sticky there too. A read is attributed to the user bound with
+ * {@link #readAs}, falling back to the authenticated principal; that covers
+ * unauthenticated flows such as login and work forked onto other threads.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    static final String CHANNEL = "fittrack:read-your-writes";
+
+    private static final ThreadLocal<String> boundEmail = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+    private final RemoteCache remoteCache;
+
+    public ReadYourWritesTracker(Duration stickyWindow) {
+        this(stickyWindow, null);
+    }
+
+    @Autowired
+    public ReadYourWritesTracker(
+            @Value("${fittrack.datasource.replica.sticky-window:5s}") Duration stickyWindow,
+            RemoteCache remoteCache) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(100_000)
+                .build();
+        this.remoteCache = remoteCache;
+        if (remoteCache != null) {
+            remoteCache.subscribe(CHANNEL, this::remember);
+        }
+    }
+
+    public void markWrite(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        remember(key);
+        if (remoteCache != null) {
+            try {
+                remoteCache.publish(CHANNEL, key);
+            } catch (RuntimeException e) {
+                // Other nodes may briefly read this user's writes from the replica
+                System.err.println("Failed to announce write for read-your-writes: " + e.getMessage());
+            }
+        }
+    }
+
+    // For writers that only know the user's id: attributed like a read on this thread
+    public void markCurrentUserWrite() {
+        String bound = boundEmail.get();
+        if (bound != null) {
+            markWrite(bound);
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            markWrite(authentication.getName());
+        }
+    }
+
+    public boolean isSticky(String email) {
+        return email != null && recentWriters.getIfPresent(normalize(email)) != null;
+    }
+
+    public boolean isCurrentUserSticky() {
+        String bound = boundEmail.get();
+        if (bound != null) {
+            return isSticky(bound);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && isSticky(authentication.getName());
+    }
+
+    /**
+     * Runs {@code work} with its reads attributed to {@code email}, whatever
+     * the security context of the calling thread says.
+     */
+    public <T> T readAs(String email, Supplier<T> work) {
+        String previous = boundEmail.get();
+        boundEmail.set(email);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                boundEmail.remove();
+            } else {
+                boundEmail.set(previous);
+            }
+        }
+    }
+
+    private void remember(String email) {
+        recentWriters.put(email, Boolean.TRUE);
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase().trim();
+    }
+}
@@ -0,0 +1,96 @@
+package com.fit_track.dto.request;
+
+import com.fit_track.entity.FoodLog;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+public class FoodLogRequest {
+
+    @NotNull
+    private LocalDate loggedOn;
+
+    @NotNull
+    private FoodLog.Meal meal;
+
+    @NotBlank
+    @Size(max = 120)
+    private String name;
+
+    @NotNull
+    @Min(0)
+    @Max(10000)
+    private Integer calories;
+
+    @PositiveOrZero
+    private double proteinG;
+
+    @PositiveOrZero
+    private double carbsG;
+
+    @PositiveOrZero
+    private double fatG;
+
+    public FoodLogRequest() {}
+
+    public LocalDate getLoggedOn() {
+        return loggedOn;
+    }
+
+    public void setLoggedOn(LocalDate loggedOn) {
+        this.loggedOn = loggedOn;
+    }
+
+    public FoodLog.Meal getMeal() {
+        return meal;
+    }
+
+    public void setMeal(FoodLog.Meal meal) {
+        this.meal = meal;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Integer calories) {
+        this.calories = calories;
+    }
+
+    public double getProteinG() {
+        return proteinG;
+    }
+
+    public void setProteinG(double proteinG) {
+        this.proteinG = proteinG;
+    }
+
+    public double getCarbsG() {
+        return carbsG;
+    }
+
+    public void setCarbsG(double carbsG) {
+        this.carbsG = carbsG;
+    }
+
+    public double getFatG() {
+        return fatG;
+    }
+
+    public void setFatG(double fatG) {
+        this.fatG = fatG;
+    }
+}
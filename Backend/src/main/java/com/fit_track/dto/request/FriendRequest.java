@@ -0,0 +1,21 @@
+package com.fit_track.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+public class FriendRequest {
+
+    @NotBlank
+    @Email
+    private String email;
+
+    public FriendRequest() {}
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
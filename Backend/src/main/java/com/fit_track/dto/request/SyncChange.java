@@ -0,0 +1,109 @@
+package com.fit_track.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One offline edit. {@code baseSeq} is the sequence of the row the client
+ * edited, 0 for a row it created; the change is applied only if the server
+ * row is still at that sequence. New food logs and workout sets have no
+ * {@code key}; a weigh-in is keyed by its date. Puts carry the payload
+ * matching {@code entity}.
+ */
+public class SyncChange {
+
+    @NotBlank
+    @Size(max = 64)
+    private String ref;
+
+    @NotNull
+    @Pattern(regexp = "food|workout|weigh-in")
+    private String entity;
+
+    @Size(max = 40)
+    private String key;
+
+    @PositiveOrZero
+    private long baseSeq;
+
+    private boolean deleted;
+
+    @Valid
+    private FoodLogRequest food;
+
+    @Valid
+    private WorkoutSetRequest workout;
+
+    @Valid
+    private WeighInRequest weighIn;
+
+    public SyncChange() {}
+
+    public String getRef() {
+        return ref;
+    }
+
+    public void setRef(String ref) {
+        this.ref = ref;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getBaseSeq() {
+        return baseSeq;
+    }
+
+    public void setBaseSeq(long baseSeq) {
+        this.baseSeq = baseSeq;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public FoodLogRequest getFood() {
+        return food;
+    }
+
+    public void setFood(FoodLogRequest food) {
+        this.food = food;
+    }
+
+    public WorkoutSetRequest getWorkout() {
+        return workout;
+    }
+
+    public void setWorkout(WorkoutSetRequest workout) {
+        this.workout = workout;
+    }
+
+    public WeighInRequest getWeighIn() {
+        return weighIn;
+    }
+
+    public void setWeighIn(WeighInRequest weighIn) {
+        this.weighIn = weighIn;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fit_track.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class SyncUploadRequest {
+
+    @NotNull
+    @Size(max = 500)
+    private List<@Valid @NotNull SyncChange> changes;
+
+    public SyncUploadRequest() {}
+
+    public List<SyncChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<SyncChange> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,34 @@
+package com.fit_track.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+
+public class WeighInRequest {
+
+    @NotNull
+    private LocalDate measuredOn;
+
+    @NotNull
+    @Positive
+    private Double weightKg;
+
+    public WeighInRequest() {}
+
+    public LocalDate getMeasuredOn() {
+        return measuredOn;
+    }
+
+    public void setMeasuredOn(LocalDate measuredOn) {
+        this.measuredOn = measuredOn;
+    }
+
+    public Double getWeightKg() {
+        return weightKg;
+    }
+
+    public void setWeightKg(Double weightKg) {
+        this.weightKg = weightKg;
+    }
+}
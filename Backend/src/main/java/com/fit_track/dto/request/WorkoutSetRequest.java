@@ -0,0 +1,74 @@
+package com.fit_track.dto.request;
+
+import com.fit_track.entity.WorkoutSet;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+public class WorkoutSetRequest {
+
+    @NotNull
+    private LocalDate performedOn;
+
+    @NotBlank
+    @Size(max = 80)
+    private String exercise;
+
+    @NotNull
+    private WorkoutSet.MuscleGroup muscleGroup;
+
+    @NotNull
+    @Min(1)
+    @Max(1000)
+    private Integer reps;
+
+    @PositiveOrZero
+    private double weightKg;
+
+    public WorkoutSetRequest() {}
+
+    public LocalDate getPerformedOn() {
+        return performedOn;
+    }
+
+    public void setPerformedOn(LocalDate performedOn) {
+        this.performedOn = performedOn;
+    }
+
+    public String getExercise() {
+        return exercise;
+    }
+
+    public void setExercise(String exercise) {
+        this.exercise = exercise;
+    }
+
+    public WorkoutSet.MuscleGroup getMuscleGroup() {
+        return muscleGroup;
+    }
+
+    public void setMuscleGroup(WorkoutSet.MuscleGroup muscleGroup) {
+        this.muscleGroup = muscleGroup;
+    }
+
+    public Integer getReps() {
+        return reps;
+    }
+
+    public void setReps(Integer reps) {
+        this.reps = reps;
+    }
+
+    public double getWeightKg() {
+        return weightKg;
+    }
+
+    public void setWeightKg(double weightKg) {
+        this.weightKg = weightKg;
+    }
+}
@@ -1,88 +1,21 @@
 package com.fit_track.dto.response;
 
-public class AuthResponse {
-
-    private String token;
-    private String type = "Bearer";
-    private Long id;
-    private String email;
-    private String firstName;
-    private String lastName;
-    private boolean emailVerified;
-    private boolean profileCompleted;
-
-    public AuthResponse(String token, Long id, String email, String firstName, String lastName,
-                        boolean emailVerified, boolean profileCompleted) {
-        this.token = token;
-        this.id = id;
-        this.email = email;
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.emailVerified = emailVerified;
-        this.profileCompleted = profileCompleted;
-    }
-
-    public String getToken() {
-        return token;
-    }
-
-    public void setToken(String token) {
-        this.token = token;
-    }
-
-    public String getType() {
-        return type;
-    }
-
-    public void setType(String type) {
-        this.type = type;
-    }
-
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public String getFirstName() {
-        return firstName;
-    }
-
-    public void setFirstName(String firstName) {
-        this.firstName = firstName;
-    }
-
-    public String getLastName() {
-        return lastName;
-    }
-
-    public void setLastName(String lastName) {
-        this.lastName = lastName;
-    }
-
-    public boolean isEmailVerified() {
-        return emailVerified;
-    }
-
-    public void setEmailVerified(boolean emailVerified) {
-        this.emailVerified = emailVerified;
-    }
-
-    public boolean isProfileCompleted() {
-        return profileCompleted;
-    }
-
-    public void setProfileCompleted(boolean profileCompleted) {
-        this.profileCompleted = profileCompleted;
+public record AuthResponse(
+        String token,
+        String refreshToken,
+        String type,
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        boolean emailVerified,
+        boolean profileCompleted
+) {
+
+    public static final String TOKEN_TYPE = "Bearer";
+
+    public AuthResponse(String token, String refreshToken, Long id, String email, String firstName,
+                        String lastName, boolean emailVerified, boolean profileCompleted) {
+        this(token, refreshToken, TOKEN_TYPE, id, email, firstName, lastName, emailVerified, profileCompleted);
     }
 }
@@ -0,0 +1,26 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.analytics.Attribute;
+
+import java.util.List;
+
+/**
+ * Size of a cohort out of every registered user, its funnel from
+ * registration to a completed profile and, when asked for, its split by one
+ * attribute. {@code conversion} is the share of the previous step that
+ * reached this one; {@code breakdown} ends with an {@code UNKNOWN} segment
+ * for users without a value, such as those not yet onboarded.
+ */
+public record CohortResponse(
+        int registered,
+        int users,
+        List<FunnelStep> funnel,
+        Attribute breakdownBy,
+        List<Segment> breakdown) {
+
+    public record FunnelStep(String step, int users, Double conversion) {
+    }
+
+    public record Segment(String value, int users) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.fit_track.dto.response;
+
+public record CurrentUserResponse(String email) {
+}
@@ -0,0 +1,46 @@
+package com.fit_track.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.event.LogChangedEvent;
+
+import java.time.LocalDate;
+
+/**
+ * Change to apply to the dashboard tiles after a log entry was added or
+ * removed. Totals are signed: a deleted food log carries negative calories.
+ * Only the fields relevant to the entry type are present.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DashboardDelta(
+        String type,
+        LocalDate date,
+        Integer calories,
+        Double proteinG,
+        Double carbsG,
+        Double fatG,
+        Integer sets,
+        Double volumeKg,
+        Double weightKg,
+        DashboardResponse.Activity activity) {
+
+    public static DashboardDelta of(LogChangedEvent event) {
+        int sign = event.deleted() ? -1 : 1;
+        String suffix = event.deleted() ? "-deleted" : "-logged";
+
+        return switch (event.entry()) {
+            case FoodLog log -> new DashboardDelta("food" + suffix, log.loggedOn(),
+                    sign * log.calories(), sign * log.proteinG(), sign * log.carbsG(), sign * log.fatG(),
+                    null, null, null, event.deleted() ? null : DashboardResponse.Activity.of(log));
+            case WorkoutSet set -> new DashboardDelta("workout" + suffix, set.performedOn(),
+                    null, null, null, null, sign, sign * set.reps() * set.weightKg(), null,
+                    event.deleted() ? null : DashboardResponse.Activity.of(set));
+            case WeighIn weighIn -> new DashboardDelta("weigh-in" + suffix, weighIn.measuredOn(),
+                    null, null, null, null, null, null, weighIn.weightKg(),
+                    event.deleted() ? null : DashboardResponse.Activity.of(weighIn));
+            default -> throw new IllegalArgumentException("Unknown log entry " + event.entry().getClass());
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.service.NutritionTargets;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Every dashboard tile in one response. A tile that failed or missed its
+ * deadline is {@code null} and listed in {@code unavailableTiles}.
+ */
+public record DashboardResponse(
+        LocalDate date,
+        NutritionTargets targets,
+        QuickStats quickStats,
+        List<DailyCalories> calorieChart,
+        MacroProgress macroProgress,
+        WorkoutProgress workoutProgress,
+        List<Activity> recentActivity,
+        List<String> unavailableTiles) {
+
+    public record QuickStats(
+            int caloriesToday,
+            int calorieTarget,
+            Double currentWeightKg,
+            Double targetWeightKg,
+            Double weightChangeKg,
+            int workoutDaysThisWeek,
+            Activity lastActivity) {
+    }
+
+    public record DailyCalories(LocalDate date, int calories, int target) {
+    }
+
+    public record MacroProgress(
+            int calories, int calorieTarget,
+            double proteinG, int proteinTargetG,
+            double carbsG, int carbsTargetG,
+            double fatG, int fatTargetG) {
+    }
+
+    public record WorkoutProgress(
+            int workoutDaysThisWeek,
+            int setsThisWeek,
+            double volumeKgThisWeek,
+            int activeDaysLast28) {
+    }
+
+    public record Activity(String type, LocalDate date, String description) {
+
+        public static Activity of(FoodLog log) {
+            return new Activity("FOOD", log.loggedOn(),
+                    "%s: %s (%d kcal)".formatted(log.meal(), log.name(), log.calories()));
+        }
+
+        public static Activity of(WorkoutSet set) {
+            return new Activity("WORKOUT", set.performedOn(),
+                    "%s %d x %.1f kg".formatted(set.exercise(), set.reps(), set.weightKg()));
+        }
+
+        public static Activity of(WeighIn weighIn) {
+            return new Activity("WEIGH_IN", weighIn.measuredOn(), "%.1f kg".formatted(weighIn.weightKg()));
+        }
+    }
+}
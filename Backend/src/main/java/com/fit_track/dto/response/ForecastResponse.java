@@ -0,0 +1,20 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.forecast.WeightForecast;
+
+import java.time.LocalDate;
+
+/**
+ * When the user is projected to reach their target weight. {@code eta} is
+ * null when the trend is flat, heads away from the target or is too slow to
+ * get there within the forecast horizon; {@code basis} says whether the rate
+ * came from weigh-ins, logged calories or both.
+ */
+public record ForecastResponse(
+        Double targetWeightKg,
+        Double trendWeightKg,
+        Double kgPerWeek,
+        LocalDate eta,
+        boolean reached,
+        WeightForecast.Basis basis) {
+}
@@ -0,0 +1,7 @@
+package com.fit_track.dto.response;
+
+/**
+ * Someone waiting for the caller to accept or decline their friend request.
+ */
+public record FriendRequestResponse(Long userId, String name) {
+}
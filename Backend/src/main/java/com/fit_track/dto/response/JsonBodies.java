@@ -0,0 +1,68 @@
+package com.fit_track.dto.response;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pre-encoded {@code {"error": ...}} and {@code {"message": ...}} bodies.
+ * Messages come from a small fixed set, so each is encoded once and the same
+ * bytes are written on every response instead of serializing a {@code Map}.
+ */
+public final class JsonBodies {
+
+    private static final int MAX_CACHED = 256;
+
+    private static final ConcurrentMap<String, byte[]> ERRORS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, byte[]> MESSAGES = new ConcurrentHashMap<>();
+
+    private JsonBodies() {
+    }
+
+    public static byte[] error(String error) {
+        return cached(ERRORS, "error", error);
+    }
+
+    /**
+     * {@code {"error": ..., "code": ...}}, encoded on every call; callers keep the result.
+     */
+    public static byte[] error(String error, String code) {
+        byte[] message = encode("error", String.valueOf(error));
+        byte[] suffix = (",\"code\":\"" + code + "\"}").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[message.length - 1 + suffix.length];
+        System.arraycopy(message, 0, body, 0, message.length - 1);
+        System.arraycopy(suffix, 0, body, message.length - 1, suffix.length);
+        return body;
+    }
+
+    public static byte[] message(String message) {
+        return cached(MESSAGES, "message", message);
+    }
+
+    private static byte[] cached(ConcurrentMap<String, byte[]> cache, String field, String value) {
+        String text = String.valueOf(value);
+        byte[] body = cache.get(text);
+        if (body != null) {
+            return body;
+        }
+        body = encode(field, text);
+        // Bounded in case a message ever carries request-specific text
+        if (cache.size() < MAX_CACHED) {
+            cache.putIfAbsent(text, body);
+        }
+        return body;
+    }
+
+    static byte[] encode(String field, String value) {
+        byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+        byte[] prefix = ("{\"" + field + "\":\"").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[prefix.length + quoted.length + 2];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(quoted, 0, body, prefix.length, quoted.length);
+        body[body.length - 2] = '"';
+        body[body.length - 1] = '}';
+        return body;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.leaderboard.Board;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One leaderboard, best first. {@code periodStart} is the Monday of the
+ * week a weekly board covers, or today for the streak board. {@code me} is
+ * the caller's place among everyone, with a null rank while they have no
+ * score; on the friends board {@code standings} ranks the caller and their
+ * friends among themselves.
+ */
+public record LeaderboardResponse(
+        Board board,
+        LocalDate periodStart,
+        int entrants,
+        Standing me,
+        List<Standing> standings) {
+
+    public record Standing(Long userId, String name, int score, Integer rank) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.mealplan.MealPlan;
+import com.fit_track.service.NutritionTargets;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A suggested day of meals. {@code targets} are the user's targets rounded
+ * to the step the plan was solved for; {@code totals} is what the plan adds
+ * up to. A {@code partial} plan was cut short by the solver's time budget,
+ * and asking again may give a closer one.
+ */
+public record MealPlanResponse(
+        LocalDate date,
+        NutritionTargets targets,
+        NutritionTargets totals,
+        List<MealPlan.Meal> meals,
+        boolean partial) {
+
+    public static MealPlanResponse of(LocalDate date, MealPlan plan) {
+        return new MealPlanResponse(date, plan.targets(), plan.totals(), plan.meals(), plan.partial());
+    }
+}
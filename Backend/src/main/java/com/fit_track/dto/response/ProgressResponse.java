@@ -0,0 +1,45 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.entity.WorkoutSet;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Strength and volume progression from {@code from} (a Monday) to this week.
+ * Best lifts are all-time; weekly points, volumes and personal records only
+ * cover the window. A personal record is a week whose best estimated one-rep
+ * max beat every earlier week of that exercise.
+ */
+public record ProgressResponse(
+        LocalDate from,
+        long totalSets,
+        double totalVolumeKg,
+        List<ExerciseProgress> exercises,
+        List<MuscleGroupVolume> weeklyVolume,
+        List<PersonalRecord> personalRecords) {
+
+    public record ExerciseProgress(
+            String exercise,
+            WorkoutSet.MuscleGroup muscleGroup,
+            double bestE1rmKg,
+            LocalDate bestE1rmOn,
+            double topWeightKg,
+            List<WeekPoint> weeks) {
+    }
+
+    public record WeekPoint(LocalDate weekStart, int sets, int reps, double volumeKg, double bestE1rmKg) {
+    }
+
+    public record MuscleGroupVolume(LocalDate weekStart, WorkoutSet.MuscleGroup muscleGroup, int sets,
+                                    double volumeKg) {
+    }
+
+    public record PersonalRecord(
+            String exercise,
+            WorkoutSet.MuscleGroup muscleGroup,
+            double e1rmKg,
+            Double previousBestKg,
+            LocalDate achievedOn) {
+    }
+}
@@ -1,28 +1,4 @@
 package com.fit_track.dto.response;
 
-public class RegisterResponse {
-
-    private String message;
-    private String email;
-
-    public RegisterResponse(String message, String email) {
-        this.message = message;
-        this.email = email;
-    }
-
-    public String getMessage() {
-        return message;
-    }
-
-    public void setMessage(String message) {
-        this.message = message;
-    }
-
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
+public record RegisterResponse(String message, String email) {
 }
@@ -0,0 +1,21 @@
+package com.fit_track.dto.response;
+
+import com.fit_track.streak.Achievement;
+import com.fit_track.streak.StreakKind;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Streaks as of today and every achievement reached so far. A streak whose
+ * last qualifying day (or week) is before yesterday (or last week) is shown
+ * as current 0; {@code lastPeriodStart} still says when it ended.
+ */
+public record StreakResponse(List<Streak> streaks, List<Reached> achievements) {
+
+    public record Streak(StreakKind kind, int current, int best, LocalDate lastPeriodStart) {
+    }
+
+    public record Reached(Achievement achievement, LocalDate achievedOn) {
+    }
+}
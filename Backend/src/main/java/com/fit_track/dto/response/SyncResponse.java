@@ -0,0 +1,129 @@
+package com.fit_track.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.User;
+import com.fit_track.entity.Versioned;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.service.UserProfile;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything that changed for a user after a given sequence number. Rows are
+ * encoded as JSON arrays in the field order of their record, and empty
+ * sections are omitted, so a sync with nothing new is just {@code {"seq":N}}.
+ *
+ * <p>{@code seq} is the value to send as {@code since} next time. With
+ * {@code more} set the page was cut short and the client should ask again
+ * straight away; with {@code reset} the client was too far behind for
+ * tombstones and must replace its local data with the rows returned (a sync
+ * from 0). The remaining pages of a sync from 0 are requested with
+ * {@code resync} set, so they are not reset again.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record SyncResponse(
+        long seq,
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean more,
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean reset,
+        ProfileRow profile,
+        List<FoodRow> food,
+        List<WorkoutRow> workouts,
+        List<WeighInRow> weighIns,
+        List<DeletedRow> deleted) {
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"seq", "firstName", "lastName", "emailVerified", "profileCompleted", "goal",
+            "activityLevel", "currentWeight", "targetWeight", "height", "age", "gender"})
+    public record ProfileRow(
+            long seq,
+            String firstName,
+            String lastName,
+            boolean emailVerified,
+            boolean profileCompleted,
+            User.Goal goal,
+            User.ActivityLevel activityLevel,
+            Double currentWeight,
+            Double targetWeight,
+            Integer height,
+            Integer age,
+            User.Gender gender) {
+
+        public static ProfileRow of(long seq, UserProfile profile) {
+            return new ProfileRow(seq, profile.firstName(), profile.lastName(), profile.emailVerified(),
+                    profile.profileCompleted(), profile.goal(), profile.activityLevel(), profile.currentWeight(),
+                    profile.targetWeight(), profile.height(), profile.age(), profile.gender());
+        }
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"id", "seq", "loggedOn", "meal", "name", "calories", "proteinG", "carbsG", "fatG"})
+    public record FoodRow(
+            long id,
+            long seq,
+            LocalDate loggedOn,
+            FoodLog.Meal meal,
+            String name,
+            int calories,
+            double proteinG,
+            double carbsG,
+            double fatG) {
+
+        public static FoodRow of(Versioned<FoodLog> versioned) {
+            FoodLog log = versioned.row();
+            return new FoodRow(log.id(), versioned.seq(), log.loggedOn(), log.meal(), log.name(), log.calories(),
+                    log.proteinG(), log.carbsG(), log.fatG());
+        }
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"id", "seq", "performedOn", "exercise", "muscleGroup", "reps", "weightKg"})
+    public record WorkoutRow(
+            long id,
+            long seq,
+            LocalDate performedOn,
+            String exercise,
+            WorkoutSet.MuscleGroup muscleGroup,
+            int reps,
+            double weightKg) {
+
+        public static WorkoutRow of(Versioned<WorkoutSet> versioned) {
+            WorkoutSet set = versioned.row();
+            return new WorkoutRow(set.id(), versioned.seq(), set.performedOn(), set.exercise(), set.muscleGroup(),
+                    set.reps(), set.weightKg());
+        }
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"seq", "measuredOn", "weightKg"})
+    public record WeighInRow(long seq, LocalDate measuredOn, double weightKg) {
+
+        public static WeighInRow of(Versioned<WeighIn> versioned) {
+            return new WeighInRow(versioned.seq(), versioned.row().measuredOn(), versioned.row().weightKg());
+        }
+    }
+
+    /**
+     * @param entity {@code food}, {@code workout} or {@code weigh-in}
+     * @param key    the row's id, or for a weigh-in its date
+     */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"seq", "entity", "key"})
+    public record DeletedRow(long seq, String entity, String key) {
+    }
+
+    // Encodes any synced log row; used where the entity type is only known at runtime
+    @SuppressWarnings("unchecked")
+    public static Object encode(Versioned<?> versioned) {
+        return switch (versioned.row()) {
+            case FoodLog ignored -> FoodRow.of((Versioned<FoodLog>) versioned);
+            case WorkoutSet ignored -> WorkoutRow.of((Versioned<WorkoutSet>) versioned);
+            case WeighIn ignored -> WeighInRow.of((Versioned<WeighIn>) versioned);
+            default -> throw new IllegalArgumentException("Unknown log entry " + versioned.row().getClass());
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.fit_track.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Outcome of an upload, per change, by the client's {@code ref}. Applied
+ * changes carry the key (the new id for an inserted row) and the sequence
+ * they were written at. A conflict carries the server's current row, encoded
+ * as in {@link SyncResponse}, or {@code null} when the row no longer exists;
+ * the client resolves it and uploads again against that row's sequence.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record SyncUploadResponse(long seq, List<Applied> applied, List<Conflict> conflicts) {
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"ref", "key", "seq"})
+    public record Applied(String ref, String key, long seq) {
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"ref", "current"})
+    public record Conflict(String ref, Object current) {
+    }
+}
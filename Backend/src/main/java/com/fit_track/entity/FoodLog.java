@@ -0,0 +1,23 @@
+package com.fit_track.entity;
+
+import java.time.LocalDate;
+
+/**
+ * One logged food item. Stored in the hash-partitioned {@code food_logs}
+ * table and mapped by {@code FoodLogRepository}.
+ */
+public record FoodLog(
+        Long id,
+        Long userId,
+        LocalDate loggedOn,
+        Meal meal,
+        String name,
+        int calories,
+        double proteinG,
+        double carbsG,
+        double fatG) {
+
+    public enum Meal {
+        BREAKFAST, LUNCH, DINNER, SNACK
+    }
+}
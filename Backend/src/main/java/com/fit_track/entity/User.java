@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -42,6 +43,16 @@ public class User {
     private boolean profileCompleted = false;
     private boolean enabled = false;
 
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'USER'")
+    @Column(nullable = false)
+    private Role role = Role.USER;
+
+    // Bumped to invalidate every token issued for this user
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     @Column(name = "verification_code")
     private String verificationCode;
 
@@ -144,6 +155,22 @@ public class User {
         this.enabled = enabled;
     }
 
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public String getVerificationCode() {
         return verificationCode;
     }
@@ -235,6 +262,11 @@ public class User {
     }
 
 
+    public enum Role {
+        USER,
+        ADMIN
+    }
+
     public enum Goal {
         LOSE_WEIGHT,
         MAINTAIN_WEIGHT,
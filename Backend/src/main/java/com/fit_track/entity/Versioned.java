@@ -0,0 +1,8 @@
+package com.fit_track.entity;
+
+/**
+ * A log row together with the per-user change sequence it was last written
+ * at, as read for delta sync.
+ */
+public record Versioned<T>(long seq, T row) {
+}
@@ -0,0 +1,13 @@
+package com.fit_track.entity;
+
+import java.time.LocalDate;
+
+/**
+ * A user's weight on a given day; at most one per day. Stored in the
+ * month-partitioned {@code weigh_ins} table and mapped by {@code WeighInRepository}.
+ */
+public record WeighIn(
+        Long userId,
+        LocalDate measuredOn,
+        double weightKg) {
+}
@@ -0,0 +1,21 @@
+package com.fit_track.entity;
+
+import java.time.LocalDate;
+
+/**
+ * One performed set of an exercise. Stored in the hash-partitioned
+ * {@code workout_sets} table and mapped by {@code WorkoutSetRepository}.
+ */
+public record WorkoutSet(
+        Long id,
+        Long userId,
+        LocalDate performedOn,
+        String exercise,
+        MuscleGroup muscleGroup,
+        int reps,
+        double weightKg) {
+
+    public enum MuscleGroup {
+        CHEST, BACK, SHOULDERS, ARMS, LEGS, CORE, FULL_BODY, CARDIO
+    }
+}
@@ -0,0 +1,11 @@
+package com.fit_track.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@code StreakEngine} once a log change to a user's daily
+ * activity rollup for {@code day}, and to their streaks, is committed.
+ * Listeners run on the publishing thread, outside any transaction.
+ */
+public record ActivityChangedEvent(Long userId, LocalDate day) {
+}
@@ -0,0 +1,9 @@
+package com.fit_track.event;
+
+/**
+ * Published after a food log, workout set or weigh-in is recorded or deleted.
+ *
+ * @param entry the {@code FoodLog}, {@code WorkoutSet} or {@code WeighIn} as stored, or as it was before deletion
+ */
+public record LogChangedEvent(Long userId, Object entry, boolean deleted) {
+}
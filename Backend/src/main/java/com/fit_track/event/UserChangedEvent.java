@@ -0,0 +1,8 @@
+package com.fit_track.event;
+
+/**
+ * Published after a user's row changes in a way that cached copies (profile,
+ * token version) must not outlive.
+ */
+public record UserChangedEvent(Long userId, String email) {
+}
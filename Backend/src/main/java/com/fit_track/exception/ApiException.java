@@ -0,0 +1,20 @@
+package com.fit_track.exception;
+
+/**
+ * Expected failure of an API operation, answered with its {@link ErrorCode}.
+ * Like {@link AuthException}, which is the kind raised by auth operations,
+ * it captures no stack trace.
+ */
+public class ApiException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    public ApiException(ErrorCode errorCode) {
+        super(errorCode.getMessage(), null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
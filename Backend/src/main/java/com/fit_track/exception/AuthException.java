@@ -0,0 +1,13 @@
+package com.fit_track.exception;
+
+/**
+ * Expected business failure of an auth operation. These are routine (wrong
+ * codes, bad passwords, replayed tokens) and can arrive at attack rates, so
+ * no stack trace is captured: throwing one costs about as much as returning.
+ */
+public class AuthException extends ApiException {
+
+    public AuthException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -0,0 +1,59 @@
+package com.fit_track.exception;
+
+import com.fit_track.dto.response.JsonBodies;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Stable, client-facing failure codes. Each carries its HTTP status and a
+ * pre-encoded {@code {"error": ..., "code": ...}} body.
+ */
+public enum ErrorCode {
+
+    EMAIL_ALREADY_REGISTERED(HttpStatus.BAD_REQUEST, "Email is already registered!"),
+    EMAIL_REQUIRED(HttpStatus.BAD_REQUEST, "Email is required"),
+    IDEMPOTENCY_KEY_REUSED(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request"),
+    USER_NOT_FOUND(HttpStatus.BAD_REQUEST, "User not found"),
+    EMAIL_ALREADY_VERIFIED(HttpStatus.BAD_REQUEST, "Email is already verified"),
+    EMAIL_NOT_VERIFIED(HttpStatus.BAD_REQUEST, "Please verify your email before logging in"),
+    ONBOARDING_REQUIRES_VERIFIED_EMAIL(HttpStatus.BAD_REQUEST, "Email must be verified before completing onboarding"),
+    VERIFICATION_CODE_MISSING(HttpStatus.BAD_REQUEST, "No verification code found. Please request a new one."),
+    VERIFICATION_CODE_EXPIRED(HttpStatus.BAD_REQUEST, "Verification code has expired. Please request a new one."),
+    VERIFICATION_CODE_INVALID(HttpStatus.BAD_REQUEST, "Invalid verification code"),
+    VERIFICATION_EMAIL_FAILED(HttpStatus.BAD_REQUEST, "Failed to send verification email"),
+    BAD_CREDENTIALS(HttpStatus.BAD_REQUEST, "Bad credentials"),
+    ACCOUNT_DISABLED(HttpStatus.BAD_REQUEST, "User is disabled"),
+    CURRENT_USER_UNAVAILABLE(HttpStatus.BAD_REQUEST, "Unable to get current user"),
+    REFRESH_TOKEN_INVALID(HttpStatus.UNAUTHORIZED, "Invalid refresh token"),
+    REFRESH_TOKEN_REVOKED(HttpStatus.UNAUTHORIZED, "Refresh token has been revoked"),
+    NOT_AUTHENTICATED(HttpStatus.UNAUTHORIZED, "Not authenticated"),
+    MEAL_PLANNER_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Meal planner is busy, please try again shortly"),
+    FRIEND_IS_SELF(HttpStatus.BAD_REQUEST, "You cannot add yourself as a friend"),
+    FRIEND_LIMIT_REACHED(HttpStatus.BAD_REQUEST, "You have reached the maximum number of friends"),
+    WEIGH_IN_IN_FUTURE(HttpStatus.BAD_REQUEST, "Weigh-in date cannot be in the future"),
+    DATE_RANGE_REVERSED(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'"),
+    DATE_RANGE_TOO_LONG(HttpStatus.BAD_REQUEST, "Date range cannot exceed 366 days"),
+    SYNC_SEQUENCE_UNKNOWN(HttpStatus.BAD_REQUEST, "Unknown sync sequence"),
+    SYNC_CHANGE_INVALID(HttpStatus.BAD_REQUEST, "Sync change has a malformed key or is missing its payload");
+
+    private final HttpStatus status;
+    private final String message;
+    private final byte[] body;
+
+    ErrorCode(HttpStatus status, String message) {
+        this.status = status;
+        this.message = message;
+        this.body = JsonBodies.error(message, name());
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
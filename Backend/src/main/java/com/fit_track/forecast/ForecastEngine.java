@@ -0,0 +1,93 @@
+package com.fit_track.forecast;
+
+import com.fit_track.entity.WeighIn;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.repository.ForecastRepository;
+import com.fit_track.repository.WeighInRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps each user's weight trend current as weigh-ins are written. A new
+ * latest weigh-in is folded into the stored trend with one locked read and
+ * one update; corrections, backdated weigh-ins and deletes refit from the
+ * weigh-ins in the refit window instead. The {@code fittrack.forecast.updates}
+ * counter shows how often that happens.
+ *
+ * <p>Food logs do not touch the trend; intake is read from the daily rollup
+ * when a forecast is made.
+ */
+@Component
+public class ForecastEngine {
+
+    private final ForecastRepository forecastRepository;
+    private final WeighInRepository weighInRepository;
+    private final ForecastModel model;
+    private final TransactionTemplate transactionTemplate;
+    private final int refitDays;
+    private final Counter incrementalUpdates;
+    private final Counter refits;
+
+    public ForecastEngine(ForecastRepository forecastRepository, WeighInRepository weighInRepository,
+                          ForecastModel model, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry, @Value("${fittrack.forecast.refit-days:365}") int refitDays) {
+        this.forecastRepository = forecastRepository;
+        this.weighInRepository = weighInRepository;
+        this.model = model;
+        // Weigh-ins uploaded by sync are announced after the upload commits, so never join it
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refitDays = refitDays;
+        this.incrementalUpdates = updateCounter(meterRegistry, "incremental");
+        this.refits = updateCounter(meterRegistry, "refit");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLogChanged(LogChangedEvent event) {
+        if (!(event.entry() instanceof WeighIn weighIn)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                WeightTrend trend = forecastRepository.lockTrend(event.userId());
+                if (!event.deleted() && model.update(trend, weighIn)) {
+                    incrementalUpdates.increment();
+                    forecastRepository.saveTrend(event.userId(), trend);
+                } else {
+                    refits.increment();
+                    forecastRepository.saveTrend(event.userId(), fit(event.userId()));
+                }
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update weight trend for user " + event.userId() + ": " + e.getMessage());
+        }
+    }
+
+    // Recomputes one user's trend from their weigh-ins, for backfills
+    public void refit(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            forecastRepository.lockTrend(userId);
+            forecastRepository.saveTrend(userId, fit(userId));
+        });
+    }
+
+    private WeightTrend fit(Long userId) {
+        LocalDate today = LocalDate.now();
+        return model.fit(weighInRepository.findByUserIdAndDateRange(userId, today.minusDays(refitDays), today));
+    }
+
+    private static Counter updateCounter(MeterRegistry meterRegistry, String path) {
+        return Counter.builder("fittrack.forecast.updates")
+                .description("Weight trend updates by whether they were applied in place or needed a refit")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+}
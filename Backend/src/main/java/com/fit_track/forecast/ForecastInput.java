@@ -0,0 +1,12 @@
+package com.fit_track.forecast;
+
+import com.fit_track.service.UserProfile;
+
+import java.util.OptionalDouble;
+
+/**
+ * Everything {@link ForecastModel#forecast} needs for one user, as loaded in
+ * bulk by the scoring job.
+ */
+public record ForecastInput(UserProfile profile, WeightTrend trend, OptionalDouble intakeCalories) {
+}
@@ -0,0 +1,142 @@
+package com.fit_track.forecast;
+
+import com.fit_track.entity.WeighIn;
+import com.fit_track.service.NutritionTargets;
+import com.fit_track.service.UserProfile;
+import com.fit_track.streak.StreakRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Turns a user's weight trend and recent calorie intake into a goal-weight
+ * ETA. The rate is a blend of the weigh-in slope and the slope implied by
+ * the logged calorie balance (about 7700 kcal per kg): with few weigh-ins
+ * the calorie estimate dominates, and each weigh-in shifts weight towards the
+ * measured trend. Forecasts depend only on their inputs, so bulk scoring
+ * gives the same result however users are split across workers.
+ */
+@Component
+public class ForecastModel {
+
+    private static final double KCAL_PER_KG = 7700;
+
+    // Within this distance the target counts as reached, whatever the goal
+    private static final double REACHED_KG = 0.3;
+
+    private final StreakRules rules;
+    private final double alpha;
+    private final double beta;
+    private final double priorWeighIns;
+    private final double minKgPerWeek;
+    private final int horizonDays;
+    private final int intakeDays;
+    private final int minLoggedDays;
+
+    public ForecastModel(
+            StreakRules rules,
+            @Value("${fittrack.forecast.level-smoothing:0.1}") double alpha,
+            @Value("${fittrack.forecast.slope-smoothing:0.05}") double beta,
+            @Value("${fittrack.forecast.prior-weigh-ins:10}") double priorWeighIns,
+            @Value("${fittrack.forecast.min-kg-per-week:0.05}") double minKgPerWeek,
+            @Value("${fittrack.forecast.horizon-days:730}") int horizonDays,
+            @Value("${fittrack.forecast.intake-days:14}") int intakeDays,
+            @Value("${fittrack.forecast.min-logged-days:7}") int minLoggedDays) {
+        this.rules = rules;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.priorWeighIns = priorWeighIns;
+        this.minKgPerWeek = minKgPerWeek;
+        this.horizonDays = horizonDays;
+        this.intakeDays = intakeDays;
+        this.minLoggedDays = minLoggedDays;
+    }
+
+    /**
+     * @return false when the weigh-in is not after the trend's latest one and a refit is needed
+     */
+    public boolean update(WeightTrend trend, WeighIn weighIn) {
+        return trend.add(weighIn.measuredOn().toEpochDay(), weighIn.weightKg(), alpha, beta);
+    }
+
+    /**
+     * @param weighIns ascending by date
+     */
+    public WeightTrend fit(List<WeighIn> weighIns) {
+        WeightTrend trend = new WeightTrend();
+        for (WeighIn weighIn : weighIns) {
+            update(trend, weighIn);
+        }
+        return trend;
+    }
+
+    /**
+     * @param intakeCalories average daily calories over the intake window,
+     *                       empty when too few days were logged to trust it
+     */
+    public WeightForecast forecast(WeightTrend trend, UserProfile profile, OptionalDouble intakeCalories,
+                                   LocalDate today) {
+        OptionalDouble maintenance = NutritionTargets.maintenanceCalories(profile);
+        boolean fromCalories = intakeCalories.isPresent() && maintenance.isPresent();
+        boolean fromWeighIns = trend.getPoints() >= 2;
+
+        double slope;
+        WeightForecast.Basis basis;
+        if (fromWeighIns && fromCalories) {
+            double weight = trend.getPoints() / (trend.getPoints() + priorWeighIns);
+            slope = weight * trend.getSlope() + (1 - weight) * energySlope(intakeCalories, maintenance);
+            basis = WeightForecast.Basis.BLENDED;
+        } else if (fromWeighIns) {
+            slope = trend.getSlope();
+            basis = WeightForecast.Basis.WEIGH_INS;
+        } else if (fromCalories) {
+            slope = energySlope(intakeCalories, maintenance);
+            basis = WeightForecast.Basis.CALORIES;
+        } else {
+            return WeightForecast.NONE;
+        }
+
+        double current;
+        long day = today.toEpochDay();
+        if (!trend.isEmpty()) {
+            // A stale trend is carried forward at the blended rate, up to one horizon
+            current = trend.getLevel() + slope * Math.clamp(day - trend.getLastDay(), 0, horizonDays);
+        } else if (profile.currentWeight() != null) {
+            current = profile.currentWeight();
+        } else {
+            return WeightForecast.NONE;
+        }
+
+        double kgPerWeek = slope * 7;
+        Double target = profile.targetWeight();
+        if (target == null) {
+            return new WeightForecast(current, kgPerWeek, null, basis, false);
+        }
+        double remaining = target - current;
+        if (Math.abs(remaining) <= REACHED_KG || rules.reachedGoalWeight(profile, current)) {
+            return new WeightForecast(current, kgPerWeek, today, basis, true);
+        }
+        if (Math.abs(kgPerWeek) < minKgPerWeek || Math.signum(remaining) != Math.signum(slope)) {
+            return new WeightForecast(current, kgPerWeek, null, basis, false);
+        }
+        double days = Math.ceil(remaining / slope);
+        LocalDate eta = days > horizonDays ? null : today.plusDays((long) days);
+        return new WeightForecast(current, kgPerWeek, eta, basis, false);
+    }
+
+    // First day of the window averaged for intakeCalories
+    public LocalDate intakeFrom(LocalDate today) {
+        return today.minusDays(intakeDays - 1);
+    }
+
+    public int getMinLoggedDays() {
+        return minLoggedDays;
+    }
+
+    private static double energySlope(OptionalDouble intakeCalories, OptionalDouble maintenance) {
+        return (intakeCalories.getAsDouble() - maintenance.getAsDouble()) / KCAL_PER_KG;
+    }
+}
@@ -0,0 +1,138 @@
+package com.fit_track.forecast;
+
+import com.fit_track.repository.ForecastRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores every user's goal-weight ETA and stores it next to their trend, for
+ * reminders and reports that need all users at once. The user id space is
+ * cut into fixed-size ranges that are scored in parallel: each range is one
+ * read of profile, trend and intake, an in-memory pass over the model and
+ * one batched write, by a fixed number of workers that stays well inside the
+ * connection pool.
+ *
+ * <p>Runs nightly. With {@code fittrack.forecast.refit-on-startup} set, one
+ * instance first refits every trend from the weigh-in history, to backfill
+ * existing users or after changing the smoothing.
+ */
+@Component
+public class ForecastScoringJob implements ApplicationRunner {
+
+    private final ForecastEngine engine;
+    private final ForecastModel model;
+    private final ForecastRepository forecastRepository;
+    private final Timer duration;
+    private final boolean refitOnStartup;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public ForecastScoringJob(
+            ForecastEngine engine,
+            ForecastModel model,
+            ForecastRepository forecastRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.forecast.refit-on-startup:false}") boolean refitOnStartup,
+            @Value("${fittrack.forecast.scoring.parallelism:4}") int parallelism,
+            @Value("${fittrack.forecast.scoring.chunk-size:5000}") int chunkSize) {
+        this.engine = engine;
+        this.model = model;
+        this.forecastRepository = forecastRepository;
+        this.duration = Timer.builder("fittrack.forecast.scoring.duration").register(meterRegistry);
+        this.refitOnStartup = refitOnStartup;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (refitOnStartup) {
+            scoreAll(true);
+        }
+    }
+
+    @Scheduled(cron = "${fittrack.forecast.scoring.cron:0 30 3 * * *}")
+    public void scoreNightly() {
+        scoreAll(false);
+    }
+
+    /**
+     * @param refit refit each trend from the weigh-ins before scoring
+     * @return number of users scored
+     */
+    public int scoreAll(boolean refit) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        ForecastRepository.IdRange ids = forecastRepository.findUserIdRange();
+        int scored = 0;
+        int failed = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = ids.min(); from <= ids.max(); from += chunkSize) {
+                long fromId = from;
+                long toId = Math.min(from + chunkSize - 1, ids.max());
+                chunks.add(workers.submit(() -> scoreChunk(fromId, toId, today, refit)));
+            }
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    scored += chunk.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println("Forecast scoring chunk failed: " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Scored weight forecasts for " + scored + " users (" + failed + " chunks failed) in "
+                + elapsed / 1_000_000 + " ms");
+        return scored;
+    }
+
+    private int scoreChunk(long fromId, long toId, LocalDate today, boolean refit) {
+        if (refit) {
+            for (Long userId : forecastRepository.findUserIdsBetween(fromId, toId)) {
+                engine.refit(userId);
+            }
+        }
+        List<ForecastInput> inputs = forecastRepository.findInputs(fromId, toId, model.intakeFrom(today), today,
+                model.getMinLoggedDays());
+        Map<Long, WeightForecast> forecasts = score(model, inputs, today);
+        if (!forecasts.isEmpty()) {
+            forecastRepository.saveForecasts(forecasts, today);
+        }
+        return forecasts.size();
+    }
+
+    // Pure in-memory part of a chunk, shared with the benchmark
+    static Map<Long, WeightForecast> score(ForecastModel model, List<ForecastInput> inputs, LocalDate today) {
+        Map<Long, WeightForecast> forecasts = new HashMap<>(inputs.size() * 4 / 3 + 1);
+        for (ForecastInput input : inputs) {
+            forecasts.put(input.profile().id(),
+                    model.forecast(input.trend(), input.profile(), input.intakeCalories(), today));
+        }
+        return forecasts;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fit_track.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * Projected date a user reaches their target weight.
+ *
+ * @param weightKg  trend weight today, null when there is nothing to go on
+ * @param kgPerWeek projected rate of change, negative when losing
+ * @param eta       null when the trend is flat, heads away from the target or
+ *                  would take longer than the forecast horizon
+ */
+public record WeightForecast(Double weightKg, Double kgPerWeek, LocalDate eta, Basis basis, boolean reached) {
+
+    public static final WeightForecast NONE = new WeightForecast(null, null, null, Basis.NONE, false);
+
+    // What the rate was estimated from
+    public enum Basis {
+        WEIGH_INS,
+        CALORIES,
+        BLENDED,
+        NONE
+    }
+}
@@ -0,0 +1,105 @@
+package com.fit_track.forecast;
+
+/**
+ * Smoothed weight level and daily slope from a user's weigh-ins, updated in
+ * O(1) per new weigh-in with Holt's linear method adapted to irregular gaps:
+ * the smoothing gains grow with the number of days since the previous
+ * weigh-in, so a week-long gap counts for more than a day. Early points get
+ * at least a running-mean gain so the first few weigh-ins are not dominated
+ * by the starting values.
+ *
+ * <p>Each one-step error is clipped to a few times the running mean absolute
+ * error before it moves the trend, so a single reading taken in clothes or
+ * after a salty meal shifts the level by a bounded amount. Weigh-ins that are
+ * not after the latest one are refused, and the caller refits from the
+ * weigh-in history with {@link ForecastModel#fit}.
+ */
+public final class WeightTrend {
+
+    private static final double INITIAL_RESIDUAL = 1.0;
+    private static final double MIN_RESIDUAL = 0.25;
+    private static final double CLIP = 2.5;
+    private static final double RESIDUAL_GAIN = 0.1;
+
+    private double level;
+    private double slope;
+    private double residual;
+    private long lastDay;
+    private int points;
+
+    public WeightTrend() {
+    }
+
+    public WeightTrend(double level, double slope, double residual, long lastDay, int points) {
+        this.level = level;
+        this.slope = slope;
+        this.residual = residual;
+        this.lastDay = lastDay;
+        this.points = points;
+    }
+
+    /**
+     * Folds in a weigh-in on epoch day {@code day}.
+     *
+     * @param alpha level smoothing per day, in (0, 1]
+     * @param beta  slope smoothing per day, in (0, 1]
+     * @return false when the weigh-in is not after the latest one and a refit is needed
+     */
+    public boolean add(long day, double weightKg, double alpha, double beta) {
+        if (points == 0) {
+            level = weightKg;
+            slope = 0;
+            residual = INITIAL_RESIDUAL;
+            lastDay = day;
+            points = 1;
+            return true;
+        }
+        if (day <= lastDay) {
+            return false;
+        }
+
+        long gap = day - lastDay;
+        double error = weightKg - (level + slope * gap);
+        double limit = CLIP * Math.max(residual, MIN_RESIDUAL);
+        double clipped = Math.max(-limit, Math.min(limit, error));
+
+        points++;
+        double levelGain = Math.max(1 - Math.pow(1 - alpha, gap), 1.0 / points);
+        double slopeGain = Math.max(1 - Math.pow(1 - beta, gap), 1.0 / points);
+        double previousLevel = level;
+        level = level + slope * gap + levelGain * clipped;
+        slope = slopeGain * (level - previousLevel) / gap + (1 - slopeGain) * slope;
+        residual += RESIDUAL_GAIN * (Math.min(Math.abs(error), 2 * limit) - residual);
+        lastDay = day;
+        return true;
+    }
+
+    // Extrapolated level; callers bound how far ahead they ask
+    public double levelOn(long day) {
+        return level + slope * (day - lastDay);
+    }
+
+    public boolean isEmpty() {
+        return points == 0;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public double getSlope() {
+        return slope;
+    }
+
+    public double getResidual() {
+        return residual;
+    }
+
+    public long getLastDay() {
+        return lastDay;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+}
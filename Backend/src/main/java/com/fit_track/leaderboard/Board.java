@@ -0,0 +1,48 @@
+package com.fit_track.leaderboard;
+
+/**
+ * Leaderboards users are ranked on. Weekly boards cover the current
+ * Monday-based week and start empty each week; the streak board ranks live
+ * streaks. Scores above {@code maxScore} rank as {@code maxScore}.
+ */
+public enum Board {
+
+    // Workout sets logged this week
+    WORKOUT_SETS(true, 1000),
+    // Days this week with logged calories within tolerance of the user's target
+    CALORIE_TARGET_DAYS(true, 7),
+    // Current run of consecutive days with food logged
+    LOGGING_STREAK(false, 3650);
+
+    private final boolean weekly;
+    private final int maxScore;
+
+    Board(boolean weekly, int maxScore) {
+        this.weekly = weekly;
+        this.maxScore = maxScore;
+    }
+
+    /**
+     * @param week  the week weekly boards currently cover
+     * @param today epoch day
+     */
+    public int score(Scores scores, long week, long today) {
+        if (weekly && scores.week() != week) {
+            return 0;
+        }
+        return switch (this) {
+            case WORKOUT_SETS -> scores.workoutSets();
+            case CALORIE_TARGET_DAYS -> scores.calorieTargetDays();
+            // Alive through the day after its last logged day, as for StreakCounter.currentAsOf
+            case LOGGING_STREAK -> scores.loggingStreakEnd() >= today - 1 ? scores.loggingStreak() : 0;
+        };
+    }
+
+    public boolean isWeekly() {
+        return weekly;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+}
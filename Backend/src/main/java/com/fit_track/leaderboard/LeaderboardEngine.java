@@ -0,0 +1,142 @@
+package com.fit_track.leaderboard;
+
+import com.fit_track.event.ActivityChangedEvent;
+import com.fit_track.repository.LeaderboardRepository;
+import com.fit_track.streak.StreakKind;
+import com.fit_track.streak.StreakRules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Re-scores a user whenever their daily activity changes: one read of the
+ * week's rollups and the logging streak, one upsert into
+ * {@code leaderboard_scores}, and the new scores applied to this instance's
+ * rankings straight away. Other instances pick the row up through
+ * {@link LeaderboardSync}. Scoring one user is serialized on their scores
+ * row, so the row always ends up reflecting the latest committed activity.
+ */
+@Component
+public class LeaderboardEngine {
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final Leaderboards leaderboards;
+    private final StreakRules rules;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter updates;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public LeaderboardEngine(
+            LeaderboardRepository leaderboardRepository,
+            Leaderboards leaderboards,
+            StreakRules rules,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.leaderboards.backfill.parallelism:4}") int parallelism,
+            @Value("${fittrack.leaderboards.backfill.chunk-size:5000}") int chunkSize) {
+        this.leaderboardRepository = leaderboardRepository;
+        this.leaderboards = leaderboards;
+        this.rules = rules;
+        // Activity changes are announced from StreakEngine after the log write has committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.updates = Counter.builder("fittrack.leaderboards.updates")
+                .description("Users re-scored after an activity change")
+                .register(meterRegistry);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        try {
+            Scores scores = transactionTemplate.execute(status -> rescore(event.userId(), LocalDate.now()));
+            if (scores != null) {
+                leaderboards.apply(scores);
+                updates.increment();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update leaderboards for user " + event.userId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Scores every user from the rollups, for the first deployment and after
+     * a scoring change. Id ranges are scored in parallel, one read and one
+     * batched write each, without the per-user lock: run it on one instance
+     * while writes are quiet, or accept that a user updated mid-chunk is
+     * corrected by their next change.
+     *
+     * @return number of users scored
+     */
+    public int backfill() {
+        LocalDate today = LocalDate.now();
+        LeaderboardRepository.IdRange ids = leaderboardRepository.findUserIdRange();
+        int scored = 0;
+        int failed = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = ids.min(); from <= ids.max(); from += chunkSize) {
+                long fromId = from;
+                long toId = Math.min(from + chunkSize - 1, ids.max());
+                chunks.add(workers.submit(() -> {
+                    List<Scores> scores = score(fromId, toId, today);
+                    if (!scores.isEmpty()) {
+                        leaderboardRepository.saveScores(scores);
+                    }
+                    return scores.size();
+                }));
+            }
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    scored += chunk.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println("Leaderboard backfill chunk failed: " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+        System.out.println("Backfilled leaderboard scores for " + scored + " users (" + failed + " chunks failed)");
+        return scored;
+    }
+
+    private Scores rescore(Long userId, LocalDate today) {
+        leaderboardRepository.lockScores(userId);
+        List<Scores> scores = score(userId, userId, today);
+        if (scores.isEmpty()) {
+            return null;
+        }
+        leaderboardRepository.saveScores(scores);
+        return scores.getFirst();
+    }
+
+    private List<Scores> score(long fromId, long toId, LocalDate today) {
+        long week = StreakKind.WORKOUT_WEEK.period(today);
+        LocalDate monday = StreakKind.WORKOUT_WEEK.start(week);
+        List<ScoreInput> inputs = leaderboardRepository.findInputs(fromId, toId, monday, monday.plusDays(6));
+        List<Scores> scores = new ArrayList<>(inputs.size());
+        for (ScoreInput input : inputs) {
+            scores.add(Scores.of(input.profile(), week, input.days(), input.logging(), rules));
+        }
+        return scores;
+    }
+}
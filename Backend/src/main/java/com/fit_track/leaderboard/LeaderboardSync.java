@@ -0,0 +1,148 @@
+package com.fit_track.leaderboard;
+
+import com.fit_track.repository.LeaderboardRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this instance's rankings in step with {@code leaderboard_scores}.
+ *
+ * <p>At startup each board is restored from its snapshot when that covers
+ * the current week (or day, for streaks), then everything scored since is
+ * replayed; without usable snapshots the live rows are loaded in one pass.
+ * After that the table is polled for rows scored by any instance. A poll
+ * only reads rows older than {@code fittrack.leaderboards.poll-lag}, by
+ * which time the transaction that wrote them has committed, so every row is
+ * read once without tracking gaps. Snapshots are written periodically by
+ * every instance; the newest wins.
+ *
+ * <p>Polls also move the boards to a new day, dropping streaks that lapsed.
+ */
+@Component
+public class LeaderboardSync implements ApplicationRunner {
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final Leaderboards leaderboards;
+    private final LeaderboardEngine leaderboardEngine;
+    private final Timer restoreDuration;
+    private final Timer snapshotDuration;
+    private final Duration pollLag;
+    private final boolean backfillOnStartup;
+    // Rows scored up to here are applied; null until restored
+    private volatile LocalDateTime appliedThrough;
+
+    public LeaderboardSync(
+            LeaderboardRepository leaderboardRepository,
+            Leaderboards leaderboards,
+            LeaderboardEngine leaderboardEngine,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.leaderboards.poll-lag:2s}") Duration pollLag,
+            @Value("${fittrack.leaderboards.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.leaderboardRepository = leaderboardRepository;
+        this.leaderboards = leaderboards;
+        this.leaderboardEngine = leaderboardEngine;
+        this.restoreDuration = Timer.builder("fittrack.leaderboards.restore.duration").register(meterRegistry);
+        this.snapshotDuration = Timer.builder("fittrack.leaderboards.snapshot.duration").register(meterRegistry);
+        this.pollLag = pollLag;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            leaderboardEngine.backfill();
+        }
+        restore();
+    }
+
+    public void restore() {
+        long start = System.nanoTime();
+        leaderboards.advanceTo(LocalDate.now());
+        LocalDateTime loadStart = leaderboardRepository.now();
+        LocalDateTime from = loadStart;
+        boolean complete = true;
+        for (Board board : Board.values()) {
+            Optional<LeaderboardRepository.Snapshot> snapshot = leaderboardRepository.findSnapshot(board);
+            if (snapshot.isEmpty() || snapshot.get().period() != leaderboards.period(board)) {
+                complete = false;
+                break;
+            }
+            leaderboards.index(board).restore(snapshot.get().data());
+            from = from.isBefore(snapshot.get().takenAt()) ? from : snapshot.get().takenAt();
+        }
+        if (!complete) {
+            for (Board board : Board.values()) {
+                leaderboards.index(board).clear();
+            }
+            LocalDate today = leaderboards.getToday();
+            leaderboardRepository.forEachLive(leaderboards.period(Board.WORKOUT_SETS), today, leaderboards::apply);
+            // Rows committed just after the load started may be missing from it
+            from = loadStart.minus(pollLag);
+        }
+        appliedThrough = from;
+        poll();
+
+        long elapsed = System.nanoTime() - start;
+        restoreDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Restored leaderboards " + (complete ? "from snapshots" : "from scores") + " with "
+                + leaderboards.index(Board.WORKOUT_SETS).size() + " users this week in " + elapsed / 1_000_000
+                + " ms");
+    }
+
+    @Scheduled(fixedDelayString = "${fittrack.leaderboards.poll-interval:PT1S}")
+    public synchronized void poll() {
+        LocalDateTime after = appliedThrough;
+        if (after == null) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            if (leaderboards.advanceTo(today)) {
+                // Streaks last logged the day before yesterday are no longer alive today
+                leaderboardRepository.forEachStreakEndingOn(today.minusDays(2), leaderboards::apply);
+            }
+            LocalDateTime until = leaderboardRepository.now().minus(pollLag);
+            if (until.isAfter(after)) {
+                leaderboardRepository.forEachScoredBetween(after, until, leaderboards::apply);
+                appliedThrough = until;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Leaderboard poll failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fittrack.leaderboards.snapshot-interval:PT10M}",
+            initialDelayString = "${fittrack.leaderboards.snapshot-interval:PT10M}")
+    public void snapshot() {
+        LocalDateTime takenAt = appliedThrough;
+        if (takenAt == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            for (Board board : Board.values()) {
+                RankIndex index = leaderboards.index(board);
+                long period = leaderboards.period(board);
+                byte[] data = index.snapshot();
+                // A day change while encoding leaves a snapshot of neither day
+                if (period == leaderboards.period(board)) {
+                    leaderboardRepository.saveSnapshot(board, period, index.size(), takenAt, data);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Leaderboard snapshot failed: " + e.getMessage());
+        }
+        snapshotDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,119 @@
+package com.fit_track.leaderboard;
+
+import com.fit_track.streak.StreakKind;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This instance's in-memory ranking of every board, fed by
+ * {@link LeaderboardEngine} for local writes and {@link LeaderboardSync} for
+ * everyone else's. Applying scores is idempotent, so the same row may arrive
+ * through both.
+ *
+ * <p>The boards cover one day: moving to a new week empties the weekly
+ * boards, and streaks are re-scored against the new date as their rows are
+ * applied. Rows already scored for the next week, from an instance whose
+ * clock is slightly ahead, are held back and applied when this one gets
+ * there.
+ */
+@Component
+public class Leaderboards {
+
+    private final Map<Board, RankIndex> indexes = new EnumMap<>(Board.class);
+    // Applying takes the read side, changing day the write side
+    private final ReentrantReadWriteLock periodLock = new ReentrantReadWriteLock();
+    private long today;
+    private long week;
+    private final Queue<Scores> nextWeek = new ConcurrentLinkedQueue<>();
+
+    public Leaderboards() {
+        for (Board board : Board.values()) {
+            indexes.put(board, new RankIndex(board.getMaxScore()));
+        }
+        LocalDate now = LocalDate.now();
+        this.today = now.toEpochDay();
+        this.week = StreakKind.WORKOUT_WEEK.period(now);
+    }
+
+    public RankIndex index(Board board) {
+        return indexes.get(board);
+    }
+
+    public void apply(Scores scores) {
+        periodLock.readLock().lock();
+        try {
+            if (scores.week() > week) {
+                nextWeek.add(scores);
+            }
+            for (Map.Entry<Board, RankIndex> entry : indexes.entrySet()) {
+                entry.getValue().set(scores.userId(), entry.getKey().score(scores, week, today));
+            }
+        } finally {
+            periodLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the boards to {@code day}, emptying the weekly boards when it
+     * starts a new week. Streaks that lapse on the new day still need their
+     * rows re-applied.
+     *
+     * @return false when the boards already cover that day or a later one
+     */
+    public boolean advanceTo(LocalDate day) {
+        periodLock.writeLock().lock();
+        try {
+            if (day.toEpochDay() <= today) {
+                return false;
+            }
+            long newWeek = StreakKind.WORKOUT_WEEK.period(day);
+            if (newWeek != week) {
+                for (Board board : Board.values()) {
+                    if (board.isWeekly()) {
+                        indexes.get(board).clear();
+                    }
+                }
+            }
+            today = day.toEpochDay();
+            week = newWeek;
+            for (int held = nextWeek.size(); held > 0; held--) {
+                Scores scores = nextWeek.poll();
+                if (scores.week() > week) {
+                    nextWeek.add(scores);
+                } else if (scores.week() == week) {
+                    for (Map.Entry<Board, RankIndex> entry : indexes.entrySet()) {
+                        entry.getValue().set(scores.userId(), entry.getKey().score(scores, week, today));
+                    }
+                }
+            }
+            return true;
+        } finally {
+            periodLock.writeLock().unlock();
+        }
+    }
+
+    public LocalDate getToday() {
+        periodLock.readLock().lock();
+        try {
+            return LocalDate.ofEpochDay(today);
+        } finally {
+            periodLock.readLock().unlock();
+        }
+    }
+
+    // The period a board's snapshot is valid for: its week, or the day for the streak board
+    public long period(Board board) {
+        periodLock.readLock().lock();
+        try {
+            return board.isWeekly() ? week : today;
+        } finally {
+            periodLock.readLock().unlock();
+        }
+    }
+}
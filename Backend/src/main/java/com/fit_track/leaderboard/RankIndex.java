@@ -0,0 +1,315 @@
+package com.fit_track.leaderboard;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Ranks users by a bounded integer score. A Fenwick tree over the score
+ * buckets counts users per score, so a user's rank and the bucket holding
+ * the k-th best user are O(log maxScore), and each bucket keeps its users in
+ * an intrusive linked list, so a score change and each top-N entry are O(1)
+ * on top of that. Users with score 0 are not ranked.
+ *
+ * <p>Arrays are indexed by user id, which the users table allocates densely,
+ * at 12 bytes per id up to the highest one ranked. Ties share a rank, one
+ * more than the number of users strictly ahead.
+ */
+public final class RankIndex {
+
+    public record Entry(long userId, int score, int rank) {
+    }
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxScore;
+    // Fenwick tree over buckets 1..maxScore
+    private final int[] counts;
+    private final int[] heads;
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+    private int size;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RankIndex(int maxScore) {
+        if (maxScore < 1) {
+            throw new IllegalArgumentException("maxScore must be positive");
+        }
+        this.maxScore = maxScore;
+        this.counts = new int[maxScore + 1];
+        this.heads = new int[maxScore + 1];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * @param score clamped to 0..maxScore; 0 removes the user
+     */
+    public void set(long userId, int score) {
+        int user = slot(userId);
+        lock.writeLock().lock();
+        try {
+            put(user, Math.clamp(score, 0, maxScore));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int score(long userId) {
+        int user = slot(userId);
+        lock.readLock().lock();
+        try {
+            return user < scores.length ? scores[user] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 0 when the user is not ranked
+    public int rank(long userId) {
+        int user = slot(userId);
+        lock.readLock().lock();
+        try {
+            int score = user < scores.length ? scores[user] : 0;
+            return score == 0 ? 0 : size - prefix(score) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of ranked users
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code n} best users, best first. Within a score, users come in no
+     * particular order, so a tie at the cut-off is broken arbitrarily.
+     */
+    public List<Entry> top(int n) {
+        lock.readLock().lock();
+        try {
+            List<Entry> top = new ArrayList<>(Math.min(n, size));
+            int ahead = 0;
+            while (top.size() < n && ahead < size) {
+                // Everyone in higher buckets is already listed, so the best remaining user is the
+                // (size - ahead)-th lowest
+                int bucket = select(size - ahead);
+                for (int user = heads[bucket]; user != NONE && top.size() < n; user = next[user]) {
+                    top.add(new Entry(user, bucket, ahead + 1));
+                }
+                ahead = size - prefix(bucket - 1);
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(scores, 0);
+            Arrays.fill(counts, 0);
+            Arrays.fill(heads, NONE);
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked users as ascending (id gap, score) varint pairs after a count,
+     * deflated. Scores are copied under the read lock and encoded outside it.
+     */
+    public byte[] snapshot() {
+        int[] copy;
+        int count;
+        lock.readLock().lock();
+        try {
+            copy = scores.clone();
+            count = size;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // At most five bytes per varint
+        byte[] raw = new byte[5 + count * 10];
+        int length = writeVarint(raw, 0, count);
+        int last = 0;
+        for (int user = 0; user < copy.length; user++) {
+            if (copy[user] > 0) {
+                length = writeVarint(raw, length, user - last);
+                length = writeVarint(raw, length, copy[user]);
+                last = user;
+            }
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw, 0, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length / 4 + 64);
+            byte[] buffer = new byte[1 << 16];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Replaces the contents with a snapshot taken by snapshot()
+    public void restore(byte[] snapshot) {
+        byte[] raw;
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(snapshot))) {
+            raw = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int[] position = {0};
+        int count = readVarint(raw, position);
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(scores, 0);
+            Arrays.fill(counts, 0);
+            Arrays.fill(heads, NONE);
+            size = 0;
+            int user = 0;
+            for (int i = 0; i < count; i++) {
+                user += readVarint(raw, position);
+                put(user, Math.clamp(readVarint(raw, position), 0, maxScore));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    private void put(int user, int score) {
+        ensureCapacity(user);
+        int old = scores[user];
+        if (old == score) {
+            return;
+        }
+        if (old > 0) {
+            unlink(user, old);
+            add(old, -1);
+            size--;
+        }
+        if (score > 0) {
+            link(user, score);
+            add(score, 1);
+            size++;
+        }
+        scores[user] = score;
+    }
+
+    private void link(int user, int bucket) {
+        int head = heads[bucket];
+        next[user] = head;
+        previous[user] = NONE;
+        if (head != NONE) {
+            previous[head] = user;
+        }
+        heads[bucket] = user;
+    }
+
+    private void unlink(int user, int bucket) {
+        if (previous[user] != NONE) {
+            next[previous[user]] = next[user];
+        } else {
+            heads[bucket] = next[user];
+        }
+        if (next[user] != NONE) {
+            previous[next[user]] = previous[user];
+        }
+    }
+
+    private void add(int bucket, int delta) {
+        for (int i = bucket; i <= maxScore; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    // Users with a score of at most bucket
+    private int prefix(int bucket) {
+        int sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+
+    // Lowest bucket whose prefix reaches k, for 1 <= k <= size
+    private int select(int k) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(maxScore); step > 0; step >>= 1) {
+            if (position + step <= maxScore && counts[position + step] < k) {
+                position += step;
+                k -= counts[position];
+            }
+        }
+        return position + 1;
+    }
+
+    private void ensureCapacity(int user) {
+        if (user < scores.length) {
+            return;
+        }
+        int capacity = Math.max(user + 1, scores.length + (scores.length >> 1));
+        scores = Arrays.copyOf(scores, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+
+    private static int slot(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("User id out of range: " + userId);
+        }
+        return (int) userId;
+    }
+
+    private static int writeVarint(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(byte[] in, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= in.length) {
+                throw new IllegalArgumentException("Truncated leaderboard snapshot");
+            }
+            byte b = in[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed leaderboard snapshot");
+    }
+}
@@ -0,0 +1,16 @@
+package com.fit_track.leaderboard;
+
+import com.fit_track.service.UserProfile;
+import com.fit_track.streak.DayActivity;
+import com.fit_track.streak.StreakCounter;
+
+import java.util.List;
+
+/**
+ * What {@link Scores#of} needs for one user and week, as loaded by
+ * {@code LeaderboardRepository.findInputs}.
+ *
+ * @param days the user's daily rollups within the week, ascending
+ */
+public record ScoreInput(UserProfile profile, List<DayActivity> days, StreakCounter logging) {
+}
@@ -0,0 +1,39 @@
+package com.fit_track.leaderboard;
+
+import com.fit_track.service.UserProfile;
+import com.fit_track.streak.DayActivity;
+import com.fit_track.streak.StreakCounter;
+import com.fit_track.streak.StreakRules;
+
+import java.util.List;
+
+/**
+ * A user's raw leaderboard inputs, as stored in {@code leaderboard_scores}.
+ * Kept independent of the current date so that any instance can apply them
+ * later; {@link Board#score} decides what still counts.
+ *
+ * @param week             Monday-based week the weekly counts are for
+ * @param loggingStreakEnd epoch day of the streak's last logged day
+ */
+public record Scores(long userId, long week, int workoutSets, int calorieTargetDays, int loggingStreak,
+                     long loggingStreakEnd) {
+
+    /**
+     * @param days    the user's daily rollups within {@code week}
+     * @param logging the user's logging streak
+     */
+    public static Scores of(UserProfile profile, long week, List<DayActivity> days, StreakCounter logging,
+                            StreakRules rules) {
+        int calorieTarget = StreakRules.calorieTarget(profile);
+        int workoutSets = 0;
+        int calorieTargetDays = 0;
+        for (DayActivity day : days) {
+            workoutSets += day.workoutSets();
+            if (rules.hitCalorieTarget(day, calorieTarget)) {
+                calorieTargetDays++;
+            }
+        }
+        return new Scores(profile.id(), week, workoutSets, calorieTargetDays, logging.getCurrent(),
+                logging.getCurrent() == 0 ? 0 : logging.getCurrentEnd());
+    }
+}
@@ -0,0 +1,249 @@
+package com.fit_track.mail;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues outgoing mail and delivers it from a single worker over one SMTP
+ * connection that stays open while there is traffic, so a burst of signups
+ * pays for the TCP/TLS/AUTH handshake once instead of per message. The
+ * connection is closed after {@code idle-timeout} without mail and reopened
+ * transparently if the server drops it.
+ *
+ * <p>Identical messages (same template, recipient and parameters) submitted
+ * within {@code coalesce-window} are sent once, which absorbs repeated
+ * "resend code" clicks.
+ */
+@Component
+@Lazy
+public class MailDeliveryEngine {
+
+    public enum Submission { QUEUED, COALESCED, REJECTED }
+
+    private record OutgoingMail(MailTemplate template, String to, String[] params, String coalesceKey,
+                                long enqueuedAt) {
+    }
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final int maxBatchSize;
+    private final long idleTimeoutNanos;
+    private final BlockingQueue<OutgoingMail> queue;
+    private final Cache<String, Boolean> recentlySubmitted;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter connectionsOpened;
+    private final Timer deliveryLatency;
+    private final Timer batchDuration;
+    private final DistributionSummary batchSize;
+
+    private volatile boolean running;
+    private Thread worker;
+    private Transport transport;
+
+    public MailDeliveryEngine(
+            JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.mail.from:noreply@fittrack.com}") String from,
+            @Value("${fittrack.mail.queue-capacity:10000}") int queueCapacity,
+            @Value("${fittrack.mail.max-batch-size:50}") int maxBatchSize,
+            @Value("${fittrack.mail.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${fittrack.mail.coalesce-window:60s}") Duration coalesceWindow) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.maxBatchSize = maxBatchSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.recentlySubmitted = Caffeine.newBuilder()
+                .expireAfterWrite(coalesceWindow)
+                .maximumSize(100_000)
+                .build();
+
+        this.sent = messageCounter(meterRegistry, "sent");
+        this.failed = messageCounter(meterRegistry, "failed");
+        this.coalesced = messageCounter(meterRegistry, "coalesced");
+        this.rejected = messageCounter(meterRegistry, "rejected");
+        this.connectionsOpened = Counter.builder("fittrack.mail.connections.opened")
+                .description("SMTP connections opened by the delivery worker")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("fittrack.mail.delivery.latency")
+                .description("Time from submission until the message was accepted by the SMTP server")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("fittrack.mail.batch.duration")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("fittrack.mail.batch.size")
+                .register(meterRegistry);
+        Gauge.builder("fittrack.mail.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::deliverLoop, "mail-delivery");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Drains what is already queued, then closes the connection.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public Submission submit(MailTemplate template, String to, String... params) {
+        String coalesceKey = template.getName() + '\0' + to + '\0' + String.join("\0", params);
+        if (recentlySubmitted.asMap().putIfAbsent(coalesceKey, Boolean.TRUE) != null) {
+            coalesced.increment();
+            return Submission.COALESCED;
+        }
+
+        if (!queue.offer(new OutgoingMail(template, to, params, coalesceKey, System.nanoTime()))) {
+            recentlySubmitted.invalidate(coalesceKey);
+            rejected.increment();
+            return Submission.REJECTED;
+        }
+        return Submission.QUEUED;
+    }
+
+    private void deliverLoop() {
+        List<OutgoingMail> batch = new ArrayList<>(maxBatchSize);
+        long lastActivity = System.nanoTime();
+
+        while (running || !queue.isEmpty()) {
+            OutgoingMail first;
+            try {
+                first = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (first == null) {
+                if (transport != null && System.nanoTime() - lastActivity > idleTimeoutNanos) {
+                    closeTransport();
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            deliver(batch);
+            batch.clear();
+            lastActivity = System.nanoTime();
+        }
+        closeTransport();
+    }
+
+    private void deliver(List<OutgoingMail> batch) {
+        long start = System.nanoTime();
+        for (OutgoingMail mail : batch) {
+            try {
+                send(toMimeMessage(mail));
+                sent.increment();
+                deliveryLatency.record(System.nanoTime() - mail.enqueuedAt(), TimeUnit.NANOSECONDS);
+            } catch (MessagingException | MailException e) {
+                // Let a retry through instead of coalescing it into a message that never arrived
+                recentlySubmitted.invalidate(mail.coalesceKey());
+                failed.increment();
+                System.err.println("Failed to send " + mail.template().getName() + " email to "
+                        + mail.to() + ": " + e.getMessage());
+            }
+        }
+        batchSize.record(batch.size());
+        batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(mail.to());
+        helper.setSubject(mail.template().getSubject());
+        helper.setText(mail.template().render(mail.params()));
+        message.setSentDate(new Date());
+        return message;
+    }
+
+    private void send(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            mailSender.send(message);
+            return;
+        }
+
+        message.saveChanges();
+        try {
+            transport().sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            // Rejected recipient; the connection itself is still usable
+            throw e;
+        } catch (MessagingException e) {
+            // Most likely the server closed an idle connection: reconnect once and retry
+            closeTransport();
+            transport().sendMessage(message, message.getAllRecipients());
+        }
+    }
+
+    private Transport transport() throws MessagingException {
+        if (transport == null) {
+            JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+            String protocol = sender.getProtocol() != null ? sender.getProtocol() : "smtp";
+            Transport opened = sender.getSession().getTransport(protocol);
+            opened.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+            connectionsOpened.increment();
+            transport = opened;
+        }
+        return transport;
+    }
+
+    private void closeTransport() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            System.err.println("Failed to close SMTP connection: " + e.getMessage());
+        }
+        transport = null;
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fittrack.mail.messages")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
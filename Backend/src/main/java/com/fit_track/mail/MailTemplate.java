@@ -0,0 +1,82 @@
+package com.fit_track.mail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plain-text email template compiled once into literal segments and
+ * placeholder slots, so rendering is a single pre-sized append pass instead
+ * of re-parsing a format string per message. Placeholders are written
+ * {@code {name}} and bound positionally to the declared parameter names.
+ */
+public final class MailTemplate {
+
+    private final String name;
+    private final String subject;
+    private final String[] literals;
+    private final int[] slots;
+    private final int parameterCount;
+    private final int literalLength;
+
+    private MailTemplate(String name, String subject, String[] literals, int[] slots, int parameterCount) {
+        this.name = name;
+        this.subject = subject;
+        this.literals = literals;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+        this.literalLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    public static MailTemplate compile(String name, String subject, String body, String... parameterNames) {
+        List<String> names = List.of(parameterNames);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = body.indexOf('{', position)) >= 0) {
+            int close = body.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            int slot = names.indexOf(body.substring(open + 1, close));
+            if (slot < 0) {
+                throw new IllegalArgumentException("Template '" + name + "' uses undeclared placeholder "
+                        + body.substring(open, close + 1));
+            }
+            literals.add(body.substring(position, open));
+            slots.add(slot);
+            position = close + 1;
+        }
+        literals.add(body.substring(position));
+
+        return new MailTemplate(name, subject, literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(), names.size());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String render(String... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Template '" + name + "' takes " + parameterCount
+                    + " parameters, got " + values.length);
+        }
+        int capacity = literalLength;
+        for (String value : values) {
+            capacity += value.length();
+        }
+
+        StringBuilder body = new StringBuilder(capacity);
+        for (int i = 0; i < slots.length; i++) {
+            body.append(literals[i]).append(values[slots[i]]);
+        }
+        return body.append(literals[literals.length - 1]).toString();
+    }
+}
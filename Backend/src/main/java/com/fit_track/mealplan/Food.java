@@ -0,0 +1,20 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.entity.FoodLog;
+
+import java.util.Set;
+
+/**
+ * One catalog entry. Nutrients are per {@code serving}.
+ *
+ * @param meals the meals this food may be suggested for
+ */
+public record Food(
+        String name,
+        Set<FoodLog.Meal> meals,
+        String serving,
+        int calories,
+        double proteinG,
+        double carbsG,
+        double fatG) {
+}
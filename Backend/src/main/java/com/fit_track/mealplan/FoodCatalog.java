@@ -0,0 +1,107 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.entity.FoodLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Foods available to the meal-plan solver, with nutrients laid out in flat
+ * per-serving arrays and the foods allowed in each meal precomputed, so the
+ * solver's inner loop reads primitives by index.
+ */
+public final class FoodCatalog {
+
+    private final List<Food> foods;
+    final double[] calories;
+    final double[] proteinG;
+    final double[] carbsG;
+    final double[] fatG;
+    // Food indexes allowed in each meal, by FoodLog.Meal ordinal
+    final int[][] candidates;
+
+    private FoodCatalog(List<Food> foods) {
+        this.foods = List.copyOf(foods);
+        int size = foods.size();
+        calories = new double[size];
+        proteinG = new double[size];
+        carbsG = new double[size];
+        fatG = new double[size];
+        for (int i = 0; i < size; i++) {
+            Food food = foods.get(i);
+            calories[i] = food.calories();
+            proteinG[i] = food.proteinG();
+            carbsG[i] = food.carbsG();
+            fatG[i] = food.fatG();
+        }
+
+        FoodLog.Meal[] meals = FoodLog.Meal.values();
+        candidates = new int[meals.length][];
+        for (FoodLog.Meal meal : meals) {
+            candidates[meal.ordinal()] = IntStream.range(0, size)
+                    .filter(i -> foods.get(i).meals().contains(meal))
+                    .toArray();
+            if (candidates[meal.ordinal()].length == 0) {
+                throw new IllegalArgumentException("Food catalog has nothing for " + meal);
+            }
+        }
+    }
+
+    public static FoodCatalog of(List<Food> foods) {
+        return new FoodCatalog(foods);
+    }
+
+    /**
+     * Reads the CSV format of {@code mealplan/foods.csv}: a header row, then
+     * {@code name,meals,serving,calories,protein_g,carbs_g,fat_g} with meals
+     * separated by {@code |}. Blank lines and lines starting with {@code #}
+     * are skipped.
+     */
+    public static FoodCatalog load(InputStream csv) throws IOException {
+        List<Food> foods = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            boolean header = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 7) {
+                    throw new IllegalArgumentException("Malformed food catalog line: " + line);
+                }
+                Set<FoodLog.Meal> meals = EnumSet.noneOf(FoodLog.Meal.class);
+                for (String meal : fields[1].split("\\|")) {
+                    meals.add(FoodLog.Meal.valueOf(meal.trim()));
+                }
+                foods.add(new Food(fields[0].trim(), meals, fields[2].trim(), Integer.parseInt(fields[3].trim()),
+                        Double.parseDouble(fields[4]), Double.parseDouble(fields[5]), Double.parseDouble(fields[6])));
+            }
+        }
+        return new FoodCatalog(foods);
+    }
+
+    public Food get(int index) {
+        return foods.get(index);
+    }
+
+    public List<Food> foods() {
+        return foods;
+    }
+
+    public int size() {
+        return foods.size();
+    }
+}
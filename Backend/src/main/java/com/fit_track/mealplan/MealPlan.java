@@ -0,0 +1,21 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.entity.FoodLog;
+import com.fit_track.service.NutritionTargets;
+
+import java.util.List;
+
+/**
+ * A suggested day of meals and how close it comes to the targets it was
+ * solved for. {@code totals} is the sum over every item; {@code partial}
+ * plans are the best found before the time budget ran out.
+ */
+public record MealPlan(NutritionTargets targets, NutritionTargets totals, List<Meal> meals, boolean partial) {
+
+    public record Meal(FoodLog.Meal meal, int calories, List<Item> items) {
+    }
+
+    public record Item(String name, String serving, double servings, int calories, double proteinG, double carbsG,
+                       double fatG) {
+    }
+}
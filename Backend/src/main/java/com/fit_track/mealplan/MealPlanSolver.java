@@ -0,0 +1,250 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.entity.FoodLog;
+import com.fit_track.service.NutritionTargets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Simulated-annealing search for a day of meals close to a set of calorie
+ * and macro targets. A plan has up to {@link #ITEMS_PER_MEAL} foods per meal,
+ * each in half-serving steps; a move changes one food's portion, swaps it
+ * for another food allowed in that meal, or fills an empty place. Nutrient
+ * totals are kept incrementally, so a move is scored in constant time
+ * whatever the catalog size.
+ *
+ * <p>The objective is the squared relative error of calories and each
+ * macro, calories weighted highest, plus a smaller term pulling each meal
+ * towards its usual share of the day. A run is deterministic for a given
+ * seed unless it is cut short by the deadline, which is checked every few
+ * hundred moves.
+ */
+public final class MealPlanSolver {
+
+    public static final int ITEMS_PER_MEAL = 3;
+    public static final int MAX_HALF_SERVINGS = 6;
+
+    private static final int MEALS = FoodLog.Meal.values().length;
+    private static final int SLOTS = MEALS * ITEMS_PER_MEAL;
+    // Breakfast, lunch, dinner, snacks, by FoodLog.Meal ordinal
+    private static final double[] MEAL_SHARE = {0.25, 0.35, 0.30, 0.10};
+    private static final double CALORIE_WEIGHT = 4;
+    private static final double PROTEIN_WEIGHT = 2;
+    private static final double CARBS_WEIGHT = 1;
+    private static final double FAT_WEIGHT = 1;
+    private static final double MEAL_WEIGHT = 0.5;
+    private static final double INITIAL_TEMPERATURE = 0.01;
+    private static final int DEADLINE_CHECK_MASK = 0xFF;
+
+    /**
+     * @param foods        catalog index per place, meal by meal, or -1 when empty
+     * @param halfServings portion per place in half servings
+     * @param complete     false when the deadline stopped the search early
+     */
+    public record Solution(int[] foods, int[] halfServings, double score, boolean complete) {
+    }
+
+    private final FoodCatalog catalog;
+    private final int iterations;
+
+    public MealPlanSolver(FoodCatalog catalog, int iterations) {
+        this.catalog = catalog;
+        this.iterations = iterations;
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} after which the best plan so far is returned
+     */
+    public Solution solve(NutritionTargets targets, long seed, long deadline) {
+        return new Search(targets, new SplittableRandom(seed)).run(deadline);
+    }
+
+    public MealPlan toPlan(Solution solution, NutritionTargets targets) {
+        List<MealPlan.Meal> meals = new ArrayList<>(MEALS);
+        double calories = 0;
+        double protein = 0;
+        double carbs = 0;
+        double fat = 0;
+        for (FoodLog.Meal meal : FoodLog.Meal.values()) {
+            List<MealPlan.Item> items = new ArrayList<>(ITEMS_PER_MEAL);
+            double mealCalories = 0;
+            for (int slot = meal.ordinal() * ITEMS_PER_MEAL; slot < (meal.ordinal() + 1) * ITEMS_PER_MEAL; slot++) {
+                int food = solution.foods()[slot];
+                if (food < 0) {
+                    continue;
+                }
+                double servings = solution.halfServings()[slot] / 2.0;
+                Food entry = catalog.get(food);
+                items.add(new MealPlan.Item(entry.name(), entry.serving(), servings,
+                        (int) Math.round(entry.calories() * servings), round(entry.proteinG() * servings),
+                        round(entry.carbsG() * servings), round(entry.fatG() * servings)));
+                mealCalories += entry.calories() * servings;
+                protein += entry.proteinG() * servings;
+                carbs += entry.carbsG() * servings;
+                fat += entry.fatG() * servings;
+            }
+            calories += mealCalories;
+            meals.add(new MealPlan.Meal(meal, (int) Math.round(mealCalories), items));
+        }
+        NutritionTargets totals = new NutritionTargets((int) Math.round(calories), (int) Math.round(protein),
+                (int) Math.round(carbs), (int) Math.round(fat));
+        return new MealPlan(targets, totals, meals, !solution.complete());
+    }
+
+    private static double round(double grams) {
+        return Math.round(grams * 10) / 10.0;
+    }
+
+    // Mutable state of one annealing run
+    private final class Search {
+
+        private final SplittableRandom random;
+        private final double calorieTarget;
+        private final double proteinTarget;
+        private final double carbsTarget;
+        private final double fatTarget;
+        private final int[] foods = new int[SLOTS];
+        private final int[] halfServings = new int[SLOTS];
+        private final double[] mealCalories = new double[MEALS];
+        private double calories;
+        private double protein;
+        private double carbs;
+        private double fat;
+
+        Search(NutritionTargets targets, SplittableRandom random) {
+            this.random = random;
+            this.calorieTarget = Math.max(targets.calories(), 1);
+            this.proteinTarget = Math.max(targets.proteinG(), 1);
+            this.carbsTarget = Math.max(targets.carbsG(), 1);
+            this.fatTarget = Math.max(targets.fatG(), 1);
+        }
+
+        Solution run(long deadline) {
+            // Two single servings per meal to start from
+            Arrays.fill(foods, -1);
+            for (int meal = 0; meal < MEALS; meal++) {
+                for (int item = 0; item < 2; item++) {
+                    int food = pick(meal);
+                    if (food >= 0) {
+                        foods[meal * ITEMS_PER_MEAL + item] = food;
+                        halfServings[meal * ITEMS_PER_MEAL + item] = 2;
+                        place(meal, food, 2, 1);
+                    }
+                }
+            }
+
+            double score = score();
+            int[] bestFoods = foods.clone();
+            int[] bestHalfServings = halfServings.clone();
+            double bestScore = score;
+
+            boolean complete = true;
+            for (int i = 0; i < iterations; i++) {
+                if ((i & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline >= 0) {
+                    complete = false;
+                    break;
+                }
+                int slot = random.nextInt(SLOTS);
+                int meal = slot / ITEMS_PER_MEAL;
+                int oldFood = foods[slot];
+                int oldHalfServings = halfServings[slot];
+                int newFood = oldFood;
+                int newHalfServings = oldHalfServings;
+                if (oldFood < 0 || random.nextInt(3) == 0) {
+                    newFood = pick(meal);
+                    if (newFood < 0) {
+                        continue;
+                    }
+                    if (oldFood < 0) {
+                        newHalfServings = 1 + random.nextInt(MAX_HALF_SERVINGS);
+                    }
+                } else {
+                    newHalfServings += random.nextBoolean() ? 1 : -1;
+                    if (newHalfServings > MAX_HALF_SERVINGS) {
+                        continue;
+                    }
+                    if (newHalfServings == 0) {
+                        newFood = -1;
+                    }
+                }
+
+                if (oldFood >= 0) {
+                    place(meal, oldFood, oldHalfServings, -1);
+                }
+                if (newFood >= 0) {
+                    place(meal, newFood, newHalfServings, 1);
+                }
+                double candidate = score();
+                double temperature = INITIAL_TEMPERATURE * (1 - (double) i / iterations);
+                if (candidate <= score || random.nextDouble() < Math.exp((score - candidate) / temperature)) {
+                    foods[slot] = newFood;
+                    halfServings[slot] = newFood < 0 ? 0 : newHalfServings;
+                    score = candidate;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        System.arraycopy(foods, 0, bestFoods, 0, SLOTS);
+                        System.arraycopy(halfServings, 0, bestHalfServings, 0, SLOTS);
+                    }
+                } else {
+                    if (newFood >= 0) {
+                        place(meal, newFood, newHalfServings, -1);
+                    }
+                    if (oldFood >= 0) {
+                        place(meal, oldFood, oldHalfServings, 1);
+                    }
+                }
+            }
+            return new Solution(bestFoods, bestHalfServings, bestScore, complete);
+        }
+
+        // A random food allowed in the meal and not already in it, or -1 after a few misses
+        private int pick(int meal) {
+            int[] candidates = catalog.candidates[meal];
+            for (int attempt = 0; attempt < 4; attempt++) {
+                int food = candidates[random.nextInt(candidates.length)];
+                if (!inMeal(meal, food)) {
+                    return food;
+                }
+            }
+            return -1;
+        }
+
+        private boolean inMeal(int meal, int food) {
+            for (int slot = meal * ITEMS_PER_MEAL; slot < (meal + 1) * ITEMS_PER_MEAL; slot++) {
+                if (foods[slot] == food) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Adds (sign 1) or removes (sign -1) a portion from the totals; the caller updates the places
+        private void place(int meal, int food, int portion, int sign) {
+            double servings = sign * portion / 2.0;
+            double foodCalories = catalog.calories[food] * servings;
+            calories += foodCalories;
+            mealCalories[meal] += foodCalories;
+            protein += catalog.proteinG[food] * servings;
+            carbs += catalog.carbsG[food] * servings;
+            fat += catalog.fatG[food] * servings;
+        }
+
+        private double score() {
+            double score = CALORIE_WEIGHT * square((calories - calorieTarget) / calorieTarget)
+                    + PROTEIN_WEIGHT * square((protein - proteinTarget) / proteinTarget)
+                    + CARBS_WEIGHT * square((carbs - carbsTarget) / carbsTarget)
+                    + FAT_WEIGHT * square((fat - fatTarget) / fatTarget);
+            for (int meal = 0; meal < MEALS; meal++) {
+                score += MEAL_WEIGHT * square((mealCalories[meal] - MEAL_SHARE[meal] * calorieTarget) / calorieTarget);
+            }
+            return score;
+        }
+
+        private static double square(double value) {
+            return value * value;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.exception.ApiException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.service.NutritionTargets;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Solves meal plans on a dedicated fork-join pool, apart from request and
+ * scheduler threads, under a hard time budget per request. A day is solved
+ * by independent annealing runs, one per worker, and the best one wins; a
+ * week solves its seven days side by side. Each run stops at the deadline
+ * with the best plan found so far, and the request waits at most a short
+ * grace period beyond it.
+ *
+ * <p>Targets are rounded to {@link PlanKey} buckets and plans are cached per
+ * bucket and weekday, so users with similar targets share solutions and a
+ * plan stays the same for a given weekday until it is evicted. A plan cut
+ * short by the budget is returned marked partial and not cached, so the
+ * next request for that bucket gets another chance to solve it. At most
+ * {@code max-concurrent} requests solve at once; the rest wait up to one
+ * budget for a slot and are then turned away.
+ */
+@Component
+public class MealPlanner {
+
+    public static final int DAYS_PER_WEEK = 7;
+
+    private final MealPlanSolver solver;
+    private final ForkJoinPool pool;
+    private final Semaphore slots;
+    private final Cache<PlanKey, MealPlan> plans;
+    private final Duration timeBudget;
+    private final Duration grace;
+    private final Timer solveDuration;
+
+    public MealPlanner(
+            @Value("${fittrack.meal-plan.catalog:classpath:mealplan/foods.csv}") Resource catalog,
+            @Value("${fittrack.meal-plan.iterations:20000}") int iterations,
+            @Value("${fittrack.meal-plan.parallelism:2}") int parallelism,
+            @Value("${fittrack.meal-plan.max-concurrent:4}") int maxConcurrent,
+            @Value("${fittrack.meal-plan.time-budget:250ms}") Duration timeBudget,
+            @Value("${fittrack.meal-plan.grace:50ms}") Duration grace,
+            @Value("${fittrack.meal-plan.cache-size:10000}") long cacheSize,
+            MeterRegistry meterRegistry) {
+        try (InputStream csv = catalog.getInputStream()) {
+            this.solver = new MealPlanSolver(FoodCatalog.load(csv), iterations);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load food catalog " + catalog, e);
+        }
+        // Bounded: solver tasks never block, so the pool has no reason to grow past parallelism
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("meal-plan-" + thread.getPoolIndex());
+            return thread;
+        }, null, false, 0, parallelism, 1, pool -> true, 60, TimeUnit.SECONDS);
+        this.slots = new Semaphore(maxConcurrent);
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+        this.timeBudget = timeBudget;
+        this.grace = grace;
+        this.solveDuration = Timer.builder("fittrack.meal-plan.solve.duration").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param day weekday index, 0 for Monday
+     */
+    public MealPlan dayPlan(NutritionTargets targets, int day) {
+        PlanKey key = PlanKey.of(targets, day);
+        MealPlan cached = plans.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        MealPlan plan = withinBudget(deadline -> {
+            List<ForkJoinTask<MealPlanSolver.Solution>> runs = new ArrayList<>(pool.getParallelism());
+            for (int run = 0; run < pool.getParallelism(); run++) {
+                long seed = key.seed(run);
+                runs.add(pool.submit(() -> solver.solve(key.targets(), seed, deadline)));
+            }
+            return solver.toPlan(best(runs, deadline), key.targets());
+        });
+        if (!plan.partial()) {
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    // Monday first; days already cached are not solved again
+    public List<MealPlan> weekPlan(NutritionTargets targets) {
+        MealPlan[] week = new MealPlan[DAYS_PER_WEEK];
+        List<Integer> missing = new ArrayList<>(DAYS_PER_WEEK);
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            week[day] = plans.getIfPresent(PlanKey.of(targets, day));
+            if (week[day] == null) {
+                missing.add(day);
+            }
+        }
+        if (!missing.isEmpty()) {
+            withinBudget(deadline -> {
+                List<ForkJoinTask<MealPlanSolver.Solution>> days = new ArrayList<>(missing.size());
+                for (int day : missing) {
+                    PlanKey key = PlanKey.of(targets, day);
+                    days.add(pool.submit(() -> solver.solve(key.targets(), key.seed(0), deadline)));
+                }
+                for (int i = 0; i < days.size(); i++) {
+                    MealPlanSolver.Solution solution = await(days.get(i), deadline);
+                    if (solution == null) {
+                        throw new ApiException(ErrorCode.MEAL_PLANNER_BUSY);
+                    }
+                    PlanKey key = PlanKey.of(targets, missing.get(i));
+                    week[key.day()] = solver.toPlan(solution, key.targets());
+                    if (!week[key.day()].partial()) {
+                        plans.put(key, week[key.day()]);
+                    }
+                }
+                return null;
+            });
+        }
+        return List.of(week);
+    }
+
+    private interface Solve<T> {
+        T run(long deadline);
+    }
+
+    private <T> T withinBudget(Solve<T> solve) {
+        long start = System.nanoTime();
+        try {
+            if (!slots.tryAcquire(timeBudget.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ApiException(ErrorCode.MEAL_PLANNER_BUSY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(ErrorCode.MEAL_PLANNER_BUSY);
+        }
+        try {
+            return solve.run(System.nanoTime() + timeBudget.toNanos());
+        } finally {
+            slots.release();
+            solveDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Complete only when every run was: with more time a run that was cut short might have won
+    private MealPlanSolver.Solution best(List<ForkJoinTask<MealPlanSolver.Solution>> runs, long deadline) {
+        MealPlanSolver.Solution best = null;
+        boolean complete = true;
+        for (ForkJoinTask<MealPlanSolver.Solution> run : runs) {
+            MealPlanSolver.Solution solution = await(run, deadline);
+            complete &= solution != null && solution.complete();
+            if (solution != null && (best == null || solution.score() < best.score())) {
+                best = solution;
+            }
+        }
+        if (best == null) {
+            throw new ApiException(ErrorCode.MEAL_PLANNER_BUSY);
+        }
+        return complete ? best : new MealPlanSolver.Solution(best.foods(), best.halfServings(), best.score(), false);
+    }
+
+    // Null when the run had not finished by the deadline plus grace, which only happens when it never started
+    private MealPlanSolver.Solution await(ForkJoinTask<MealPlanSolver.Solution> run, long deadline) {
+        long remaining = deadline + grace.toNanos() - System.nanoTime();
+        try {
+            return run.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            run.cancel(false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.cancel(false);
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Meal plan solver failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.service.NutritionTargets;
+
+/**
+ * Cache key for a solved day: targets rounded to 50 kcal and 5 g of each
+ * macro, which is well inside what a plan can hit in half-serving steps,
+ * and the weekday so a week has seven different days.
+ */
+public record PlanKey(NutritionTargets targets, int day) {
+
+    private static final int CALORIE_STEP = 50;
+    private static final int GRAM_STEP = 5;
+
+    public static PlanKey of(NutritionTargets targets, int day) {
+        return new PlanKey(new NutritionTargets(
+                quantize(targets.calories(), CALORIE_STEP),
+                quantize(targets.proteinG(), GRAM_STEP),
+                quantize(targets.carbsG(), GRAM_STEP),
+                quantize(targets.fatG(), GRAM_STEP)), day);
+    }
+
+    // Same key, same seeds: every node solves a bucket the same way unless the budget runs out
+    long seed(int run) {
+        long seed = targets.calories();
+        seed = seed * 31 + targets.proteinG();
+        seed = seed * 31 + targets.carbsG();
+        seed = seed * 31 + targets.fatG();
+        seed = seed * 31 + day;
+        return seed * 31 + run;
+    }
+
+    private static int quantize(int value, int step) {
+        return Math.round((float) value / step) * step;
+    }
+}
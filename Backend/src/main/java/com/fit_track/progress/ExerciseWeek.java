@@ -0,0 +1,65 @@
+package com.fit_track.progress;
+
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.streak.StreakKind;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One exercise's sets in one week, reduced to what the progress views need.
+ *
+ * @param week       Monday-based week number, as {@link StreakKind#WORKOUT_WEEK} periods
+ * @param bestE1rmOn day of the set with the best estimated one-rep max, null when none could be estimated
+ */
+public record ExerciseWeek(
+        int exerciseId,
+        int week,
+        int sets,
+        int reps,
+        double volumeKg,
+        double topWeightKg,
+        double bestE1rmKg,
+        LocalDate bestE1rmOn) {
+
+    public static int week(LocalDate day) {
+        return Math.toIntExact(StreakKind.WORKOUT_WEEK.period(day));
+    }
+
+    public static LocalDate weekStart(int week) {
+        return StreakKind.WORKOUT_WEEK.start(week);
+    }
+
+    // Names that differ only in case or spacing are the same exercise
+    public static String nameKey(String exercise) {
+        return exercise.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static ExerciseWeek empty(int exerciseId, int week) {
+        return new ExerciseWeek(exerciseId, week, 0, 0, 0, 0, 0, null);
+    }
+
+    /**
+     * @param sets the exercise's sets in that week, in any order
+     */
+    public static ExerciseWeek of(int exerciseId, int week, List<WorkoutSet> sets) {
+        int reps = 0;
+        double volume = 0;
+        double topWeight = 0;
+        double bestE1rm = 0;
+        LocalDate bestE1rmOn = null;
+        for (WorkoutSet set : sets) {
+            reps += set.reps();
+            volume += set.reps() * set.weightKg();
+            topWeight = Math.max(topWeight, set.weightKg());
+            double e1rm = OneRepMax.estimate(set.reps(), set.weightKg());
+            // Ties go to the earliest day, so the result does not depend on set order
+            if (e1rm > bestE1rm || (e1rm > 0 && e1rm == bestE1rm && set.performedOn().isBefore(bestE1rmOn))) {
+                bestE1rm = e1rm;
+                bestE1rmOn = set.performedOn();
+            }
+        }
+        return new ExerciseWeek(exerciseId, week, sets.size(), reps, volume, topWeight, bestE1rm, bestE1rmOn);
+    }
+}
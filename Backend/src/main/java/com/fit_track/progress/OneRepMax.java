@@ -0,0 +1,36 @@
+package com.fit_track.progress;
+
+/**
+ * Estimated one-rep max from a set of {@code reps} at {@code weightKg}.
+ * Brzycki up to ten reps, where it tracks tested maxes more closely, and
+ * Epley above; the two agree exactly at ten. Sets above
+ * {@link #MAX_REPS} say more about endurance than strength and are not
+ * estimated.
+ */
+public final class OneRepMax {
+
+    public static final int MAX_REPS = 20;
+
+    private OneRepMax() {
+    }
+
+    // 0 when the set cannot be estimated (bodyweight, cardio, very high reps)
+    public static double estimate(int reps, double weightKg) {
+        if (reps <= 0 || reps > MAX_REPS || weightKg <= 0) {
+            return 0;
+        }
+        if (reps == 1) {
+            return weightKg;
+        }
+        return reps <= 10 ? brzycki(reps, weightKg) : epley(reps, weightKg);
+    }
+
+    public static double epley(int reps, double weightKg) {
+        return weightKg * (1 + reps / 30.0);
+    }
+
+    // Only meaningful below 37 reps
+    public static double brzycki(int reps, double weightKg) {
+        return weightKg * 36 / (37 - reps);
+    }
+}
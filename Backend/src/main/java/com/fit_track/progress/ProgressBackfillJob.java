@@ -0,0 +1,102 @@
+package com.fit_track.progress;
+
+import com.fit_track.repository.ProgressRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the exercise aggregates for every user from their logged sets, for
+ * history logged before the aggregates existed and after changing the 1RM
+ * formulas. Users are rebuilt in parallel, one transaction each, by a fixed
+ * number of workers; live updates for a user wait on the same lock and apply
+ * on top of the rebuild.
+ *
+ * <p>Runs at startup when {@code fittrack.progress.backfill-on-startup} is
+ * set; enable it on a single instance.
+ */
+@Component
+public class ProgressBackfillJob implements ApplicationRunner {
+
+    private final ProgressEngine progressEngine;
+    private final ProgressRepository progressRepository;
+    private final Timer duration;
+    private final boolean backfillOnStartup;
+    private final int parallelism;
+    private final int batchSize;
+
+    public ProgressBackfillJob(
+            ProgressEngine progressEngine,
+            ProgressRepository progressRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.progress.backfill-on-startup:false}") boolean backfillOnStartup,
+            @Value("${fittrack.progress.backfill.parallelism:4}") int parallelism,
+            @Value("${fittrack.progress.backfill.batch-size:1000}") int batchSize) {
+        this.progressEngine = progressEngine;
+        this.progressRepository = progressRepository;
+        this.duration = Timer.builder("fittrack.progress.backfill.duration").register(meterRegistry);
+        this.backfillOnStartup = backfillOnStartup;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    /**
+     * @return number of sets aggregated
+     */
+    public long backfillAll() {
+        long start = System.nanoTime();
+        int users = 0;
+        long sets = 0;
+        int failed = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            long afterId = 0;
+            List<Long> userIds;
+            while (!(userIds = progressRepository.findUserIdsAfter(afterId, batchSize)).isEmpty()) {
+                List<Future<Long>> results = new ArrayList<>(userIds.size());
+                for (Long userId : userIds) {
+                    results.add(workers.submit(() -> progressEngine.rebuild(userId)));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    try {
+                        sets += results.get(i).get();
+                        users++;
+                    } catch (ExecutionException e) {
+                        failed++;
+                        System.err.println("Progress backfill failed for user " + userIds.get(i) + ": "
+                                + e.getCause().getMessage());
+                    }
+                }
+                afterId = userIds.getLast();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Backfilled exercise progress from " + sets + " sets for " + users + " users ("
+                + failed + " failed) in " + elapsed / 1_000_000 + " ms");
+        return sets;
+    }
+}
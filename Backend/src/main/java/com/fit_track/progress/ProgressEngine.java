@@ -0,0 +1,127 @@
+package com.fit_track.progress;
+
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.repository.ProgressRepository;
+import com.fit_track.repository.ProgressRepository.Exercise;
+import com.fit_track.repository.ProgressRepository.Totals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the per-exercise weekly aggregates current as sets are logged. Each
+ * event recomputes the one affected exercise week from that week's sets and
+ * moves the user's running totals by the difference, so the cost does not
+ * grow with history. Updates for one user are serialized on their totals
+ * row and always re-read the sets, so events may arrive late, twice or out of
+ * order; a sync edit arrives as the old set deleted and the new one logged,
+ * which refreshes both weeks it touches.
+ */
+@Component
+public class ProgressEngine {
+
+    private final ProgressRepository progressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter updates;
+
+    public ProgressEngine(ProgressRepository progressRepository, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.progressRepository = progressRepository;
+        // A sync upload's events fire once it has committed; its transaction must not be joined
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.updates = Counter.builder("fittrack.progress.updates")
+                .description("Exercise weeks refreshed by logged sets")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLogChanged(LogChangedEvent event) {
+        if (!(event.entry() instanceof WorkoutSet set)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> setChanged(event.userId(), set));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update progress for user " + event.userId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every exercise week for one user from their sets, keeping
+     * existing exercise ids. Used by the backfill job.
+     *
+     * @return number of sets aggregated
+     */
+    public long rebuild(Long userId) {
+        Long aggregated = transactionTemplate.execute(status -> {
+            progressRepository.lockTotals(userId);
+            Map<String, Exercise> exercises = new HashMap<>();
+            for (Exercise exercise : progressRepository.findExercises(userId)) {
+                exercises.put(key(exercise.nameKey(), exercise.muscleGroup()), exercise);
+            }
+
+            // Grouped by exercise id, then week; sets arrive in date order
+            Map<Long, List<WorkoutSet>> buckets = new HashMap<>();
+            double volume = 0;
+            List<WorkoutSet> sets = progressRepository.findAllSets(userId);
+            for (WorkoutSet set : sets) {
+                Exercise exercise = exercises.computeIfAbsent(
+                        key(ExerciseWeek.nameKey(set.exercise()), set.muscleGroup()),
+                        k -> progressRepository.findOrCreateExercise(userId, set.exercise(), set.muscleGroup()));
+                long bucket = (long) exercise.id() << 32 | ExerciseWeek.week(set.performedOn()) & 0xFFFFFFFFL;
+                buckets.computeIfAbsent(bucket, b -> new ArrayList<>()).add(set);
+                volume += set.reps() * set.weightKg();
+            }
+
+            List<ExerciseWeek> weeks = new ArrayList<>(buckets.size());
+            buckets.forEach((bucket, bucketSets) ->
+                    weeks.add(ExerciseWeek.of((int) (bucket >>> 32), bucket.intValue(), bucketSets)));
+            progressRepository.replaceWeeks(userId, weeks);
+            progressRepository.saveTotals(userId, new Totals(sets.size(), volume));
+            return (long) sets.size();
+        });
+        return aggregated == null ? 0 : aggregated;
+    }
+
+    private void setChanged(Long userId, WorkoutSet set) {
+        Totals totals = progressRepository.lockTotals(userId);
+        Exercise exercise = progressRepository.findOrCreateExercise(userId, set.exercise(), set.muscleGroup());
+        int week = ExerciseWeek.week(set.performedOn());
+        LocalDate from = ExerciseWeek.weekStart(week);
+
+        ExerciseWeek before = progressRepository.findWeek(userId, exercise.id(), week)
+                .orElse(ExerciseWeek.empty(exercise.id(), week));
+        List<WorkoutSet> sets = new ArrayList<>();
+        for (WorkoutSet candidate : progressRepository.findSets(userId, set.muscleGroup(), from, from.plusDays(6))) {
+            if (ExerciseWeek.nameKey(candidate.exercise()).equals(exercise.nameKey())) {
+                sets.add(candidate);
+            }
+        }
+        ExerciseWeek after = ExerciseWeek.of(exercise.id(), week, sets);
+        if (before.equals(after)) {
+            return;
+        }
+
+        progressRepository.saveWeek(userId, after);
+        progressRepository.saveTotals(userId, new Totals(
+                totals.sets() + after.sets() - before.sets(),
+                totals.volumeKg() + after.volumeKg() - before.volumeKg()));
+        updates.increment();
+    }
+
+    private static String key(String nameKey, WorkoutSet.MuscleGroup muscleGroup) {
+        return muscleGroup.name() + ':' + nameKey;
+    }
+}
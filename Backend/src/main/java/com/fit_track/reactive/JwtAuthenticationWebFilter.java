@@ -0,0 +1,99 @@
+package com.fit_track.reactive;
+
+import com.fit_track.audit.AuditAction;
+import com.fit_track.audit.AuditLog;
+import com.fit_track.security.JwtPrincipal;
+import com.fit_track.security.TokenVersionCache;
+import com.fit_track.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+
+/**
+ * Reactive counterpart of {@code JwtAuthenticationFilter}: authenticates from
+ * token claims and only queries the token version over R2DBC when
+ * {@link TokenVersionCache} cannot decide from memory.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            if (!(e instanceof ExpiredJwtException)) {
+                auditLog.failed(AuditAction.TOKEN_REJECTED, null, null, "TOKEN_INVALID");
+            }
+            return chain.filter(exchange);
+        }
+        if (jwtService.isRefreshToken(claims)) {
+            return chain.filter(exchange);
+        }
+
+        JwtPrincipal principal = JwtPrincipal.fromClaims(claims);
+        if (principal.getEmail() == null) {
+            return chain.filter(exchange);
+        }
+
+        return isCurrent(principal)
+                .flatMap(current -> {
+                    if (!current) {
+                        auditLog.failed(AuditAction.TOKEN_REJECTED, principal.getId(), principal.getEmail(),
+                                "TOKEN_REVOKED");
+                        return chain.filter(exchange);
+                    }
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal,
+                            null,
+                            principal.getAuthorities()
+                    );
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                });
+    }
+
+    private Mono<Boolean> isCurrent(JwtPrincipal principal) {
+        Boolean cached = tokenVersionCache.checkCached(principal.getId(), principal.getTokenVersion());
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return userRepository.findTokenVersionById(principal.getId())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(current -> tokenVersionCache.recordCurrent(
+                        principal.getId(), current, principal.getTokenVersion()));
+    }
+}
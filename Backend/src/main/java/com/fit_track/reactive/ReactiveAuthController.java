@@ -0,0 +1,104 @@
+package com.fit_track.reactive;
+
+import com.fit_track.dto.request.LoginRequest;
+import com.fit_track.dto.request.OnboardingRequest;
+import com.fit_track.dto.request.RefreshTokenRequest;
+import com.fit_track.dto.request.RegisterRequest;
+import com.fit_track.dto.request.VerifyEmailRequest;
+import com.fit_track.dto.response.AuthResponse;
+import com.fit_track.dto.response.CurrentUserResponse;
+import com.fit_track.dto.response.JsonBodies;
+import com.fit_track.dto.response.RegisterResponse;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.security.JwtPrincipal;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+
+// Failures are mapped to error bodies by ApiExceptionHandler
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveAuthService authService;
+
+    @PostMapping("/register")
+    public Mono<RegisterResponse> register(
+            @Valid @RequestBody RegisterRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return authService.register(request, idempotencyKey);
+    }
+
+    @PostMapping("/verify-email")
+    public Mono<AuthResponse> verifyEmail(@Valid @RequestBody VerifyEmailRequest request) {
+        return authService.verifyEmail(request);
+    }
+
+    @PostMapping("/onboarding")
+    public Mono<AuthResponse> completeOnboarding(@Valid @RequestBody OnboardingRequest request) {
+        return currentAuthentication()
+                .flatMap(authentication -> authService.completeOnboarding(request, authentication.getName()));
+    }
+
+    @PostMapping("/login")
+    public Mono<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+        return authService.login(request);
+    }
+
+    @PostMapping("/refresh")
+    public Mono<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.refresh(request.getRefreshToken());
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<byte[]>> logout() {
+        return currentAuthentication()
+                .filter(authentication -> authentication.getPrincipal() instanceof JwtPrincipal)
+                .switchIfEmpty(Mono.error(() -> new AuthException(ErrorCode.NOT_AUTHENTICATED)))
+                .flatMap(authentication -> authService.logout(((JwtPrincipal) authentication.getPrincipal()).getId()))
+                .then(Mono.fromSupplier(() -> message("Logged out")));
+    }
+
+    @PostMapping("/resend-verification")
+    public Mono<ResponseEntity<byte[]>> resendVerificationCode(@RequestBody Map<String, String> request) {
+        String email = request.get("email");
+        if (email == null || email.trim().isEmpty()) {
+            return Mono.error(new AuthException(ErrorCode.EMAIL_REQUIRED));
+        }
+
+        return authService.resendVerificationCode(email)
+                .then(Mono.fromSupplier(() -> message("Verification code sent successfully")));
+    }
+
+    @GetMapping("/me")
+    public Mono<CurrentUserResponse> getCurrentUser() {
+        return currentAuthentication()
+                .map(authentication -> new CurrentUserResponse(authentication.getName()))
+                .switchIfEmpty(Mono.error(() -> new AuthException(ErrorCode.CURRENT_USER_UNAVAILABLE)));
+    }
+
+    private Mono<Authentication> currentAuthentication() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication);
+    }
+
+    private static ResponseEntity<byte[]> message(String message) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonBodies.message(message));
+    }
+}
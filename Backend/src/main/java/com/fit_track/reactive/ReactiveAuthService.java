@@ -0,0 +1,324 @@
+package com.fit_track.reactive;
+
+import com.fit_track.audit.AuditAction;
+import com.fit_track.audit.AuditLog;
+import com.fit_track.dto.request.LoginRequest;
+import com.fit_track.dto.request.OnboardingRequest;
+import com.fit_track.dto.request.RegisterRequest;
+import com.fit_track.dto.request.VerifyEmailRequest;
+import com.fit_track.dto.response.AuthResponse;
+import com.fit_track.dto.response.RegisterResponse;
+import com.fit_track.entity.User;
+import com.fit_track.exception.AuthException;
+import com.fit_track.event.UserChangedEvent;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.security.TokenVersionCache;
+import com.fit_track.service.AuthService;
+import com.fit_track.service.EmailService;
+import com.fit_track.service.IdempotencyCache;
+import com.fit_track.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+
+/**
+ * Non-blocking port of {@code AuthService}. BCrypt runs on the bounded
+ * {@code bcryptScheduler}; emails are queued on the mail delivery engine.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectProvider<EmailService> emailService;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    @Qualifier("bcryptScheduler")
+    private Scheduler bcryptScheduler;
+
+    @Value("${fittrack.mail.coalesce-window:60s}")
+    private Duration resendCoalesceWindow;
+
+    // Hash of a random password: lets unknown emails cost the same as wrong passwords
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Registers a user. Requests with the same {@code idempotencyKey}, or without
+     * one but with an identical payload, within the retry window share one
+     * outcome instead of registering (and emailing) twice.
+     */
+    public Mono<RegisterResponse> register(RegisterRequest request, String idempotencyKey) {
+        String fingerprint = idempotencyCache.fingerprint(request.getEmail().toLowerCase().trim(),
+                request.getPassword(), request.getFirstName().trim(), request.getLastName().trim());
+        String key = idempotencyKey == null || idempotencyKey.isBlank()
+                ? "register:body:" + fingerprint
+                : "register:key:" + idempotencyKey.trim();
+        return idempotencyCache.executeAsync(key, fingerprint, () -> createUser(request));
+    }
+
+    private Mono<RegisterResponse> createUser(RegisterRequest request) {
+        String email = request.getEmail().toLowerCase().trim();
+        String verificationCode = generateVerificationCode();
+
+        return encode(request.getPassword())
+                .flatMap(passwordHash -> userRepository.insertIfAbsent(
+                        email,
+                        passwordHash,
+                        request.getFirstName().trim(),
+                        request.getLastName().trim(),
+                        verificationCode,
+                        LocalDateTime.now().plus(AuthService.VERIFICATION_CODE_TTL)))
+                .switchIfEmpty(Mono.error(() -> new AuthException(ErrorCode.EMAIL_ALREADY_REGISTERED)))
+                .flatMap(id -> sendVerificationEmail(email, verificationCode)
+                        .onErrorResume(e -> {
+                            System.err.println("Failed to send verification email: " + e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(new RegisterResponse(
+                                "Registration successful! Please check your email for verification code.",
+                                email)));
+    }
+
+    public Mono<AuthResponse> verifyEmail(VerifyEmailRequest request) {
+        String email = request.getEmail().toLowerCase().trim();
+        String code = request.getCode().trim();
+
+        return findUser(email)
+                .flatMap(user -> {
+                    if (user.isEmailVerified()) {
+                        return Mono.error(new AuthException(ErrorCode.EMAIL_ALREADY_VERIFIED));
+                    }
+                    if (user.getVerificationCode() == null || user.getVerificationCode().trim().isEmpty()) {
+                        return Mono.error(new AuthException(ErrorCode.VERIFICATION_CODE_MISSING));
+                    }
+                    if (user.getVerificationCodeExpiresAt() == null ||
+                            LocalDateTime.now().isAfter(user.getVerificationCodeExpiresAt())) {
+                        return Mono.error(new AuthException(ErrorCode.VERIFICATION_CODE_EXPIRED));
+                    }
+                    if (!code.equals(user.getVerificationCode())) {
+                        return Mono.error(new AuthException(ErrorCode.VERIFICATION_CODE_INVALID));
+                    }
+
+                    user.setEmailVerified(true);
+                    user.setEnabled(true);
+                    user.setVerificationCode(null);
+                    user.setVerificationCodeExpiresAt(null);
+                    return userRepository.save(user);
+                })
+                .doOnNext(this::publishChange)
+                .map(this::buildAuthResponse)
+                .transform(audited(AuditAction.VERIFY_EMAIL, email));
+    }
+
+    public Mono<AuthResponse> completeOnboarding(OnboardingRequest request, String userEmail) {
+        return findUser(userEmail.toLowerCase().trim())
+                .flatMap(user -> {
+                    if (!user.isEmailVerified()) {
+                        return Mono.error(new AuthException(ErrorCode.ONBOARDING_REQUIRES_VERIFIED_EMAIL));
+                    }
+
+                    user.setGoal(request.getGoal());
+                    user.setActivityLevel(request.getActivityLevel());
+                    user.setCurrentWeight(request.getCurrentWeight());
+                    user.setTargetWeight(request.getTargetWeight());
+                    user.setHeight(request.getHeight());
+                    user.setAge(request.getAge());
+                    user.setGender(request.getGender());
+                    user.setProfileCompleted(true);
+                    user.setTokenVersion(user.getTokenVersion() + 1);
+                    return userRepository.save(user);
+                })
+                .doOnNext(savedUser -> tokenVersionCache.update(savedUser.getId(), savedUser.getTokenVersion()))
+                .doOnNext(this::publishChange)
+                .map(this::buildAuthResponse)
+                .transform(audited(AuditAction.COMPLETE_ONBOARDING, userEmail));
+    }
+
+    public Mono<AuthResponse> login(LoginRequest request) {
+        String email = request.getEmail().toLowerCase().trim();
+
+        return userRepository.findByEmail(email)
+                .flatMap(user -> matches(request.getPassword(), user.getPassword())
+                        .flatMap(matches -> matches
+                                ? Mono.just(user)
+                                : Mono.<UserRow>error(new AuthException(ErrorCode.BAD_CREDENTIALS))))
+                .switchIfEmpty(Mono.defer(() -> matches(request.getPassword(), dummyHash)
+                        .then(Mono.<UserRow>error(new AuthException(ErrorCode.BAD_CREDENTIALS)))))
+                .flatMap(user -> {
+                    if (!user.isEnabled()) {
+                        return Mono.error(new AuthException(ErrorCode.ACCOUNT_DISABLED));
+                    }
+                    if (!user.isEmailVerified()) {
+                        return Mono.error(new AuthException(ErrorCode.EMAIL_NOT_VERIFIED));
+                    }
+                    return Mono.just(buildAuthResponse(user));
+                })
+                .transform(audited(AuditAction.LOGIN, email));
+    }
+
+    public Mono<Void> resendVerificationCode(String email) {
+        String normalizedEmail = email.toLowerCase().trim();
+
+        return findUser(normalizedEmail)
+                .flatMap(user -> {
+                    if (user.isEmailVerified()) {
+                        return Mono.error(new AuthException(ErrorCode.EMAIL_ALREADY_VERIFIED));
+                    }
+                    // Same coalescing as AuthService: a recent code is sent again unchanged
+                    LocalDateTime now = LocalDateTime.now();
+                    if (AuthService.isRecentCode(user.getVerificationCode(), user.getVerificationCodeExpiresAt(), now,
+                            resendCoalesceWindow)) {
+                        return Mono.just(user);
+                    }
+                    user.setVerificationCode(generateVerificationCode());
+                    user.setVerificationCodeExpiresAt(now.plus(AuthService.VERIFICATION_CODE_TTL));
+                    return userRepository.save(user);
+                })
+                .flatMap(user -> sendVerificationEmail(user.getEmail(), user.getVerificationCode())
+                        .onErrorMap(e -> new AuthException(ErrorCode.VERIFICATION_EMAIL_FAILED)))
+                .transform(audited(AuditAction.RESEND_VERIFICATION_CODE, normalizedEmail));
+    }
+
+    public Mono<AuthResponse> refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new AuthException(ErrorCode.REFRESH_TOKEN_INVALID));
+        }
+        if (!jwtService.isRefreshToken(claims)) {
+            return Mono.error(new AuthException(ErrorCode.REFRESH_TOKEN_INVALID));
+        }
+
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        Integer tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+        UUID family = jwtService.refreshFamily(claims);
+        Integer generation = claims.get(JwtService.CLAIM_REFRESH_GENERATION, Integer.class);
+        if (userId == null || family == null || generation == null) {
+            return Mono.error(new AuthException(ErrorCode.REFRESH_TOKEN_INVALID));
+        }
+
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new AuthException(ErrorCode.REFRESH_TOKEN_INVALID)))
+                .flatMap(user -> {
+                    if (tokenVersion == null || tokenVersion != user.getTokenVersion()) {
+                        return Mono.error(new AuthException(ErrorCode.REFRESH_TOKEN_REVOKED));
+                    }
+                    LocalDateTime expiresAt = LocalDateTime.now()
+                            .plus(Duration.ofMillis(jwtService.getRefreshTokenExpiration()));
+                    Mono<Integer> redeemed = generation == 0
+                            ? userRepository.startRefreshFamily(family, userId, expiresAt)
+                            : userRepository.advanceRefreshFamily(family, userId, generation, expiresAt);
+                    return redeemed.flatMap(rows -> rows == 0
+                            // A rotated-out token came back: assume it leaked and end every session
+                            ? revokeAllTokens(user)
+                                    .then(Mono.<AuthResponse>error(new AuthException(ErrorCode.REFRESH_TOKEN_REVOKED)))
+                            : Mono.just(buildAuthResponse(user,
+                                    jwtService.generateRefreshToken(user.toUser(), family, generation + 1))));
+                });
+    }
+
+    public Mono<Void> logout(Long userId) {
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new AuthException(ErrorCode.USER_NOT_FOUND)))
+                .flatMap(this::revokeAllTokens)
+                .then();
+    }
+
+    private Mono<UserRow> revokeAllTokens(UserRow user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        return userRepository.save(user)
+                .doOnNext(savedUser -> tokenVersionCache.update(savedUser.getId(), savedUser.getTokenVersion()))
+                .doOnNext(this::publishChange);
+    }
+
+    // Records the outcome in the audit log; only failures the client is told about count as failed
+    private <T> Function<Mono<T>, Mono<T>> audited(AuditAction action, String email) {
+        return operation -> operation
+                .doOnSuccess(result -> auditLog.succeeded(action,
+                        result instanceof AuthResponse response ? response.id() : null, email))
+                .doOnError(AuthException.class, e -> auditLog.failed(action, null, email, e.getErrorCode().name()));
+    }
+
+    private void publishChange(UserRow user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+    }
+
+    private Mono<UserRow> findUser(String email) {
+        return userRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new AuthException(ErrorCode.USER_NOT_FOUND)));
+    }
+
+    private Mono<String> encode(String rawPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(rawPassword))
+                .subscribeOn(bcryptScheduler);
+    }
+
+    private Mono<Boolean> matches(String rawPassword, String passwordHash) {
+        return Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, passwordHash))
+                .subscribeOn(bcryptScheduler);
+    }
+
+    private Mono<Void> sendVerificationEmail(String email, String verificationCode) {
+        // Only enqueues; delivery happens on the mail engine's worker
+        return Mono.fromRunnable(() -> emailService.getObject().sendVerificationEmail(email, verificationCode));
+    }
+
+    private AuthResponse buildAuthResponse(UserRow row) {
+        return buildAuthResponse(row, jwtService.generateRefreshToken(row.toUser()));
+    }
+
+    private AuthResponse buildAuthResponse(UserRow row, String refreshToken) {
+        User user = row.toUser();
+        return new AuthResponse(jwtService.generateToken(user), refreshToken,
+                user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.isEmailVerified(), user.isProfileCompleted());
+    }
+
+    private String generateVerificationCode() {
+        return String.format("%06d", ThreadLocalRandom.current().nextInt(1000000));
+    }
+}
@@ -0,0 +1,53 @@
+package com.fit_track.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+@Repository
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+
+
+    Mono<UserRow> findByEmail(String email);
+
+
+    Mono<Boolean> existsByEmail(String email);
+
+
+    @Query("SELECT token_version FROM users WHERE id = :id")
+    Mono<Integer> findTokenVersionById(Long id);
+
+    // Same refresh-token redemption as UserRepository.startRefreshFamily and advanceRefreshFamily
+    @Modifying
+    @Query("""
+            INSERT INTO refresh_token_families (id, user_id, generation, expires_at)
+            VALUES (:family, :userId, 1, :expiresAt)
+            ON CONFLICT (id) DO NOTHING""")
+    Mono<Integer> startRefreshFamily(UUID family, Long userId, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("""
+            UPDATE refresh_token_families
+               SET generation = generation + 1, expires_at = :expiresAt
+             WHERE id = :family AND user_id = :userId AND generation = :generation""")
+    Mono<Integer> advanceRefreshFamily(UUID family, Long userId, int generation, LocalDateTime expiresAt);
+
+    // Same single-statement registration as UserRepository.insertIfAbsent
+    @Query("""
+            INSERT INTO users (email, password, first_name, last_name, email_verified, profile_completed,
+                               enabled, role, token_version, verification_code, verification_code_expires_at,
+                               created_at, updated_at)
+            VALUES (:email, :password, :firstName, :lastName, false, false,
+                    false, 'USER', 0, :verificationCode, :verificationCodeExpiresAt,
+                    now(), now())
+            ON CONFLICT (email) DO NOTHING
+            RETURNING id""")
+    Mono<Long> insertIfAbsent(String email, String password, String firstName, String lastName,
+                              String verificationCode, LocalDateTime verificationCodeExpiresAt);
+}
@@ -0,0 +1,239 @@
+package com.fit_track.reactive;
+
+import com.fit_track.entity.User;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code users} table, mirroring the JPA {@link User} entity.
+ */
+@Table("users")
+public class UserRow {
+
+    @Id
+    private Long id;
+    private String email;
+    private String password;
+    private String firstName;
+    private String lastName;
+
+    private boolean emailVerified;
+    private boolean profileCompleted;
+    private boolean enabled;
+
+    private User.Role role = User.Role.USER;
+    private int tokenVersion;
+
+    private String verificationCode;
+    private LocalDateTime verificationCodeExpiresAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    private User.Goal goal;
+    private User.ActivityLevel activityLevel;
+    private Double currentWeight;
+    private Double targetWeight;
+    private Integer height;
+    private Integer age;
+    private User.Gender gender;
+
+    public UserRow() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public boolean isEmailVerified() {
+        return emailVerified;
+    }
+
+    public void setEmailVerified(boolean emailVerified) {
+        this.emailVerified = emailVerified;
+    }
+
+    public boolean isProfileCompleted() {
+        return profileCompleted;
+    }
+
+    public void setProfileCompleted(boolean profileCompleted) {
+        this.profileCompleted = profileCompleted;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+
+    public void setRole(User.Role role) {
+        this.role = role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public String getVerificationCode() {
+        return verificationCode;
+    }
+
+    public void setVerificationCode(String verificationCode) {
+        this.verificationCode = verificationCode;
+    }
+
+    public LocalDateTime getVerificationCodeExpiresAt() {
+        return verificationCodeExpiresAt;
+    }
+
+    public void setVerificationCodeExpiresAt(LocalDateTime verificationCodeExpiresAt) {
+        this.verificationCodeExpiresAt = verificationCodeExpiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public User.Goal getGoal() {
+        return goal;
+    }
+
+    public void setGoal(User.Goal goal) {
+        this.goal = goal;
+    }
+
+    public User.ActivityLevel getActivityLevel() {
+        return activityLevel;
+    }
+
+    public void setActivityLevel(User.ActivityLevel activityLevel) {
+        this.activityLevel = activityLevel;
+    }
+
+    public Double getCurrentWeight() {
+        return currentWeight;
+    }
+
+    public void setCurrentWeight(Double currentWeight) {
+        this.currentWeight = currentWeight;
+    }
+
+    public Double getTargetWeight() {
+        return targetWeight;
+    }
+
+    public void setTargetWeight(Double targetWeight) {
+        this.targetWeight = targetWeight;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public User.Gender getGender() {
+        return gender;
+    }
+
+    public void setGender(User.Gender gender) {
+        this.gender = gender;
+    }
+
+    /**
+     * Detached JPA view of this row, for code shared with the servlet stack
+     * such as token issuing.
+     */
+    public User toUser() {
+        User user = new User(email, password, firstName, lastName);
+        user.setId(id);
+        user.setEmailVerified(emailVerified);
+        user.setProfileCompleted(profileCompleted);
+        user.setEnabled(enabled);
+        user.setRole(role);
+        user.setTokenVersion(tokenVersion);
+        user.setGoal(goal);
+        user.setActivityLevel(activityLevel);
+        user.setCurrentWeight(currentWeight);
+        user.setTargetWeight(targetWeight);
+        user.setHeight(height);
+        user.setAge(age);
+        user.setGender(gender);
+        return user;
+    }
+}
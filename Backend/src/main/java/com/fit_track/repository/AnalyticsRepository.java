@@ -0,0 +1,80 @@
+package com.fit_track.repository;
+
+import com.fit_track.analytics.CohortUser;
+import com.fit_track.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads the users table for the cohort index. The bulk reads run in
+ * read-only transactions, so they go to the replica, and fetch in pages
+ * rather than buffering every user in the driver.
+ */
+@Repository
+public class AnalyticsRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String COHORT_COLUMNS =
+            "id, goal, activity_level, gender, age, email_verified, profile_completed";
+
+    private static final RowMapper<CohortUser> COHORT_USER_MAPPER = (rs, rowNum) -> new CohortUser(
+            rs.getLong("id"),
+            rs.getString("goal") == null ? null : User.Goal.valueOf(rs.getString("goal")),
+            rs.getString("activity_level") == null ? null : User.ActivityLevel.valueOf(rs.getString("activity_level")),
+            rs.getString("gender") == null ? null : User.Gender.valueOf(rs.getString("gender")),
+            rs.getObject("age", Integer.class),
+            rs.getBoolean("email_verified"),
+            rs.getBoolean("profile_completed"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<CohortUser> consumer) {
+        jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT " + COHORT_COLUMNS + " FROM users");
+                    ps.setFetchSize(FETCH_SIZE);
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(COHORT_USER_MAPPER.mapRow(rs, 0));
+                });
+    }
+
+    // Users whose row last changed in (after, until]
+    @Transactional(readOnly = true)
+    public void forEachUpdatedBetween(LocalDateTime after, LocalDateTime until, Consumer<CohortUser> consumer) {
+        jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT " + COHORT_COLUMNS + """
+                             FROM users
+                            WHERE updated_at > ? AND updated_at <= ?""");
+                    ps.setTimestamp(1, Timestamp.valueOf(after));
+                    ps.setTimestamp(2, Timestamp.valueOf(until));
+                    ps.setFetchSize(FETCH_SIZE);
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(COHORT_USER_MAPPER.mapRow(rs, 0));
+                });
+    }
+
+    // From the primary: used right after this instance committed a change
+    public Optional<CohortUser> findUser(Long userId) {
+        return jdbcTemplate.query("SELECT " + COHORT_COLUMNS + " FROM users WHERE id = ?",
+                COHORT_USER_MAPPER, userId).stream().findFirst();
+    }
+
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+    }
+}
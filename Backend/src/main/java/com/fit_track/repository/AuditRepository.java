@@ -0,0 +1,42 @@
+package com.fit_track.repository;
+
+import com.fit_track.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shipped copies of the local audit logs. Rows are keyed by log id and
+ * sequence, so shipping a batch again after a crash changes nothing.
+ */
+@Repository
+public class AuditRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Last sequence of the log already in the table, 0 when none is
+    public long findShippedThrough(UUID logId) {
+        Long shipped = jdbcTemplate.queryForObject(
+                "SELECT coalesce(max(seq), 0) FROM auth_audit_log WHERE log_id = ?", Long.class, logId);
+        return shipped == null ? 0 : shipped;
+    }
+
+    public void saveAll(UUID logId, List<AuditRecord> records) {
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (AuditRecord r : records) {
+            rows.add(new Object[]{logId, r.sequence(), Timestamp.from(r.occurredAt()), r.action().name(),
+                    r.failure(), r.userId(), r.email(), r.address()});
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO auth_audit_log (log_id, seq, occurred_at, action, failure, user_id, email, address)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (log_id, seq) DO NOTHING""",
+                rows);
+    }
+}
@@ -0,0 +1,61 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.FoodLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to {@code food_logs}. Every statement filters on
+ * {@code user_id}, the hash partition key, so it touches one partition.
+ */
+@Repository
+public class FoodLogRepository {
+
+    static final RowMapper<FoodLog> ROW_MAPPER = (rs, rowNum) -> new FoodLog(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getObject("logged_on", LocalDate.class),
+            FoodLog.Meal.valueOf(rs.getString("meal")),
+            rs.getString("name"),
+            rs.getInt("calories"),
+            rs.getDouble("protein_g"),
+            rs.getDouble("carbs_g"),
+            rs.getDouble("fat_g"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public FoodLog insert(FoodLog log) {
+        Long id = jdbcTemplate.queryForObject("""
+                        INSERT INTO food_logs (user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        RETURNING id""",
+                Long.class,
+                log.userId(), log.loggedOn(), log.meal().name(), log.name(), log.calories(),
+                log.proteinG(), log.carbsG(), log.fatG());
+        return new FoodLog(id, log.userId(), log.loggedOn(), log.meal(), log.name(), log.calories(),
+                log.proteinG(), log.carbsG(), log.fatG());
+    }
+
+    public List<FoodLog> findByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT id, user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g
+                        FROM food_logs
+                        WHERE user_id = ? AND logged_on BETWEEN ? AND ?
+                        ORDER BY logged_on, id""",
+                ROW_MAPPER, userId, from, to);
+    }
+
+    public Optional<FoodLog> deleteByUserIdAndId(Long userId, Long id) {
+        return jdbcTemplate.query("""
+                        DELETE FROM food_logs WHERE user_id = ? AND id = ?
+                        RETURNING id, user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g""",
+                ROW_MAPPER, userId, id).stream().findFirst();
+    }
+}
@@ -0,0 +1,149 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.User;
+import com.fit_track.forecast.ForecastInput;
+import com.fit_track.forecast.WeightForecast;
+import com.fit_track.forecast.WeightTrend;
+import com.fit_track.service.UserProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * JDBC access to {@code weight_forecasts} from V6. Trend reads and writes
+ * are by primary key; the bulk reads take a user id range so the scoring job
+ * can hand out independent chunks.
+ */
+@Repository
+public class ForecastRepository {
+
+    public record IdRange(long min, long max) {
+    }
+
+    private static final RowMapper<WeightTrend> TREND_MAPPER = (rs, rowNum) -> trend(rs);
+
+    private static final String TREND_COLUMNS = "level_kg, slope_kg_per_day, residual_kg, last_day, points";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Serializes trend updates and refits for one user
+    public WeightTrend lockTrend(Long userId) {
+        jdbcTemplate.update("INSERT INTO weight_forecasts (user_id) VALUES (?) ON CONFLICT DO NOTHING", userId);
+        return jdbcTemplate.queryForObject(
+                "SELECT " + TREND_COLUMNS + " FROM weight_forecasts WHERE user_id = ? FOR UPDATE",
+                TREND_MAPPER, userId);
+    }
+
+    public Optional<WeightTrend> findTrend(Long userId) {
+        return jdbcTemplate.query("SELECT " + TREND_COLUMNS + " FROM weight_forecasts WHERE user_id = ?",
+                TREND_MAPPER, userId).stream().findFirst();
+    }
+
+    public void saveTrend(Long userId, WeightTrend trend) {
+        jdbcTemplate.update("""
+                        UPDATE weight_forecasts
+                        SET level_kg = ?, slope_kg_per_day = ?, residual_kg = ?, last_day = ?, points = ?
+                        WHERE user_id = ?""",
+                trend.getLevel(), trend.getSlope(), trend.getResidual(),
+                trend.isEmpty() ? null : Date.valueOf(LocalDate.ofEpochDay(trend.getLastDay())), trend.getPoints(),
+                userId);
+    }
+
+    /**
+     * Average calories over the days in the window that have any food logged,
+     * or empty when fewer than {@code minDays} do. Partially logged weeks
+     * would otherwise look like a large deficit.
+     */
+    public OptionalDouble findAverageIntake(Long userId, LocalDate from, LocalDate to, int minDays) {
+        List<Double> average = jdbcTemplate.queryForList("""
+                        SELECT avg(calories) FROM user_daily_activity
+                        WHERE user_id = ? AND day BETWEEN ? AND ? AND food_entries > 0
+                        HAVING count(*) >= ?""",
+                Double.class, userId, from, to, minDays);
+        return average.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(average.getFirst());
+    }
+
+    public IdRange findUserIdRange() {
+        return jdbcTemplate.queryForObject("SELECT coalesce(min(id), 0), coalesce(max(id), -1) FROM users",
+                (rs, rowNum) -> new IdRange(rs.getLong(1), rs.getLong(2)));
+    }
+
+    public List<Long> findUserIdsBetween(long fromId, long toId) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id BETWEEN ? AND ? ORDER BY id",
+                Long.class, fromId, toId);
+    }
+
+    /**
+     * Profile, trend and recent intake for every user in an id range with a
+     * target weight, in one statement. The intake aggregate is restricted to
+     * the same range so it reads only that slice of the rollup.
+     */
+    public List<ForecastInput> findInputs(long fromId, long toId, LocalDate intakeFrom, LocalDate intakeTo,
+                                          int minLoggedDays) {
+        return jdbcTemplate.query("""
+                        SELECT u.id, u.goal, u.activity_level, u.current_weight, u.target_weight, u.height, u.age,
+                               u.gender, coalesce(f.level_kg, 0) AS level_kg,
+                               coalesce(f.slope_kg_per_day, 0) AS slope_kg_per_day,
+                               coalesce(f.residual_kg, 0) AS residual_kg, f.last_day,
+                               coalesce(f.points, 0) AS points, i.calories
+                        FROM users u
+                        LEFT JOIN weight_forecasts f ON f.user_id = u.id
+                        LEFT JOIN (SELECT user_id, avg(calories) AS calories FROM user_daily_activity
+                                   WHERE user_id BETWEEN ? AND ? AND day BETWEEN ? AND ? AND food_entries > 0
+                                   GROUP BY user_id
+                                   HAVING count(*) >= ?) i ON i.user_id = u.id
+                        WHERE u.id BETWEEN ? AND ? AND u.target_weight IS NOT NULL""",
+                (rs, rowNum) -> {
+                    double calories = rs.getDouble("calories");
+                    return new ForecastInput(profile(rs), trend(rs),
+                            rs.wasNull() ? OptionalDouble.empty() : OptionalDouble.of(calories));
+                },
+                fromId, toId, intakeFrom, intakeTo, minLoggedDays, fromId, toId);
+    }
+
+    public void saveForecasts(Map<Long, WeightForecast> forecasts, LocalDate scoredOn) {
+        List<Object[]> rows = new ArrayList<>(forecasts.size());
+        forecasts.forEach((userId, forecast) -> rows.add(new Object[]{
+                userId, forecast.kgPerWeek(), forecast.eta() == null ? null : Date.valueOf(forecast.eta()),
+                Date.valueOf(scoredOn)}));
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO weight_forecasts (user_id, kg_per_week, eta, scored_on) VALUES (?, ?, ?, ?)
+                        ON CONFLICT (user_id) DO UPDATE
+                            SET kg_per_week = EXCLUDED.kg_per_week,
+                                eta = EXCLUDED.eta,
+                                scored_on = EXCLUDED.scored_on""",
+                rows);
+    }
+
+    private static WeightTrend trend(ResultSet rs) throws SQLException {
+        LocalDate lastDay = rs.getObject("last_day", LocalDate.class);
+        return new WeightTrend(rs.getDouble("level_kg"), rs.getDouble("slope_kg_per_day"),
+                rs.getDouble("residual_kg"), lastDay == null ? 0 : lastDay.toEpochDay(), rs.getInt("points"));
+    }
+
+    // Only the fields nutrition targets read; the rest of the user row stays unloaded
+    static UserProfile profile(ResultSet rs) throws SQLException {
+        return new UserProfile(rs.getLong("id"), null, null, null, false, false,
+                enumValue(User.Goal.class, rs.getString("goal")),
+                enumValue(User.ActivityLevel.class, rs.getString("activity_level")),
+                rs.getObject("current_weight", Double.class), rs.getObject("target_weight", Double.class),
+                rs.getObject("height", Integer.class), rs.getObject("age", Integer.class),
+                enumValue(User.Gender.class, rs.getString("gender")));
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+}
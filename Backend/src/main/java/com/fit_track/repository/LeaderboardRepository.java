@@ -0,0 +1,257 @@
+package com.fit_track.repository;
+
+import com.fit_track.leaderboard.Board;
+import com.fit_track.leaderboard.ScoreInput;
+import com.fit_track.leaderboard.Scores;
+import com.fit_track.service.UserProfile;
+import com.fit_track.streak.DayActivity;
+import com.fit_track.streak.StreakCounter;
+import com.fit_track.streak.StreakKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to the leaderboard tables from V8. The streaming reads hand
+ * rows to a consumer as they arrive, so loading every live score does not
+ * hold them all in memory twice.
+ */
+@Repository
+public class LeaderboardRepository {
+
+    public record IdRange(long min, long max) {
+    }
+
+    public record Snapshot(long period, LocalDateTime takenAt, byte[] data) {
+    }
+
+    private static final RowMapper<Scores> SCORES_MAPPER = (rs, rowNum) -> new Scores(
+            rs.getLong("user_id"),
+            rs.getLong("week"),
+            rs.getInt("workout_sets"),
+            rs.getInt("calorie_target_days"),
+            rs.getInt("logging_streak"),
+            rs.getLong("logging_streak_end"));
+
+    private static final String SCORES_COLUMNS =
+            "user_id, week, workout_sets, calorie_target_days, logging_streak, logging_streak_end";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Serializes scoring of one user across instances
+    public void lockScores(Long userId) {
+        jdbcTemplate.update("INSERT INTO leaderboard_scores (user_id) VALUES (?) ON CONFLICT DO NOTHING", userId);
+        jdbcTemplate.queryForObject("SELECT user_id FROM leaderboard_scores WHERE user_id = ? FOR UPDATE",
+                Long.class, userId);
+    }
+
+    /**
+     * Profile, daily rollups between {@code from} and {@code to} and logging
+     * streak of every user with an id in the range, in one query.
+     */
+    public List<ScoreInput> findInputs(long fromId, long toId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT u.id, u.goal, u.activity_level, u.current_weight, u.target_weight, u.height, u.age,
+                               u.gender, s.current, s.current_end, s.previous_best,
+                               a.day, a.food_entries, a.calories, a.workout_sets
+                        FROM users u
+                        LEFT JOIN user_streaks s ON s.user_id = u.id AND s.kind = ?
+                        LEFT JOIN user_daily_activity a ON a.user_id = u.id AND a.day BETWEEN ? AND ?
+                        WHERE u.id BETWEEN ? AND ?
+                        ORDER BY u.id, a.day""",
+                rs -> {
+                    List<ScoreInput> inputs = new ArrayList<>();
+                    UserProfile profile = null;
+                    StreakCounter logging = null;
+                    List<DayActivity> days = null;
+                    while (rs.next()) {
+                        if (profile == null || profile.id() != rs.getLong("id")) {
+                            if (profile != null) {
+                                inputs.add(new ScoreInput(profile, days, logging));
+                            }
+                            profile = ForecastRepository.profile(rs);
+                            LocalDate currentEnd = rs.getObject("current_end", LocalDate.class);
+                            logging = currentEnd == null ? new StreakCounter()
+                                    : new StreakCounter(rs.getInt("current"),
+                                    StreakKind.LOGGING.period(currentEnd), rs.getInt("previous_best"));
+                            days = new ArrayList<>(7);
+                        }
+                        LocalDate day = rs.getObject("day", LocalDate.class);
+                        if (day != null) {
+                            days.add(new DayActivity(day, rs.getInt("food_entries"), rs.getInt("calories"),
+                                    rs.getInt("workout_sets")));
+                        }
+                    }
+                    if (profile != null) {
+                        inputs.add(new ScoreInput(profile, days, logging));
+                    }
+                    return inputs;
+                },
+                StreakKind.LOGGING.name(), from, to, fromId, toId);
+    }
+
+    public void saveScores(List<Scores> scores) {
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        for (Scores s : scores) {
+            rows.add(new Object[]{s.userId(), s.week(), s.workoutSets(), s.calorieTargetDays(), s.loggingStreak(),
+                    s.loggingStreakEnd()});
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO leaderboard_scores (user_id, week, workout_sets, calorie_target_days,
+                                                        logging_streak, logging_streak_end, scored_at)
+                        VALUES (?, ?, ?, ?, ?, ?, clock_timestamp())
+                        ON CONFLICT (user_id) DO UPDATE
+                            SET week = EXCLUDED.week,
+                                workout_sets = EXCLUDED.workout_sets,
+                                calorie_target_days = EXCLUDED.calorie_target_days,
+                                logging_streak = EXCLUDED.logging_streak,
+                                logging_streak_end = EXCLUDED.logging_streak_end,
+                                scored_at = EXCLUDED.scored_at""",
+                rows);
+    }
+
+    // Database time, which scored_at is written in
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+    }
+
+    // Rows scored in (after, until], in no particular order
+    public void forEachScoredBetween(LocalDateTime after, LocalDateTime until, Consumer<Scores> consumer) {
+        jdbcTemplate.query("SELECT " + SCORES_COLUMNS + """
+                         FROM leaderboard_scores
+                        WHERE scored_at > ? AND scored_at <= ?""",
+                rs -> {
+                    consumer.accept(SCORES_MAPPER.mapRow(rs, 0));
+                },
+                Timestamp.valueOf(after), Timestamp.valueOf(until));
+    }
+
+    // Every row that still scores on some board for that week and day
+    public void forEachLive(long week, LocalDate today, Consumer<Scores> consumer) {
+        jdbcTemplate.query("SELECT " + SCORES_COLUMNS + """
+                         FROM leaderboard_scores
+                        WHERE week = ? OR (logging_streak > 0 AND logging_streak_end >= ?)""",
+                rs -> {
+                    consumer.accept(SCORES_MAPPER.mapRow(rs, 0));
+                },
+                week, today.toEpochDay() - 1);
+    }
+
+    // Streaks whose last logged day was lastDay, which lapse the day after next
+    public void forEachStreakEndingOn(LocalDate lastDay, Consumer<Scores> consumer) {
+        jdbcTemplate.query("SELECT " + SCORES_COLUMNS + """
+                         FROM leaderboard_scores
+                        WHERE logging_streak > 0 AND logging_streak_end = ?""",
+                rs -> {
+                    consumer.accept(SCORES_MAPPER.mapRow(rs, 0));
+                },
+                lastDay.toEpochDay());
+    }
+
+    public Optional<Snapshot> findSnapshot(Board board) {
+        return jdbcTemplate.query("SELECT period, taken_at, data FROM leaderboard_snapshots WHERE board = ?",
+                (rs, rowNum) -> new Snapshot(rs.getLong("period"),
+                        rs.getObject("taken_at", LocalDateTime.class), rs.getBytes("data")),
+                board.name()).stream().findFirst();
+    }
+
+    // Instances snapshot independently; an older snapshot never replaces a newer one
+    public void saveSnapshot(Board board, long period, int entries, LocalDateTime takenAt, byte[] data) {
+        jdbcTemplate.update("""
+                        INSERT INTO leaderboard_snapshots (board, period, entries, taken_at, data)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (board) DO UPDATE
+                            SET period = EXCLUDED.period,
+                                entries = EXCLUDED.entries,
+                                taken_at = EXCLUDED.taken_at,
+                                data = EXCLUDED.data
+                            WHERE leaderboard_snapshots.taken_at < EXCLUDED.taken_at""",
+                board.name(), period, entries, Timestamp.valueOf(takenAt), data);
+    }
+
+    // A user_friends row is a request from user_id; it is a friendship once the other side added it back
+    public List<Long> findFriendIds(Long userId, int limit) {
+        return jdbcTemplate.queryForList("""
+                        SELECT f.friend_id FROM user_friends f
+                        JOIN user_friends back ON back.user_id = f.friend_id AND back.friend_id = f.user_id
+                        WHERE f.user_id = ?
+                        ORDER BY f.added_at LIMIT ?""",
+                Long.class, userId, limit);
+    }
+
+    // Users who asked to be friends and have not been answered, oldest first
+    public List<Long> findIncomingRequestIds(Long userId, int limit) {
+        return jdbcTemplate.queryForList("""
+                        SELECT f.user_id FROM user_friends f
+                        WHERE f.friend_id = ?
+                          AND NOT EXISTS (SELECT 1 FROM user_friends back
+                                          WHERE back.user_id = f.friend_id AND back.friend_id = f.user_id)
+                        ORDER BY f.added_at LIMIT ?""",
+                Long.class, userId, limit);
+    }
+
+    // Friends plus requests still waiting for an answer
+    public int countFriends(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM user_friends WHERE user_id = ?",
+                Integer.class, userId);
+    }
+
+    public void addFriend(Long userId, Long friendId) {
+        jdbcTemplate.update("INSERT INTO user_friends (user_id, friend_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                userId, friendId);
+    }
+
+    // Adds the request's sender back, only if they did send one
+    public boolean acceptFriend(Long userId, Long friendId) {
+        return jdbcTemplate.update("""
+                        INSERT INTO user_friends (user_id, friend_id)
+                        SELECT ?, ? WHERE EXISTS (SELECT 1 FROM user_friends WHERE user_id = ? AND friend_id = ?)
+                        ON CONFLICT DO NOTHING""",
+                userId, friendId, friendId, userId) > 0;
+    }
+
+    // Ends a friendship, withdraws a request or declines one: both directions go
+    public boolean removeFriend(Long userId, Long friendId) {
+        return jdbcTemplate.update("""
+                        DELETE FROM user_friends
+                        WHERE (user_id = ? AND friend_id = ?) OR (user_id = ? AND friend_id = ?)""",
+                userId, friendId, friendId, userId) > 0;
+    }
+
+    // "First L." display names; users without a name are missing from the result
+    public Map<Long, String> findDisplayNames(Collection<Long> userIds) {
+        Map<Long, String> names = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return names;
+        }
+        jdbcTemplate.query("SELECT id, first_name, last_name FROM users WHERE id = ANY(?)",
+                rs -> {
+                    String first = rs.getString("first_name");
+                    String last = rs.getString("last_name");
+                    if (first != null && !first.isBlank()) {
+                        names.put(rs.getLong("id"), last == null || last.isBlank()
+                                ? first : first + " " + last.charAt(0) + ".");
+                    }
+                },
+                (Object) userIds.toArray(new Long[0]));
+        return names;
+    }
+
+    public IdRange findUserIdRange() {
+        return jdbcTemplate.queryForObject("SELECT coalesce(min(id), 1), coalesce(max(id), 0) FROM users",
+                (rs, rowNum) -> new IdRange(rs.getLong(1), rs.getLong(2)));
+    }
+}
@@ -0,0 +1,210 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.progress.ExerciseWeek;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the progress tables from V7. Per-event statements touch one
+ * exercise week by primary key plus that week's sets; the full-history reads
+ * are only used by the backfill.
+ */
+@Repository
+public class ProgressRepository {
+
+    public record Totals(long sets, double volumeKg) {
+    }
+
+    public record Exercise(int id, String name, String nameKey, WorkoutSet.MuscleGroup muscleGroup) {
+    }
+
+    /**
+     * One exercise week with its all-time context, as read by {@link #findView}.
+     *
+     * @param previousBestE1rmKg best estimated 1RM in earlier weeks, null when there are none
+     */
+    public record ViewRow(
+            ExerciseWeek week,
+            String name,
+            WorkoutSet.MuscleGroup muscleGroup,
+            double allTimeE1rmKg,
+            double allTimeTopWeightKg,
+            Double previousBestE1rmKg,
+            Totals totals) {
+    }
+
+    private static final RowMapper<ExerciseWeek> WEEK_MAPPER = (rs, rowNum) -> new ExerciseWeek(
+            rs.getInt("exercise_id"),
+            rs.getInt("week"),
+            rs.getInt("sets"),
+            rs.getInt("reps"),
+            rs.getDouble("volume_kg"),
+            rs.getDouble("top_weight_kg"),
+            rs.getDouble("best_e1rm_kg"),
+            rs.getObject("best_e1rm_on", LocalDate.class));
+
+    private static final RowMapper<Exercise> EXERCISE_MAPPER = (rs, rowNum) -> new Exercise(
+            rs.getInt("exercise_id"),
+            rs.getString("name"),
+            rs.getString("name_key"),
+            WorkoutSet.MuscleGroup.valueOf(rs.getString("muscle_group")));
+
+    private static final String WEEK_COLUMNS =
+            "exercise_id, week, sets, reps, volume_kg, top_weight_kg, best_e1rm_kg, best_e1rm_on";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Serializes progress updates and rebuilds for one user
+    public Totals lockTotals(Long userId) {
+        jdbcTemplate.update("INSERT INTO user_training_totals (user_id) VALUES (?) ON CONFLICT DO NOTHING", userId);
+        return jdbcTemplate.queryForObject("""
+                        SELECT sets, volume_kg FROM user_training_totals WHERE user_id = ?
+                        FOR UPDATE""",
+                (rs, rowNum) -> new Totals(rs.getLong("sets"), rs.getDouble("volume_kg")), userId);
+    }
+
+    public void saveTotals(Long userId, Totals totals) {
+        jdbcTemplate.update("UPDATE user_training_totals SET sets = ?, volume_kg = ? WHERE user_id = ?",
+                totals.sets(), totals.volumeKg(), userId);
+    }
+
+    public List<Exercise> findExercises(Long userId) {
+        return jdbcTemplate.query("""
+                        SELECT exercise_id, name, name_key, muscle_group FROM user_exercises
+                        WHERE user_id = ?""",
+                EXERCISE_MAPPER, userId);
+    }
+
+    /**
+     * Id of the user's exercise, numbering it next if it is new. Only called
+     * with the totals row locked, so per-user numbering cannot race.
+     */
+    public Exercise findOrCreateExercise(Long userId, String name, WorkoutSet.MuscleGroup muscleGroup) {
+        String nameKey = ExerciseWeek.nameKey(name);
+        return jdbcTemplate.query("""
+                        SELECT exercise_id, name, name_key, muscle_group FROM user_exercises
+                        WHERE user_id = ? AND name_key = ? AND muscle_group = ?""",
+                EXERCISE_MAPPER, userId, nameKey, muscleGroup.name()).stream().findFirst()
+                .orElseGet(() -> jdbcTemplate.queryForObject("""
+                                INSERT INTO user_exercises (user_id, exercise_id, name, name_key, muscle_group)
+                                SELECT ?, coalesce(max(exercise_id), 0) + 1, ?, ?, ? FROM user_exercises
+                                WHERE user_id = ?
+                                RETURNING exercise_id, name, name_key, muscle_group""",
+                        EXERCISE_MAPPER, userId, name.trim(), nameKey, muscleGroup.name(), userId));
+    }
+
+    public Optional<ExerciseWeek> findWeek(Long userId, int exerciseId, int week) {
+        return jdbcTemplate.query("SELECT " + WEEK_COLUMNS + """
+                         FROM exercise_weeks
+                        WHERE user_id = ? AND exercise_id = ? AND week = ?""",
+                WEEK_MAPPER, userId, exerciseId, week).stream().findFirst();
+    }
+
+    // The user's sets of one muscle group in a date range; callers match the exercise name
+    public List<WorkoutSet> findSets(Long userId, WorkoutSet.MuscleGroup muscleGroup, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT id, user_id, performed_on, exercise, muscle_group, reps, weight_kg
+                        FROM workout_sets
+                        WHERE user_id = ? AND performed_on BETWEEN ? AND ? AND muscle_group = ?""",
+                WorkoutSetRepository.ROW_MAPPER, userId, from, to, muscleGroup.name());
+    }
+
+    public List<WorkoutSet> findAllSets(Long userId) {
+        return jdbcTemplate.query("""
+                        SELECT id, user_id, performed_on, exercise, muscle_group, reps, weight_kg
+                        FROM workout_sets
+                        WHERE user_id = ?
+                        ORDER BY performed_on, id""",
+                WorkoutSetRepository.ROW_MAPPER, userId);
+    }
+
+    // A week with no sets left is deleted rather than stored as zeros
+    public void saveWeek(Long userId, ExerciseWeek week) {
+        if (week.sets() == 0) {
+            jdbcTemplate.update("DELETE FROM exercise_weeks WHERE user_id = ? AND exercise_id = ? AND week = ?",
+                    userId, week.exerciseId(), week.week());
+            return;
+        }
+        jdbcTemplate.update("""
+                        INSERT INTO exercise_weeks (user_id, exercise_id, week, sets, reps, volume_kg, top_weight_kg,
+                                                    best_e1rm_kg, best_e1rm_on)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (user_id, exercise_id, week) DO UPDATE
+                            SET sets = EXCLUDED.sets,
+                                reps = EXCLUDED.reps,
+                                volume_kg = EXCLUDED.volume_kg,
+                                top_weight_kg = EXCLUDED.top_weight_kg,
+                                best_e1rm_kg = EXCLUDED.best_e1rm_kg,
+                                best_e1rm_on = EXCLUDED.best_e1rm_on""",
+                weekRow(userId, week));
+    }
+
+    public void replaceWeeks(Long userId, List<ExerciseWeek> weeks) {
+        jdbcTemplate.update("DELETE FROM exercise_weeks WHERE user_id = ?", userId);
+        List<Object[]> rows = new ArrayList<>(weeks.size());
+        for (ExerciseWeek week : weeks) {
+            rows.add(weekRow(userId, week));
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO exercise_weeks (user_id, exercise_id, week, sets, reps, volume_kg, top_weight_kg,
+                                                    best_e1rm_kg, best_e1rm_on)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""",
+                rows);
+    }
+
+    /**
+     * Everything the progress view shows, in one statement: every exercise
+     * week from {@code fromWeek} on, plus each exercise's all-time best week
+     * however old, each with the exercise's all-time bests and its best
+     * before that week. The window functions run over the user's whole
+     * history before the week filter applies. Totals ride along on every row;
+     * a user without any rows has no sets.
+     */
+    public List<ViewRow> findView(Long userId, int fromWeek) {
+        return jdbcTemplate.query("""
+                        SELECT w.exercise_id, w.week, w.sets, w.reps, w.volume_kg, w.top_weight_kg, w.best_e1rm_kg,
+                               w.best_e1rm_on, w.all_time_e1rm_kg, w.all_time_top_weight_kg, w.previous_best_e1rm_kg,
+                               e.name, e.muscle_group, t.sets AS total_sets, t.volume_kg AS total_volume_kg
+                        FROM (SELECT *,
+                                     max(best_e1rm_kg) OVER (PARTITION BY exercise_id) AS all_time_e1rm_kg,
+                                     max(top_weight_kg) OVER (PARTITION BY exercise_id) AS all_time_top_weight_kg,
+                                     max(best_e1rm_kg) OVER (PARTITION BY exercise_id ORDER BY week
+                                         ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_best_e1rm_kg
+                              FROM exercise_weeks
+                              WHERE user_id = ?) w
+                        JOIN user_exercises e ON e.user_id = ? AND e.exercise_id = w.exercise_id
+                        LEFT JOIN user_training_totals t ON t.user_id = ?
+                        WHERE w.week >= ? OR (w.best_e1rm_kg > 0 AND w.best_e1rm_kg = w.all_time_e1rm_kg)
+                        ORDER BY w.exercise_id, w.week""",
+                (rs, rowNum) -> new ViewRow(
+                        WEEK_MAPPER.mapRow(rs, rowNum),
+                        rs.getString("name"),
+                        WorkoutSet.MuscleGroup.valueOf(rs.getString("muscle_group")),
+                        rs.getDouble("all_time_e1rm_kg"),
+                        rs.getDouble("all_time_top_weight_kg"),
+                        rs.getObject("previous_best_e1rm_kg", Double.class),
+                        new Totals(rs.getLong("total_sets"), rs.getDouble("total_volume_kg"))),
+                userId, userId, userId, fromWeek);
+    }
+
+    public List<Long> findUserIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, afterId, limit);
+    }
+
+    private static Object[] weekRow(Long userId, ExerciseWeek week) {
+        return new Object[]{userId, week.exerciseId(), week.week(), week.sets(), week.reps(), week.volumeKg(),
+                week.topWeightKg(), week.bestE1rmKg(),
+                week.bestE1rmOn() == null ? null : Date.valueOf(week.bestE1rmOn())};
+    }
+}
@@ -0,0 +1,188 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.WeighIn;
+import com.fit_track.streak.Achievement;
+import com.fit_track.streak.DayActivity;
+import com.fit_track.streak.StreakCounter;
+import com.fit_track.streak.StreakKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC access to the streak tables from V5. Per-event statements touch a
+ * handful of rows by primary key; the full-history reads are only used for
+ * replays and rebuilds.
+ */
+@Repository
+public class StreakRepository {
+
+    public record Totals(long foodEntries, long workoutSets) {
+    }
+
+    private static final RowMapper<DayActivity> DAY_MAPPER = (rs, rowNum) -> new DayActivity(
+            rs.getObject("day", LocalDate.class),
+            rs.getInt("food_entries"),
+            rs.getInt("calories"),
+            rs.getInt("workout_sets"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Serializes streak updates and rebuilds for one user
+    public Totals lockTotals(Long userId) {
+        jdbcTemplate.update("INSERT INTO user_activity_totals (user_id) VALUES (?) ON CONFLICT DO NOTHING", userId);
+        return jdbcTemplate.queryForObject("""
+                        SELECT food_entries, workout_sets FROM user_activity_totals WHERE user_id = ?
+                        FOR UPDATE""",
+                (rs, rowNum) -> new Totals(rs.getLong("food_entries"), rs.getLong("workout_sets")), userId);
+    }
+
+    public void saveTotals(Long userId, Totals totals) {
+        jdbcTemplate.update("UPDATE user_activity_totals SET food_entries = ?, workout_sets = ? WHERE user_id = ?",
+                totals.foodEntries(), totals.workoutSets(), userId);
+    }
+
+    public Optional<DayActivity> findDay(Long userId, LocalDate day) {
+        return jdbcTemplate.query("""
+                        SELECT day, food_entries, calories, workout_sets FROM user_daily_activity
+                        WHERE user_id = ? AND day = ?""",
+                DAY_MAPPER, userId, day).stream().findFirst();
+    }
+
+    /**
+     * Recomputes one day from the log tables and stores it. Reading absolute
+     * values rather than applying deltas makes a repeated or reordered event
+     * harmless.
+     */
+    public DayActivity refreshDay(Long userId, LocalDate day) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO user_daily_activity (user_id, day, food_entries, calories, workout_sets)
+                        SELECT ?, ?, food.entries, food.calories, sets.sets
+                        FROM (SELECT count(*) AS entries, coalesce(sum(calories), 0) AS calories
+                              FROM food_logs WHERE user_id = ? AND logged_on = ?) food,
+                             (SELECT count(*) AS sets
+                              FROM workout_sets WHERE user_id = ? AND performed_on = ?) sets
+                        ON CONFLICT (user_id, day) DO UPDATE
+                            SET food_entries = EXCLUDED.food_entries,
+                                calories = EXCLUDED.calories,
+                                workout_sets = EXCLUDED.workout_sets
+                        RETURNING day, food_entries, calories, workout_sets""",
+                DAY_MAPPER, userId, day, userId, day, userId, day);
+    }
+
+    public List<DayActivity> findDays(Long userId) {
+        return jdbcTemplate.query("""
+                        SELECT day, food_entries, calories, workout_sets FROM user_daily_activity
+                        WHERE user_id = ?
+                        ORDER BY day""",
+                DAY_MAPPER, userId);
+    }
+
+    public int countWorkoutDays(Long userId, LocalDate from, LocalDate to) {
+        Integer days = jdbcTemplate.queryForObject("""
+                        SELECT count(*) FROM user_daily_activity
+                        WHERE user_id = ? AND day BETWEEN ? AND ? AND workout_sets > 0""",
+                Integer.class, userId, from, to);
+        return days == null ? 0 : days;
+    }
+
+    // Replaces the user's rollup with one aggregated from the log tables
+    public void rebuildDays(Long userId) {
+        jdbcTemplate.update("DELETE FROM user_daily_activity WHERE user_id = ?", userId);
+        jdbcTemplate.update("""
+                        INSERT INTO user_daily_activity (user_id, day, food_entries, calories, workout_sets)
+                        SELECT ?, coalesce(food.day, sets.day), coalesce(food.entries, 0), coalesce(food.calories, 0),
+                               coalesce(sets.sets, 0)
+                        FROM (SELECT logged_on AS day, count(*) AS entries, sum(calories) AS calories
+                              FROM food_logs WHERE user_id = ? GROUP BY logged_on) food
+                        FULL JOIN (SELECT performed_on AS day, count(*) AS sets
+                                   FROM workout_sets WHERE user_id = ? GROUP BY performed_on) sets
+                            ON food.day = sets.day""",
+                userId, userId, userId);
+    }
+
+    public List<WeighIn> findWeighIns(Long userId) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, measured_on, weight_kg FROM weigh_ins
+                        WHERE user_id = ?
+                        ORDER BY measured_on""",
+                WeighInRepository.ROW_MAPPER, userId);
+    }
+
+    public Map<StreakKind, StreakCounter> findStreaks(Long userId) {
+        Map<StreakKind, StreakCounter> streaks = new EnumMap<>(StreakKind.class);
+        for (StreakKind kind : StreakKind.values()) {
+            streaks.put(kind, new StreakCounter());
+        }
+        jdbcTemplate.query("""
+                        SELECT kind, current, current_end, previous_best FROM user_streaks
+                        WHERE user_id = ?""",
+                rs -> {
+                    StreakKind kind = StreakKind.valueOf(rs.getString("kind"));
+                    LocalDate currentEnd = rs.getObject("current_end", LocalDate.class);
+                    streaks.put(kind, new StreakCounter(rs.getInt("current"),
+                            currentEnd == null ? 0 : kind.period(currentEnd), rs.getInt("previous_best")));
+                },
+                userId);
+        return streaks;
+    }
+
+    public void saveStreaks(Long userId, Map<StreakKind, StreakCounter> streaks) {
+        List<Object[]> rows = new ArrayList<>(streaks.size());
+        streaks.forEach((kind, counter) -> rows.add(new Object[]{
+                userId, kind.name(), counter.getCurrent(),
+                counter.getCurrent() == 0 ? null : Date.valueOf(kind.start(counter.getCurrentEnd())),
+                counter.getPreviousBest(), counter.getBest()}));
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO user_streaks (user_id, kind, current, current_end, previous_best, best)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (user_id, kind) DO UPDATE
+                            SET current = EXCLUDED.current,
+                                current_end = EXCLUDED.current_end,
+                                previous_best = EXCLUDED.previous_best,
+                                best = EXCLUDED.best""",
+                rows);
+    }
+
+    public Map<Achievement, LocalDate> findAchievements(Long userId) {
+        Map<Achievement, LocalDate> achievements = new EnumMap<>(Achievement.class);
+        jdbcTemplate.query("SELECT achievement, achieved_on FROM user_achievements WHERE user_id = ?",
+                rs -> {
+                    achievements.put(Achievement.valueOf(rs.getString("achievement")),
+                            rs.getObject("achieved_on", LocalDate.class));
+                },
+                userId);
+        return achievements;
+    }
+
+    // Already reached achievements keep their original date
+    public void award(Long userId, Achievement achievement, LocalDate day) {
+        jdbcTemplate.update("""
+                        INSERT INTO user_achievements (user_id, achievement, achieved_on) VALUES (?, ?, ?)
+                        ON CONFLICT DO NOTHING""",
+                userId, achievement.name(), day);
+    }
+
+    public void replaceAchievements(Long userId, Map<Achievement, LocalDate> achievements) {
+        jdbcTemplate.update("DELETE FROM user_achievements WHERE user_id = ?", userId);
+        List<Object[]> rows = new ArrayList<>(achievements.size());
+        achievements.forEach((achievement, day) -> rows.add(new Object[]{userId, achievement.name(), Date.valueOf(day)}));
+        jdbcTemplate.batchUpdate("INSERT INTO user_achievements (user_id, achievement, achieved_on) VALUES (?, ?, ?)",
+                rows);
+    }
+
+    public List<Long> findUserIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, afterId, limit);
+    }
+}
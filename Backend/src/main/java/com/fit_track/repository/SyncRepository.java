@@ -0,0 +1,198 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.Versioned;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Change-sequence reads and writes for delta sync. Sequences are assigned by
+ * the database triggers from V4; statements here only read them back. Range
+ * reads use the {@code (user_id, change_seq)} indexes.
+ */
+@Repository
+public class SyncRepository {
+
+    public record Cursor(long seq, long profileSeq, long horizon) {
+    }
+
+    public record Tombstone(long seq, String entity, String key) {
+    }
+
+    private static final RowMapper<Cursor> CURSOR_MAPPER = (rs, rowNum) -> new Cursor(
+            rs.getLong("change_seq"),
+            rs.getLong("profile_change_seq"),
+            rs.getLong("sync_horizon"));
+
+    private static final RowMapper<Tombstone> TOMBSTONE_MAPPER = (rs, rowNum) -> new Tombstone(
+            rs.getLong("change_seq"),
+            rs.getString("entity"),
+            rs.getString("entity_key"));
+
+    private static final RowMapper<Versioned<FoodLog>> FOOD_MAPPER = versioned(FoodLogRepository.ROW_MAPPER);
+    private static final RowMapper<Versioned<WorkoutSet>> WORKOUT_MAPPER = versioned(WorkoutSetRepository.ROW_MAPPER);
+    private static final RowMapper<Versioned<WeighIn>> WEIGH_IN_MAPPER = versioned(WeighInRepository.ROW_MAPPER);
+
+    private static final String FOOD_COLUMNS =
+            "id, user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g, change_seq";
+    private static final String WORKOUT_COLUMNS =
+            "id, user_id, performed_on, exercise, muscle_group, reps, weight_kg, change_seq";
+    private static final String WEIGH_IN_COLUMNS = "user_id, measured_on, weight_kg, change_seq";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<Cursor> findCursor(Long userId) {
+        return jdbcTemplate.query("SELECT change_seq, profile_change_seq, sync_horizon FROM users WHERE id = ?",
+                CURSOR_MAPPER, userId).stream().findFirst();
+    }
+
+    // Holding the user row serializes this transaction with every other writer of the user's rows
+    public Optional<Cursor> lockCursor(Long userId) {
+        return jdbcTemplate.query("""
+                        SELECT change_seq, profile_change_seq, sync_horizon FROM users WHERE id = ?
+                        FOR UPDATE""",
+                CURSOR_MAPPER, userId).stream().findFirst();
+    }
+
+    public List<Versioned<FoodLog>> findFoodLogsSince(Long userId, long since, int limit) {
+        return jdbcTemplate.query("SELECT " + FOOD_COLUMNS + """
+                         FROM food_logs
+                        WHERE user_id = ? AND change_seq > ?
+                        ORDER BY change_seq
+                        LIMIT ?""",
+                FOOD_MAPPER, userId, since, limit);
+    }
+
+    public List<Versioned<WorkoutSet>> findWorkoutSetsSince(Long userId, long since, int limit) {
+        return jdbcTemplate.query("SELECT " + WORKOUT_COLUMNS + """
+                         FROM workout_sets
+                        WHERE user_id = ? AND change_seq > ?
+                        ORDER BY change_seq
+                        LIMIT ?""",
+                WORKOUT_MAPPER, userId, since, limit);
+    }
+
+    public List<Versioned<WeighIn>> findWeighInsSince(Long userId, long since, int limit) {
+        return jdbcTemplate.query("SELECT " + WEIGH_IN_COLUMNS + """
+                         FROM weigh_ins
+                        WHERE user_id = ? AND change_seq > ?
+                        ORDER BY change_seq
+                        LIMIT ?""",
+                WEIGH_IN_MAPPER, userId, since, limit);
+    }
+
+    public List<Tombstone> findTombstonesSince(Long userId, long since, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT change_seq, entity, entity_key FROM sync_tombstones
+                        WHERE user_id = ? AND change_seq > ?
+                        ORDER BY change_seq
+                        LIMIT ?""",
+                TOMBSTONE_MAPPER, userId, since, limit);
+    }
+
+    public Optional<Versioned<FoodLog>> findFoodLog(Long userId, Long id) {
+        return jdbcTemplate.query("SELECT " + FOOD_COLUMNS + " FROM food_logs WHERE user_id = ? AND id = ?",
+                FOOD_MAPPER, userId, id).stream().findFirst();
+    }
+
+    public Optional<Versioned<WorkoutSet>> findWorkoutSet(Long userId, Long id) {
+        return jdbcTemplate.query("SELECT " + WORKOUT_COLUMNS + " FROM workout_sets WHERE user_id = ? AND id = ?",
+                WORKOUT_MAPPER, userId, id).stream().findFirst();
+    }
+
+    public Optional<Versioned<WeighIn>> findWeighIn(Long userId, LocalDate measuredOn) {
+        return jdbcTemplate.query("SELECT " + WEIGH_IN_COLUMNS + " FROM weigh_ins WHERE user_id = ? AND measured_on = ?",
+                WEIGH_IN_MAPPER, userId, measuredOn).stream().findFirst();
+    }
+
+    // A null id inserts a new row, otherwise the existing row is overwritten
+    public Versioned<FoodLog> saveFoodLog(FoodLog log) {
+        if (log.id() == null) {
+            return jdbcTemplate.queryForObject("""
+                            INSERT INTO food_logs (user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g)
+                            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                            RETURNING\s""" + FOOD_COLUMNS,
+                    FOOD_MAPPER,
+                    log.userId(), log.loggedOn(), log.meal().name(), log.name(), log.calories(),
+                    log.proteinG(), log.carbsG(), log.fatG());
+        }
+        return jdbcTemplate.queryForObject("""
+                        UPDATE food_logs
+                        SET logged_on = ?, meal = ?, name = ?, calories = ?, protein_g = ?, carbs_g = ?, fat_g = ?
+                        WHERE user_id = ? AND id = ?
+                        RETURNING\s""" + FOOD_COLUMNS,
+                FOOD_MAPPER,
+                log.loggedOn(), log.meal().name(), log.name(), log.calories(),
+                log.proteinG(), log.carbsG(), log.fatG(), log.userId(), log.id());
+    }
+
+    public Versioned<WorkoutSet> saveWorkoutSet(WorkoutSet set) {
+        if (set.id() == null) {
+            return jdbcTemplate.queryForObject("""
+                            INSERT INTO workout_sets (user_id, performed_on, exercise, muscle_group, reps, weight_kg)
+                            VALUES (?, ?, ?, ?, ?, ?)
+                            RETURNING\s""" + WORKOUT_COLUMNS,
+                    WORKOUT_MAPPER,
+                    set.userId(), set.performedOn(), set.exercise(), set.muscleGroup().name(), set.reps(),
+                    set.weightKg());
+        }
+        return jdbcTemplate.queryForObject("""
+                        UPDATE workout_sets
+                        SET performed_on = ?, exercise = ?, muscle_group = ?, reps = ?, weight_kg = ?
+                        WHERE user_id = ? AND id = ?
+                        RETURNING\s""" + WORKOUT_COLUMNS,
+                WORKOUT_MAPPER,
+                set.performedOn(), set.exercise(), set.muscleGroup().name(), set.reps(), set.weightKg(),
+                set.userId(), set.id());
+    }
+
+    public Versioned<WeighIn> saveWeighIn(WeighIn weighIn) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO weigh_ins (user_id, measured_on, weight_kg)
+                        VALUES (?, ?, ?)
+                        ON CONFLICT (user_id, measured_on) DO UPDATE SET weight_kg = EXCLUDED.weight_kg
+                        RETURNING\s""" + WEIGH_IN_COLUMNS,
+                WEIGH_IN_MAPPER,
+                weighIn.userId(), weighIn.measuredOn(), weighIn.weightKg());
+    }
+
+    /**
+     * Deletes up to {@code limit} tombstones older than the cutoff and raises
+     * each affected user's horizon past them, in one statement.
+     *
+     * @return number of tombstones deleted
+     */
+    public int pruneTombstones(LocalDateTime cutoff, int limit) {
+        Integer pruned = jdbcTemplate.queryForObject("""
+                        WITH pruned AS (
+                            DELETE FROM sync_tombstones
+                            WHERE (user_id, change_seq) IN (
+                                SELECT user_id, change_seq FROM sync_tombstones
+                                WHERE deleted_at < ?
+                                LIMIT ?
+                                FOR UPDATE SKIP LOCKED)
+                            RETURNING user_id, change_seq),
+                        horizon AS (
+                            UPDATE users u SET sync_horizon = GREATEST(u.sync_horizon, p.max_seq)
+                            FROM (SELECT user_id, max(change_seq) AS max_seq FROM pruned GROUP BY user_id) p
+                            WHERE u.id = p.user_id)
+                        SELECT count(*) FROM pruned""",
+                Integer.class, Timestamp.valueOf(cutoff), limit);
+        return pruned == null ? 0 : pruned;
+    }
+
+    private static <T> RowMapper<Versioned<T>> versioned(RowMapper<T> mapper) {
+        return (rs, rowNum) -> new Versioned<>(rs.getLong("change_seq"), mapper.mapRow(rs, rowNum));
+    }
+}
@@ -2,12 +2,19 @@ package com.fit_track.repository;
 
 import com.fit_track.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
 
 
@@ -18,4 +25,64 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Feeds the shared profile cache, which must never be filled from a lagging replica
+    @Transactional
+    @Query("select u from User u where u.email = :email")
+    Optional<User> findByEmailOnPrimary(@Param("email") String email);
+
+    // Revocation source of truth: always read from the primary
+    @Transactional
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Redeems the first refresh token of a login session. Returns 0 when it
+     * was already redeemed, including by a concurrent request.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO refresh_token_families (id, user_id, generation, expires_at)
+            VALUES (:family, :userId, 1, :expiresAt)
+            ON CONFLICT (id) DO NOTHING""", nativeQuery = true)
+    int startRefreshFamily(@Param("family") UUID family,
+                           @Param("userId") Long userId,
+                           @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Redeems a later refresh token of a login session: a compare-and-set on
+     * the family's generation. Returns 0 when the token is not the current one.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE refresh_token_families
+               SET generation = generation + 1, expires_at = :expiresAt
+             WHERE id = :family AND user_id = :userId AND generation = :generation""", nativeQuery = true)
+    int advanceRefreshFamily(@Param("family") UUID family,
+                             @Param("userId") Long userId,
+                             @Param("generation") int generation,
+                             @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Creates an unverified user in one round trip. Returns the new id, or empty
+     * when the email is already taken, including by a concurrent registration.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO users (email, password, first_name, last_name, email_verified, profile_completed,
+                               enabled, role, token_version, verification_code, verification_code_expires_at,
+                               created_at, updated_at)
+            VALUES (:email, :password, :firstName, :lastName, false, false,
+                    false, 'USER', 0, :verificationCode, :verificationCodeExpiresAt,
+                    now(), now())
+            ON CONFLICT (email) DO NOTHING
+            RETURNING id""", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("email") String email,
+                                  @Param("password") String password,
+                                  @Param("firstName") String firstName,
+                                  @Param("lastName") String lastName,
+                                  @Param("verificationCode") String verificationCode,
+                                  @Param("verificationCodeExpiresAt") LocalDateTime verificationCodeExpiresAt);
+}
@@ -0,0 +1,56 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.WeighIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to {@code weigh_ins}. Reads always bound {@code measured_on},
+ * the range partition key, so only the months asked for are scanned.
+ */
+@Repository
+public class WeighInRepository {
+
+    static final RowMapper<WeighIn> ROW_MAPPER = (rs, rowNum) -> new WeighIn(
+            rs.getLong("user_id"),
+            rs.getObject("measured_on", LocalDate.class),
+            rs.getDouble("weight_kg"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A second weigh-in on the same day replaces the first
+    public void upsert(WeighIn weighIn) {
+        jdbcTemplate.update("""
+                        INSERT INTO weigh_ins (user_id, measured_on, weight_kg)
+                        VALUES (?, ?, ?)
+                        ON CONFLICT (user_id, measured_on) DO UPDATE SET weight_kg = EXCLUDED.weight_kg""",
+                weighIn.userId(), weighIn.measuredOn(), weighIn.weightKg());
+    }
+
+    public List<WeighIn> findByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, measured_on, weight_kg
+                        FROM weigh_ins
+                        WHERE user_id = ? AND measured_on BETWEEN ? AND ?
+                        ORDER BY measured_on""",
+                ROW_MAPPER, userId, from, to);
+    }
+
+    public Optional<WeighIn> delete(Long userId, LocalDate measuredOn) {
+        return jdbcTemplate.query("""
+                        DELETE FROM weigh_ins WHERE user_id = ? AND measured_on = ?
+                        RETURNING user_id, measured_on, weight_kg""",
+                ROW_MAPPER, userId, measuredOn).stream().findFirst();
+    }
+
+    public void ensurePartition(LocalDate day) {
+        jdbcTemplate.queryForObject("SELECT ensure_weigh_ins_partition(?)", Object.class, day);
+    }
+}
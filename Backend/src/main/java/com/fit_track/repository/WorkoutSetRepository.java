@@ -0,0 +1,59 @@
+package com.fit_track.repository;
+
+import com.fit_track.entity.WorkoutSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to {@code workout_sets}. Every statement filters on
+ * {@code user_id}, the hash partition key, so it touches one partition.
+ */
+@Repository
+public class WorkoutSetRepository {
+
+    static final RowMapper<WorkoutSet> ROW_MAPPER = (rs, rowNum) -> new WorkoutSet(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getObject("performed_on", LocalDate.class),
+            rs.getString("exercise"),
+            WorkoutSet.MuscleGroup.valueOf(rs.getString("muscle_group")),
+            rs.getInt("reps"),
+            rs.getDouble("weight_kg"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public WorkoutSet insert(WorkoutSet set) {
+        Long id = jdbcTemplate.queryForObject("""
+                        INSERT INTO workout_sets (user_id, performed_on, exercise, muscle_group, reps, weight_kg)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        RETURNING id""",
+                Long.class,
+                set.userId(), set.performedOn(), set.exercise(), set.muscleGroup().name(), set.reps(),
+                set.weightKg());
+        return new WorkoutSet(id, set.userId(), set.performedOn(), set.exercise(), set.muscleGroup(),
+                set.reps(), set.weightKg());
+    }
+
+    public List<WorkoutSet> findByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT id, user_id, performed_on, exercise, muscle_group, reps, weight_kg
+                        FROM workout_sets
+                        WHERE user_id = ? AND performed_on BETWEEN ? AND ?
+                        ORDER BY performed_on, id""",
+                ROW_MAPPER, userId, from, to);
+    }
+
+    public Optional<WorkoutSet> deleteByUserIdAndId(Long userId, Long id) {
+        return jdbcTemplate.query("""
+                        DELETE FROM workout_sets WHERE user_id = ? AND id = ?
+                        RETURNING id, user_id, performed_on, exercise, muscle_group, reps, weight_kg""",
+                ROW_MAPPER, userId, id).stream().findFirst();
+    }
+}
@@ -1,15 +1,19 @@
 package com.fit_track.security;
 
-import com.fit_track.service.CustomUserDetailsService;
+import com.fit_track.audit.AuditAction;
+import com.fit_track.audit.AuditLog;
 import com.fit_track.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,14 +21,23 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 
+/**
+ * Authenticates requests purely from signed token claims. The only database
+ * access is the token-version check in {@link TokenVersionCache}, which is
+ * served from memory once a user's version is known.
+ */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
     private JwtService jwtService;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private AuditLog auditLog;
 
     @Override
     protected void doFilterInternal(
@@ -35,7 +48,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -43,23 +55,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims;
+            try {
+                claims = jwtService.extractAllClaims(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                if (!(e instanceof ExpiredJwtException)) {
+                    auditLog.failed(AuditAction.TOKEN_REJECTED, null, null, "TOKEN_INVALID");
+                }
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            if (jwtService.isRefreshToken(claims)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            JwtPrincipal principal = JwtPrincipal.fromClaims(claims);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (principal.getEmail() != null
+                    && tokenVersionCache.isCurrent(principal.getId(), principal.getTokenVersion())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        principal.getAuthorities()
                 );
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+            } else if (principal.getEmail() != null) {
+                // Genuine but retired, e.g. by a logout
+                auditLog.failed(AuditAction.TOKEN_REJECTED, principal.getId(), principal.getEmail(), "TOKEN_REVOKED");
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
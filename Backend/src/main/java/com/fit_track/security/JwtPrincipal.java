@@ -0,0 +1,109 @@
+package com.fit_track.security;
+
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user as described by verified token claims.
+ */
+public class JwtPrincipal implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+    private final boolean emailVerified;
+    private final boolean profileCompleted;
+    private final int tokenVersion;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(Long id, String email, List<GrantedAuthority> authorities,
+                        boolean emailVerified, boolean profileCompleted, int tokenVersion, Instant expiresAt) {
+        this.id = id;
+        this.email = email;
+        this.authorities = authorities;
+        this.emailVerified = emailVerified;
+        this.profileCompleted = profileCompleted;
+        this.tokenVersion = tokenVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    public static JwtPrincipal fromClaims(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        Collection<?> roles = claims.get(JwtService.CLAIM_ROLES, Collection.class);
+        if (roles != null) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+            }
+        }
+
+        Long id = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        Integer tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+
+        return new JwtPrincipal(
+                id,
+                claims.getSubject(),
+                authorities,
+                Boolean.TRUE.equals(claims.get(JwtService.CLAIM_EMAIL_VERIFIED, Boolean.class)),
+                Boolean.TRUE.equals(claims.get(JwtService.CLAIM_PROFILE_COMPLETED, Boolean.class)),
+                tokenVersion != null ? tokenVersion : 0,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    /**
+     * The principal of the current request, for servlet controllers.
+     */
+    public static JwtPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtPrincipal principal)) {
+            throw new AuthException(ErrorCode.NOT_AUTHENTICATED);
+        }
+        return principal;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean isEmailVerified() {
+        return emailVerified;
+    }
+
+    public boolean isProfileCompleted() {
+        return profileCompleted;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    // Null for a token without an expiry
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
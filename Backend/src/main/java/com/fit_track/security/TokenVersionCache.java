@@ -0,0 +1,91 @@
+package com.fit_track.security;
+
+import com.fit_track.cache.TieredCacheManager;
+import com.fit_track.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * In-memory view of each user's current token version. Tokens whose version
+ * matches the cached value are accepted without touching the database; the
+ * database is consulted only on a cold entry or when a token claims a newer
+ * version than this node has seen. Entries are dropped on every node when
+ * any node publishes a change for the user, so a revocation on one node is
+ * not undone by a stale version cached on another.
+ */
+@Component
+public class TokenVersionCache {
+
+    public static final String CACHE_NAME = "token-version";
+
+    private final Cache<Long, Integer> versions = Caffeine.newBuilder()
+            .maximumSize(500_000)
+            .build();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TieredCacheManager cacheManager;
+
+    @PostConstruct
+    void subscribe() {
+        cacheManager.addListener(CACHE_NAME, userId -> versions.invalidate(Long.valueOf(userId)));
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Boolean cached = checkCached(userId, tokenVersion);
+        if (cached != null) {
+            return cached;
+        }
+        return recordCurrent(userId, userRepository.findTokenVersionById(userId), tokenVersion);
+    }
+
+    /**
+     * Decides from memory alone.
+     *
+     * @return the verdict, or {@code null} when the current version must be loaded
+     */
+    public Boolean checkCached(Long userId, int tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+
+        Integer known = versions.getIfPresent(userId);
+        if (known != null) {
+            if (known == tokenVersion) {
+                return true;
+            }
+            if (tokenVersion < known) {
+                return false;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a freshly loaded version and decides against it. Used directly by
+     * callers that load the version themselves, such as the reactive filter.
+     */
+    public boolean recordCurrent(Long userId, Optional<Integer> current, int tokenVersion) {
+        if (current.isEmpty()) {
+            versions.invalidate(userId);
+            return false;
+        }
+        versions.put(userId, current.get());
+        return current.get() == tokenVersion;
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        versions.asMap().merge(userId, tokenVersion, Math::max);
+    }
+
+    public void invalidate(Long userId) {
+        versions.invalidate(userId);
+    }
+}
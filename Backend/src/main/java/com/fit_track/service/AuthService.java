@@ -1,28 +1,45 @@
 package com.fit_track.service;
 
+import com.fit_track.audit.AuditAction;
+import com.fit_track.audit.AuditLog;
 import com.fit_track.dto.request.LoginRequest;
 import com.fit_track.dto.request.OnboardingRequest;
 import com.fit_track.dto.request.RegisterRequest;
 import com.fit_track.dto.request.VerifyEmailRequest;
 import com.fit_track.dto.response.AuthResponse;
 import com.fit_track.dto.response.RegisterResponse;
+import com.fit_track.datasource.ReadYourWritesTracker;
 import com.fit_track.entity.User;
+import com.fit_track.exception.AuthException;
+import com.fit_track.event.UserChangedEvent;
+import com.fit_track.exception.ErrorCode;
 import com.fit_track.repository.UserRepository;
+import com.fit_track.security.TokenVersionCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthService {
 
+    public static final Duration VERIFICATION_CODE_TTL = Duration.ofMinutes(15);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -33,83 +50,107 @@ public class AuthService {
     private JwtService jwtService;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private TokenVersionCache tokenVersionCache;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private ObjectProvider<EmailService> emailService;
 
     @Autowired
-    private EmailService emailService;
+    private ReadYourWritesTracker readYourWritesTracker;
 
-    public RegisterResponse register(RegisterRequest request) {
+    @Autowired
+    private IdempotencyCache idempotencyCache;
 
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email is already registered!");
-        }
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${fittrack.mail.coalesce-window:60s}")
+    private Duration resendCoalesceWindow;
 
-        User user = new User();
-        user.setEmail(request.getEmail().toLowerCase().trim());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setFirstName(request.getFirstName().trim());
-        user.setLastName(request.getLastName().trim());
-        user.setEmailVerified(false);
-        user.setProfileCompleted(false);
-        user.setEnabled(false);
+    // Hash of a random password: lets unknown emails cost the same as wrong passwords
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
 
+    /**
+     * Registers a user. Requests with the same {@code idempotencyKey}, or without
+     * one but with an identical payload, within the retry window share one
+     * outcome instead of registering (and emailing) twice.
+     */
+    public RegisterResponse register(RegisterRequest request, String idempotencyKey) {
+        String fingerprint = idempotencyCache.fingerprint(request.getEmail().toLowerCase().trim(),
+                request.getPassword(), request.getFirstName().trim(), request.getLastName().trim());
+        String key = idempotencyKey == null || idempotencyKey.isBlank()
+                ? "register:body:" + fingerprint
+                : "register:key:" + idempotencyKey.trim();
+        return idempotencyCache.execute(key, fingerprint, () -> createUser(request));
+    }
 
+    private RegisterResponse createUser(RegisterRequest request) {
+        String email = request.getEmail().toLowerCase().trim();
         String verificationCode = generateVerificationCode();
-        user.setVerificationCode(verificationCode);
-        user.setVerificationCodeExpiresAt(LocalDateTime.now().plusMinutes(15));
 
-        User savedUser = userRepository.save(user);
+        // Single statement: the unique index decides, so concurrent duplicates
+        // get a clean "already registered" instead of a constraint violation
+        userRepository.insertIfAbsent(
+                email,
+                passwordEncoder.encode(request.getPassword()),
+                request.getFirstName().trim(),
+                request.getLastName().trim(),
+                verificationCode,
+                LocalDateTime.now().plus(VERIFICATION_CODE_TTL)
+        ).orElseThrow(() -> new AuthException(ErrorCode.EMAIL_ALREADY_REGISTERED));
+        readYourWritesTracker.markWrite(email);
 
 
         try {
-            emailService.sendVerificationEmail(savedUser.getEmail(), verificationCode);
+            emailService.getObject().sendVerificationEmail(email, verificationCode);
         } catch (Exception e) {
             System.err.println("Failed to send verification email: " + e.getMessage());
         }
 
         return new RegisterResponse("Registration successful! Please check your email for verification code.",
-                savedUser.getEmail());
+                email);
     }
 
+    // Read-write throughout: the user is loaded from, and saved back to, the primary
+    @Transactional
     public AuthResponse verifyEmail(VerifyEmailRequest request) {
+        return audited(AuditAction.VERIFY_EMAIL, request.getEmail(), () -> markVerified(request));
+    }
 
+    private AuthResponse markVerified(VerifyEmailRequest request) {
         String email = request.getEmail().toLowerCase().trim();
         String code = request.getCode().trim();
 
 
         User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
 
 
         if (user.isEmailVerified()) {
-            throw new RuntimeException("Email is already verified");
+            throw new AuthException(ErrorCode.EMAIL_ALREADY_VERIFIED);
         }
 
 
         if (user.getVerificationCode() == null || user.getVerificationCode().trim().isEmpty()) {
-            throw new RuntimeException("No verification code found. Please request a new one.");
+            throw new AuthException(ErrorCode.VERIFICATION_CODE_MISSING);
         }
 
-        // Debug logging - remove in production
-        System.out.println("Stored code: '" + user.getVerificationCode() + "'");
-        System.out.println("Provided code: '" + code + "'");
-        System.out.println("Codes match: " + user.getVerificationCode().equals(code));
-        System.out.println("Code expiry: " + user.getVerificationCodeExpiresAt());
-        System.out.println("Current time: " + LocalDateTime.now());
-
-
         if (user.getVerificationCodeExpiresAt() == null ||
                 LocalDateTime.now().isAfter(user.getVerificationCodeExpiresAt())) {
-            throw new RuntimeException("Verification code has expired. Please request a new one.");
+            throw new AuthException(ErrorCode.VERIFICATION_CODE_EXPIRED);
         }
 
 
         if (!code.equals(user.getVerificationCode())) {
-            throw new RuntimeException("Invalid verification code");
+            throw new AuthException(ErrorCode.VERIFICATION_CODE_INVALID);
         }
 
 
@@ -119,22 +160,24 @@ public class AuthService {
         user.setVerificationCodeExpiresAt(null);
 
         User savedUser = userRepository.save(user);
+        readYourWritesTracker.markWrite(savedUser.getEmail());
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), savedUser.getEmail()));
 
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
-        String jwt = jwtService.generateToken(userDetails);
-
-        return new AuthResponse(jwt, savedUser.getId(), savedUser.getEmail(),
-                savedUser.getFirstName(), savedUser.getLastName(),
-                savedUser.isEmailVerified(), savedUser.isProfileCompleted());
+        return buildAuthResponse(savedUser);
     }
 
+    @Transactional
     public AuthResponse completeOnboarding(OnboardingRequest request, String userEmail) {
+        return audited(AuditAction.COMPLETE_ONBOARDING, userEmail, () -> saveOnboarding(request, userEmail));
+    }
+
+    private AuthResponse saveOnboarding(OnboardingRequest request, String userEmail) {
         User user = userRepository.findByEmail(userEmail.toLowerCase().trim())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
 
         if (!user.isEmailVerified()) {
-            throw new RuntimeException("Email must be verified before completing onboarding");
+            throw new AuthException(ErrorCode.ONBOARDING_REQUIRES_VERIFIED_EMAIL);
         }
 
 
@@ -146,76 +189,181 @@ public class AuthService {
         user.setAge(request.getAge());
         user.setGender(request.getGender());
         user.setProfileCompleted(true);
+        // Older tokens carry profileCompleted=false; retire them with the new claims
+        user.setTokenVersion(user.getTokenVersion() + 1);
 
         User savedUser = userRepository.save(user);
+        readYourWritesTracker.markWrite(savedUser.getEmail());
+        tokenVersionCache.update(savedUser.getId(), savedUser.getTokenVersion());
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), savedUser.getEmail()));
 
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
-        String jwt = jwtService.generateToken(userDetails);
-
-        return new AuthResponse(jwt, savedUser.getId(), savedUser.getEmail(),
-                savedUser.getFirstName(), savedUser.getLastName(),
-                savedUser.isEmailVerified(), savedUser.isProfileCompleted());
+        return buildAuthResponse(savedUser);
     }
 
+    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
+        // Just registered or verified: read the account from the primary
+        return audited(AuditAction.LOGIN, request.getEmail(),
+                () -> readYourWritesTracker.readAs(request.getEmail(), () -> authenticate(request)));
+    }
 
+    private AuthResponse authenticate(LoginRequest request) {
         String email = request.getEmail().toLowerCase().trim();
 
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        email,
-                        request.getPassword()
-                )
-        );
-
-
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Checked here rather than through the AuthenticationManager, whose
+        // failures are stack-trace-carrying exceptions on every bad password
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            passwordEncoder.matches(request.getPassword(), dummyHash);
+            throw new AuthException(ErrorCode.BAD_CREDENTIALS);
+        }
+        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            throw new AuthException(ErrorCode.BAD_CREDENTIALS);
+        }
 
+        if (!user.isEnabled()) {
+            throw new AuthException(ErrorCode.ACCOUNT_DISABLED);
+        }
         if (!user.isEmailVerified()) {
-            throw new RuntimeException("Please verify your email before logging in");
+            throw new AuthException(ErrorCode.EMAIL_NOT_VERIFIED);
         }
 
 
-        String jwt = jwtService.generateToken(userDetails);
-
-        return new AuthResponse(jwt, user.getId(), user.getEmail(),
-                user.getFirstName(), user.getLastName(),
-                user.isEmailVerified(), user.isProfileCompleted());
+        return buildAuthResponse(user);
     }
 
+    @Transactional
     public void resendVerificationCode(String email) {
+        audited(AuditAction.RESEND_VERIFICATION_CODE, email, () -> {
+            sendVerificationCode(email.toLowerCase().trim());
+            return null;
+        });
+    }
 
-        email = email.toLowerCase().trim();
+    private void sendVerificationCode(String email) {
 
         User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
 
         if (user.isEmailVerified()) {
-            throw new RuntimeException("Email is already verified");
+            throw new AuthException(ErrorCode.EMAIL_ALREADY_VERIFIED);
         }
 
 
-        String verificationCode = generateVerificationCode();
-        user.setVerificationCode(verificationCode);
-        user.setVerificationCodeExpiresAt(LocalDateTime.now().plusMinutes(15));
+        LocalDateTime now = LocalDateTime.now();
+        String verificationCode = user.getVerificationCode();
+        if (!isRecentCode(verificationCode, user.getVerificationCodeExpiresAt(), now, resendCoalesceWindow)) {
+            verificationCode = generateVerificationCode();
+            user.setVerificationCode(verificationCode);
+            user.setVerificationCodeExpiresAt(now.plus(VERIFICATION_CODE_TTL));
 
-        userRepository.save(user);
+            userRepository.save(user);
+            readYourWritesTracker.markWrite(user.getEmail());
+        }
 
 
         try {
-            emailService.sendVerificationEmail(user.getEmail(), verificationCode);
+            emailService.getObject().sendVerificationEmail(user.getEmail(), verificationCode);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to send verification email");
+            throw new AuthException(ErrorCode.VERIFICATION_EMAIL_FAILED);
+        }
+    }
+
+    /**
+     * Whether a code expiring at {@code expiresAt} was issued within
+     * {@code coalesceWindow}. Such a code is resent unchanged, so repeated
+     * clicks produce identical messages that the mail engine sends once.
+     */
+    public static boolean isRecentCode(String code, LocalDateTime expiresAt, LocalDateTime now,
+                                       Duration coalesceWindow) {
+        return code != null && expiresAt != null
+                && !expiresAt.minus(VERIFICATION_CODE_TTL).isBefore(now.minus(coalesceWindow));
+    }
+
+    // Keep the reuse-triggered version bump even though the request itself fails
+    @Transactional(noRollbackFor = AuthException.class)
+    public AuthResponse refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+
+        if (!jwtService.isRefreshToken(claims)) {
+            throw new AuthException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        Integer tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+        UUID family = jwtService.refreshFamily(claims);
+        Integer generation = claims.get(JwtService.CLAIM_REFRESH_GENERATION, Integer.class);
+        if (userId == null || family == null || generation == null) {
+            throw new AuthException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new AuthException(ErrorCode.REFRESH_TOKEN_INVALID));
+
+        if (tokenVersion == null || tokenVersion != user.getTokenVersion()) {
+            throw new AuthException(ErrorCode.REFRESH_TOKEN_REVOKED);
+        }
+
+        // One conditional statement, so of two requests with the same token only one wins
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(jwtService.getRefreshTokenExpiration()));
+        int redeemed = generation == 0
+                ? userRepository.startRefreshFamily(family, userId, expiresAt)
+                : userRepository.advanceRefreshFamily(family, userId, generation, expiresAt);
+        if (redeemed == 0) {
+            // A rotated-out token came back: assume it leaked and end every session
+            revokeAllTokens(user);
+            throw new AuthException(ErrorCode.REFRESH_TOKEN_REVOKED);
+        }
+
+        return buildAuthResponse(user, jwtService.generateRefreshToken(user, family, generation + 1));
+    }
+
+    @Transactional
+    public void logout(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
+        revokeAllTokens(user);
+    }
+
+    private void revokeAllTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        readYourWritesTracker.markWrite(user.getEmail());
+        tokenVersionCache.update(user.getId(), user.getTokenVersion());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+    }
+
+    // Records the outcome in the audit log; only failures the client is told about count as failed
+    private <T> T audited(AuditAction action, String email, Supplier<T> operation) {
+        try {
+            T result = operation.get();
+            auditLog.succeeded(action, result instanceof AuthResponse response ? response.id() : null, email);
+            return result;
+        } catch (AuthException e) {
+            auditLog.failed(action, null, email, e.getErrorCode().name());
+            throw e;
         }
     }
 
-    private String generateVerificationCode() {
+    private AuthResponse buildAuthResponse(User user) {
+        return buildAuthResponse(user, jwtService.generateRefreshToken(user));
+    }
+
+    private AuthResponse buildAuthResponse(User user, String refreshToken) {
+        String jwt = jwtService.generateToken(user);
+
+        return new AuthResponse(jwt, refreshToken, user.getId(), user.getEmail(),
+                user.getFirstName(), user.getLastName(),
+                user.isEmailVerified(), user.isProfileCompleted());
+    }
+
+    String generateVerificationCode() {
         Random random = new Random();
 
         int code = random.nextInt(1000000);
@@ -0,0 +1,49 @@
+package com.fit_track.service;
+
+import com.fit_track.analytics.Attribute;
+import com.fit_track.analytics.CohortFilter;
+import com.fit_track.analytics.CohortIndex;
+import com.fit_track.analytics.CohortSync;
+import com.fit_track.dto.response.CohortResponse;
+import com.fit_track.dto.response.CohortResponse.FunnelStep;
+import com.fit_track.dto.response.CohortResponse.Segment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Answered from the in-memory cohort index; never touches the database
+@Service
+public class CohortService {
+
+    @Autowired
+    private CohortSync cohortSync;
+
+    /**
+     * @param by attribute to split the cohort by, or null for no breakdown
+     */
+    public CohortResponse getCohort(CohortFilter filter, Attribute by) {
+        CohortIndex index = cohortSync.getIndex();
+        CohortIndex.Funnel funnel = index.funnel(filter);
+        List<FunnelStep> steps = List.of(
+                new FunnelStep("REGISTERED", funnel.registered(), null),
+                new FunnelStep("VERIFIED", funnel.verified(), conversion(funnel.verified(), funnel.registered())),
+                new FunnelStep("ONBOARDED", funnel.onboarded(), conversion(funnel.onboarded(), funnel.verified())));
+
+        List<Segment> breakdown = null;
+        if (by != null) {
+            int[] counts = index.breakdown(filter, by);
+            breakdown = new ArrayList<>(counts.length);
+            for (int v = 0; v < by.valueCount(); v++) {
+                breakdown.add(new Segment(by.valueName(v), counts[v]));
+            }
+            breakdown.add(new Segment("UNKNOWN", counts[by.valueCount()]));
+        }
+        return new CohortResponse(index.size(), funnel.registered(), steps, by, breakdown);
+    }
+
+    private static Double conversion(int reached, int from) {
+        return from == 0 ? null : (double) reached / from;
+    }
+}
@@ -0,0 +1,277 @@
+package com.fit_track.service;
+
+import com.fit_track.datasource.ReadYourWritesTracker;
+import com.fit_track.dto.response.DashboardResponse;
+import com.fit_track.dto.response.DashboardResponse.Activity;
+import com.fit_track.dto.response.DashboardResponse.DailyCalories;
+import com.fit_track.dto.response.DashboardResponse.MacroProgress;
+import com.fit_track.dto.response.DashboardResponse.QuickStats;
+import com.fit_track.dto.response.DashboardResponse.WorkoutProgress;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.repository.FoodLogRepository;
+import com.fit_track.repository.WeighInRepository;
+import com.fit_track.repository.WorkoutSetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds every dashboard tile for one user in a single call. The profile and
+ * the three log ranges load concurrently on virtual threads, each tile is
+ * computed as soon as its inputs arrive, and the response waits for them
+ * under one deadline: a tile that is late or fails is left out rather than
+ * failing the page. Loads still running at the deadline are cancelled and
+ * their threads interrupted, so abandoned queries do not pile up.
+ */
+@Service
+public class DashboardService {
+
+    private static final int RECENT_ACTIVITY_LIMIT = 10;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private WorkoutSetRepository workoutSetRepository;
+
+    @Autowired
+    private WeighInRepository weighInRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${fittrack.dashboard.tile-timeout:800ms}")
+    private Duration tileTimeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public DashboardResponse getDashboard(Long userId, String email) {
+        long start = System.nanoTime();
+        long deadline = start + tileTimeout.toNanos();
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(DayOfWeek.MONDAY);
+        List<Future<?>> loads = new ArrayList<>(4);
+
+        CompletableFuture<UserProfile> profile = load(email, loads, () -> userProfileCache.findByEmail(email)
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND)));
+        CompletableFuture<List<FoodLog>> food = load(email, loads, () ->
+                foodLogRepository.findByUserIdAndDateRange(userId, today.minusDays(6), today));
+        CompletableFuture<List<WorkoutSet>> workouts = load(email, loads, () ->
+                workoutSetRepository.findByUserIdAndDateRange(userId, today.minusDays(27), today));
+        CompletableFuture<List<WeighIn>> weighIns = load(email, loads, () ->
+                weighInRepository.findByUserIdAndDateRange(userId, today.minusDays(59), today));
+
+        CompletableFuture<NutritionTargets> targets = tile("targets", start,
+                profile.thenApply(NutritionTargets::forProfile));
+        CompletableFuture<QuickStats> quickStats = tile("quick-stats", start,
+                CompletableFuture.allOf(profile, targets, food, workouts, weighIns).thenApply(ignored ->
+                        quickStats(profile.join(), targets.join(), food.join(), workouts.join(), weighIns.join(),
+                                today, weekStart)));
+        CompletableFuture<List<DailyCalories>> calorieChart = tile("calorie-chart", start,
+                targets.thenCombine(food, (target, logs) -> calorieChart(target, logs, today)));
+        CompletableFuture<MacroProgress> macroProgress = tile("macro-progress", start,
+                targets.thenCombine(food, (target, logs) -> macroProgress(target, logs, today)));
+        CompletableFuture<WorkoutProgress> workoutProgress = tile("workout-progress", start,
+                workouts.thenApply(sets -> workoutProgress(sets, weekStart)));
+        CompletableFuture<List<Activity>> recentActivity = tile("recent-activity", start,
+                CompletableFuture.allOf(food, workouts, weighIns).thenApply(ignored ->
+                        recentActivity(food.join(), workouts.join(), weighIns.join())));
+
+        List<String> unavailable = new ArrayList<>();
+        DashboardResponse response = new DashboardResponse(
+                today,
+                await("targets", targets, deadline, unavailable),
+                await("quick-stats", quickStats, deadline, unavailable),
+                await("calorie-chart", calorieChart, deadline, unavailable),
+                await("macro-progress", macroProgress, deadline, unavailable),
+                await("workout-progress", workoutProgress, deadline, unavailable),
+                await("recent-activity", recentActivity, deadline, unavailable),
+                unavailable);
+        // Nobody is waiting for them any more; a no-op for loads that finished
+        for (Future<?> load : loads) {
+            load.cancel(true);
+        }
+        return response;
+    }
+
+    /**
+     * Runs {@code loader} in a read-only transaction on its own virtual
+     * thread, so it may be served by the replica. The returned future cannot
+     * interrupt it, so the task is added to {@code loads} for that. The
+     * loader's thread has no security context, so its reads are attributed to
+     * the user explicitly; a user who just wrote is read from the primary.
+     */
+    private <T> CompletableFuture<T> load(String email, List<Future<?>> loads, Supplier<T> loader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        loads.add(executor.submit(() -> {
+            try {
+                result.complete(readYourWritesTracker.readAs(email, () -> readOnly.execute(status -> loader.get())));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    // Latency is recorded when the tile completes, independent of the order tiles are awaited in
+    private <T> CompletableFuture<T> tile(String name, long start, CompletableFuture<T> tile) {
+        return tile.whenComplete((result, error) -> Timer.builder("fittrack.dashboard.tile.latency")
+                .tag("tile", name)
+                .tag("outcome", error == null ? "ok" : "error")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private <T> T await(String name, CompletableFuture<T> tile, long deadline, List<String> unavailable) {
+        try {
+            return tile.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            Counter.builder("fittrack.dashboard.tile.timeouts")
+                    .tag("tile", name)
+                    .register(meterRegistry)
+                    .increment();
+        } catch (ExecutionException e) {
+            System.err.println("Dashboard tile " + name + " failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    private static QuickStats quickStats(UserProfile profile, NutritionTargets targets, List<FoodLog> food,
+                                         List<WorkoutSet> workouts, List<WeighIn> weighIns,
+                                         LocalDate today, LocalDate weekStart) {
+        int caloriesToday = food.stream()
+                .filter(log -> log.loggedOn().equals(today))
+                .mapToInt(FoodLog::calories)
+                .sum();
+
+        Double currentWeight = profile.currentWeight();
+        Double weightChange = null;
+        if (!weighIns.isEmpty()) {
+            currentWeight = weighIns.get(weighIns.size() - 1).weightKg();
+            weightChange = currentWeight - weighIns.get(0).weightKg();
+        }
+
+        List<Activity> recent = recentActivity(food, workouts, weighIns);
+        return new QuickStats(caloriesToday, targets.calories(), currentWeight, profile.targetWeight(),
+                weightChange, workoutDays(workouts, weekStart), recent.isEmpty() ? null : recent.get(0));
+    }
+
+    private static List<DailyCalories> calorieChart(NutritionTargets targets, List<FoodLog> food, LocalDate today) {
+        Map<LocalDate, Integer> byDay = food.stream()
+                .collect(Collectors.groupingBy(FoodLog::loggedOn, TreeMap::new,
+                        Collectors.summingInt(FoodLog::calories)));
+
+        List<DailyCalories> chart = new ArrayList<>(7);
+        for (LocalDate day = today.minusDays(6); !day.isAfter(today); day = day.plusDays(1)) {
+            chart.add(new DailyCalories(day, byDay.getOrDefault(day, 0), targets.calories()));
+        }
+        return chart;
+    }
+
+    private static MacroProgress macroProgress(NutritionTargets targets, List<FoodLog> food, LocalDate today) {
+        int calories = 0;
+        double protein = 0;
+        double carbs = 0;
+        double fat = 0;
+        for (FoodLog log : food) {
+            if (log.loggedOn().equals(today)) {
+                calories += log.calories();
+                protein += log.proteinG();
+                carbs += log.carbsG();
+                fat += log.fatG();
+            }
+        }
+        return new MacroProgress(calories, targets.calories(), protein, targets.proteinG(),
+                carbs, targets.carbsG(), fat, targets.fatG());
+    }
+
+    private static WorkoutProgress workoutProgress(List<WorkoutSet> workouts, LocalDate weekStart) {
+        int sets = 0;
+        double volume = 0;
+        for (WorkoutSet set : workouts) {
+            if (!set.performedOn().isBefore(weekStart)) {
+                sets++;
+                volume += set.reps() * set.weightKg();
+            }
+        }
+        int activeDays = (int) workouts.stream().map(WorkoutSet::performedOn).distinct().count();
+        return new WorkoutProgress(workoutDays(workouts, weekStart), sets, volume, activeDays);
+    }
+
+    private static List<Activity> recentActivity(List<FoodLog> food, List<WorkoutSet> workouts,
+                                                 List<WeighIn> weighIns) {
+        // Inputs are ascending; newest first after reversing, ties keep type order
+        return Stream.of(
+                        food.reversed().stream().map(Activity::of),
+                        workouts.reversed().stream().map(Activity::of),
+                        weighIns.reversed().stream().map(Activity::of))
+                .flatMap(activities -> activities.limit(RECENT_ACTIVITY_LIMIT))
+                .sorted(Comparator.comparing(Activity::date).reversed())
+                .limit(RECENT_ACTIVITY_LIMIT)
+                .toList();
+    }
+
+    private static int workoutDays(List<WorkoutSet> workouts, LocalDate weekStart) {
+        return (int) workouts.stream()
+                .map(WorkoutSet::performedOn)
+                .filter(day -> !day.isBefore(weekStart))
+                .distinct()
+                .count();
+    }
+}
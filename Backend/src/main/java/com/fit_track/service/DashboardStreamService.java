@@ -0,0 +1,243 @@
+package com.fit_track.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fit_track.cache.RemoteCache;
+import com.fit_track.dto.response.DashboardDelta;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.security.TokenVersionCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent dashboard deltas. Each connection is an async servlet request
+ * (no container thread held) with a bounded send buffer drained by its own
+ * virtual thread, so a slow client only ever blocks itself; a client whose
+ * buffer fills up is disconnected and expected to reconnect and reload.
+ *
+ * <p>Deltas go over the shared invalidation channel, so a log written on one
+ * node reaches the user's connections on every node.
+ *
+ * <p>A connection lives no longer than the access token that opened it, and
+ * every heartbeat closes the ones whose token has since been revoked.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DashboardStreamService {
+
+    static final String CHANNEL = "fittrack:dashboard:deltas";
+
+    private record Push(String name, String data) {
+    }
+
+    private static final Push HEARTBEAT = new Push(null, null);
+
+    private final RemoteCache remote;
+    private final ObjectMapper objectMapper;
+    private final TokenVersionCache tokenVersionCache;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Duration timeout;
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Counter pushed;
+    private final Counter evicted;
+
+    public DashboardStreamService(
+            RemoteCache remote,
+            ObjectMapper objectMapper,
+            TokenVersionCache tokenVersionCache,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.dashboard.stream.buffer-size:64}") int bufferSize,
+            @Value("${fittrack.dashboard.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${fittrack.dashboard.stream.timeout:30m}") Duration timeout) {
+        this.remote = remote;
+        this.objectMapper = objectMapper;
+        this.tokenVersionCache = tokenVersionCache;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeout = timeout;
+
+        Gauge.builder("fittrack.dashboard.stream.connections", connectionCount, AtomicInteger::get)
+                .register(meterRegistry);
+        this.pushed = Counter.builder("fittrack.dashboard.stream.events").register(meterRegistry);
+        this.evicted = Counter.builder("fittrack.dashboard.stream.evictions")
+                .description("Connections closed because the client fell behind")
+                .register(meterRegistry);
+
+        remote.subscribe(CHANNEL, this::onMessage);
+    }
+
+    /**
+     * @param tokenVersion version of the access token the stream is opened with
+     * @param expiresAt    expiry of that token, or {@code null} if it has none
+     */
+    public SseEmitter subscribe(Long userId, int tokenVersion, Instant expiresAt) {
+        Connection connection = new Connection(userId, tokenVersion, expiresAt);
+        List<Connection> userConnections = connections.compute(userId, (key, existing) -> {
+            List<Connection> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            return list;
+        });
+        connectionCount.incrementAndGet();
+
+        // Another tab past the limit replaces the oldest one
+        while (userConnections.size() > maxConnectionsPerUser) {
+            userConnections.get(0).close();
+        }
+
+        connection.start();
+        return connection.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLogChanged(LogChangedEvent event) {
+        try {
+            DashboardDelta delta = DashboardDelta.of(event);
+            remote.publish(CHANNEL, event.userId() + "\t" + delta.type() + "\t" + objectMapper.writeValueAsString(delta));
+        } catch (JsonProcessingException | RuntimeException e) {
+            System.err.println("Failed to publish dashboard delta: " + e.getMessage());
+        }
+    }
+
+    // Keeps idle connections open through proxies, detects clients that went away and ends revoked sessions
+    @Scheduled(fixedDelayString = "${fittrack.dashboard.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        for (List<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                if (connection.isSessionValid(now)) {
+                    connection.offer(HEARTBEAT);
+                } else {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    private void onMessage(String message) {
+        String[] parts = message.split("\t", 3);
+        if (parts.length != 3) {
+            return;
+        }
+        List<Connection> userConnections = connections.get(Long.valueOf(parts[0]));
+        if (userConnections == null) {
+            return;
+        }
+
+        Push push = new Push(parts[1], parts[2]);
+        for (Connection connection : userConnections) {
+            connection.offer(push);
+        }
+    }
+
+    private final class Connection {
+
+        private final Long userId;
+        private final int tokenVersion;
+        private final Instant expiresAt;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Push> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private Thread writer;
+
+        Connection(Long userId, int tokenVersion, Instant expiresAt) {
+            this.userId = userId;
+            this.tokenVersion = tokenVersion;
+            this.expiresAt = expiresAt;
+            long timeoutMillis = timeout.toMillis();
+            if (expiresAt != null) {
+                timeoutMillis = Math.clamp(Duration.between(Instant.now(), expiresAt).toMillis(), 1, timeoutMillis);
+            }
+            this.emitter = new SseEmitter(timeoutMillis);
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        void start() {
+            writer = Thread.ofVirtual().name("sse-" + userId).start(this::drain);
+            offer(HEARTBEAT);
+        }
+
+        boolean isSessionValid(Instant now) {
+            if (expiresAt != null && !now.isBefore(expiresAt)) {
+                return false;
+            }
+            try {
+                return tokenVersionCache.isCurrent(userId, tokenVersion);
+            } catch (RuntimeException e) {
+                // Without the database the revocation can't be checked; the expiry still ends the stream
+                System.err.println("Failed to check token version for dashboard stream: " + e.getMessage());
+                return true;
+            }
+        }
+
+        void offer(Push push) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(push)) {
+                evicted.increment();
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    Push push = buffer.take();
+                    if (push == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(push.name()).data(push.data(), MediaType.APPLICATION_JSON));
+                        pushed.increment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            connections.computeIfPresent(userId, (key, list) -> {
+                list.remove(this);
+                return list.isEmpty() ? null : list;
+            });
+            connectionCount.decrementAndGet();
+            if (writer != null) {
+                writer.interrupt();
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -1,64 +1,65 @@
 package com.fit_track.service;
 
+import com.fit_track.mail.MailDeliveryEngine;
+import com.fit_track.mail.MailTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 
+/**
+ * Created on the first email rather than at startup; callers look it up
+ * through an {@code ObjectProvider}. Messages are queued on the
+ * {@link MailDeliveryEngine} and sent asynchronously.
+ */
 @Service
+@Lazy
 public class EmailService {
 
+    static final MailTemplate VERIFICATION = MailTemplate.compile("verification",
+            "Verify Your FitTrack Account", """
+                    Welcome to FitTrack!
+
+                    Your verification code is: {code}
+
+                    This code will expire in 15 minutes.
+
+                    If you didn't create an account with us, please ignore this email.
+
+                    Best regards,
+                    The FitTrack Team""",
+            "code");
+
+    static final MailTemplate WELCOME = MailTemplate.compile("welcome",
+            "Welcome to FitTrack!", """
+                    Hi {firstName},
+
+                    Welcome to FitTrack! Your email has been verified successfully.
+
+                    You can now start tracking your fitness journey and achieving your goals.
+
+                    Get started by:
+                    • Setting up your profile
+                    • Logging your first workout
+                    • Tracking your nutrition
+
+                    Best regards,
+                    The FitTrack Team""",
+            "firstName");
+
     @Autowired
-    private JavaMailSender mailSender;
+    private MailDeliveryEngine mailDeliveryEngine;
 
     public void sendVerificationEmail(String toEmail, String verificationCode) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject("Verify Your FitTrack Account");
-        message.setText(String.format(
-                "Welcome to FitTrack!\n\n" +
-                        "Your verification code is: %s\n\n" +
-                        "This code will expire in 15 minutes.\n\n" +
-                        "If you didn't create an account with us, please ignore this email.\n\n" +
-                        "Best regards,\n" +
-                        "The FitTrack Team",
-                verificationCode
-        ));
-        message.setFrom("noreply@fittrack.com");
-
-        try {
-            mailSender.send(message);
-            System.out.println("Verification email sent to: " + toEmail);
-        } catch (Exception e) {
-            System.err.println("Failed to send email to " + toEmail + ": " + e.getMessage());
-            throw new RuntimeException("Failed to send verification email", e);
+        if (mailDeliveryEngine.submit(VERIFICATION, toEmail, verificationCode) == MailDeliveryEngine.Submission.REJECTED) {
+            System.err.println("Mail queue full, dropped verification email to " + toEmail);
+            throw new RuntimeException("Failed to send verification email");
         }
     }
 
     public void sendWelcomeEmail(String toEmail, String firstName) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject("Welcome to FitTrack!");
-        message.setText(String.format(
-                "Hi %s,\n\n" +
-                        "Welcome to FitTrack! Your email has been verified successfully.\n\n" +
-                        "You can now start tracking your fitness journey and achieving your goals.\n\n" +
-                        "Get started by:\n" +
-                        "• Setting up your profile\n" +
-                        "• Logging your first workout\n" +
-                        "• Tracking your nutrition\n\n" +
-                        "Best regards,\n" +
-                        "The FitTrack Team",
-                firstName
-        ));
-        message.setFrom("noreply@fittrack.com");
-
-        try {
-            mailSender.send(message);
-            System.out.println("Welcome email sent to: " + toEmail);
-        } catch (Exception e) {
-            System.err.println("Failed to send welcome email to " + toEmail + ": " + e.getMessage());
+        if (mailDeliveryEngine.submit(WELCOME, toEmail, firstName) == MailDeliveryEngine.Submission.REJECTED) {
+            System.err.println("Mail queue full, dropped welcome email to " + toEmail);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.response.ForecastResponse;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.forecast.ForecastModel;
+import com.fit_track.forecast.WeightForecast;
+import com.fit_track.forecast.WeightTrend;
+import com.fit_track.repository.ForecastRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.OptionalDouble;
+
+// Forecasts from the maintained trend; reads one trend row and one rollup window
+@Service
+public class ForecastService {
+
+    @Autowired
+    private ForecastRepository forecastRepository;
+
+    @Autowired
+    private ForecastModel forecastModel;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    public ForecastResponse getForecast(Long userId, String email) {
+        UserProfile profile = userProfileCache.findByEmail(email)
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
+        LocalDate today = LocalDate.now();
+        WeightTrend trend = forecastRepository.findTrend(userId).orElseGet(WeightTrend::new);
+        OptionalDouble intake = forecastRepository.findAverageIntake(userId, forecastModel.intakeFrom(today), today,
+                forecastModel.getMinLoggedDays());
+
+        WeightForecast forecast = forecastModel.forecast(trend, profile, intake, today);
+        return new ForecastResponse(profile.targetWeight(), forecast.weightKg(), forecast.kgPerWeek(),
+                forecast.eta(), forecast.reached(), forecast.basis());
+    }
+}
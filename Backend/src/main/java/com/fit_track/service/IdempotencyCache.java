@@ -0,0 +1,135 @@
+package com.fit_track.service;
+
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived results of non-idempotent operations, keyed by client retry key.
+ * The first caller runs the operation; concurrent and later callers with the
+ * same key get its result instead of running it again. Failures are not kept,
+ * so a retry after an error runs the operation anew.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Cache<String, Entry> entries;
+    // Fingerprints can cover secrets such as a password, so they are keyed rather than plain digests.
+    // Entries never leave this node, so a key of its own is enough.
+    private final SecretKeySpec fingerprintKey;
+
+    public IdempotencyCache(@Value("${fittrack.idempotency.ttl:10m}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(100_000)
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.fingerprintKey = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    /**
+     * HMAC of the fields of a request payload, for use as a fingerprint.
+     */
+    public String fingerprint(String... fields) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(fingerprintKey);
+            for (String field : fields) {
+                mac.update(field.getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param fingerprint identifies the request payload; reusing a key with a
+     *                    different payload is rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> operation) {
+        Entry created = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, created);
+
+        if (existing == null) {
+            try {
+                T result = operation.get();
+                created.result().complete(result);
+                return result;
+            } catch (Throwable e) {
+                // Errors too, or the callers waiting on this entry would never wake up
+                entries.asMap().remove(key, created);
+                created.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new AuthException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        try {
+            return (T) existing.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking {@link #execute}: callers that find the operation running
+     * wait for its result without holding a thread.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> executeAsync(String key, String fingerprint, Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            Entry created = new Entry(fingerprint, new CompletableFuture<>());
+            Entry existing = entries.asMap().putIfAbsent(key, created);
+
+            if (existing == null) {
+                return operation.get()
+                        .doOnSuccess(result -> created.result().complete(result))
+                        .doOnError(e -> {
+                            entries.asMap().remove(key, created);
+                            created.result().completeExceptionally(e);
+                        })
+                        .doOnCancel(() -> {
+                            entries.asMap().remove(key, created);
+                            created.result().completeExceptionally(new CancellationException());
+                        });
+            }
+
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return Mono.error(new AuthException(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+            }
+            // A waiter going away must not cancel the result the others share
+            return Mono.fromFuture(existing.result(), true).map(result -> (T) result);
+        });
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -1,88 +1,151 @@
 package com.fit_track.service;
 
+import com.fit_track.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 
 @Service
+@ImportRuntimeHints(JwtRuntimeHints.class)
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_EMAIL_VERIFIED = "emailVerified";
+    public static final String CLAIM_PROFILE_COMPLETED = "profileCompleted";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    public static final String CLAIM_REFRESH_FAMILY = "fam";
+    public static final String CLAIM_REFRESH_GENERATION = "gen";
+
 
     @Value("${security.jwt.secret-key}")
     private String secretKey;
 
 
-    @Value("${security.jwt.expiration}")
+    @Value("${security.jwt.access-expiration:900000}")
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    @Value("${security.jwt.refresh-expiration:${security.jwt.expiration}}")
+    private long refreshExpiration;
+
+    private SecretKey signInKey;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    /**
+     * Issues a token carrying everything the request filter needs to authenticate
+     * without a database lookup.
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLES, List.of(user.getRole().name()));
+        claims.put(CLAIM_EMAIL_VERIFIED, user.isEmailVerified());
+        claims.put(CLAIM_PROFILE_COMPLETED, user.isProfileCompleted());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        return buildToken(claims, user.getEmail(), jwtExpiration);
     }
 
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+    /**
+     * Issues the first refresh token of a new login session.
+     */
+    public String generateRefreshToken(User user) {
+        return generateRefreshToken(user, UUID.randomUUID(), 0);
     }
 
-    private String buildToken(
-            Map<String, Object> extraClaims,
-            UserDetails userDetails,
-            long expiration
-    ) {
+    /**
+     * Issues a single-use refresh token: generation {@code gen} of session
+     * {@code fam}, redeemable once while the session is at that generation,
+     * and only honoured while {@code ver} matches the user's token version.
+     */
+    public String generateRefreshToken(User user, UUID family, int generation) {
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
-                .claims(extraClaims)
-                .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .id(UUID.randomUUID().toString())
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
+                .claim(CLAIM_REFRESH_FAMILY, family.toString())
+                .claim(CLAIM_REFRESH_GENERATION, generation)
+                .subject(user.getEmail())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + refreshExpiration))
+                .signWith(signInKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    // Null for a refresh token without a valid family
+    public UUID refreshFamily(Claims claims) {
+        try {
+            String family = claims.get(CLAIM_REFRESH_FAMILY, String.class);
+            return family == null ? null : UUID.fromString(family);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public long getAccessTokenExpiration() {
+        return jwtExpiration;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public long getRefreshTokenExpiration() {
+        return refreshExpiration;
     }
 
-    private Claims extractAllClaims(String token) {
+    private String buildToken(
+            Map<String, Object> extraClaims,
+            String subject,
+            long expiration
+    ) {
+        long now = System.currentTimeMillis();
         return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+                .builder()
+                .claims(extraClaims)
+                .subject(subject)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signInKey, Jwts.SIG.HS256)
+                .compact();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the signature and expiry and returns the payload.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims extractAllClaims(String token) {
+        return parser
+                .parseSignedClaims(token)
+                .getPayload();
     }
-}
\ No newline at end of file
+}
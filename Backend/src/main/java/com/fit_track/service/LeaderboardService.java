@@ -0,0 +1,142 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.response.FriendRequestResponse;
+import com.fit_track.dto.response.LeaderboardResponse;
+import com.fit_track.dto.response.LeaderboardResponse.Standing;
+import com.fit_track.entity.User;
+import com.fit_track.exception.ApiException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.leaderboard.Board;
+import com.fit_track.leaderboard.Leaderboards;
+import com.fit_track.leaderboard.RankIndex;
+import com.fit_track.repository.LeaderboardRepository;
+import com.fit_track.repository.UserRepository;
+import com.fit_track.streak.StreakKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Rankings come from the in-memory index; the database is only read for friend lists and names
+@Service
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private LeaderboardRepository leaderboardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${fittrack.leaderboards.max-friends:500}")
+    private int maxFriends;
+
+    public LeaderboardResponse getTop(Long userId, Board board, int limit) {
+        RankIndex index = leaderboards.index(board);
+        List<RankIndex.Entry> top = index.top(Math.clamp(limit, 1, MAX_LIMIT));
+        List<Long> userIds = new ArrayList<>(top.size() + 1);
+        for (RankIndex.Entry entry : top) {
+            userIds.add(entry.userId());
+        }
+        userIds.add(userId);
+        Map<Long, String> names = leaderboardRepository.findDisplayNames(userIds);
+
+        List<Standing> standings = new ArrayList<>(top.size());
+        for (RankIndex.Entry entry : top) {
+            standings.add(new Standing(entry.userId(), names.get(entry.userId()), entry.score(), entry.rank()));
+        }
+        return new LeaderboardResponse(board, periodStart(board), index.size(),
+                standing(index, userId, names.get(userId)), standings);
+    }
+
+    public LeaderboardResponse getFriends(Long userId, Board board) {
+        RankIndex index = leaderboards.index(board);
+        List<Long> userIds = new ArrayList<>(leaderboardRepository.findFriendIds(userId, maxFriends));
+        userIds.add(userId);
+        Map<Long, String> names = leaderboardRepository.findDisplayNames(userIds);
+
+        List<Standing> standings = new ArrayList<>(userIds.size());
+        for (Long memberId : userIds) {
+            standings.add(new Standing(memberId, names.get(memberId), index.score(memberId), null));
+        }
+        standings.sort(Comparator.comparingInt(Standing::score).reversed().thenComparing(Standing::userId));
+        // Ranked among each other; ties share a rank and members without a score have none
+        for (int i = 0; i < standings.size(); i++) {
+            Standing member = standings.get(i);
+            if (member.score() == 0) {
+                break;
+            }
+            int rank = i > 0 && standings.get(i - 1).score() == member.score() ? standings.get(i - 1).rank() : i + 1;
+            standings.set(i, new Standing(member.userId(), member.name(), member.score(), rank));
+        }
+        return new LeaderboardResponse(board, periodStart(board), index.size(),
+                standing(index, userId, names.get(userId)), standings);
+    }
+
+    /**
+     * Asks the owner of {@code email} to be friends; they show up on the
+     * friends board once they accept. Answers the same whether or not the
+     * email has an account, so the endpoint cannot be used to probe for them.
+     */
+    public void addFriend(Long userId, String email) {
+        // Checked before the lookup so that hitting the limit does not depend on the account existing
+        requireRoomForFriend(userId);
+        Optional<User> friend = userRepository.findByEmail(email.toLowerCase().trim());
+        if (friend.isEmpty()) {
+            return;
+        }
+        if (friend.get().getId().equals(userId)) {
+            throw new ApiException(ErrorCode.FRIEND_IS_SELF);
+        }
+        leaderboardRepository.addFriend(userId, friend.get().getId());
+    }
+
+    public List<FriendRequestResponse> getFriendRequests(Long userId) {
+        List<Long> requesterIds = leaderboardRepository.findIncomingRequestIds(userId, maxFriends);
+        Map<Long, String> names = leaderboardRepository.findDisplayNames(requesterIds);
+        List<FriendRequestResponse> requests = new ArrayList<>(requesterIds.size());
+        for (Long requesterId : requesterIds) {
+            requests.add(new FriendRequestResponse(requesterId, names.get(requesterId)));
+        }
+        return requests;
+    }
+
+    /**
+     * @return false when {@code friendId} has not asked to be friends
+     */
+    public boolean acceptFriend(Long userId, Long friendId) {
+        requireRoomForFriend(userId);
+        return leaderboardRepository.acceptFriend(userId, friendId);
+    }
+
+    public boolean removeFriend(Long userId, Long friendId) {
+        return leaderboardRepository.removeFriend(userId, friendId);
+    }
+
+    // Pending requests count too, so the list cannot be grown past the limit by asking strangers
+    private void requireRoomForFriend(Long userId) {
+        if (leaderboardRepository.countFriends(userId) >= maxFriends) {
+            throw new ApiException(ErrorCode.FRIEND_LIMIT_REACHED);
+        }
+    }
+
+    private static Standing standing(RankIndex index, Long userId, String name) {
+        int rank = index.rank(userId);
+        return new Standing(userId, name, index.score(userId), rank == 0 ? null : rank);
+    }
+
+    private LocalDate periodStart(Board board) {
+        long period = leaderboards.period(board);
+        return board.isWeekly() ? StreakKind.WORKOUT_WEEK.start(period) : LocalDate.ofEpochDay(period);
+    }
+}
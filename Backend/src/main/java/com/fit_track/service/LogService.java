@@ -0,0 +1,133 @@
+package com.fit_track.service;
+
+import com.fit_track.datasource.ReadYourWritesTracker;
+import com.fit_track.dto.request.FoodLogRequest;
+import com.fit_track.dto.request.WeighInRequest;
+import com.fit_track.dto.request.WorkoutSetRequest;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.exception.ApiException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.repository.FoodLogRepository;
+import com.fit_track.repository.WeighInRepository;
+import com.fit_track.repository.WorkoutSetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+
+@Service
+public class LogService {
+
+    // Keeps a single read within a bounded number of weigh_ins partitions
+    // Matches ErrorCode.DATE_RANGE_TOO_LONG
+    static final long MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private WorkoutSetRepository workoutSetRepository;
+
+    @Autowired
+    private WeighInRepository weighInRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    public FoodLog logFood(Long userId, FoodLogRequest request) {
+        return recorded(userId, foodLogRepository.insert(foodLog(null, userId, request)));
+    }
+
+    // Read-only so the feed can be served by the replica
+    @Transactional(readOnly = true)
+    public List<FoodLog> getFoodLogs(Long userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return foodLogRepository.findByUserIdAndDateRange(userId, from, to);
+    }
+
+    public boolean deleteFoodLog(Long userId, Long id) {
+        return deleted(userId, foodLogRepository.deleteByUserIdAndId(userId, id));
+    }
+
+    public WorkoutSet logWorkoutSet(Long userId, WorkoutSetRequest request) {
+        return recorded(userId, workoutSetRepository.insert(workoutSet(null, userId, request)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkoutSet> getWorkoutSets(Long userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return workoutSetRepository.findByUserIdAndDateRange(userId, from, to);
+    }
+
+    public boolean deleteWorkoutSet(Long userId, Long id) {
+        return deleted(userId, workoutSetRepository.deleteByUserIdAndId(userId, id));
+    }
+
+    public WeighIn logWeighIn(Long userId, WeighInRequest request) {
+        WeighIn weighIn = weighIn(userId, request);
+        weighInRepository.upsert(weighIn);
+        return recorded(userId, weighIn);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WeighIn> getWeighIns(Long userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return weighInRepository.findByUserIdAndDateRange(userId, from, to);
+    }
+
+    public boolean deleteWeighIn(Long userId, LocalDate measuredOn) {
+        return deleted(userId, weighInRepository.delete(userId, measuredOn));
+    }
+
+    static FoodLog foodLog(Long id, Long userId, FoodLogRequest request) {
+        return new FoodLog(id, userId, request.getLoggedOn(), request.getMeal(), request.getName().trim(),
+                request.getCalories(), request.getProteinG(), request.getCarbsG(), request.getFatG());
+    }
+
+    static WorkoutSet workoutSet(Long id, Long userId, WorkoutSetRequest request) {
+        return new WorkoutSet(id, userId, request.getPerformedOn(), request.getExercise().trim(),
+                request.getMuscleGroup(), request.getReps(), request.getWeightKg());
+    }
+
+    static WeighIn weighIn(Long userId, WeighInRequest request) {
+        if (request.getMeasuredOn().isAfter(LocalDate.now().plusDays(1))) {
+            throw new ApiException(ErrorCode.WEIGH_IN_IN_FUTURE);
+        }
+        return new WeighIn(userId, request.getMeasuredOn(), request.getWeightKg());
+    }
+
+    private <T> T recorded(Long userId, T entry) {
+        readYourWritesTracker.markCurrentUserWrite();
+        eventPublisher.publishEvent(new LogChangedEvent(userId, entry, false));
+        return entry;
+    }
+
+    private boolean deleted(Long userId, Optional<?> entry) {
+        entry.ifPresent(removed -> {
+            readYourWritesTracker.markCurrentUserWrite();
+            eventPublisher.publishEvent(new LogChangedEvent(userId, removed, true));
+        });
+        return entry.isPresent();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ApiException(ErrorCode.DATE_RANGE_REVERSED);
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ApiException(ErrorCode.DATE_RANGE_TOO_LONG);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.response.MealPlanResponse;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.mealplan.MealPlan;
+import com.fit_track.mealplan.MealPlanner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Plans for the user's current nutrition targets; solving and caching live in MealPlanner
+@Service
+public class MealPlanService {
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private MealPlanner mealPlanner;
+
+    public MealPlanResponse getDayPlan(String email) {
+        LocalDate today = LocalDate.now();
+        MealPlan plan = mealPlanner.dayPlan(targets(email), today.getDayOfWeek().getValue() - 1);
+        return MealPlanResponse.of(today, plan);
+    }
+
+    public List<MealPlanResponse> getWeekPlan(String email) {
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        List<MealPlan> week = mealPlanner.weekPlan(targets(email));
+        List<MealPlanResponse> days = new ArrayList<>(week.size());
+        for (int day = 0; day < week.size(); day++) {
+            days.add(MealPlanResponse.of(monday.plusDays(day), week.get(day)));
+        }
+        return days;
+    }
+
+    private NutritionTargets targets(String email) {
+        return userProfileCache.findByEmail(email)
+                .map(NutritionTargets::forProfile)
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
+    }
+}
@@ -0,0 +1,75 @@
+package com.fit_track.service;
+
+import com.fit_track.entity.User;
+
+import java.util.OptionalDouble;
+
+/**
+ * Daily calorie and macro targets derived from the onboarding profile:
+ * Mifflin-St Jeor BMR, scaled by activity level and adjusted for the goal.
+ * Protein is set per kg of body weight, fat at a quarter of calories and
+ * carbs take the rest.
+ */
+public record NutritionTargets(int calories, int proteinG, int carbsG, int fatG) {
+
+    private static final int MIN_CALORIES = 1200;
+
+    public static final NutritionTargets DEFAULT = split(2000, 120);
+
+    public static NutritionTargets forProfile(UserProfile profile) {
+        OptionalDouble maintenanceCalories = maintenanceCalories(profile);
+        if (maintenanceCalories.isEmpty() || profile.goal() == null) {
+            return DEFAULT;
+        }
+
+        double weight = profile.currentWeight();
+        double maintenance = maintenanceCalories.getAsDouble();
+
+        int calories = (int) Math.round(Math.max(MIN_CALORIES, maintenance + switch (profile.goal()) {
+            case LOSE_WEIGHT -> -500;
+            case MAINTAIN_WEIGHT -> 0;
+            case GAIN_WEIGHT -> 400;
+            case BUILD_MUSCLE -> 250;
+        }));
+        double proteinPerKg = switch (profile.goal()) {
+            case LOSE_WEIGHT, BUILD_MUSCLE -> 2.0;
+            case GAIN_WEIGHT -> 1.8;
+            case MAINTAIN_WEIGHT -> 1.6;
+        };
+        return split(calories, (int) Math.round(weight * proteinPerKg));
+    }
+
+    /**
+     * Calories that keep the current weight, before any goal adjustment; empty
+     * when the profile is missing a measurement.
+     */
+    public static OptionalDouble maintenanceCalories(UserProfile profile) {
+        if (profile.currentWeight() == null || profile.height() == null || profile.age() == null
+                || profile.gender() == null || profile.activityLevel() == null) {
+            return OptionalDouble.empty();
+        }
+        double bmr = 10 * profile.currentWeight() + 6.25 * profile.height() - 5 * profile.age()
+                + switch (profile.gender()) {
+                    case MALE -> 5;
+                    case FEMALE -> -161;
+                    case OTHER -> -78;
+                };
+        return OptionalDouble.of(bmr * activityMultiplier(profile.activityLevel()));
+    }
+
+    private static NutritionTargets split(int calories, int proteinG) {
+        int fatG = (int) Math.round(calories * 0.25 / 9);
+        int carbsG = Math.max(0, (int) Math.round((calories - proteinG * 4 - fatG * 9) / 4.0));
+        return new NutritionTargets(calories, proteinG, carbsG, fatG);
+    }
+
+    private static double activityMultiplier(User.ActivityLevel activityLevel) {
+        return switch (activityLevel) {
+            case SEDENTARY -> 1.2;
+            case LIGHTLY_ACTIVE -> 1.375;
+            case MODERATELY_ACTIVE -> 1.55;
+            case VERY_ACTIVE -> 1.725;
+            case EXTREMELY_ACTIVE -> 1.9;
+        };
+    }
+}
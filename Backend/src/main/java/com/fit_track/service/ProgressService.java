@@ -0,0 +1,85 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.response.ProgressResponse;
+import com.fit_track.dto.response.ProgressResponse.ExerciseProgress;
+import com.fit_track.dto.response.ProgressResponse.MuscleGroupVolume;
+import com.fit_track.dto.response.ProgressResponse.PersonalRecord;
+import com.fit_track.dto.response.ProgressResponse.WeekPoint;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.progress.ExerciseWeek;
+import com.fit_track.repository.ProgressRepository;
+import com.fit_track.repository.ProgressRepository.Totals;
+import com.fit_track.repository.ProgressRepository.ViewRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Shapes the maintained exercise weeks into the progress view; one query per request
+@Service
+public class ProgressService {
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Value("${fittrack.progress.view-weeks:12}")
+    private int viewWeeks;
+
+    public ProgressResponse getProgress(Long userId) {
+        int fromWeek = ExerciseWeek.week(LocalDate.now()) - (viewWeeks - 1);
+        List<ViewRow> rows = progressRepository.findView(userId, fromWeek);
+
+        List<ExerciseProgress> exercises = new ArrayList<>();
+        Map<Integer, Map<WorkoutSet.MuscleGroup, double[]>> volumeByWeek = new TreeMap<>();
+        List<PersonalRecord> records = new ArrayList<>();
+        LocalDate bestOn = null;
+        List<WeekPoint> points = new ArrayList<>();
+        // Rows are ordered by exercise, then week
+        for (int i = 0; i < rows.size(); i++) {
+            ViewRow row = rows.get(i);
+            ExerciseWeek week = row.week();
+            if (week.bestE1rmKg() == row.allTimeE1rmKg() && bestOn == null) {
+                bestOn = week.bestE1rmOn();
+            }
+            if (week.week() >= fromWeek) {
+                points.add(new WeekPoint(ExerciseWeek.weekStart(week.week()), week.sets(), week.reps(),
+                        week.volumeKg(), week.bestE1rmKg()));
+                double[] volume = volumeByWeek
+                        .computeIfAbsent(week.week(), w -> new EnumMap<>(WorkoutSet.MuscleGroup.class))
+                        .computeIfAbsent(row.muscleGroup(), g -> new double[2]);
+                volume[0] += week.sets();
+                volume[1] += week.volumeKg();
+                if (week.bestE1rmKg() > 0 && row.previousBestE1rmKg() != null
+                        && week.bestE1rmKg() > row.previousBestE1rmKg()) {
+                    records.add(new PersonalRecord(row.name(), row.muscleGroup(), week.bestE1rmKg(),
+                            row.previousBestE1rmKg(), week.bestE1rmOn()));
+                }
+            }
+            boolean lastOfExercise = i + 1 == rows.size()
+                    || rows.get(i + 1).week().exerciseId() != week.exerciseId();
+            if (lastOfExercise) {
+                exercises.add(new ExerciseProgress(row.name(), row.muscleGroup(), row.allTimeE1rmKg(), bestOn,
+                        row.allTimeTopWeightKg(), points));
+                bestOn = null;
+                points = new ArrayList<>();
+            }
+        }
+
+        List<MuscleGroupVolume> weeklyVolume = new ArrayList<>();
+        volumeByWeek.forEach((week, groups) -> groups.forEach((group, volume) ->
+                weeklyVolume.add(new MuscleGroupVolume(ExerciseWeek.weekStart(week), group, (int) volume[0],
+                        volume[1]))));
+        records.sort(Comparator.comparing(PersonalRecord::achievedOn).reversed());
+
+        Totals totals = rows.isEmpty() ? new Totals(0, 0) : rows.getFirst().totals();
+        return new ProgressResponse(ExerciseWeek.weekStart(fromWeek), totals.sets(), totals.volumeKg(), exercises,
+                weeklyVolume, records);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.response.StreakResponse;
+import com.fit_track.repository.StreakRepository;
+import com.fit_track.streak.StreakCounter;
+import com.fit_track.streak.StreakKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Reads the maintained state; nothing here scans the log tables
+@Service
+public class StreakService {
+
+    @Autowired
+    private StreakRepository streakRepository;
+
+    public StreakResponse getStreaks(Long userId) {
+        LocalDate today = LocalDate.now();
+        List<StreakResponse.Streak> streaks = streakRepository.findStreaks(userId).entrySet().stream()
+                .map(entry -> streak(entry.getKey(), entry.getValue(), today))
+                .toList();
+        List<StreakResponse.Reached> achievements = streakRepository.findAchievements(userId).entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .map(entry -> new StreakResponse.Reached(entry.getKey(), entry.getValue()))
+                .toList();
+        return new StreakResponse(streaks, achievements);
+    }
+
+    private static StreakResponse.Streak streak(StreakKind kind, StreakCounter counter, LocalDate today) {
+        return new StreakResponse.Streak(kind, counter.currentAsOf(kind.period(today)), counter.getBest(),
+                counter.getCurrent() == 0 ? null : kind.start(counter.getCurrentEnd()));
+    }
+}
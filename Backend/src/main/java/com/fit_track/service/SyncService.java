@@ -0,0 +1,254 @@
+package com.fit_track.service;
+
+import com.fit_track.datasource.ReadYourWritesTracker;
+import com.fit_track.dto.request.SyncChange;
+import com.fit_track.dto.request.SyncUploadRequest;
+import com.fit_track.dto.response.SyncResponse;
+import com.fit_track.dto.response.SyncResponse.DeletedRow;
+import com.fit_track.dto.response.SyncResponse.FoodRow;
+import com.fit_track.dto.response.SyncResponse.ProfileRow;
+import com.fit_track.dto.response.SyncResponse.WeighInRow;
+import com.fit_track.dto.response.SyncResponse.WorkoutRow;
+import com.fit_track.dto.response.SyncUploadResponse;
+import com.fit_track.dto.response.SyncUploadResponse.Applied;
+import com.fit_track.dto.response.SyncUploadResponse.Conflict;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.Versioned;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.exception.ApiException;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.repository.FoodLogRepository;
+import com.fit_track.repository.SyncRepository;
+import com.fit_track.repository.SyncRepository.Cursor;
+import com.fit_track.repository.SyncRepository.Tombstone;
+import com.fit_track.repository.UserRepository;
+import com.fit_track.repository.WeighInRepository;
+import com.fit_track.repository.WorkoutSetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Delta sync for offline and multi-device clients. Every write to a user's
+ * profile or logs is stamped with the user's next change sequence (see the
+ * V4 migration), so "what changed since N" is one index range read per
+ * table. Uploads are applied only against the row version the client last
+ * saw; anything else comes back as a conflict with the server's row.
+ */
+@Service
+public class SyncService {
+
+    @Autowired
+    private SyncRepository syncRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private WorkoutSetRepository workoutSetRepository;
+
+    @Autowired
+    private WeighInRepository weighInRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Value("${fittrack.sync.page-size:500}")
+    private int pageSize;
+
+    /**
+     * Reads one page of changes after {@code since}, in one snapshot so the
+     * returned seq, rows and tombstones agree with each other. {@code resync}
+     * marks the follow-up pages of a pull that started from 0 or was reset;
+     * those may be behind the tombstone horizon without starting over again.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponse changesSince(Long userId, long since, boolean resync) {
+        Cursor cursor = syncRepository.findCursor(userId)
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
+        if (since < 0 || since > cursor.seq()) {
+            throw new ApiException(ErrorCode.SYNC_SEQUENCE_UNKNOWN);
+        }
+        if (since == cursor.seq()) {
+            return new SyncResponse(since, false, false, null, List.of(), List.of(), List.of(), List.of());
+        }
+
+        // Tombstones before the horizon are gone, so the client starts over
+        boolean reset = since > 0 && since < cursor.horizon() && !resync;
+        long from = reset ? 0 : since;
+
+        List<Versioned<FoodLog>> food = syncRepository.findFoodLogsSince(userId, from, pageSize);
+        List<Versioned<WorkoutSet>> workouts = syncRepository.findWorkoutSetsSince(userId, from, pageSize);
+        List<Versioned<WeighIn>> weighIns = syncRepository.findWeighInsSince(userId, from, pageSize);
+        List<Tombstone> tombstones = from == 0 ? List.of() : syncRepository.findTombstonesSince(userId, from, pageSize);
+
+        // Each list is complete up to the last sequence it returned if it was
+        // cut at pageSize; the page ends at the earliest such cut, and at
+        // pageSize rows overall
+        long upTo = cursor.seq();
+        upTo = completeUpTo(food, Versioned::seq, upTo);
+        upTo = completeUpTo(workouts, Versioned::seq, upTo);
+        upTo = completeUpTo(weighIns, Versioned::seq, upTo);
+        upTo = completeUpTo(tombstones, Tombstone::seq, upTo);
+        long[] seqs = Stream.of(
+                        food.stream().mapToLong(Versioned::seq),
+                        workouts.stream().mapToLong(Versioned::seq),
+                        weighIns.stream().mapToLong(Versioned::seq),
+                        tombstones.stream().mapToLong(Tombstone::seq))
+                .flatMapToLong(stream -> stream)
+                .sorted()
+                .toArray();
+        if (seqs.length > pageSize) {
+            upTo = Math.min(upTo, seqs[pageSize - 1]);
+        }
+        long last = upTo;
+
+        ProfileRow profile = null;
+        if (cursor.profileSeq() > from && cursor.profileSeq() <= last) {
+            profile = userRepository.findById(userId)
+                    .map(user -> ProfileRow.of(cursor.profileSeq(), UserProfile.from(user)))
+                    .orElse(null);
+        }
+
+        return new SyncResponse(last, last < cursor.seq(), reset, profile,
+                food.stream().filter(row -> row.seq() <= last).map(FoodRow::of).toList(),
+                workouts.stream().filter(row -> row.seq() <= last).map(WorkoutRow::of).toList(),
+                weighIns.stream().filter(row -> row.seq() <= last).map(WeighInRow::of).toList(),
+                tombstones.stream().filter(row -> row.seq() <= last)
+                        .map(row -> new DeletedRow(row.seq(), row.entity(), row.key())).toList());
+    }
+
+    /**
+     * Applies the changes in order in one transaction. Holding the user row
+     * for the duration makes each version check and write atomic with respect
+     * to other devices and the regular log endpoints.
+     */
+    @Transactional
+    public SyncUploadResponse upload(Long userId, SyncUploadRequest request) {
+        syncRepository.lockCursor(userId).orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
+        readYourWritesTracker.markCurrentUserWrite();
+
+        List<Applied> applied = new ArrayList<>();
+        List<Conflict> conflicts = new ArrayList<>();
+        for (SyncChange change : request.getChanges()) {
+            switch (change.getEntity()) {
+                case "food" -> {
+                    Long id = id(change);
+                    apply(userId, change, id == null,
+                            id == null ? Optional.empty() : syncRepository.findFoodLog(userId, id),
+                            () -> foodLogRepository.deleteByUserIdAndId(userId, id),
+                            () -> syncRepository.saveFoodLog(
+                                    LogService.foodLog(id, userId, payload(change, change.getFood()))),
+                            log -> log.id().toString(),
+                            applied, conflicts);
+                }
+                case "workout" -> {
+                    Long id = id(change);
+                    apply(userId, change, id == null,
+                            id == null ? Optional.empty() : syncRepository.findWorkoutSet(userId, id),
+                            () -> workoutSetRepository.deleteByUserIdAndId(userId, id),
+                            () -> syncRepository.saveWorkoutSet(
+                                    LogService.workoutSet(id, userId, payload(change, change.getWorkout()))),
+                            set -> set.id().toString(),
+                            applied, conflicts);
+                }
+                case "weigh-in" -> {
+                    LocalDate measuredOn = change.isDeleted()
+                            ? date(payload(change, change.getKey()))
+                            : payload(change, change.getWeighIn()).getMeasuredOn();
+                    apply(userId, change, true,
+                            syncRepository.findWeighIn(userId, measuredOn),
+                            () -> weighInRepository.delete(userId, measuredOn),
+                            () -> syncRepository.saveWeighIn(LogService.weighIn(userId, change.getWeighIn())),
+                            weighIn -> weighIn.measuredOn().toString(),
+                            applied, conflicts);
+                }
+                default -> throw new ApiException(ErrorCode.SYNC_CHANGE_INVALID);
+            }
+        }
+
+        return new SyncUploadResponse(currentSeq(userId), applied, conflicts);
+    }
+
+    private <T> void apply(Long userId, SyncChange change, boolean insertable, Optional<Versioned<T>> current,
+                           Supplier<Optional<T>> delete, Supplier<Versioned<T>> save, Function<T, String> keyOf,
+                           List<Applied> applied, List<Conflict> conflicts) {
+        boolean matches = current.isPresent()
+                ? current.get().seq() == change.getBaseSeq()
+                : change.getBaseSeq() == 0 && insertable && !change.isDeleted();
+        if (!matches) {
+            conflicts.add(new Conflict(change.getRef(), current.map(SyncResponse::encode).orElse(null)));
+            return;
+        }
+
+        current.ifPresent(existing -> publish(userId, existing.row(), true));
+        if (change.isDeleted()) {
+            delete.get();
+            applied.add(new Applied(change.getRef(), keyOf.apply(current.get().row()), currentSeq(userId)));
+        } else {
+            Versioned<T> saved = save.get();
+            publish(userId, saved.row(), false);
+            applied.add(new Applied(change.getRef(), keyOf.apply(saved.row()), saved.seq()));
+        }
+    }
+
+    // Only ever called with the user row locked, so this is the sequence this transaction wrote last
+    private long currentSeq(Long userId) {
+        return syncRepository.findCursor(userId).map(Cursor::seq)
+                .orElseThrow(() -> new AuthException(ErrorCode.USER_NOT_FOUND));
+    }
+
+    private void publish(Long userId, Object entry, boolean deleted) {
+        eventPublisher.publishEvent(new LogChangedEvent(userId, entry, deleted));
+    }
+
+    private <T> long completeUpTo(List<T> rows, ToLongFunction<T> seq, long upTo) {
+        return rows.size() < pageSize ? upTo : Math.min(upTo, seq.applyAsLong(rows.getLast()));
+    }
+
+    private static <T> T payload(SyncChange change, T payload) {
+        if (payload == null) {
+            throw new ApiException(ErrorCode.SYNC_CHANGE_INVALID);
+        }
+        return payload;
+    }
+
+    // Null for a new row
+    private static Long id(SyncChange change) {
+        try {
+            return change.getKey() == null ? null : Long.valueOf(change.getKey());
+        } catch (NumberFormatException e) {
+            throw new ApiException(ErrorCode.SYNC_CHANGE_INVALID);
+        }
+    }
+
+    private static LocalDate date(String key) {
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(ErrorCode.SYNC_CHANGE_INVALID);
+        }
+    }
+}
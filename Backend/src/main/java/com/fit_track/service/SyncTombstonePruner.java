@@ -0,0 +1,52 @@
+package com.fit_track.service;
+
+import com.fit_track.repository.SyncRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes sync tombstones past the retention window so the table stays
+ * proportional to recent deletes. A client that last synced before the
+ * pruned tombstones gets a full resync instead of a delta.
+ */
+@Component
+public class SyncTombstonePruner {
+
+    @Autowired
+    private SyncRepository syncRepository;
+
+    @Value("${fittrack.sync.tombstone-retention:90d}")
+    private Duration retention;
+
+    @Value("${fittrack.sync.prune-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${fittrack.sync.prune-max-batches:100}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${fittrack.sync.prune-interval:PT6H}",
+            initialDelayString = "${fittrack.sync.prune-initial-delay:PT5M}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int pruned = syncRepository.pruneTombstones(cutoff, batchSize);
+                total += pruned;
+                if (pruned < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Sync tombstone pruning failed: " + e.getMessage());
+        }
+        if (total > 0) {
+            System.out.println("Pruned " + total + " sync tombstones older than " + retention);
+        }
+    }
+}
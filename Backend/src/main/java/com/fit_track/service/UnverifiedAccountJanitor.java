@@ -0,0 +1,166 @@
+package com.fit_track.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Deletes accounts that never verified their email within the retention window,
+ * with their logs and everything derived from them, and clears verification codes and refresh token families that expired long
+ * ago. Rows are claimed with
+ * {@code FOR UPDATE SKIP LOCKED} in bounded batches, each its own short
+ * transaction, so the janitor never waits on (or blocks) a live request and
+ * several instances can run it at once without overlapping.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fittrack.janitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UnverifiedAccountJanitor {
+
+    private static final String CLAIM_UNVERIFIED = """
+            SELECT id FROM users
+            WHERE email_verified = FALSE AND created_at < ?
+            ORDER BY created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED""";
+
+    // Per-user tables without a foreign key to users. Logs come first: deleting
+    // them leaves tombstones, which are removed after
+    private static final List<String> USER_TABLES = List.of(
+            "food_logs", "workout_sets", "weigh_ins", "sync_tombstones",
+            "user_daily_activity", "user_activity_totals", "user_streaks", "user_achievements",
+            "weight_forecasts", "exercise_weeks", "user_exercises", "user_training_totals",
+            "leaderboard_scores", "user_friends");
+
+    private static final String CLEAR_EXPIRED_CODES = """
+            UPDATE users SET verification_code = NULL, verification_code_expires_at = NULL
+            WHERE id IN (
+                SELECT id FROM users
+                WHERE verification_code IS NOT NULL AND verification_code_expires_at < ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id""";
+
+    private static final String PRUNE_REFRESH_FAMILIES = """
+            DELETE FROM refresh_token_families
+            WHERE id IN (
+                SELECT id FROM refresh_token_families
+                WHERE expires_at < ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING user_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration unverifiedRetention;
+    private final Duration expiredCodeGrace;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter accountsPurged;
+    private final Counter codesCleared;
+    private final Counter familiesPruned;
+
+    public UnverifiedAccountJanitor(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.janitor.unverified-retention:7d}") Duration unverifiedRetention,
+            @Value("${fittrack.janitor.expired-code-grace:1h}") Duration expiredCodeGrace,
+            @Value("${fittrack.janitor.batch-size:500}") int batchSize,
+            @Value("${fittrack.janitor.max-batches:100}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.unverifiedRetention = unverifiedRetention;
+        this.expiredCodeGrace = expiredCodeGrace;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.accountsPurged = purgedCounter(meterRegistry, "unverified_account");
+        this.codesCleared = purgedCounter(meterRegistry, "expired_verification_code");
+        this.familiesPruned = purgedCounter(meterRegistry, "expired_refresh_family");
+    }
+
+    @Scheduled(fixedDelayString = "${fittrack.janitor.interval:PT15M}",
+            initialDelayString = "${fittrack.janitor.initial-delay:PT1M}")
+    public void run() {
+        try {
+            int purged = purgeUnverifiedAccounts();
+            int cleared = clearExpiredCodes();
+            int pruned = pruneRefreshFamilies();
+            if (purged > 0 || cleared > 0 || pruned > 0) {
+                System.out.println("Janitor purged " + purged + " unverified accounts, cleared "
+                        + cleared + " expired verification codes, pruned " + pruned + " refresh token families");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Janitor run failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes each account together with everything it logged, in the same
+     * batch transaction.
+     *
+     * @return number of accounts deleted
+     */
+    public int purgeUnverifiedAccounts() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(unverifiedRetention));
+        return drain(() -> {
+            List<Long> ids = jdbcTemplate.queryForList(CLAIM_UNVERIFIED, Long.class, cutoff, batchSize);
+            if (!ids.isEmpty()) {
+                Object owners = ids.toArray(new Long[0]);
+                for (String table : USER_TABLES) {
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ANY(?)", owners);
+                }
+                jdbcTemplate.update("DELETE FROM user_friends WHERE friend_id = ANY(?)", owners);
+                jdbcTemplate.update("DELETE FROM users WHERE id = ANY(?)", owners);
+            }
+            return ids;
+        }, accountsPurged);
+    }
+
+    public int clearExpiredCodes() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(expiredCodeGrace);
+        return drain(CLEAR_EXPIRED_CODES, cutoff, codesCleared);
+    }
+
+    // Every token of an expired family has expired too, so its generation is no longer needed
+    public int pruneRefreshFamilies() {
+        return drain(PRUNE_REFRESH_FAMILIES, LocalDateTime.now(), familiesPruned);
+    }
+
+    private static Counter purgedCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("fittrack.janitor.rows.purged")
+                .description("Rows deleted or cleaned up by the unverified-account janitor")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private int drain(String sql, LocalDateTime cutoff, Counter counter) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        return drain(() -> jdbcTemplate.queryForList(sql, Long.class, cutoffTimestamp, batchSize), counter);
+    }
+
+    // Runs batches, each in its own transaction, until one comes back short
+    private int drain(Supplier<List<Long>> batchStatement, Counter counter) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = transactionTemplate.execute(status -> batchStatement.get());
+            int affected = ids == null ? 0 : ids.size();
+            counter.increment(affected);
+            total += affected;
+            if (affected < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
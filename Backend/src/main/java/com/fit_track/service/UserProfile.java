@@ -0,0 +1,29 @@
+package com.fit_track.service;
+
+import com.fit_track.entity.User;
+
+/**
+ * Cacheable view of a user without credentials or verification state.
+ */
+public record UserProfile(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        boolean emailVerified,
+        boolean profileCompleted,
+        User.Goal goal,
+        User.ActivityLevel activityLevel,
+        Double currentWeight,
+        Double targetWeight,
+        Integer height,
+        Integer age,
+        User.Gender gender) {
+
+    public static UserProfile from(User user) {
+        return new UserProfile(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.isEmailVerified(), user.isProfileCompleted(), user.getGoal(), user.getActivityLevel(),
+                user.getCurrentWeight(), user.getTargetWeight(), user.getHeight(), user.getAge(),
+                user.getGender());
+    }
+}
@@ -0,0 +1,39 @@
+package com.fit_track.service;
+
+import com.fit_track.cache.TieredCache;
+import com.fit_track.cache.TieredCacheManager;
+import com.fit_track.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Profiles by email, shared across nodes and dropped everywhere on
+ * {@code UserChangedEvent}. Misses load from the primary: a copy read from a
+ * lagging replica would outlive the invalidation that was meant to drop it.
+ */
+@Component
+public class UserProfileCache {
+
+    public static final String CACHE_NAME = "user-profile";
+
+    private final TieredCache<UserProfile> cache;
+    private final UserRepository userRepository;
+
+    public UserProfileCache(
+            TieredCacheManager cacheManager,
+            UserRepository userRepository,
+            @Value("${fittrack.cache.user-profile.local-ttl:1m}") Duration localTtl,
+            @Value("${fittrack.cache.user-profile.remote-ttl:10m}") Duration remoteTtl) {
+        this.cache = cacheManager.create(CACHE_NAME, UserProfile.class, localTtl, remoteTtl, 100_000);
+        this.userRepository = userRepository;
+    }
+
+    public Optional<UserProfile> findByEmail(String email) {
+        return Optional.ofNullable(cache.get(email, key -> userRepository.findByEmailOnPrimary(key)
+                .map(UserProfile::from)
+                .orElse(null)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.fit_track.service;
+
+import com.fit_track.repository.WeighInRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Creates monthly {@code weigh_ins} partitions ahead of time. A month that
+ * arrives before its partition lands in the default partition, and Postgres
+ * refuses to add a range partition while the default holds rows for it.
+ */
+@Component
+public class WeighInPartitionMaintainer {
+
+    @Autowired
+    private WeighInRepository weighInRepository;
+
+    @Value("${fittrack.partitions.weigh-ins.months-ahead:3}")
+    private int monthsAhead;
+
+    @Scheduled(fixedDelayString = "${fittrack.partitions.maintenance-interval:PT24H}",
+            initialDelayString = "${fittrack.partitions.initial-delay:PT30S}")
+    public void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                weighInRepository.ensurePartition(today.plusMonths(i));
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to create weigh_ins partitions: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.fit_track.streak;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One-off milestones. Each is reached when its metric first reaches the
+ * threshold: a running total, a best streak length, or for the goal weight a
+ * 0/1 flag.
+ */
+public enum Achievement {
+
+    FIRST_FOOD_LOG(Metric.FOOD_ENTRIES, 1),
+    FIRST_WORKOUT(Metric.WORKOUT_SETS, 1),
+    SETS_100(Metric.WORKOUT_SETS, 100),
+    SETS_1000(Metric.WORKOUT_SETS, 1000),
+    LOGGING_STREAK_7(Metric.LOGGING_STREAK, 7),
+    LOGGING_STREAK_30(Metric.LOGGING_STREAK, 30),
+    CALORIE_TARGET_STREAK_7(Metric.CALORIE_TARGET_STREAK, 7),
+    CALORIE_TARGET_STREAK_30(Metric.CALORIE_TARGET_STREAK, 30),
+    WORKOUT_WEEK_STREAK_4(Metric.WORKOUT_WEEK_STREAK, 4),
+    WORKOUT_WEEK_STREAK_12(Metric.WORKOUT_WEEK_STREAK, 12),
+    GOAL_WEIGHT_REACHED(Metric.GOAL_WEIGHT, 1);
+
+    public enum Metric {
+        FOOD_ENTRIES, WORKOUT_SETS, LOGGING_STREAK, CALORIE_TARGET_STREAK, WORKOUT_WEEK_STREAK, GOAL_WEIGHT;
+
+        public static Metric of(StreakKind kind) {
+            return switch (kind) {
+                case LOGGING -> LOGGING_STREAK;
+                case CALORIE_TARGET -> CALORIE_TARGET_STREAK;
+                case WORKOUT_WEEK -> WORKOUT_WEEK_STREAK;
+            };
+        }
+    }
+
+    private final Metric metric;
+    private final long threshold;
+
+    Achievement(Metric metric, long threshold) {
+        this.metric = metric;
+        this.threshold = threshold;
+    }
+
+    // Achievements whose threshold lies in (before, after]
+    public static List<Achievement> crossed(Metric metric, long before, long after) {
+        if (after <= before) {
+            return List.of();
+        }
+        return Arrays.stream(values())
+                .filter(achievement -> achievement.metric == metric
+                        && before < achievement.threshold && achievement.threshold <= after)
+                .toList();
+    }
+}
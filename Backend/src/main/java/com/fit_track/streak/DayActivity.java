@@ -0,0 +1,13 @@
+package com.fit_track.streak;
+
+import java.time.LocalDate;
+
+/**
+ * Per-user daily rollup of the log tables, kept in {@code user_daily_activity}.
+ */
+public record DayActivity(LocalDate day, int foodEntries, int calories, int workoutSets) {
+
+    public static DayActivity empty(LocalDate day) {
+        return new DayActivity(day, 0, 0, 0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.fit_track.streak;
+
+/**
+ * Current and best run of consecutive qualifying periods, updated in O(1)
+ * when a single period starts or stops qualifying. Only the latest run is
+ * tracked exactly; earlier runs are summarized by their best length. Changes
+ * that would need more than that (a period inside or before the latest run,
+ * or the latest run disappearing) are refused, and the caller rebuilds the
+ * counter with {@link #replay} from the user's history.
+ */
+public final class StreakCounter {
+
+    private int current;
+    private long currentEnd;
+    private int previousBest;
+
+    public StreakCounter() {
+    }
+
+    public StreakCounter(int current, long currentEnd, int previousBest) {
+        this.current = current;
+        this.currentEnd = currentEnd;
+        this.previousBest = previousBest;
+    }
+
+    /**
+     * @param periods distinct qualifying periods in ascending order
+     */
+    public static StreakCounter replay(long[] periods) {
+        StreakCounter counter = new StreakCounter();
+        for (long period : periods) {
+            counter.qualify(period);
+        }
+        return counter;
+    }
+
+    /**
+     * Records that {@code period} now qualifies.
+     *
+     * @return false when the counter cannot apply this without a replay
+     */
+    public boolean qualify(long period) {
+        if (current > 0 && period <= currentEnd) {
+            return false;
+        }
+        if (current > 0 && period == currentEnd + 1) {
+            current++;
+        } else {
+            previousBest = best();
+            current = 1;
+        }
+        currentEnd = period;
+        return true;
+    }
+
+    /**
+     * Records that {@code period} no longer qualifies.
+     *
+     * @return false when the counter cannot apply this without a replay
+     */
+    public boolean disqualify(long period) {
+        if (current > 1 && period == currentEnd) {
+            current--;
+            currentEnd--;
+            return true;
+        }
+        return false;
+    }
+
+    public int getCurrent() {
+        return current;
+    }
+
+    // Meaningless while getCurrent() is 0
+    public long getCurrentEnd() {
+        return currentEnd;
+    }
+
+    public int getPreviousBest() {
+        return previousBest;
+    }
+
+    public int getBest() {
+        return best();
+    }
+
+    // A streak is still alive through the period after its last qualifying one
+    public int currentAsOf(long period) {
+        return current > 0 && currentEnd >= period - 1 ? current : 0;
+    }
+
+    private int best() {
+        return Math.max(previousBest, current);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof StreakCounter counter
+                && current == counter.current
+                && (current == 0 || currentEnd == counter.currentEnd)
+                && previousBest == counter.previousBest;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * current + Long.hashCode(current == 0 ? 0 : currentEnd)) + previousBest;
+    }
+
+    @Override
+    public String toString() {
+        return "StreakCounter[current=" + current + ", currentEnd=" + currentEnd
+                + ", previousBest=" + previousBest + "]";
+    }
+}
@@ -0,0 +1,209 @@
+package com.fit_track.streak;
+
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.entity.WorkoutSet;
+import com.fit_track.event.ActivityChangedEvent;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.repository.StreakRepository;
+import com.fit_track.repository.StreakRepository.Totals;
+import com.fit_track.repository.UserRepository;
+import com.fit_track.service.UserProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps streaks, totals and achievements current as logs are written. Each
+ * event refreshes the one affected day of the rollup and moves the streak
+ * counters by at most one period, a constant number of primary-key
+ * statements. Edits that land inside an existing run (backdated logs,
+ * deletes that break a streak) replay the user's rollup instead; the
+ * {@code fittrack.streaks.updates} counter shows how often that happens.
+ *
+ * <p>Updates for one user are serialized on their totals row, and the
+ * affected day is always re-read from the log tables, so events may arrive
+ * late, twice or out of order. A committed change to a day is announced as
+ * an {@link ActivityChangedEvent}.
+ */
+@Component
+public class StreakEngine {
+
+    private final StreakRepository streakRepository;
+    private final UserRepository userRepository;
+    private final StreakRules rules;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter fastUpdates;
+    private final Counter replayedUpdates;
+
+    public StreakEngine(StreakRepository streakRepository, UserRepository userRepository, StreakRules rules,
+                        PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry) {
+        this.streakRepository = streakRepository;
+        this.userRepository = userRepository;
+        this.rules = rules;
+        // Events arrive after the writer's commit, while its finished transaction is still bound
+        // to the thread; joining it would leave these writes uncommitted
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.fastUpdates = updateCounter(meterRegistry, "incremental");
+        this.replayedUpdates = updateCounter(meterRegistry, "replay");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLogChanged(LogChangedEvent event) {
+        Boolean changed;
+        try {
+            changed = transactionTemplate.execute(status -> apply(event));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update streaks for user " + event.userId() + ": " + e.getMessage());
+            return;
+        }
+        if (Boolean.TRUE.equals(changed)) {
+            eventPublisher.publishEvent(new ActivityChangedEvent(event.userId(), day(event.entry())));
+        }
+    }
+
+    /**
+     * Recomputes everything for one user from the log tables. Used by the
+     * rebuild job for backfills and after rule changes.
+     *
+     * @return false when the user no longer exists
+     */
+    public boolean rebuild(Long userId) {
+        Boolean rebuilt = transactionTemplate.execute(status -> {
+            Optional<UserProfile> profile = userRepository.findById(userId).map(UserProfile::from);
+            if (profile.isEmpty()) {
+                return false;
+            }
+            streakRepository.lockTotals(userId);
+            streakRepository.rebuildDays(userId);
+            StreakRules.Replay replay = rules.replay(streakRepository.findDays(userId),
+                    streakRepository.findWeighIns(userId), profile.get());
+
+            streakRepository.saveTotals(userId, new Totals(replay.foodEntries(), replay.workoutSets()));
+            streakRepository.saveStreaks(userId, replay.streaks());
+            streakRepository.replaceAchievements(userId, replay.achievements());
+            return true;
+        });
+        return Boolean.TRUE.equals(rebuilt);
+    }
+
+    // True when the day's rollup changed
+    private boolean apply(LogChangedEvent event) {
+        switch (event.entry()) {
+            case FoodLog log -> {
+                return dayChanged(event.userId(), log.loggedOn());
+            }
+            case WorkoutSet set -> {
+                return dayChanged(event.userId(), set.performedOn());
+            }
+            case WeighIn weighIn -> {
+                if (!event.deleted()) {
+                    weighedIn(event.userId(), weighIn);
+                }
+                return false;
+            }
+            default -> throw new IllegalArgumentException("Unknown log entry " + event.entry().getClass());
+        }
+    }
+
+    private static LocalDate day(Object entry) {
+        return entry instanceof FoodLog log ? log.loggedOn() : ((WorkoutSet) entry).performedOn();
+    }
+
+    private boolean dayChanged(Long userId, LocalDate day) {
+        Totals totals = streakRepository.lockTotals(userId);
+        DayActivity before = streakRepository.findDay(userId, day).orElse(DayActivity.empty(day));
+        DayActivity after = streakRepository.refreshDay(userId, day);
+        if (before.equals(after)) {
+            return false;
+        }
+
+        Optional<UserProfile> profile = userRepository.findById(userId).map(UserProfile::from);
+        if (profile.isEmpty()) {
+            return false;
+        }
+        int calorieTarget = StreakRules.calorieTarget(profile.get());
+
+        Map<StreakKind, StreakCounter> streaks = streakRepository.findStreaks(userId);
+        Map<StreakKind, Integer> bestBefore = new EnumMap<>(StreakKind.class);
+        streaks.forEach((kind, counter) -> bestBefore.put(kind, counter.getBest()));
+
+        boolean applied = move(streaks.get(StreakKind.LOGGING), StreakKind.LOGGING.period(day),
+                rules.loggedFood(before), rules.loggedFood(after));
+        applied &= move(streaks.get(StreakKind.CALORIE_TARGET), StreakKind.CALORIE_TARGET.period(day),
+                rules.hitCalorieTarget(before, calorieTarget), rules.hitCalorieTarget(after, calorieTarget));
+        if ((before.workoutSets() > 0) != (after.workoutSets() > 0)) {
+            LocalDate weekStart = StreakKind.WORKOUT_WEEK.start(StreakKind.WORKOUT_WEEK.period(day));
+            int workoutDays = streakRepository.countWorkoutDays(userId, weekStart, weekStart.plusDays(6));
+            int workoutDaysBefore = workoutDays + (after.workoutSets() > 0 ? -1 : 1);
+            applied &= move(streaks.get(StreakKind.WORKOUT_WEEK), StreakKind.WORKOUT_WEEK.period(day),
+                    rules.activeWorkoutWeek(workoutDaysBefore), rules.activeWorkoutWeek(workoutDays));
+        }
+
+        if (applied) {
+            fastUpdates.increment();
+        } else {
+            replayedUpdates.increment();
+            streaks = rules.replay(streakRepository.findDays(userId), List.of(), profile.get()).streaks();
+        }
+        streakRepository.saveStreaks(userId, streaks);
+
+        Totals updated = new Totals(
+                totals.foodEntries() + after.foodEntries() - before.foodEntries(),
+                totals.workoutSets() + after.workoutSets() - before.workoutSets());
+        streakRepository.saveTotals(userId, updated);
+
+        // Reached achievements are kept even if the logs behind them are later deleted
+        award(userId, Achievement.Metric.FOOD_ENTRIES, totals.foodEntries(), updated.foodEntries(), day);
+        award(userId, Achievement.Metric.WORKOUT_SETS, totals.workoutSets(), updated.workoutSets(), day);
+        for (Map.Entry<StreakKind, StreakCounter> entry : streaks.entrySet()) {
+            award(userId, Achievement.Metric.of(entry.getKey()), bestBefore.get(entry.getKey()),
+                    entry.getValue().getBest(), day);
+        }
+        return true;
+    }
+
+    private void weighedIn(Long userId, WeighIn weighIn) {
+        userRepository.findById(userId)
+                .map(UserProfile::from)
+                .filter(profile -> rules.reachedGoalWeight(profile, weighIn.weightKg()))
+                .ifPresent(profile -> streakRepository.award(userId, Achievement.GOAL_WEIGHT_REACHED,
+                        weighIn.measuredOn()));
+    }
+
+    // Applies a change in whether one period qualifies; false when a replay is needed
+    private static boolean move(StreakCounter counter, long period, boolean qualifiedBefore, boolean qualifiedAfter) {
+        if (qualifiedBefore == qualifiedAfter) {
+            return true;
+        }
+        return qualifiedAfter ? counter.qualify(period) : counter.disqualify(period);
+    }
+
+    private void award(Long userId, Achievement.Metric metric, long before, long after, LocalDate day) {
+        for (Achievement achievement : Achievement.crossed(metric, before, after)) {
+            streakRepository.award(userId, achievement, day);
+        }
+    }
+
+    private static Counter updateCounter(MeterRegistry meterRegistry, String path) {
+        return Counter.builder("fittrack.streaks.updates")
+                .description("Streak updates by whether they were applied in place or needed a replay")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+}
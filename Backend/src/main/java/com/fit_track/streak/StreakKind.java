@@ -0,0 +1,34 @@
+package com.fit_track.streak;
+
+import java.time.LocalDate;
+
+/**
+ * Streaks tracked per user. Daily kinds count consecutive days, weekly kinds
+ * consecutive Monday-based weeks; either way a streak is a run of
+ * consecutive qualifying periods, numbered so that consecutive periods differ
+ * by one.
+ */
+public enum StreakKind {
+
+    // A day with at least one food log
+    LOGGING(false),
+    // A day whose logged calories are within tolerance of the user's target
+    CALORIE_TARGET(false),
+    // A week with at least the configured number of workout days
+    WORKOUT_WEEK(true);
+
+    private final boolean weekly;
+
+    StreakKind(boolean weekly) {
+        this.weekly = weekly;
+    }
+
+    public long period(LocalDate day) {
+        // Epoch day 0 is a Thursday; shifting by 3 starts weeks on Monday
+        return weekly ? Math.floorDiv(day.toEpochDay() + 3, 7) : day.toEpochDay();
+    }
+
+    public LocalDate start(long period) {
+        return LocalDate.ofEpochDay(weekly ? period * 7 - 3 : period);
+    }
+}
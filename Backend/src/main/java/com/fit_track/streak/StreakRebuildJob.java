@@ -0,0 +1,102 @@
+package com.fit_track.streak;
+
+import com.fit_track.repository.StreakRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds streak and achievement state for every user from the log tables,
+ * for the initial backfill and after a rule change. Users are independent,
+ * so they are replayed in parallel, one transaction each, by a fixed number
+ * of workers that stays well inside the connection pool. Live updates for a
+ * user wait on the same lock as that user's rebuild and apply on top of it.
+ *
+ * <p>Runs at startup when {@code fittrack.streaks.rebuild-on-startup} is set;
+ * enable it on a single instance.
+ */
+@Component
+public class StreakRebuildJob implements ApplicationRunner {
+
+    private final StreakEngine streakEngine;
+    private final StreakRepository streakRepository;
+    private final Timer duration;
+    private final boolean rebuildOnStartup;
+    private final int parallelism;
+    private final int batchSize;
+
+    public StreakRebuildJob(
+            StreakEngine streakEngine,
+            StreakRepository streakRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fittrack.streaks.rebuild-on-startup:false}") boolean rebuildOnStartup,
+            @Value("${fittrack.streaks.rebuild.parallelism:4}") int parallelism,
+            @Value("${fittrack.streaks.rebuild.batch-size:1000}") int batchSize) {
+        this.streakEngine = streakEngine;
+        this.streakRepository = streakRepository;
+        this.duration = Timer.builder("fittrack.streaks.rebuild.duration").register(meterRegistry);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * @return number of users rebuilt
+     */
+    public int rebuildAll() {
+        long start = System.nanoTime();
+        int rebuilt = 0;
+        int failed = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            long afterId = 0;
+            List<Long> userIds;
+            while (!(userIds = streakRepository.findUserIdsAfter(afterId, batchSize)).isEmpty()) {
+                List<Future<Boolean>> results = new ArrayList<>(userIds.size());
+                for (Long userId : userIds) {
+                    results.add(workers.submit(() -> streakEngine.rebuild(userId)));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    try {
+                        if (results.get(i).get()) {
+                            rebuilt++;
+                        }
+                    } catch (ExecutionException e) {
+                        failed++;
+                        System.err.println("Streak rebuild failed for user " + userIds.get(i) + ": "
+                                + e.getCause().getMessage());
+                    }
+                }
+                afterId = userIds.getLast();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Rebuilt streaks for " + rebuilt + " users (" + failed + " failed) in "
+                + elapsed / 1_000_000 + " ms");
+        return rebuilt;
+    }
+}
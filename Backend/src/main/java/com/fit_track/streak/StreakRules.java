@@ -0,0 +1,131 @@
+package com.fit_track.streak;
+
+import com.fit_track.entity.WeighIn;
+import com.fit_track.service.NutritionTargets;
+import com.fit_track.service.UserProfile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What qualifies a period for each streak, and the full replay of a user's
+ * history under those rules. The replay depends only on its inputs, so a
+ * rebuild gives the same result however users are split across workers.
+ */
+@Component
+public class StreakRules {
+
+    private final double calorieTolerance;
+    private final int weeklyWorkoutDays;
+
+    public StreakRules(
+            @Value("${fittrack.streaks.calorie-tolerance:0.1}") double calorieTolerance,
+            @Value("${fittrack.streaks.weekly-workout-days:3}") int weeklyWorkoutDays) {
+        this.calorieTolerance = calorieTolerance;
+        this.weeklyWorkoutDays = weeklyWorkoutDays;
+    }
+
+    public record Replay(
+            Map<StreakKind, StreakCounter> streaks,
+            long foodEntries,
+            long workoutSets,
+            Map<Achievement, LocalDate> achievements) {
+    }
+
+    public boolean loggedFood(DayActivity day) {
+        return day.foodEntries() > 0;
+    }
+
+    public boolean hitCalorieTarget(DayActivity day, int target) {
+        return day.foodEntries() > 0 && Math.abs(day.calories() - target) <= target * calorieTolerance;
+    }
+
+    public boolean activeWorkoutWeek(int workoutDays) {
+        return workoutDays >= weeklyWorkoutDays;
+    }
+
+    public boolean reachedGoalWeight(UserProfile profile, double weightKg) {
+        if (profile.goal() == null || profile.targetWeight() == null) {
+            return false;
+        }
+        return switch (profile.goal()) {
+            case LOSE_WEIGHT -> weightKg <= profile.targetWeight();
+            case GAIN_WEIGHT, BUILD_MUSCLE -> weightKg >= profile.targetWeight();
+            case MAINTAIN_WEIGHT -> false;
+        };
+    }
+
+    public static int calorieTarget(UserProfile profile) {
+        return NutritionTargets.forProfile(profile).calories();
+    }
+
+    /**
+     * Walks the history oldest first, as if every day had been logged in
+     * order, and records the day each achievement was first reached.
+     *
+     * @param days     ascending by day
+     * @param weighIns ascending by date
+     */
+    public Replay replay(List<DayActivity> days, List<WeighIn> weighIns, UserProfile profile) {
+        int calorieTarget = calorieTarget(profile);
+        Map<StreakKind, StreakCounter> streaks = new EnumMap<>(StreakKind.class);
+        for (StreakKind kind : StreakKind.values()) {
+            streaks.put(kind, new StreakCounter());
+        }
+        Map<Achievement, LocalDate> achievements = new EnumMap<>(Achievement.class);
+
+        long foodEntries = 0;
+        long workoutSets = 0;
+        long week = Long.MIN_VALUE;
+        int workoutDaysInWeek = 0;
+        for (DayActivity day : days) {
+            award(achievements, Achievement.Metric.FOOD_ENTRIES, foodEntries, foodEntries + day.foodEntries(), day.day());
+            award(achievements, Achievement.Metric.WORKOUT_SETS, workoutSets, workoutSets + day.workoutSets(), day.day());
+            foodEntries += day.foodEntries();
+            workoutSets += day.workoutSets();
+
+            if (loggedFood(day)) {
+                qualify(streaks, achievements, StreakKind.LOGGING, day.day());
+            }
+            if (hitCalorieTarget(day, calorieTarget)) {
+                qualify(streaks, achievements, StreakKind.CALORIE_TARGET, day.day());
+            }
+            if (day.workoutSets() > 0) {
+                long dayWeek = StreakKind.WORKOUT_WEEK.period(day.day());
+                workoutDaysInWeek = dayWeek == week ? workoutDaysInWeek + 1 : 1;
+                week = dayWeek;
+                // Qualifies once, on the day the week reaches the required count
+                if (workoutDaysInWeek == weeklyWorkoutDays) {
+                    qualify(streaks, achievements, StreakKind.WORKOUT_WEEK, day.day());
+                }
+            }
+        }
+
+        for (WeighIn weighIn : weighIns) {
+            if (reachedGoalWeight(profile, weighIn.weightKg())) {
+                achievements.put(Achievement.GOAL_WEIGHT_REACHED, weighIn.measuredOn());
+                break;
+            }
+        }
+        return new Replay(streaks, foodEntries, workoutSets, achievements);
+    }
+
+    private static void qualify(Map<StreakKind, StreakCounter> streaks, Map<Achievement, LocalDate> achievements,
+                                StreakKind kind, LocalDate day) {
+        StreakCounter counter = streaks.get(kind);
+        int best = counter.getBest();
+        counter.qualify(kind.period(day));
+        award(achievements, Achievement.Metric.of(kind), best, counter.getBest(), day);
+    }
+
+    private static void award(Map<Achievement, LocalDate> achievements, Achievement.Metric metric,
+                              long before, long after, LocalDate day) {
+        for (Achievement achievement : Achievement.crossed(metric, before, after)) {
+            achievements.putIfAbsent(achievement, day);
+        }
+    }
+}
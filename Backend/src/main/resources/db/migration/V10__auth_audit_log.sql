@@ -0,0 +1,21 @@
+-- Auth audit trail shipped from each instance's local log (AuditShipper).
+-- A row is identified by the log it came from and its sequence in that log;
+-- the highest shipped seq per log is where shipping resumes.
+CREATE TABLE IF NOT EXISTS auth_audit_log (
+    log_id      UUID         NOT NULL,
+    seq         BIGINT       NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL,
+    action      VARCHAR(32)  NOT NULL,
+    -- ErrorCode name, NULL on success
+    failure     VARCHAR(64),
+    user_id     BIGINT,
+    email       VARCHAR(255),
+    address     VARCHAR(45),
+    PRIMARY KEY (log_id, seq)
+);
+
+-- Per-account history, e.g. failed logins for an address
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_user ON auth_audit_log (user_id, occurred_at) WHERE user_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_email ON auth_audit_log (email, occurred_at) WHERE email IS NOT NULL;
+-- Rows arrive roughly in time order, which a BRIN index covers at a fraction of the size
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_occurred_at ON auth_audit_log USING brin (occurred_at);
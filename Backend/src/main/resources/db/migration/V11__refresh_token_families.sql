@@ -0,0 +1,15 @@
+-- One row per login session that has refreshed at least once. A refresh
+-- token carries its family id and generation; redeeming it moves the row to
+-- the next generation in a single conditional statement, so each token is
+-- redeemed at most once, on any instance, across restarts. A family with
+-- no row is still at generation 0.
+CREATE TABLE IF NOT EXISTS refresh_token_families (
+    id         UUID         PRIMARY KEY,
+    user_id    BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    generation INTEGER      NOT NULL,
+    -- Expiry of the family's current refresh token; pruned by the janitor
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_user_id ON refresh_token_families (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_expires_at ON refresh_token_families (expires_at);
@@ -0,0 +1,30 @@
+-- Baseline of the schema previously generated by Hibernate from User.
+-- IF NOT EXISTS lets it run as a no-op on databases created that way
+-- (spring.flyway.baseline-version=0 makes Flyway apply it to them too).
+CREATE TABLE IF NOT EXISTS users (
+    id                           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email                        VARCHAR(100) UNIQUE,
+    password                     VARCHAR(120),
+    first_name                   VARCHAR(50),
+    last_name                    VARCHAR(50),
+    email_verified               BOOLEAN      NOT NULL DEFAULT FALSE,
+    profile_completed            BOOLEAN      NOT NULL DEFAULT FALSE,
+    enabled                      BOOLEAN      NOT NULL DEFAULT FALSE,
+    role                         VARCHAR(255) NOT NULL DEFAULT 'USER',
+    token_version                INTEGER      NOT NULL DEFAULT 0,
+    verification_code            VARCHAR(255),
+    verification_code_expires_at TIMESTAMP(6),
+    created_at                   TIMESTAMP(6),
+    updated_at                   TIMESTAMP(6),
+    goal                         VARCHAR(255),
+    activity_level               VARCHAR(255),
+    current_weight               DOUBLE PRECISION,
+    target_weight                DOUBLE PRECISION,
+    height                       INTEGER,
+    age                          INTEGER,
+    gender                       VARCHAR(255)
+);
+
+-- Hibernate-created tables predate these two columns
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role VARCHAR(255) NOT NULL DEFAULT 'USER';
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
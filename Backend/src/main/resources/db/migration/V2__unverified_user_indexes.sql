@@ -0,0 +1,18 @@
+-- Partial indexes over the unverified minority of users: they stay small as
+-- the verified user base grows, and CONCURRENTLY avoids locking the table
+-- while they build (Flyway runs this script outside a transaction).
+
+-- Janitor: oldest unverified accounts first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_unverified_created_at
+    ON users (created_at)
+    WHERE email_verified = FALSE;
+
+-- Janitor: codes past their expiry
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_pending_code_expires_at
+    ON users (verification_code_expires_at)
+    WHERE verification_code IS NOT NULL;
+
+-- UserRepository.findByVerificationCode
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_pending_verification_code
+    ON users (verification_code)
+    WHERE verification_code IS NOT NULL;
@@ -0,0 +1,76 @@
+-- Per-user log data. Logs are hash-partitioned on user_id so every partition
+-- (and its indexes) stays a fraction of the total and vacuums independently;
+-- weigh-ins are a time series and are range-partitioned by month. Every
+-- repository query filters on the partition key so the planner prunes.
+--
+-- users itself stays a single table: its unique email index could not be
+-- enforced across hash partitions of id.
+
+CREATE SEQUENCE IF NOT EXISTS food_logs_id_seq;
+
+CREATE TABLE IF NOT EXISTS food_logs (
+    id         BIGINT           NOT NULL DEFAULT nextval('food_logs_id_seq'),
+    user_id    BIGINT           NOT NULL,
+    logged_on  DATE             NOT NULL,
+    meal       VARCHAR(20)      NOT NULL,
+    name       VARCHAR(120)     NOT NULL,
+    calories   INTEGER          NOT NULL,
+    protein_g  DOUBLE PRECISION NOT NULL DEFAULT 0,
+    carbs_g    DOUBLE PRECISION NOT NULL DEFAULT 0,
+    fat_g      DOUBLE PRECISION NOT NULL DEFAULT 0,
+    created_at TIMESTAMP(6)     NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, id)
+) PARTITION BY HASH (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_food_logs_user_logged_on ON food_logs (user_id, logged_on);
+
+CREATE SEQUENCE IF NOT EXISTS workout_sets_id_seq;
+
+CREATE TABLE IF NOT EXISTS workout_sets (
+    id           BIGINT           NOT NULL DEFAULT nextval('workout_sets_id_seq'),
+    user_id      BIGINT           NOT NULL,
+    performed_on DATE             NOT NULL,
+    exercise     VARCHAR(80)      NOT NULL,
+    muscle_group VARCHAR(20)      NOT NULL,
+    reps         INTEGER          NOT NULL,
+    weight_kg    DOUBLE PRECISION NOT NULL DEFAULT 0,
+    created_at   TIMESTAMP(6)     NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, id)
+) PARTITION BY HASH (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_workout_sets_user_performed_on ON workout_sets (user_id, performed_on);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS food_logs_p%s PARTITION OF food_logs '
+                           'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS workout_sets_p%s PARTITION OF workout_sets '
+                           'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS weigh_ins (
+    user_id     BIGINT           NOT NULL,
+    measured_on DATE             NOT NULL,
+    weight_kg   DOUBLE PRECISION NOT NULL,
+    created_at  TIMESTAMP(6)     NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, measured_on)
+) PARTITION BY RANGE (measured_on);
+
+-- Catches dates outside the monthly partitions (backfilled history)
+CREATE TABLE IF NOT EXISTS weigh_ins_default PARTITION OF weigh_ins DEFAULT;
+
+-- Creates the partition for the month containing the given day. Called for the
+-- initial range below and ahead of time by WeighInPartitionMaintainer.
+CREATE OR REPLACE FUNCTION ensure_weigh_ins_partition(day DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', day)::date;
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS weigh_ins_%s PARTITION OF weigh_ins FOR VALUES FROM (%L) TO (%L)',
+                   to_char(month_start, 'YYYYMM'), month_start, (month_start + INTERVAL '1 month')::date);
+END
+$$ LANGUAGE plpgsql;
+
+SELECT ensure_weigh_ins_partition(month::date)
+FROM generate_series(DATE '2024-01-01', date_trunc('month', now()) + INTERVAL '3 months', INTERVAL '1 month') AS month;
@@ -0,0 +1,103 @@
+-- Per-user change sequence for delta sync. users.change_seq is the counter:
+-- every insert or update of a user's log row takes the next value, every
+-- delete leaves a tombstone with the next value, and a profile change stamps
+-- the user row itself. Allocating through the user row serializes a user's
+-- writers, so sequence order is commit order and a client that has seen N
+-- has seen everything up to N.
+--
+-- Existing rows start at 1, so a first sync (since=0) returns everything.
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS change_seq         BIGINT NOT NULL DEFAULT 1,
+    ADD COLUMN IF NOT EXISTS profile_change_seq BIGINT NOT NULL DEFAULT 1,
+    -- Highest tombstone sequence pruned; clients behind it must resync fully
+    ADD COLUMN IF NOT EXISTS sync_horizon       BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE food_logs ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE workout_sets ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE weigh_ins ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 1;
+
+CREATE INDEX IF NOT EXISTS idx_food_logs_user_change_seq ON food_logs (user_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_workout_sets_user_change_seq ON workout_sets (user_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_weigh_ins_user_change_seq ON weigh_ins (user_id, change_seq);
+
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    user_id    BIGINT       NOT NULL,
+    change_seq BIGINT       NOT NULL,
+    entity     VARCHAR(20)  NOT NULL,
+    entity_key VARCHAR(40)  NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, change_seq)
+) PARTITION BY HASH (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS sync_tombstones_p%s PARTITION OF sync_tombstones '
+                           'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END $$;
+
+-- Fails (NOT NULL) for a user that does not exist rather than inventing a sequence
+CREATE OR REPLACE FUNCTION next_change_seq(owner BIGINT) RETURNS BIGINT AS $$
+    UPDATE users SET change_seq = change_seq + 1 WHERE id = owner RETURNING change_seq
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION stamp_change_seq() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq := next_change_seq(NEW.user_id);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- TG_ARGV: entity name and the column that identifies the row to the client
+CREATE OR REPLACE FUNCTION record_tombstone() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO sync_tombstones (user_id, change_seq, entity, entity_key)
+    VALUES (OLD.user_id, next_change_seq(OLD.user_id), TG_ARGV[0], to_jsonb(OLD) ->> TG_ARGV[1]);
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+-- Only fields clients sync count as a profile change; token, verification
+-- and timestamp updates (and next_change_seq itself) do not
+CREATE OR REPLACE FUNCTION stamp_profile_change_seq() RETURNS TRIGGER AS $$
+BEGIN
+    IF (NEW.first_name, NEW.last_name, NEW.email_verified, NEW.profile_completed, NEW.goal,
+        NEW.activity_level, NEW.current_weight, NEW.target_weight, NEW.height, NEW.age, NEW.gender)
+       IS DISTINCT FROM
+       (OLD.first_name, OLD.last_name, OLD.email_verified, OLD.profile_completed, OLD.goal,
+        OLD.activity_level, OLD.current_weight, OLD.target_weight, OLD.height, OLD.age, OLD.gender) THEN
+        NEW.change_seq := GREATEST(NEW.change_seq, OLD.change_seq + 1);
+        NEW.profile_change_seq := NEW.change_seq;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_profile_change_seq ON users;
+CREATE TRIGGER users_profile_change_seq BEFORE UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION stamp_profile_change_seq();
+
+DROP TRIGGER IF EXISTS food_logs_change_seq ON food_logs;
+CREATE TRIGGER food_logs_change_seq BEFORE INSERT OR UPDATE ON food_logs
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_seq();
+DROP TRIGGER IF EXISTS food_logs_tombstone ON food_logs;
+CREATE TRIGGER food_logs_tombstone AFTER DELETE ON food_logs
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('food', 'id');
+
+DROP TRIGGER IF EXISTS workout_sets_change_seq ON workout_sets;
+CREATE TRIGGER workout_sets_change_seq BEFORE INSERT OR UPDATE ON workout_sets
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_seq();
+DROP TRIGGER IF EXISTS workout_sets_tombstone ON workout_sets;
+CREATE TRIGGER workout_sets_tombstone AFTER DELETE ON workout_sets
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('workout', 'id');
+
+DROP TRIGGER IF EXISTS weigh_ins_change_seq ON weigh_ins;
+CREATE TRIGGER weigh_ins_change_seq BEFORE INSERT OR UPDATE ON weigh_ins
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_seq();
+DROP TRIGGER IF EXISTS weigh_ins_tombstone ON weigh_ins;
+CREATE TRIGGER weigh_ins_tombstone AFTER DELETE ON weigh_ins
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('weigh-in', 'measured_on');
@@ -0,0 +1,45 @@
+-- Streak and achievement state, maintained per log event by StreakEngine and
+-- rebuilt from the log tables by StreakRebuildJob.
+
+-- One row per user and day that has (or had) any food log or workout set
+CREATE TABLE IF NOT EXISTS user_daily_activity (
+    user_id      BIGINT  NOT NULL,
+    day          DATE    NOT NULL,
+    food_entries INTEGER NOT NULL DEFAULT 0,
+    calories     INTEGER NOT NULL DEFAULT 0,
+    workout_sets INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, day)
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS user_daily_activity_p%s PARTITION OF user_daily_activity '
+                           'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END $$;
+
+-- Running totals; the row also serves as the per-user lock for streak updates
+CREATE TABLE IF NOT EXISTS user_activity_totals (
+    user_id      BIGINT PRIMARY KEY,
+    food_entries BIGINT NOT NULL DEFAULT 0,
+    workout_sets BIGINT NOT NULL DEFAULT 0
+);
+
+-- current_end is the first day of the latest qualifying period
+CREATE TABLE IF NOT EXISTS user_streaks (
+    user_id       BIGINT      NOT NULL,
+    kind          VARCHAR(20) NOT NULL,
+    current       INTEGER     NOT NULL DEFAULT 0,
+    current_end   DATE,
+    previous_best INTEGER     NOT NULL DEFAULT 0,
+    best          INTEGER     NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, kind)
+);
+
+CREATE TABLE IF NOT EXISTS user_achievements (
+    user_id     BIGINT      NOT NULL,
+    achievement VARCHAR(40) NOT NULL,
+    achieved_on DATE        NOT NULL,
+    PRIMARY KEY (user_id, achievement)
+);
@@ -0,0 +1,16 @@
+-- Per-user weight trend, updated per weigh-in by ForecastEngine, and the
+-- goal-weight ETA last written by ForecastScoringJob.
+
+-- points = 0 means no weigh-ins yet; the row also serves as the per-user lock
+-- for trend updates
+CREATE TABLE IF NOT EXISTS weight_forecasts (
+    user_id          BIGINT           PRIMARY KEY,
+    level_kg         DOUBLE PRECISION NOT NULL DEFAULT 0,
+    slope_kg_per_day DOUBLE PRECISION NOT NULL DEFAULT 0,
+    residual_kg      DOUBLE PRECISION NOT NULL DEFAULT 0,
+    points           INTEGER          NOT NULL DEFAULT 0,
+    last_day         DATE,
+    kg_per_week      DOUBLE PRECISION,
+    eta              DATE,
+    scored_on        DATE
+);
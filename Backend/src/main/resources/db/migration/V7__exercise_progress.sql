@@ -0,0 +1,44 @@
+-- Per-exercise progression aggregates, maintained per workout set by
+-- ProgressEngine and rebuilt from workout_sets by ProgressBackfillJob.
+
+-- Running totals; the row also serves as the per-user lock for progress updates
+CREATE TABLE IF NOT EXISTS user_training_totals (
+    user_id   BIGINT           PRIMARY KEY,
+    sets      BIGINT           NOT NULL DEFAULT 0,
+    volume_kg DOUBLE PRECISION NOT NULL DEFAULT 0
+);
+
+-- Exercises as the user names them, numbered per user so the aggregates are
+-- keyed by small integers rather than free text. name_key is the trimmed,
+-- lower-cased name.
+CREATE TABLE IF NOT EXISTS user_exercises (
+    user_id      BIGINT      NOT NULL,
+    exercise_id  INTEGER     NOT NULL,
+    name         VARCHAR(80) NOT NULL,
+    name_key     VARCHAR(80) NOT NULL,
+    muscle_group VARCHAR(20) NOT NULL,
+    PRIMARY KEY (user_id, exercise_id),
+    UNIQUE (user_id, name_key, muscle_group)
+);
+
+-- One row per user, exercise and Monday-based week number since the epoch
+CREATE TABLE IF NOT EXISTS exercise_weeks (
+    user_id       BIGINT           NOT NULL,
+    exercise_id   INTEGER          NOT NULL,
+    week          INTEGER          NOT NULL,
+    sets          INTEGER          NOT NULL,
+    reps          INTEGER          NOT NULL,
+    volume_kg     DOUBLE PRECISION NOT NULL,
+    top_weight_kg DOUBLE PRECISION NOT NULL,
+    best_e1rm_kg  DOUBLE PRECISION NOT NULL,
+    best_e1rm_on  DATE,
+    PRIMARY KEY (user_id, exercise_id, week)
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS exercise_weeks_p%s PARTITION OF exercise_weeks '
+                           'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END $$;
@@ -0,0 +1,39 @@
+-- Leaderboard inputs, one row per user, written by LeaderboardEngine after
+-- each change to the user's daily activity. The in-memory rankings on every
+-- instance follow this table by scored_at; it is also what they are rebuilt
+-- from when no usable snapshot exists.
+CREATE TABLE IF NOT EXISTS leaderboard_scores (
+    user_id             BIGINT       PRIMARY KEY,
+    week                INTEGER      NOT NULL DEFAULT 0,
+    workout_sets        INTEGER      NOT NULL DEFAULT 0,
+    calorie_target_days INTEGER      NOT NULL DEFAULT 0,
+    logging_streak      INTEGER      NOT NULL DEFAULT 0,
+    -- Epoch day of the streak's last logged day
+    logging_streak_end  INTEGER      NOT NULL DEFAULT 0,
+    scored_at           TIMESTAMP(6) NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_leaderboard_scores_scored_at ON leaderboard_scores (scored_at);
+CREATE INDEX IF NOT EXISTS idx_leaderboard_scores_week ON leaderboard_scores (week);
+-- Streaks that lapse on a given day, found at each day change
+CREATE INDEX IF NOT EXISTS idx_leaderboard_scores_streak_end ON leaderboard_scores (logging_streak_end)
+    WHERE logging_streak > 0;
+
+-- Latest compact copy of each in-memory ranking, for fast restarts. period is
+-- the week (weekly boards) or epoch day (streak board) the ranking covers;
+-- rows scored after taken_at are replayed on top.
+CREATE TABLE IF NOT EXISTS leaderboard_snapshots (
+    board    VARCHAR(30)  PRIMARY KEY,
+    period   BIGINT       NOT NULL,
+    entries  INTEGER      NOT NULL,
+    taken_at TIMESTAMP(6) NOT NULL,
+    data     BYTEA        NOT NULL
+);
+
+-- A row is a friend request from user_id; it is a friendship once friend_id adds the reverse row
+CREATE TABLE IF NOT EXISTS user_friends (
+    user_id   BIGINT       NOT NULL,
+    friend_id BIGINT       NOT NULL,
+    added_at  TIMESTAMP(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, friend_id)
+);
@@ -0,0 +1,5 @@
+-- Cohort index poll: users changed since the last poll. Built CONCURRENTLY
+-- (Flyway runs this script outside a transaction) so registrations and
+-- logins are not blocked while it builds.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_updated_at
+    ON users (updated_at);
@@ -0,0 +1,121 @@
+package com.fit_track.analytics;
+
+import com.fit_track.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CohortIndexTest {
+
+    private final CohortIndex index = new CohortIndex();
+
+    @Test
+    void countsMatchAScanForRandomFilters() {
+        Random random = new Random(3);
+        CohortUser[] users = new CohortUser[5_000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = randomUser(i + 1, random);
+            index.put(users[i]);
+        }
+
+        for (int query = 0; query < 200; query++) {
+            CohortFilter filter = CohortFilter.ALL;
+            for (Attribute attribute : Attribute.values()) {
+                if (random.nextInt(3) == 0) {
+                    filter = filter.with(attribute, random.nextInt(attribute.valueCount()));
+                    if (random.nextBoolean()) {
+                        filter = filter.with(attribute, random.nextInt(attribute.valueCount()));
+                    }
+                }
+            }
+            int expected = 0;
+            for (CohortUser user : users) {
+                if (matches(filter, user)) {
+                    expected++;
+                }
+            }
+            assertThat(index.count(filter)).isEqualTo(expected);
+            assertThat(index.funnel(filter).registered()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void putMovesUserToTheirCurrentValues() {
+        index.put(new CohortUser(7, null, null, null, null, false, false));
+        index.put(new CohortUser(7, User.Goal.LOSE_WEIGHT, User.ActivityLevel.SEDENTARY, User.Gender.FEMALE, 30,
+                true, true));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.count(CohortFilter.ALL.with(Attribute.EMAIL_VERIFIED, false))).isZero();
+        assertThat(index.count(CohortFilter.ALL.with(Attribute.AGE_BAND, List.of(AgeBand.AGE_25_34))))
+                .isEqualTo(1);
+        assertThat(index.count(CohortFilter.ALL.with(Attribute.GOAL, List.of(User.Goal.LOSE_WEIGHT))
+                .with(Attribute.GENDER, List.of(User.Gender.MALE)))).isZero();
+    }
+
+    @Test
+    void funnelNarrowsFromRegisteredToOnboarded() {
+        index.put(new CohortUser(1, null, null, null, null, false, false));
+        index.put(new CohortUser(2, null, null, null, null, true, false));
+        index.put(new CohortUser(3, User.Goal.GAIN_WEIGHT, null, User.Gender.MALE, 20, true, true));
+        index.put(new CohortUser(4, User.Goal.GAIN_WEIGHT, null, User.Gender.FEMALE, 40, true, true));
+
+        CohortIndex.Funnel all = index.funnel(CohortFilter.ALL);
+        CohortIndex.Funnel men = index.funnel(CohortFilter.ALL.with(Attribute.GENDER, List.of(User.Gender.MALE)));
+
+        assertThat(all).isEqualTo(new CohortIndex.Funnel(4, 3, 2));
+        assertThat(men).isEqualTo(new CohortIndex.Funnel(1, 1, 1));
+    }
+
+    @Test
+    void breakdownCountsUsersWithoutAValueLast() {
+        index.put(new CohortUser(1, null, null, null, null, true, false));
+        index.put(new CohortUser(2, null, null, null, 17, true, true));
+        index.put(new CohortUser(3, null, null, null, 70, true, true));
+        index.put(new CohortUser(4, null, null, null, 66, false, false));
+
+        int[] counts = index.breakdown(CohortFilter.ALL.with(Attribute.EMAIL_VERIFIED, true), Attribute.AGE_BAND);
+
+        assertThat(counts[AgeBand.UNDER_18.ordinal()]).isEqualTo(1);
+        assertThat(counts[AgeBand.AGE_65_PLUS.ordinal()]).isEqualTo(1);
+        assertThat(counts[Attribute.AGE_BAND.valueCount()]).isEqualTo(1);
+    }
+
+    @Test
+    void removedUsersLeaveEveryCohort() {
+        index.put(new CohortUser(5, User.Goal.MAINTAIN_WEIGHT, null, null, 50, true, true));
+
+        assertThat(index.remove(5)).isTrue();
+        assertThat(index.remove(5)).isFalse();
+        assertThat(index.size()).isZero();
+        assertThat(index.count(CohortFilter.ALL.with(Attribute.PROFILE_COMPLETED, true))).isZero();
+    }
+
+    private static CohortUser randomUser(long id, Random random) {
+        boolean verified = random.nextInt(4) != 0;
+        boolean onboarded = verified && random.nextBoolean();
+        if (!onboarded) {
+            return new CohortUser(id, null, null, null, null, verified, false);
+        }
+        return new CohortUser(id, pick(User.Goal.values(), random), pick(User.ActivityLevel.values(), random),
+                pick(User.Gender.values(), random), 13 + random.nextInt(70), true, true);
+    }
+
+    private static <E> E pick(E[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static boolean matches(CohortFilter filter, CohortUser user) {
+        for (Attribute attribute : Attribute.values()) {
+            int mask = filter.mask(attribute);
+            int value = user.value(attribute);
+            if (mask != 0 && (value < 0 || (mask & 1 << value) == 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
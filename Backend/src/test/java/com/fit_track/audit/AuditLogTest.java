@@ -0,0 +1,187 @@
+package com.fit_track.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Segment files, recovery and the producer ring, without Spring.
+ */
+class AuditLogTest {
+
+    private static final int SMALL_SEGMENT = 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatWasAppended() throws Exception {
+        AuditSegmentWriter writer = new AuditSegmentWriter(dir, SMALL_SEGMENT, 16, () -> 0);
+        List<AuditRecord> written = List.of(
+                new AuditRecord(0, Instant.ofEpochMilli(1_700_000_000_123L), AuditAction.LOGIN, null, 42L,
+                        "ana@fittrack.test", "203.0.113.9"),
+                new AuditRecord(0, Instant.ofEpochMilli(1_700_000_001_000L), AuditAction.LOGIN, "BAD_CREDENTIALS",
+                        null, "zoë@fittrack.test", "2001:db8:0:0:0:0:0:1"),
+                new AuditRecord(0, Instant.ofEpochMilli(1_700_000_002_000L), AuditAction.TOKEN_REJECTED,
+                        "TOKEN_INVALID", null, null, null));
+        for (AuditRecord record : written) {
+            writer.append(record);
+        }
+
+        AuditReader reader = new AuditReader(dir);
+        reader.seekAfter(0);
+        List<AuditRecord> read = reader.read(10);
+
+        assertThat(read.size()).isEqualTo(3);
+        for (int i = 0; i < written.size(); i++) {
+            AuditRecord expected = written.get(i);
+            assertThat(read.get(i)).isEqualTo(new AuditRecord(i + 1, expected.occurredAt(), expected.action(),
+                    expected.failure(), expected.userId(), expected.email(), expected.address()));
+        }
+        assertThat(reader.getLogId()).isEqualTo(writer.getLogId());
+    }
+
+    @Test
+    void readsAcrossSegmentsFromAnyPosition() throws Exception {
+        AuditSegmentWriter writer = new AuditSegmentWriter(dir, SMALL_SEGMENT, 16, () -> 0);
+        for (int i = 1; i <= 200; i++) {
+            writer.append(record(i));
+        }
+        assertThat(AuditFormat.segments(dir).size() > 5).isTrue();
+
+        AuditReader reader = new AuditReader(dir);
+        reader.seekAfter(57);
+        List<AuditRecord> read = reader.read(1_000);
+
+        assertThat(read.size()).isEqualTo(143);
+        for (int i = 0; i < read.size(); i++) {
+            assertThat(read.get(i).sequence()).isEqualTo(58L + i);
+            assertThat(read.get(i).userId()).isEqualTo(58L + i);
+        }
+
+        // Picks up records appended after it reached the end
+        writer.append(record(201));
+        assertThat(reader.read(10).getFirst().sequence()).isEqualTo(201L);
+    }
+
+    @Test
+    void reopeningContinuesAfterTheLastIntactRecord() throws Exception {
+        AuditSegmentWriter writer = new AuditSegmentWriter(dir, SMALL_SEGMENT, 16, () -> 0);
+        for (int i = 1; i <= 3; i++) {
+            writer.append(record(i));
+        }
+        writer.force();
+        tearLastRecord(AuditFormat.segments(dir).getLast());
+
+        AuditSegmentWriter reopened = new AuditSegmentWriter(dir, SMALL_SEGMENT, 16, () -> 0);
+        assertThat(reopened.getLogId()).isEqualTo(writer.getLogId());
+        assertThat(reopened.getLastSequence()).isEqualTo(2L);
+        assertThat(reopened.append(record(30))).isEqualTo(3L);
+
+        AuditReader reader = new AuditReader(dir);
+        reader.seekAfter(2);
+        List<AuditRecord> read = reader.read(10);
+        assertThat(read.size()).isEqualTo(1);
+        assertThat(read.getFirst().userId()).isEqualTo(30L);
+    }
+
+    @Test
+    void deletesOnlyShippedSegmentsBeyondRetention() throws Exception {
+        AtomicLong shipped = new AtomicLong();
+        AuditSegmentWriter writer = new AuditSegmentWriter(dir, SMALL_SEGMENT, 2, shipped::get);
+        for (int i = 1; i <= 200; i++) {
+            writer.append(record(i));
+        }
+        // Nothing shipped yet, so nothing deleted
+        assertThat(AuditFormat.segments(dir).size() > 5).isTrue();
+
+        shipped.set(100);
+        for (int i = 201; i <= 230; i++) {
+            writer.append(record(i));
+        }
+        Path oldest = AuditFormat.segments(dir).getFirst();
+        assertThat(AuditFormat.firstSequence(oldest) <= 101).isTrue();
+        assertThat(AuditFormat.segments(dir).size() > 2).isTrue();
+
+        // As with shipping turned off
+        shipped.set(Long.MAX_VALUE);
+        for (int i = 231; i <= 260; i++) {
+            writer.append(record(i));
+        }
+        assertThat(AuditFormat.segments(dir).size()).isEqualTo(2);
+        AuditReader reader = new AuditReader(dir);
+        reader.seekAfter(0);
+        assertThat(reader.read(1_000).getLast().sequence()).isEqualTo(260L);
+    }
+
+    @Test
+    void ringHandsOverEveryRecordFromConcurrentProducers() throws Exception {
+        AuditRing ring = new AuditRing(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    AuditRecord record = record(base + i);
+                    while (!ring.offer(record)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Each producer's records come out in the order it offered them
+        long[] last = new long[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            AuditRecord record = ring.poll();
+            if (record == null) {
+                continue;
+            }
+            int producer = (int) ((record.userId() - 1) / perProducer);
+            assertThat(record.userId() > last[producer]).isTrue();
+            last[producer] = record.userId();
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(ring.poll()).isNull();
+        assertThat(ring.size()).isZero();
+    }
+
+    private static AuditRecord record(long userId) {
+        return new AuditRecord(0, Instant.ofEpochMilli(1_700_000_000_000L + userId), AuditAction.LOGIN, null,
+                userId, "user" + userId + "@fittrack.test", "198.51.100.7");
+    }
+
+    // Flips a byte inside the last record, as a crash mid-write could leave it
+    private static void tearLastRecord(Path segment) throws Exception {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer, 0);
+            int position = AuditFormat.SEGMENT_HEADER_BYTES;
+            int last = position;
+            while (buffer.getInt(position) != 0) {
+                last = position;
+                position += buffer.getInt(position);
+            }
+            int target = last + AuditFormat.RECORD_HEADER_BYTES;
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~buffer.get(target)}), target);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.fit_track.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two cache managers sharing one in-process remote tier stand in for two nodes.
+ */
+class TieredCacheTest {
+
+    record Profile(String email, int version) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile int currentVersion = 1;
+
+    private LocalRemoteCache remote;
+    private TieredCacheManager nodeA;
+    private TieredCacheManager nodeB;
+    private TieredCache<Profile> cacheA;
+    private TieredCache<Profile> cacheB;
+
+    @BeforeEach
+    void createNodes() {
+        remote = new LocalRemoteCache();
+        nodeA = new TieredCacheManager(remote, objectMapper, new SimpleMeterRegistry(), Duration.ofMillis(50));
+        nodeB = new TieredCacheManager(remote, objectMapper, new SimpleMeterRegistry(), Duration.ofMillis(50));
+        cacheA = nodeA.create("profiles", Profile.class, Duration.ofMinutes(1), Duration.ofMinutes(5), 1_000);
+        cacheB = nodeB.create("profiles", Profile.class, Duration.ofMinutes(1), Duration.ofMinutes(5), 1_000);
+    }
+
+    @Test
+    void secondNodeIsServedFromSharedTier() {
+        assertThat(cacheA.get("a@fittrack.test", this::load).version()).isEqualTo(1);
+        assertThat(cacheB.get("a@fittrack.test", this::load).version()).isEqualTo(1);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidationOnOneNodeReachesTheOther() {
+        cacheA.get("a@fittrack.test", this::load);
+        cacheB.get("a@fittrack.test", this::load);
+
+        currentVersion = 2;
+        nodeA.invalidate("profiles", "a@fittrack.test");
+
+        assertThat(cacheB.get("a@fittrack.test", this::load).version()).isEqualTo(2);
+        assertThat(cacheA.get("a@fittrack.test", this::load).version()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void listenersHearInvalidationsFromOtherNodes() {
+        List<String> heard = new ArrayList<>();
+        nodeB.addListener("token-version", heard::add);
+
+        nodeA.invalidate("token-version", "42");
+
+        assertThat(heard).containsExactly("42");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Profile>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> cacheA.get("hot@fittrack.test", key -> {
+                loading.countDown();
+                await(release);
+                return load(key);
+            })));
+            loading.await();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> cacheA.get("hot@fittrack.test", this::load)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Profile> result : results) {
+                assertThat(result.get().email()).isEqualTo("hot@fittrack.test");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void errorFromTheLoadReachesCoalescedCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Profile> first = executor.submit(() -> cacheA.get("hot@fittrack.test", key -> {
+                loading.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            loading.await();
+            Future<Profile> waiter = executor.submit(() -> cacheA.get("hot@fittrack.test", this::load));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(first::get).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> waiter.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        }
+        assertThat(cacheA.get("hot@fittrack.test", this::load).email()).isEqualTo("hot@fittrack.test");
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        cacheA.get("a@fittrack.test", key -> {
+            Profile stale = load(key);
+            nodeB.invalidate("profiles", key);
+            return stale;
+        });
+
+        currentVersion = 2;
+        assertThat(cacheA.get("a@fittrack.test", this::load).version()).isEqualTo(2);
+    }
+
+    @Test
+    void staleWriteBackAfterInvalidationIsDeletedAgain() throws Exception {
+        cacheB.get("a@fittrack.test", this::load);
+
+        currentVersion = 2;
+        nodeA.invalidate("profiles", "a@fittrack.test");
+        // A node whose load overlapped the change writes the old row back after hearing of it
+        remote.put("fittrack:profiles:a@fittrack.test",
+                objectMapper.writeValueAsBytes(new Profile("a@fittrack.test", 1)), Duration.ofMinutes(5));
+        Thread.sleep(200);
+
+        assertThat(cacheA.get("a@fittrack.test", this::load).version()).isEqualTo(2);
+    }
+
+    private Profile load(String email) {
+        loads.incrementAndGet();
+        return new Profile(email, currentVersion);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.fit_track.datasource;
+
+import com.fit_track.cache.LocalRemoteCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTrackerTest {
+
+    private final LocalRemoteCache remoteCache = new LocalRemoteCache();
+    private final ReadYourWritesTracker node = new ReadYourWritesTracker(Duration.ofSeconds(5), remoteCache);
+    private final ReadYourWritesTracker otherNode = new ReadYourWritesTracker(Duration.ofSeconds(5), remoteCache);
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writesAreStickyOnEveryNode() {
+        node.markWrite("Runner@FitTrack.test ");
+
+        assertThat(node.isSticky("runner@fittrack.test")).isTrue();
+        assertThat(otherNode.isSticky("runner@fittrack.test")).isTrue();
+        assertThat(otherNode.isSticky("someone-else@fittrack.test")).isFalse();
+    }
+
+    @Test
+    void boundUserDecidesWithoutASecurityContext() {
+        node.markWrite("runner@fittrack.test");
+
+        assertThat(node.isCurrentUserSticky()).isFalse();
+        assertThat(node.readAs("runner@fittrack.test", node::isCurrentUserSticky)).isTrue();
+        assertThat(node.isCurrentUserSticky()).isFalse();
+    }
+
+    @Test
+    void boundUserTakesPrecedenceOverThePrincipal() {
+        node.markWrite("writer@fittrack.test");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer@fittrack.test", null, List.of()));
+
+        assertThat(node.isCurrentUserSticky()).isTrue();
+        assertThat(node.readAs("reader@fittrack.test", node::isCurrentUserSticky)).isFalse();
+    }
+}
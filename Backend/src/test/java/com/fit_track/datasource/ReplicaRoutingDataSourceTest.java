@@ -0,0 +1,175 @@
+package com.fit_track.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static HikariDataSource primaryPool;
+    private static HikariDataSource replicaPool;
+    private static ReadYourWritesTracker tracker;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate readWrite;
+    private static TransactionTemplate readOnly;
+
+    @BeforeAll
+    static void setUp() {
+        primaryPool = pool(primary);
+        replicaPool = pool(replica);
+        new JdbcTemplate(primaryPool).execute("CREATE TABLE node AS SELECT 'primary'::text AS name");
+        new JdbcTemplate(replicaPool).execute("CREATE TABLE node AS SELECT 'replica'::text AS name");
+        // The replica never receives these rows: it lags for the whole test
+        for (HikariDataSource pool : List.of(primaryPool, replicaPool)) {
+            new JdbcTemplate(pool).execute("CREATE TABLE account (email text PRIMARY KEY, verified boolean)");
+        }
+
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(tracker);
+        routing.setTargetDataSources(Map.<Object, Object>of(
+                ReplicaRoutingDataSource.Route.PRIMARY, primaryPool,
+                ReplicaRoutingDataSource.Route.REPLICA, replicaPool
+        ));
+        routing.setDefaultTargetDataSource(primaryPool);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        primaryPool.close();
+        replicaPool.close();
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsGoToPrimary() {
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void workOutsideTransactionsGoesToPrimary() {
+        assertThat(currentNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void recentWriterReadsOwnWritesFromPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer@fittrack.test", null, List.of()));
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+
+        tracker.markWrite("Writer@FitTrack.test");
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void otherUsersAreNotAffectedByStickiness() {
+        tracker.markWrite("someone-else@fittrack.test");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("reader@fittrack.test", null, List.of()));
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void loginRightAfterRegisterFindsTheAccount() {
+        // Register: a write on the primary, no security context
+        String email = "new-user@fittrack.test";
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO account VALUES (?, false)", email));
+        tracker.markWrite(email);
+
+        // Login: read-only, attributed to the email in the request
+        Integer found = tracker.readAs(email, () -> readOnly.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM account WHERE email = ?", Integer.class, email)));
+
+        assertThat(found).isEqualTo(1);
+    }
+
+    @Test
+    void verifyRightAfterRegisterUpdatesTheAccount() {
+        String email = "verifying@fittrack.test";
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO account VALUES (?, false)", email));
+
+        // Load and save in one read-write transaction, as AuthService.verifyEmail does
+        Integer updated = readWrite.execute(status -> {
+            Boolean verified = jdbcTemplate.queryForObject(
+                    "SELECT verified FROM account WHERE email = ?", Boolean.class, email);
+            return Boolean.TRUE.equals(verified) ? 0
+                    : jdbcTemplate.update("UPDATE account SET verified = true WHERE email = ?", email);
+        });
+
+        assertThat(updated).isEqualTo(1);
+    }
+
+    @Test
+    void workOnAnotherThreadFollowsTheBoundUser() throws Exception {
+        tracker.markWrite("forking@fittrack.test");
+
+        CompletableFuture<String> node = CompletableFuture.supplyAsync(
+                () -> tracker.readAs("forking@fittrack.test", () -> nodeIn(readOnly)));
+
+        assertThat(node.get()).isEqualTo("primary");
+    }
+
+    private static String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> currentNode());
+    }
+
+    private static String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
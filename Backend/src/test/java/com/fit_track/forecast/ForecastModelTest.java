@@ -0,0 +1,115 @@
+package com.fit_track.forecast;
+
+import com.fit_track.entity.User;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.service.UserProfile;
+import com.fit_track.streak.StreakRules;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ForecastModelTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 5);
+
+    private final ForecastModel model = new ForecastModel(new StreakRules(0.1, 3), 0.1, 0.05, 10, 0.05, 730, 14, 7);
+
+    @Test
+    void trendFollowsNoisyLossAndShrugsOffOutliers() {
+        Random random = new Random(7);
+        List<WeighIn> weighIns = new ArrayList<>();
+        for (int day = 0; day < 120; day += 1 + random.nextInt(3)) {
+            double weight = 90 - 0.08 * day + random.nextGaussian() * 0.6;
+            weighIns.add(new WeighIn(1L, START.plusDays(day), day == 60 ? weight + 6 : weight));
+        }
+
+        WeightTrend trend = model.fit(weighIns);
+
+        long lastDay = weighIns.getLast().measuredOn().toEpochDay() - START.toEpochDay();
+        assertThat(trend.getSlope()).isCloseTo(-0.08, within(0.02));
+        assertThat(trend.getLevel()).isCloseTo(90 - 0.08 * lastDay, within(0.8));
+    }
+
+    @Test
+    void incrementalUpdatesRefuseWeighInsNotAfterTheLatest() {
+        WeightTrend trend = model.fit(List.of(
+                new WeighIn(1L, START, 80.0),
+                new WeighIn(1L, START.plusDays(2), 79.6)));
+
+        assertThat(model.update(trend, new WeighIn(1L, START.plusDays(2), 79.2))).isFalse();
+        assertThat(model.update(trend, new WeighIn(1L, START.plusDays(1), 79.8))).isFalse();
+        assertThat(trend.getPoints()).isEqualTo(2);
+        assertThat(model.update(trend, new WeighIn(1L, START.plusDays(3), 79.4))).isTrue();
+        assertThat(trend.getPoints()).isEqualTo(3);
+    }
+
+    @Test
+    void calorieDeficitAloneGivesEta() {
+        // Maintenance is 2759 kcal; 770 kcal under it is 0.1 kg a day
+        WeightForecast forecast = model.forecast(new WeightTrend(), profile(80.0, 75.0, User.Goal.LOSE_WEIGHT),
+                OptionalDouble.of(1989), START);
+
+        assertThat(forecast.basis()).isEqualTo(WeightForecast.Basis.CALORIES);
+        assertThat(forecast.kgPerWeek()).isCloseTo(-0.7, within(0.001));
+        assertThat(forecast.eta()).isEqualTo(START.plusDays(50));
+        assertThat(forecast.reached()).isFalse();
+    }
+
+    @Test
+    void weighInsOutweighCaloriesAsTheyAccumulate() {
+        List<WeighIn> weighIns = new ArrayList<>();
+        for (int day = 0; day < 60; day++) {
+            weighIns.add(new WeighIn(1L, START.plusDays(day), 80 - 0.05 * day));
+        }
+        UserProfile profile = profile(80.0, 70.0, User.Goal.LOSE_WEIGHT);
+
+        WeightForecast few = model.forecast(model.fit(weighIns.subList(0, 5)), profile, OptionalDouble.of(1989),
+                START.plusDays(4));
+        WeightForecast many = model.forecast(model.fit(weighIns), profile, OptionalDouble.of(1989),
+                START.plusDays(59));
+
+        assertThat(few.basis()).isEqualTo(WeightForecast.Basis.BLENDED);
+        // Calories alone say -0.7 kg a week, the weigh-ins -0.35
+        assertThat(few.kgPerWeek()).isLessThan(-0.5);
+        assertThat(many.kgPerWeek()).isCloseTo(-0.35, within(0.07));
+    }
+
+    @Test
+    void trendAwayFromTargetHasNoEta() {
+        WeightTrend trend = model.fit(List.of(
+                new WeighIn(1L, START, 80.0),
+                new WeighIn(1L, START.plusDays(7), 80.5),
+                new WeighIn(1L, START.plusDays(14), 81.0)));
+
+        WeightForecast forecast = model.forecast(trend, profile(80.0, 75.0, User.Goal.LOSE_WEIGHT),
+                OptionalDouble.empty(), START.plusDays(14));
+
+        assertThat(forecast.basis()).isEqualTo(WeightForecast.Basis.WEIGH_INS);
+        assertThat(forecast.eta()).isNull();
+    }
+
+    @Test
+    void passingTheTargetCountsAsReached() {
+        WeightTrend trend = model.fit(List.of(
+                new WeighIn(1L, START, 75.5),
+                new WeighIn(1L, START.plusDays(7), 74.0)));
+
+        WeightForecast forecast = model.forecast(trend, profile(80.0, 75.0, User.Goal.LOSE_WEIGHT),
+                OptionalDouble.empty(), START.plusDays(7));
+
+        assertThat(forecast.reached()).isTrue();
+        assertThat(forecast.eta()).isEqualTo(START.plusDays(7));
+    }
+
+    private static UserProfile profile(Double weight, Double target, User.Goal goal) {
+        return new UserProfile(1L, "user@fittrack.test", "Test", "User", true, true,
+                goal, User.ActivityLevel.MODERATELY_ACTIVE, weight, target, 180, 30, User.Gender.MALE);
+    }
+}
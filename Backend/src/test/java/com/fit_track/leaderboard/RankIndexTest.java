@@ -0,0 +1,92 @@
+package com.fit_track.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankIndexTest {
+
+    @Test
+    void tiesShareARankAndUnscoredUsersAreUnranked() {
+        RankIndex index = new RankIndex(100);
+        index.set(1, 30);
+        index.set(2, 50);
+        index.set(3, 30);
+        index.set(4, 10);
+
+        assertThat(index.rank(2)).isEqualTo(1);
+        assertThat(index.rank(1)).isEqualTo(2);
+        assertThat(index.rank(3)).isEqualTo(2);
+        assertThat(index.rank(4)).isEqualTo(4);
+        assertThat(index.rank(5)).isEqualTo(0);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void scoreChangesMoveUsersAndZeroRemovesThem() {
+        RankIndex index = new RankIndex(100);
+        index.set(1, 30);
+        index.set(2, 50);
+        index.set(1, 70);
+        index.set(2, 0);
+
+        assertThat(index.rank(1)).isEqualTo(1);
+        assertThat(index.rank(2)).isEqualTo(0);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.top(10)).isEqualTo(List.of(new RankIndex.Entry(1, 70, 1)));
+    }
+
+    @Test
+    void scoresAboveTheMaximumRankAsTheMaximum() {
+        RankIndex index = new RankIndex(7);
+        index.set(1, 12);
+
+        assertThat(index.score(1)).isEqualTo(7);
+    }
+
+    @Test
+    void topMatchesASortOfEveryScore() {
+        Random random = new Random(3);
+        int[] scores = new int[5_000];
+        RankIndex index = new RankIndex(1000);
+        for (int update = 0; update < 20_000; update++) {
+            int user = random.nextInt(scores.length);
+            scores[user] = random.nextInt(4) == 0 ? 0 : random.nextInt(1001);
+            index.set(user, scores[user]);
+        }
+
+        List<RankIndex.Entry> top = index.top(100);
+
+        assertThat(top.size()).isEqualTo(100);
+        for (RankIndex.Entry entry : top) {
+            assertThat(entry.score()).isEqualTo(scores[(int) entry.userId()]);
+            int ahead = 0;
+            for (int score : scores) {
+                if (score > entry.score()) {
+                    ahead++;
+                }
+            }
+            assertThat(entry.rank()).isEqualTo(ahead + 1);
+            assertThat(index.rank(entry.userId())).isEqualTo(entry.rank());
+        }
+    }
+
+    @Test
+    void snapshotRestoresEveryScore() {
+        RankIndex index = new RankIndex(3650);
+        index.set(1, 5);
+        index.set(2_000_000, 3650);
+        index.set(17, 120);
+
+        RankIndex restored = new RankIndex(3650);
+        restored.set(99, 1);
+        restored.restore(index.snapshot());
+
+        assertThat(restored.size()).isEqualTo(3);
+        assertThat(restored.score(99)).isEqualTo(0);
+        assertThat(restored.top(3)).isEqualTo(index.top(3));
+    }
+}
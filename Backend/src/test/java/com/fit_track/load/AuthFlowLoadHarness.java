@@ -0,0 +1,266 @@
+package com.fit_track.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives register → verify-email → onboarding → login → authenticated GET for
+ * many users against a real server, a containerized Postgres and an in-process
+ * SMTP sink. Each endpoint runs as its own phase so its latency and allocation
+ * are measured in isolation. Results are printed and written to
+ * {@code target/load-test/<name>.json}.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class AuthFlowLoadHarness {
+
+    private static final int USERS = Integer.getInteger("load.users", 500);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int READS_PER_USER = Integer.getInteger("load.readsPerUser", 20);
+    private static final Pattern VERIFICATION_CODE = Pattern.compile("verification code is: (\\d{6})");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withPerMethodLifecycle(false);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> ServerSetupTest.SMTP.getPort());
+        registry.add("security.jwt.secret-key", () -> "load-test-secret-key-that-is-at-least-256-bits-long!!");
+        registry.add("security.jwt.expiration", () -> "86400000");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Name used in the report and its output file.
+     */
+    protected abstract String stackName();
+
+    @Test
+    void authFlow() throws Exception {
+        String runId = Long.toString(System.nanoTime(), 36);
+        List<String> emails = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            emails.add("load-" + runId + "-" + i + "@fittrack.test");
+        }
+        Map<String, String> tokens = new ConcurrentHashMap<>();
+        List<PhaseStats> phases = new ArrayList<>();
+
+        phases.add(runPhase("POST /api/auth/register", USERS, i -> post("/api/auth/register", Map.of(
+                "email", emails.get(i),
+                "password", "load-test-password",
+                "firstName", "Load",
+                "lastName", "User" + i
+        ), null)));
+
+        Map<String, String> codes = awaitVerificationCodes(USERS);
+
+        phases.add(runPhase("POST /api/auth/verify-email", USERS, i -> {
+            String email = emails.get(i);
+            HttpResponse<String> response = post("/api/auth/verify-email",
+                    Map.of("email", email, "code", codes.getOrDefault(email, "000000")), null);
+            storeToken(tokens, email, response);
+            return response;
+        }));
+
+        phases.add(runPhase("POST /api/auth/onboarding", USERS, i -> {
+            String email = emails.get(i);
+            HttpResponse<String> response = post("/api/auth/onboarding", Map.of(
+                    "goal", "LOSE_WEIGHT",
+                    "activityLevel", "MODERATELY_ACTIVE",
+                    "currentWeight", 82.5,
+                    "targetWeight", 75.0,
+                    "height", 178,
+                    "age", 34,
+                    "gender", "OTHER"
+            ), tokens.get(email));
+            storeToken(tokens, email, response);
+            return response;
+        }));
+
+        phases.add(runPhase("POST /api/auth/login", USERS, i -> {
+            String email = emails.get(i);
+            HttpResponse<String> response = post("/api/auth/login",
+                    Map.of("email", email, "password", "load-test-password"), null);
+            storeToken(tokens, email, response);
+            return response;
+        }));
+
+        phases.add(runPhase("GET /api/auth/me", USERS * READS_PER_USER,
+                i -> get("/api/auth/me", tokens.get(emails.get(i % USERS)))));
+
+        report(phases);
+
+        for (PhaseStats phase : phases) {
+            assertThat(phase.errors()).as(phase.endpoint() + " errors").isZero();
+        }
+    }
+
+    private PhaseStats runPhase(String endpoint, int requests, IntFunction<HttpResponse<String>> call)
+            throws InterruptedException {
+        PhaseStats stats = new PhaseStats(endpoint, requests);
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        stats.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                final int index = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long start = System.nanoTime();
+                    boolean success = false;
+                    try {
+                        HttpResponse<String> response = call.apply(index);
+                        success = response.statusCode() / 100 == 2;
+                    } catch (RuntimeException e) {
+                        success = false;
+                    } finally {
+                        stats.record(System.nanoTime() - start, success);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        stats.stop();
+        return stats;
+    }
+
+    private Map<String, String> awaitVerificationCodes(int expected) throws Exception {
+        assertThat(smtp.waitForIncomingEmail(Duration.ofMinutes(2).toMillis(), expected))
+                .as("verification emails delivered")
+                .isTrue();
+
+        Map<String, String> codes = new ConcurrentHashMap<>();
+        for (MimeMessage message : smtp.getReceivedMessages()) {
+            Matcher matcher = VERIFICATION_CODE.matcher(GreenMailUtil.getBody(message));
+            String code = null;
+            while (matcher.find()) {
+                code = matcher.group(1);
+            }
+            if (code != null) {
+                // Latest message wins, matching the code stored for the user
+                codes.put(message.getAllRecipients()[0].toString(), code);
+            }
+        }
+        return codes;
+    }
+
+    private void storeToken(Map<String, String> tokens, String email, HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            tokens.put(email, body.get("token").asText());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<String> post(String path, Object body, String token) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            return send(request, token);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<String> get(String path, String token) {
+        return send(HttpRequest.newBuilder(uri(path)).GET(), token);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String token) {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void report(List<PhaseStats> phases) throws IOException {
+        System.out.printf("%n%s auth flow: %d users, concurrency %d%n", stackName(), USERS, CONCURRENCY);
+        System.out.printf("%-30s %8s %6s %10s %9s %9s %9s %12s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "alloc B/req", "alloc MB/s");
+        List<Map<String, Object>> json = new ArrayList<>();
+        for (PhaseStats phase : phases) {
+            System.out.printf("%-30s %8d %6d %10.1f %9.2f %9.2f %9.2f %12.0f %10.1f%n",
+                    phase.endpoint(), phase.requests(), phase.errors(), phase.throughput(),
+                    phase.percentileMillis(0.50), phase.percentileMillis(0.99), phase.percentileMillis(0.999),
+                    phase.allocatedBytesPerRequest(), phase.allocationRateMbPerSecond());
+            json.add(phase.toMap());
+        }
+
+        Path output = Path.of("target", "load-test", stackName() + ".json");
+        Files.createDirectories(output.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), Map.of(
+                "stack", stackName(),
+                "users", USERS,
+                "concurrency", CONCURRENCY,
+                "phases", json
+        ));
+    }
+}
@@ -0,0 +1,213 @@
+package com.fit_track.load;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sweeps Hikari pool sizes against a containerized Postgres with a login-storm
+ * workload (email lookups plus a fraction of verification-code updates) and
+ * reports the size with the best throughput for this machine's core count.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+class HikariPoolSizingLoadTest {
+
+    private static final int USERS = 50_000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void seed() throws Exception {
+        try (Connection connection = postgres.createConnection("");
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE users (
+                        id BIGSERIAL PRIMARY KEY,
+                        email VARCHAR(100) UNIQUE NOT NULL,
+                        password VARCHAR(120) NOT NULL,
+                        first_name VARCHAR(50) NOT NULL,
+                        last_name VARCHAR(50) NOT NULL,
+                        email_verified BOOLEAN NOT NULL DEFAULT FALSE,
+                        verification_code VARCHAR(255),
+                        verification_code_expires_at TIMESTAMP
+                    )""");
+            statement.execute("""
+                    INSERT INTO users (email, password, first_name, last_name, email_verified)
+                    SELECT 'user' || g || '@fittrack.test', repeat('x', 60), 'First', 'Last', g % 10 <> 0
+                    FROM generate_series(1, %d) g""".formatted(USERS));
+            statement.execute("ANALYZE users");
+        }
+    }
+
+    @Test
+    void findOptimalPoolSize() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int clients = cores * 16;
+        int[] candidates = Arrays.stream(new int[]{2, cores, cores * 2, cores * 2 + 1, cores * 4, cores * 8})
+                .distinct().sorted().toArray();
+
+        List<Result> results = new ArrayList<>();
+        for (int poolSize : candidates) {
+            results.add(run(poolSize, clients));
+        }
+
+        System.out.printf("%nHikari pool sizing (%d cores, %d concurrent clients)%n", cores, clients);
+        System.out.printf("%-10s %14s %12s %12s%n", "pool", "ops/s", "p50 (ms)", "p99 (ms)");
+        for (Result result : results) {
+            System.out.printf("%-10d %14.0f %12.2f %12.2f%n",
+                    result.poolSize, result.throughput, result.p50Millis, result.p99Millis);
+        }
+
+        Result best = results.stream()
+                .max((a, b) -> Double.compare(a.throughput, b.throughput))
+                .orElseThrow();
+        System.out.printf("Recommended DB_POOL_SIZE=%d%n", best.poolSize);
+
+        assertThat(best.throughput).isPositive();
+    }
+
+    private Result run(int poolSize, int clients) throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(30_000);
+        config.addDataSourceProperty("prepareThreshold", "3");
+        config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            drive(dataSource, clients, WARMUP, null);
+            LatencyRecorder recorder = new LatencyRecorder(clients);
+            long operations = drive(dataSource, clients, MEASURE, recorder);
+            return new Result(poolSize,
+                    operations / (double) MEASURE.toSeconds(),
+                    recorder.percentileMillis(0.50),
+                    recorder.percentileMillis(0.99));
+        }
+    }
+
+    private long drive(HikariDataSource dataSource, int clients, Duration duration, LatencyRecorder recorder)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong operations = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                final int client = i;
+                executor.submit(() -> {
+                    while (running.get()) {
+                        long start = System.nanoTime();
+                        try {
+                            execute(dataSource);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        if (recorder != null) {
+                            recorder.record(client, System.nanoTime() - start);
+                        }
+                        operations.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            TimeUnit.MILLISECONDS.sleep(duration.toMillis());
+            running.set(false);
+        }
+        return operations.get();
+    }
+
+    private void execute(HikariDataSource dataSource) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = "user" + (random.nextInt(USERS) + 1) + "@fittrack.test";
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (random.nextInt(10) == 0) {
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE users SET verification_code = ?, verification_code_expires_at = now() + interval '15 minutes' WHERE email = ?")) {
+                    update.setString(1, String.format("%06d", random.nextInt(1_000_000)));
+                    update.setString(2, email);
+                    update.executeUpdate();
+                }
+            } else {
+                try (PreparedStatement query = connection.prepareStatement(
+                        "SELECT id, email, password, email_verified FROM users WHERE email = ?")) {
+                    query.setString(1, email);
+                    try (ResultSet resultSet = query.executeQuery()) {
+                        resultSet.next();
+                    }
+                }
+            }
+        }
+    }
+
+    private record Result(int poolSize, double throughput, double p50Millis, double p99Millis) {
+    }
+
+    /**
+     * Per-client latency buffers so recording never contends; merged once at the end.
+     */
+    private static final class LatencyRecorder {
+
+        private final long[][] samples;
+        private final int[] counts;
+
+        LatencyRecorder(int clients) {
+            this.samples = new long[clients][1 << 16];
+            this.counts = new int[clients];
+        }
+
+        void record(int client, long nanos) {
+            int index = counts[client]++ & (samples[client].length - 1);
+            samples[client][index] = nanos;
+        }
+
+        double percentileMillis(double percentile) {
+            int total = 0;
+            for (int i = 0; i < samples.length; i++) {
+                total += Math.min(counts[i], samples[i].length);
+            }
+            long[] merged = new long[total];
+            int offset = 0;
+            for (int i = 0; i < samples.length; i++) {
+                int length = Math.min(counts[i], samples[i].length);
+                System.arraycopy(samples[i], 0, merged, offset, length);
+                offset += length;
+            }
+            if (merged.length == 0) {
+                return 0;
+            }
+            Arrays.sort(merged);
+            int index = (int) Math.min(merged.length - 1, Math.ceil(percentile * merged.length) - 1);
+            return merged[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
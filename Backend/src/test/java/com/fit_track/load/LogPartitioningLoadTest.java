@@ -0,0 +1,170 @@
+package com.fit_track.load;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads the same food log rows into the partitioned {@code food_logs} table
+ * (schema from the Flyway migrations) and an unpartitioned copy, then compares
+ * the latency of the repository's per-user date-range query on both and checks
+ * that the planner prunes to a single partition.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+class LogPartitioningLoadTest {
+
+    private static final int ROWS = Integer.getInteger("load.partitionRows", 10_000_000);
+    private static final int USERS = Integer.getInteger("load.partitionUsers", 100_000);
+    private static final int QUERIES = Integer.getInteger("load.partitionQueries", 5_000);
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final Pattern PARTITION_SCAN = Pattern.compile("on (food_logs_p\\d+|weigh_ins_\\w+)");
+
+    private static final String RANGE_QUERY = """
+            SELECT id, user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g
+            FROM %s
+            WHERE user_id = ? AND logged_on BETWEEN ? AND ?
+            ORDER BY logged_on, id""";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=512MB", "-c", "max_wal_size=4GB");
+
+    @BeforeAll
+    static void seed() throws Exception {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        try (Connection connection = postgres.createConnection("");
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE food_logs_flat (LIKE food_logs INCLUDING DEFAULTS, PRIMARY KEY (id))""");
+            statement.execute("CREATE INDEX idx_food_logs_flat_user_logged_on ON food_logs_flat (user_id, logged_on)");
+
+            // Synthetic user ids have no users row to take change sequences from
+            statement.execute("SET session_replication_role = replica");
+            long start = System.nanoTime();
+            statement.execute("""
+                    INSERT INTO food_logs (user_id, logged_on, meal, name, calories, protein_g, carbs_g, fat_g)
+                    SELECT 1 + (g %% %d), DATE '%s' + (g %% 365), 'LUNCH', 'Meal ' || (g %% 50),
+                           200 + (g %% 600), 20, 50, 10
+                    FROM generate_series(1, %d) g""".formatted(USERS, FIRST_DAY, ROWS));
+            statement.execute("INSERT INTO food_logs_flat SELECT * FROM food_logs");
+            statement.execute("ANALYZE food_logs");
+            statement.execute("ANALYZE food_logs_flat");
+            System.out.printf("Seeded %,d rows into each table in %d s%n",
+                    ROWS, (System.nanoTime() - start) / 1_000_000_000);
+        }
+    }
+
+    @Test
+    void partitionedRangeQueryPrunesAndIsNotSlower() throws Exception {
+        try (Connection connection = postgres.createConnection("")) {
+            assertThat(scannedPartitions(connection, RANGE_QUERY.formatted("food_logs"))).hasSize(1);
+
+            // Warm both tables equally before measuring
+            measure(connection, "food_logs_flat", QUERIES / 5);
+            measure(connection, "food_logs", QUERIES / 5);
+
+            long[] flat = measure(connection, "food_logs_flat", QUERIES);
+            long[] partitioned = measure(connection, "food_logs", QUERIES);
+
+            System.out.printf("%nPer-user 30-day food log query, %,d rows, %,d users%n", ROWS, USERS);
+            System.out.printf("%-14s %12s %12s %12s%n", "table", "p50 (ms)", "p99 (ms)", "max (ms)");
+            print("unpartitioned", flat);
+            print("partitioned", partitioned);
+
+            // Pruning should at worst cost a little planning time; allow noise
+            assertThat(percentileMillis(partitioned, 0.50)).isLessThan(percentileMillis(flat, 0.50) * 1.5 + 0.2);
+        }
+    }
+
+    @Test
+    void weighInRangeQueryPrunesToRequestedMonths() throws Exception {
+        try (Connection connection = postgres.createConnection("")) {
+            String query = """
+                    SELECT user_id, measured_on, weight_kg FROM weigh_ins
+                    WHERE user_id = ? AND measured_on BETWEEN ? AND ?""";
+            LocalDate month = LocalDate.now().withDayOfMonth(1);
+
+            assertThat(scannedPartitions(connection, query, month, month.plusMonths(1).minusDays(1)))
+                    .containsExactly("weigh_ins_" + "%04d%02d".formatted(month.getYear(), month.getMonthValue()));
+        }
+    }
+
+    private static long[] measure(Connection connection, String table, int queries) throws Exception {
+        long[] samples = new long[queries];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (PreparedStatement statement = connection.prepareStatement(RANGE_QUERY.formatted(table))) {
+            for (int i = 0; i < queries; i++) {
+                LocalDate from = FIRST_DAY.plusDays(random.nextInt(335));
+                statement.setLong(1, 1 + random.nextInt(USERS));
+                statement.setDate(2, Date.valueOf(from));
+                statement.setDate(3, Date.valueOf(from.plusDays(30)));
+
+                long start = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getLong(1);
+                    }
+                }
+                samples[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static String[] scannedPartitions(Connection connection, String query) throws Exception {
+        return scannedPartitions(connection, query, FIRST_DAY, FIRST_DAY.plusDays(30));
+    }
+
+    private static String[] scannedPartitions(Connection connection, String query, LocalDate from, LocalDate to)
+            throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query)) {
+            statement.setLong(1, 42);
+            statement.setDate(2, Date.valueOf(from));
+            statement.setDate(3, Date.valueOf(to));
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            Matcher matcher = PARTITION_SCAN.matcher(plan);
+            return matcher.results().map(result -> result.group(1)).distinct().toArray(String[]::new);
+        }
+    }
+
+    private static void print(String label, long[] sortedNanos) {
+        System.out.printf("%-14s %12.3f %12.3f %12.3f%n", label,
+                percentileMillis(sortedNanos, 0.50),
+                percentileMillis(sortedNanos, 0.99),
+                sortedNanos[sortedNanos.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
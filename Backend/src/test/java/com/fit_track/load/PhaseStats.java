@@ -0,0 +1,101 @@
+package com.fit_track.load;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency, throughput and allocation figures for one endpoint. Allocation is
+ * JVM-wide (server and in-process client), so it is meant for comparing runs
+ * of the same harness rather than as an absolute per-request cost.
+ */
+final class PhaseStats {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String endpoint;
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private long startNanos;
+    private long elapsedNanos;
+    private long startAllocatedBytes;
+    private long allocatedBytes;
+
+    PhaseStats(String endpoint, int expectedRequests) {
+        this.endpoint = endpoint;
+        this.latencies = new long[expectedRequests];
+    }
+
+    void start() {
+        System.gc();
+        startAllocatedBytes = THREADS.getTotalThreadAllocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        allocatedBytes = THREADS.getTotalThreadAllocatedBytes() - startAllocatedBytes;
+    }
+
+    void record(long nanos, boolean success) {
+        int index = recorded.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = nanos;
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    int requests() {
+        return Math.min(recorded.get(), latencies.length);
+    }
+
+    int errors() {
+        return errors.get();
+    }
+
+    double throughput() {
+        return elapsedNanos == 0 ? 0 : requests() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    double percentileMillis(double percentile) {
+        long[] sorted = Arrays.copyOf(latencies, requests());
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    double allocatedBytesPerRequest() {
+        return requests() == 0 ? 0 : allocatedBytes / (double) requests();
+    }
+
+    double allocationRateMbPerSecond() {
+        return elapsedNanos == 0 ? 0 : (allocatedBytes / 1_048_576.0) / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("endpoint", endpoint);
+        map.put("requests", requests());
+        map.put("errors", errors());
+        map.put("throughputPerSecond", throughput());
+        map.put("p50Millis", percentileMillis(0.50));
+        map.put("p99Millis", percentileMillis(0.99));
+        map.put("p999Millis", percentileMillis(0.999));
+        map.put("allocatedBytesPerRequest", allocatedBytesPerRequest());
+        map.put("allocationRateMbPerSecond", allocationRateMbPerSecond());
+        return map;
+    }
+}
@@ -0,0 +1,9 @@
+package com.fit_track.load;
+
+class ServletAuthFlowLoadTest extends AuthFlowLoadHarness {
+
+    @Override
+    protected String stackName() {
+        return "servlet";
+    }
+}
@@ -0,0 +1,99 @@
+package com.fit_track.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Runs the delivery engine against an in-process SMTP server.
+ */
+class MailDeliveryEngineTest {
+
+    private static final MailTemplate CODE = MailTemplate.compile("code",
+            "Your code", "Hi {name}, your verification code is: {code}", "name", "code");
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MailDeliveryEngine engine;
+
+    @BeforeEach
+    void startEngine() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new MailDeliveryEngine(mailSender, meterRegistry, "noreply@fittrack.test",
+                1_000, 50, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        engine.start();
+    }
+
+    @AfterEach
+    void stopEngine() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    void burstIsDeliveredOverOneConnection() {
+        int messages = 200;
+        for (int i = 0; i < messages; i++) {
+            assertThat(engine.submit(CODE, "user" + i + "@fittrack.test", "User " + i, "%06d".formatted(i)))
+                    .isEqualTo(MailDeliveryEngine.Submission.QUEUED);
+        }
+
+        assertThat(smtp.waitForIncomingEmail(10_000, messages)).isTrue();
+        MimeMessage first = smtp.getReceivedMessagesForDomain("user0@fittrack.test")[0];
+        assertThat(GreenMailUtil.getBody(first)).contains("Hi User 0, your verification code is: 000000");
+        assertThat(meterRegistry.counter("fittrack.mail.messages", "outcome", "sent").count()).isEqualTo(messages);
+        assertThat(meterRegistry.counter("fittrack.mail.connections.opened").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("fittrack.mail.delivery.latency").count()).isEqualTo(messages);
+    }
+
+    @Test
+    void identicalResendsWithinWindowAreCoalesced() {
+        String to = "spam@fittrack.test";
+        for (int i = 0; i < 20; i++) {
+            engine.submit(CODE, to, "Spam", "123456");
+        }
+        // A new code is a different message and still goes out
+        assertThat(engine.submit(CODE, to, "Spam", "654321")).isEqualTo(MailDeliveryEngine.Submission.QUEUED);
+
+        assertThat(smtp.waitForIncomingEmail(10_000, 2)).isTrue();
+        assertThat(smtp.getReceivedMessagesForDomain(to)).hasSize(2);
+        assertThat(meterRegistry.counter("fittrack.mail.messages", "outcome", "coalesced").count()).isEqualTo(19);
+    }
+
+    @Test
+    void reconnectsAfterServerRestart() throws Exception {
+        engine.submit(CODE, "before@fittrack.test", "Before", "111111");
+        assertThat(smtp.waitForIncomingEmail(10_000, 1)).isTrue();
+
+        smtp.stop();
+        smtp.start();
+
+        engine.submit(CODE, "after@fittrack.test", "After", "222222");
+        assertThat(smtp.waitForIncomingEmail(10_000, 1)).isTrue();
+        assertThat(meterRegistry.counter("fittrack.mail.connections.opened").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("fittrack.mail.messages", "outcome", "failed").count()).isZero();
+    }
+
+    @Test
+    void templateRejectsUndeclaredPlaceholder() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> MailTemplate.compile("broken", "Subject", "Hi {nmae}", "name"));
+    }
+}
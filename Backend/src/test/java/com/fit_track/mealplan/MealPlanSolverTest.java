@@ -0,0 +1,103 @@
+package com.fit_track.mealplan;
+
+import com.fit_track.entity.FoodLog;
+import com.fit_track.service.NutritionTargets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MealPlanSolverTest {
+
+    private final FoodCatalog catalog = shippedCatalog();
+    private final MealPlanSolver solver = new MealPlanSolver(catalog, 20_000);
+
+    @Test
+    void solvesCloseToTargetsWithTheShippedCatalog() {
+        NutritionTargets[] cases = {
+                new NutritionTargets(2759, 128, 389, 77),
+                new NutritionTargets(1200, 120, 106, 33),
+                new NutritionTargets(3200, 180, 380, 90)};
+
+        for (NutritionTargets targets : cases) {
+            MealPlan plan = solver.toPlan(solver.solve(targets, 1, Long.MAX_VALUE), targets);
+
+            NutritionTargets totals = plan.totals();
+            assertThat((double) totals.calories()).isCloseTo(targets.calories(), within(targets.calories() * 0.05));
+            assertThat((double) totals.proteinG()).isCloseTo(targets.proteinG(), within(targets.proteinG() * 0.1));
+            assertThat((double) totals.carbsG()).isCloseTo(targets.carbsG(), within(targets.carbsG() * 0.15));
+            assertThat((double) totals.fatG()).isCloseTo(targets.fatG(), within(targets.fatG() * 0.15));
+            for (MealPlan.Meal meal : plan.meals()) {
+                assertThat(meal.items()).hasSizeLessThanOrEqualTo(MealPlanSolver.ITEMS_PER_MEAL);
+                for (MealPlan.Item item : meal.items()) {
+                    assertThat(catalog.foods())
+                            .anyMatch(food -> food.name().equals(item.name()) && food.meals().contains(meal.meal()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void sameSeedGivesSamePlan() {
+        NutritionTargets targets = new NutritionTargets(2000, 120, 225, 56);
+
+        assertThat(solver.toPlan(solver.solve(targets, 7, Long.MAX_VALUE), targets))
+                .isEqualTo(solver.toPlan(solver.solve(targets, 7, Long.MAX_VALUE), targets));
+    }
+
+    @Test
+    void passedDeadlineReturnsTheStartingPlan() {
+        MealPlanSolver slow = new MealPlanSolver(catalog, Integer.MAX_VALUE);
+
+        MealPlan plan = slow.toPlan(slow.solve(NutritionTargets.DEFAULT, 1, System.nanoTime()), NutritionTargets.DEFAULT);
+
+        assertThat(plan.meals()).hasSize(FoodLog.Meal.values().length);
+        assertThat(plan.totals().calories()).isPositive();
+        assertThat(plan.partial()).isTrue();
+    }
+
+    @Test
+    void partialPlansAreNotCached() {
+        MealPlanner planner = new MealPlanner(new ClassPathResource("mealplan/foods.csv"), Integer.MAX_VALUE, 1, 1,
+                Duration.ofMillis(5), Duration.ofMillis(50), 100, new SimpleMeterRegistry());
+
+        MealPlan first = planner.dayPlan(NutritionTargets.DEFAULT, 0);
+        MealPlan second = planner.dayPlan(NutritionTargets.DEFAULT, 0);
+
+        assertThat(first.partial()).isTrue();
+        assertThat(second).isNotSameAs(first);
+        assertThat(planner.weekPlan(NutritionTargets.DEFAULT)).allMatch(MealPlan::partial);
+    }
+
+    @Test
+    void completePlansAreCached() {
+        MealPlanner planner = new MealPlanner(new ClassPathResource("mealplan/foods.csv"), 1_000, 1, 1,
+                Duration.ofSeconds(5), Duration.ofMillis(50), 100, new SimpleMeterRegistry());
+
+        MealPlan first = planner.dayPlan(NutritionTargets.DEFAULT, 0);
+
+        assertThat(first.partial()).isFalse();
+        assertThat(planner.dayPlan(NutritionTargets.DEFAULT, 0)).isSameAs(first);
+    }
+
+    @Test
+    void nearbyTargetsShareAPlanKey() {
+        assertThat(PlanKey.of(new NutritionTargets(2012, 121, 224, 57), 3))
+                .isEqualTo(PlanKey.of(new NutritionTargets(1990, 119, 226, 55), 3))
+                .isNotEqualTo(PlanKey.of(new NutritionTargets(1990, 119, 226, 55), 4));
+    }
+
+    private static FoodCatalog shippedCatalog() {
+        try (InputStream csv = MealPlanSolverTest.class.getResourceAsStream("/mealplan/foods.csv")) {
+            return FoodCatalog.load(csv);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
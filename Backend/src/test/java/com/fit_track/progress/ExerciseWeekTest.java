@@ -0,0 +1,71 @@
+package com.fit_track.progress;
+
+import com.fit_track.entity.WorkoutSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ExerciseWeekTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void oneRepMaxUsesBrzyckiUpToTenRepsAndEpleyAbove() {
+        assertThat(OneRepMax.estimate(1, 100)).isEqualTo(100);
+        assertThat(OneRepMax.estimate(5, 100)).isCloseTo(112.5, within(1e-9));
+        assertThat(OneRepMax.estimate(10, 100)).isCloseTo(OneRepMax.epley(10, 100), within(1e-9));
+        assertThat(OneRepMax.estimate(12, 100)).isCloseTo(140, within(1e-9));
+    }
+
+    @Test
+    void oneRepMaxSkipsSetsItCannotEstimate() {
+        assertThat(OneRepMax.estimate(10, 0)).isZero();
+        assertThat(OneRepMax.estimate(0, 100)).isZero();
+        assertThat(OneRepMax.estimate(OneRepMax.MAX_REPS + 1, 50)).isZero();
+    }
+
+    @Test
+    void weeksStartOnMonday() {
+        int week = ExerciseWeek.week(MONDAY);
+
+        assertThat(ExerciseWeek.week(MONDAY.plusDays(6))).isEqualTo(week);
+        assertThat(ExerciseWeek.week(MONDAY.minusDays(1))).isEqualTo(week - 1);
+        assertThat(ExerciseWeek.weekStart(week)).isEqualTo(MONDAY);
+    }
+
+    @Test
+    void namesMatchIgnoringCaseAndSpacing() {
+        assertThat(ExerciseWeek.nameKey("  Bench   Press ")).isEqualTo(ExerciseWeek.nameKey("bench press"));
+    }
+
+    @Test
+    void aggregatesTheWeekWhateverTheSetOrder() {
+        List<WorkoutSet> sets = new ArrayList<>(List.of(
+                set(MONDAY, 5, 100),
+                set(MONDAY.plusDays(2), 8, 90),
+                set(MONDAY.plusDays(4), 5, 100),
+                set(MONDAY.plusDays(4), 1, 105)));
+
+        ExerciseWeek week = ExerciseWeek.of(3, ExerciseWeek.week(MONDAY), sets);
+        Collections.reverse(sets);
+
+        assertThat(week.sets()).isEqualTo(4);
+        assertThat(week.reps()).isEqualTo(19);
+        assertThat(week.volumeKg()).isCloseTo(1825, within(1e-9));
+        assertThat(week.topWeightKg()).isEqualTo(105);
+        // 5 x 100 ties with itself on Friday; Monday's set came first
+        assertThat(week.bestE1rmKg()).isCloseTo(112.5, within(1e-9));
+        assertThat(week.bestE1rmOn()).isEqualTo(MONDAY);
+        assertThat(ExerciseWeek.of(3, week.week(), sets)).isEqualTo(week);
+    }
+
+    private static WorkoutSet set(LocalDate day, int reps, double weightKg) {
+        return new WorkoutSet(null, 1L, day, "Bench Press", WorkoutSet.MuscleGroup.CHEST, reps, weightKg);
+    }
+}
@@ -0,0 +1,121 @@
+package com.fit_track.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fit_track.dto.response.SyncResponse;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.Versioned;
+import com.fit_track.entity.WeighIn;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the change-sequence triggers from the V4 migration through the sync
+ * repository, against a real Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SyncRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final SyncRepository syncRepository = new SyncRepository();
+    private final FoodLogRepository foodLogRepository = new FoodLogRepository();
+    private Long userId;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+    }
+
+    @BeforeEach
+    void createUser() {
+        ReflectionTestUtils.setField(syncRepository, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(foodLogRepository, "jdbcTemplate", jdbcTemplate);
+        userId = jdbcTemplate.queryForObject("""
+                        INSERT INTO users (email, first_name, created_at) VALUES (?, 'Sam', now())
+                        RETURNING id""",
+                Long.class, "sync" + System.nanoTime() + "@fittrack.test");
+    }
+
+    @Test
+    void writesAndDeletesTakeIncreasingSequences() {
+        Versioned<FoodLog> first = syncRepository.saveFoodLog(food(null));
+        Versioned<WeighIn> weighIn = syncRepository.saveWeighIn(new WeighIn(userId, DAY, 80.5));
+        Versioned<FoodLog> edited = syncRepository.saveFoodLog(food(first.row().id()));
+        foodLogRepository.deleteByUserIdAndId(userId, first.row().id());
+
+        assertThat(first.seq()).isEqualTo(2);
+        assertThat(weighIn.seq()).isGreaterThan(first.seq());
+        assertThat(edited.seq()).isGreaterThan(weighIn.seq());
+
+        SyncRepository.Cursor cursor = syncRepository.findCursor(userId).orElseThrow();
+        assertThat(syncRepository.findFoodLogsSince(userId, 0, 10)).isEmpty();
+        assertThat(syncRepository.findWeighInsSince(userId, first.seq(), 10)).containsExactly(weighIn);
+        assertThat(syncRepository.findTombstonesSince(userId, edited.seq(), 10)).containsExactly(
+                new SyncRepository.Tombstone(cursor.seq(), "food", first.row().id().toString()));
+    }
+
+    @Test
+    void onlyProfileFieldsBumpTheProfileSequence() {
+        jdbcTemplate.update("UPDATE users SET token_version = token_version + 1, updated_at = now() WHERE id = ?",
+                userId);
+        assertThat(syncRepository.findCursor(userId).orElseThrow())
+                .isEqualTo(new SyncRepository.Cursor(1, 1, 0));
+
+        jdbcTemplate.update("UPDATE users SET target_weight = 75 WHERE id = ?", userId);
+        assertThat(syncRepository.findCursor(userId).orElseThrow())
+                .isEqualTo(new SyncRepository.Cursor(2, 2, 0));
+    }
+
+    @Test
+    void pruningRaisesTheHorizon() {
+        Versioned<FoodLog> log = syncRepository.saveFoodLog(food(null));
+        foodLogRepository.deleteByUserIdAndId(userId, log.row().id());
+        long deletedAt = syncRepository.findCursor(userId).orElseThrow().seq();
+
+        assertThat(syncRepository.pruneTombstones(LocalDateTime.now().plusMinutes(1), 100_000)).isPositive();
+        assertThat(syncRepository.findTombstonesSince(userId, 0, 10)).isEmpty();
+        assertThat(syncRepository.findCursor(userId).orElseThrow().horizon()).isEqualTo(deletedAt);
+    }
+
+    @Test
+    void responseRowsAreEncodedAsArrays() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Versioned<FoodLog> log = new Versioned<>(7, new FoodLog(3L, userId, DAY, FoodLog.Meal.LUNCH, "Rice", 200,
+                4, 45, 0.5));
+
+        assertThat(objectMapper.writeValueAsString(new SyncResponse(7, false, false, null,
+                List.of(), List.of(), List.of(), List.of()))).isEqualTo("{\"seq\":7}");
+        assertThat(objectMapper.writeValueAsString(SyncResponse.FoodRow.of(log)))
+                .isEqualTo("[3,7,\"2025-03-14\",\"LUNCH\",\"Rice\",200,4.0,45.0,0.5]");
+    }
+
+    private FoodLog food(Long id) {
+        return new FoodLog(id, userId, DAY, FoodLog.Meal.BREAKFAST, "Oats", 350, 12, 60, 6);
+    }
+}
@@ -0,0 +1,92 @@
+package com.fit_track.service;
+
+import com.fit_track.datasource.ReadYourWritesTracker;
+import com.fit_track.dto.response.DashboardResponse;
+import com.fit_track.repository.FoodLogRepository;
+import com.fit_track.repository.WeighInRepository;
+import com.fit_track.repository.WorkoutSetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private final UserProfileCache userProfileCache = mock(UserProfileCache.class);
+    private final FoodLogRepository foodLogRepository = mock(FoodLogRepository.class);
+    private final WorkoutSetRepository workoutSetRepository = mock(WorkoutSetRepository.class);
+    private final WeighInRepository weighInRepository = mock(WeighInRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final DashboardService service = new DashboardService();
+
+    @BeforeEach
+    void wire() {
+        ReflectionTestUtils.setField(service, "userProfileCache", userProfileCache);
+        ReflectionTestUtils.setField(service, "foodLogRepository", foodLogRepository);
+        ReflectionTestUtils.setField(service, "workoutSetRepository", workoutSetRepository);
+        ReflectionTestUtils.setField(service, "weighInRepository", weighInRepository);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "readYourWritesTracker", new ReadYourWritesTracker(Duration.ofSeconds(5)));
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "tileTimeout", Duration.ofSeconds(1));
+        service.init();
+
+        when(userProfileCache.findByEmail("user@fittrack.test")).thenReturn(Optional.of(new UserProfile(1L,
+                "user@fittrack.test", "Test", "User", true, false, null, null, null, null, null, null, null)));
+        when(workoutSetRepository.findByUserIdAndDateRange(anyLong(), any(), any())).thenReturn(List.of());
+        when(weighInRepository.findByUserIdAndDateRange(anyLong(), any(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void loadPastTheDeadlineLeavesItsTilesOutAndIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(foodLogRepository.findByUserIdAndDateRange(anyLong(), any(), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return List.of();
+        });
+
+        DashboardResponse response = service.getDashboard(1L, "user@fittrack.test");
+
+        assertThat(response.targets()).isEqualTo(NutritionTargets.DEFAULT);
+        assertThat(response.workoutProgress()).isNotNull();
+        assertThat(response.unavailableTiles())
+                .containsExactly("quick-stats", "calorie-chart", "macro-progress", "recent-activity");
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void loadsRunInReadOnlyTransactions() {
+        when(foodLogRepository.findByUserIdAndDateRange(anyLong(), any(), any())).thenReturn(List.of());
+
+        assertThat(service.getDashboard(1L, "user@fittrack.test").unavailableTiles()).isEmpty();
+        verify(transactionManager, times(4)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+}
@@ -0,0 +1,94 @@
+package com.fit_track.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fit_track.cache.LocalRemoteCache;
+import com.fit_track.security.TokenVersionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Connections are never attached to a servlet response here, so what is sent
+ * stays inside the emitter; the tests watch which connections stay open.
+ */
+class DashboardStreamServiceTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private final LocalRemoteCache remote = new LocalRemoteCache();
+    private final TokenVersionCache tokenVersionCache = mock(TokenVersionCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DashboardStreamService service;
+
+    @BeforeEach
+    void createService() {
+        when(tokenVersionCache.isCurrent(anyLong(), anyInt())).thenReturn(true);
+        service = new DashboardStreamService(remote, new ObjectMapper(), tokenVersionCache, meterRegistry,
+                BUFFER_SIZE, 2, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void slowConsumerIsEvictedWhenItsBufferFills() {
+        SseEmitter emitter = service.subscribe(1L, 0, null);
+        service.subscribe(2L, 0, null);
+
+        // SseEmitter.send locks the emitter: holding it stands in for a client that stopped reading
+        synchronized (emitter) {
+            for (int i = 0; i <= BUFFER_SIZE + 1; i++) {
+                remote.publish(DashboardStreamService.CHANNEL, "1\tfood\t{}");
+            }
+        }
+
+        assertThat(service.getConnectionCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("fittrack.dashboard.stream.evictions").count()).isEqualTo(1);
+    }
+
+    @Test
+    void connectionPastTheLimitReplacesTheOldest() {
+        service.subscribe(1L, 0, null);
+        service.subscribe(1L, 0, null);
+        service.subscribe(1L, 0, null);
+        service.subscribe(2L, 0, null);
+
+        assertThat(service.getConnectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void heartbeatClosesConnectionsOfRevokedTokens() {
+        when(tokenVersionCache.isCurrent(1L, 0)).thenReturn(false);
+        service.subscribe(1L, 0, null);
+        service.subscribe(2L, 0, null);
+
+        service.heartbeat();
+
+        assertThat(service.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatClosesConnectionsOfExpiredTokens() throws Exception {
+        service.subscribe(1L, 0, Instant.now().plusMillis(50));
+        service.subscribe(2L, 0, Instant.now().plus(Duration.ofMinutes(15)));
+        Thread.sleep(100);
+
+        service.heartbeat();
+
+        assertThat(service.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void timeoutIsCappedAtTheTokensRemainingLifetime() {
+        SseEmitter emitter = service.subscribe(1L, 0, Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThat(emitter.getTimeout()).isBetween(Duration.ofMinutes(4).toMillis(), Duration.ofMinutes(5).toMillis());
+    }
+}
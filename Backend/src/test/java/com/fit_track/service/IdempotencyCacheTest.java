@@ -0,0 +1,108 @@
+package com.fit_track.service;
+
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    private final IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(10));
+
+    @Test
+    void fingerprintIsNotAPlainDigestOfThePayload() throws Exception {
+        String plain = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("secret-password\0".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(cache.fingerprint("secret-password")).isEqualTo(cache.fingerprint("secret-password"))
+                .isNotEqualTo(plain)
+                .isNotEqualTo(new IdempotencyCache(Duration.ofMinutes(10)).fingerprint("secret-password"));
+    }
+
+    @Test
+    void errorReachesWaitersAndIsNotKept() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> cache.<String>execute("key", "payload", () -> {
+                running.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            running.await();
+            Future<String> retry = executor.submit(() -> cache.execute("key", "payload", () -> "second run"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(first::get).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> retry.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        }
+        assertThat(cache.execute("key", "payload", () -> "registered")).isEqualTo("registered");
+    }
+
+    @Test
+    void asyncCallersWithTheSameKeyShareOneRun() {
+        AtomicInteger runs = new AtomicInteger();
+        Sinks.One<String> result = Sinks.one();
+
+        Mono<String> first = cache.executeAsync("key", "payload", () -> {
+            runs.incrementAndGet();
+            return result.asMono();
+        });
+        Mono<String> retry = cache.executeAsync("key", "payload", () -> {
+            runs.incrementAndGet();
+            return Mono.just("second run");
+        });
+
+        first.subscribe();
+        Mono<String> shared = retry.cache();
+        shared.subscribe();
+        result.tryEmitValue("registered");
+
+        assertThat(shared.block(Duration.ofSeconds(1))).isEqualTo("registered");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void asyncReuseOfKeyForDifferentPayloadIsRejected() {
+        cache.executeAsync("key", "payload", () -> Mono.just("registered")).block();
+
+        assertThatThrownBy(() -> cache.executeAsync("key", "other payload", () -> Mono.just("again")).block())
+                .isInstanceOfSatisfying(AuthException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+    }
+
+    @Test
+    void asyncFailureIsNotKept() {
+        assertThatThrownBy(() -> cache.executeAsync("key", "payload",
+                () -> Mono.<String>error(new IllegalStateException("down"))).block())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.executeAsync("key", "payload", () -> Mono.just("registered")).block())
+                .isEqualTo("registered");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
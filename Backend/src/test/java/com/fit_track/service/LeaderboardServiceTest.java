@@ -0,0 +1,146 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.response.FriendRequestResponse;
+import com.fit_track.entity.User;
+import com.fit_track.exception.ApiException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.repository.LeaderboardRepository;
+import com.fit_track.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Walks friend requests through the V8 user_friends table: asked, accepted,
+ * removed, and capped.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LeaderboardServiceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final LeaderboardRepository leaderboardRepository = new LeaderboardRepository();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LeaderboardService service = new LeaderboardService();
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+    }
+
+    @BeforeEach
+    void wire() {
+        jdbcTemplate.execute("TRUNCATE users, user_friends CASCADE");
+        ReflectionTestUtils.setField(leaderboardRepository, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "leaderboardRepository", leaderboardRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "maxFriends", 2);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void requestBecomesAFriendshipOnceAccepted() {
+        User sam = user("Sam");
+        User alex = user("Alex");
+
+        service.addFriend(sam.getId(), " ALEX@fittrack.test ");
+
+        assertThat(leaderboardRepository.findFriendIds(sam.getId(), 10)).isEmpty();
+        assertThat(service.getFriendRequests(alex.getId()))
+                .containsExactly(new FriendRequestResponse(sam.getId(), "Sam"));
+
+        assertThat(service.acceptFriend(alex.getId(), sam.getId())).isTrue();
+
+        assertThat(leaderboardRepository.findFriendIds(sam.getId(), 10)).containsExactly(alex.getId());
+        assertThat(leaderboardRepository.findFriendIds(alex.getId(), 10)).containsExactly(sam.getId());
+        assertThat(service.getFriendRequests(alex.getId())).isEmpty();
+    }
+
+    @Test
+    void acceptWithoutARequestIsRefused() {
+        User sam = user("Sam");
+        User alex = user("Alex");
+
+        assertThat(service.acceptFriend(alex.getId(), sam.getId())).isFalse();
+        assertThat(leaderboardRepository.countFriends(alex.getId())).isZero();
+    }
+
+    @Test
+    void removeEndsTheFriendshipOnBothSides() {
+        User sam = user("Sam");
+        User alex = user("Alex");
+        service.addFriend(sam.getId(), "alex@fittrack.test");
+        service.acceptFriend(alex.getId(), sam.getId());
+
+        assertThat(service.removeFriend(alex.getId(), sam.getId())).isTrue();
+
+        assertThat(leaderboardRepository.countFriends(sam.getId())).isZero();
+        assertThat(leaderboardRepository.countFriends(alex.getId())).isZero();
+        assertThat(service.removeFriend(alex.getId(), sam.getId())).isFalse();
+    }
+
+    @Test
+    void pendingRequestsCountTowardsTheCap() {
+        User sam = user("Sam");
+        user("Alex");
+        user("Kim");
+        User lee = user("Lee");
+        service.addFriend(sam.getId(), "alex@fittrack.test");
+        service.addFriend(sam.getId(), "kim@fittrack.test");
+        service.addFriend(lee.getId(), "sam@fittrack.test");
+
+        // Same answer for an email without an account
+        assertThatThrownBy(() -> service.addFriend(sam.getId(), "nobody@fittrack.test"))
+                .isInstanceOfSatisfying(ApiException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.FRIEND_LIMIT_REACHED));
+        assertThatThrownBy(() -> service.acceptFriend(sam.getId(), lee.getId()))
+                .isInstanceOfSatisfying(ApiException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.FRIEND_LIMIT_REACHED));
+        assertThat(leaderboardRepository.countFriends(sam.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void befriendingYourselfIsRejected() {
+        User sam = user("Sam");
+
+        assertThatThrownBy(() -> service.addFriend(sam.getId(), "sam@fittrack.test"))
+                .isInstanceOfSatisfying(ApiException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.FRIEND_IS_SELF));
+    }
+
+    private User user(String firstName) {
+        String email = firstName.toLowerCase() + "@fittrack.test";
+        Long id = jdbcTemplate.queryForObject("""
+                        INSERT INTO users (email, first_name, email_verified, created_at)
+                        VALUES (?, ?, true, now())
+                        RETURNING id""",
+                Long.class, email, firstName);
+        User user = new User(email, "password", firstName, null);
+        user.setId(id);
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        return user;
+    }
+}
@@ -0,0 +1,39 @@
+package com.fit_track.service;
+
+import com.fit_track.entity.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NutritionTargetsTest {
+
+    @Test
+    void maintenanceForModeratelyActiveMan() {
+        NutritionTargets targets = NutritionTargets.forProfile(profile(User.Gender.MALE, 80.0, 180, 30,
+                User.ActivityLevel.MODERATELY_ACTIVE, User.Goal.MAINTAIN_WEIGHT));
+
+        // BMR 1780 kcal x 1.55
+        assertThat(targets).isEqualTo(new NutritionTargets(2759, 128, 389, 77));
+    }
+
+    @Test
+    void deficitIsFlooredAtMinimumCalories() {
+        NutritionTargets targets = NutritionTargets.forProfile(profile(User.Gender.FEMALE, 60.0, 165, 25,
+                User.ActivityLevel.SEDENTARY, User.Goal.LOSE_WEIGHT));
+
+        assertThat(targets).isEqualTo(new NutritionTargets(1200, 120, 106, 33));
+    }
+
+    @Test
+    void incompleteProfileGetsDefaults() {
+        NutritionTargets targets = NutritionTargets.forProfile(profile(null, null, null, null, null, null));
+
+        assertThat(targets).isEqualTo(NutritionTargets.DEFAULT);
+    }
+
+    private static UserProfile profile(User.Gender gender, Double weight, Integer height, Integer age,
+                                       User.ActivityLevel activityLevel, User.Goal goal) {
+        return new UserProfile(1L, "user@fittrack.test", "Test", "User", true, goal != null,
+                goal, activityLevel, weight, null, height, age, gender);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.request.RegisterRequest;
+import com.fit_track.dto.response.AuthResponse;
+import com.fit_track.entity.User;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Redeems refresh tokens against a real Postgres: each token is exchanged at
+ * most once however many requests race for it, and a token that comes back
+ * after being rotated out ends every session of its user.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+class RefreshTokenRotationTest {
+
+    private static final int ATTEMPTS = 200;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("security.jwt.secret-key", () -> "refresh-test-secret-key-that-is-at-least-256-bits!!!!!");
+        registry.add("security.jwt.expiration", () -> "86400000");
+    }
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void concurrentRedemptionsOfOneTokenSucceedOnce() throws Exception {
+        String refreshToken = jwtService.generateRefreshToken(registeredUser());
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(ATTEMPTS);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String outcome;
+                    try {
+                        authService.refresh(refreshToken);
+                        outcome = "refreshed";
+                    } catch (AuthException e) {
+                        outcome = e.getErrorCode().name();
+                    }
+                    outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(outcomes.get("refreshed")).hasValue(1);
+        assertThat(outcomes.get(ErrorCode.REFRESH_TOKEN_REVOKED.name())).hasValue(ATTEMPTS - 1);
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeSession() {
+        User user = registeredUser();
+        String first = jwtService.generateRefreshToken(user);
+        AuthResponse rotated = authService.refresh(first);
+        AuthResponse next = authService.refresh(rotated.refreshToken());
+
+        assertThatThrownBy(() -> authService.refresh(first))
+                .isInstanceOfSatisfying(AuthException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.REFRESH_TOKEN_REVOKED));
+        // The reuse bumped the token version, so the newest token is dead too
+        assertThatThrownBy(() -> authService.refresh(next.refreshToken()))
+                .isInstanceOfSatisfying(AuthException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.REFRESH_TOKEN_REVOKED));
+    }
+
+    private User registeredUser() {
+        String email = "refresh-" + UUID.randomUUID() + "@fittrack.test";
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("password");
+        request.setFirstName("Refresh");
+        request.setLastName("Rotation");
+        authService.register(request, null);
+        return userRepository.findByEmail(email).orElseThrow();
+    }
+}
@@ -0,0 +1,163 @@
+package com.fit_track.service;
+
+import com.fit_track.dto.request.RegisterRequest;
+import com.fit_track.dto.response.RegisterResponse;
+import com.fit_track.exception.AuthException;
+import com.fit_track.exception.ErrorCode;
+import com.fit_track.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Fires thousands of simultaneous duplicate signups at a real Postgres and
+ * checks that exactly one user is created and every other attempt gets a
+ * clean outcome rather than a constraint violation.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+class RegistrationConcurrencyTest {
+
+    private static final int ATTEMPTS = 2_000;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("security.jwt.secret-key", () -> "concurrency-test-secret-key-that-is-at-least-256-bits!!");
+        registry.add("security.jwt.expiration", () -> "86400000");
+    }
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void concurrentDuplicatesCreateOneUser() throws Exception {
+        String email = unique("race");
+
+        // Distinct passwords: no two requests share a payload, so every one reaches the database
+        Map<String, AtomicInteger> outcomes = runConcurrently(i -> {
+            try {
+                authService.register(request(email, "password-" + i), null);
+                return "created";
+            } catch (AuthException e) {
+                return e.getErrorCode().name();
+            }
+        });
+
+        assertThat(outcomes.get("created")).hasValue(1);
+        assertThat(outcomes.get(ErrorCode.EMAIL_ALREADY_REGISTERED.name())).hasValue(ATTEMPTS - 1);
+        assertThat(outcomes).hasSize(2);
+        assertThat(userRepository.findByEmail(email)).isPresent();
+        verify(emailService, times(1)).sendVerificationEmail(eq(email), anyString());
+    }
+
+    @Test
+    void retriesWithSameIdempotencyKeyShareOneRegistration() throws Exception {
+        String email = unique("retry");
+        String idempotencyKey = UUID.randomUUID().toString();
+        RegisterRequest request = request(email, "password");
+
+        Map<String, AtomicInteger> outcomes = runConcurrently(i -> {
+            RegisterResponse response = authService.register(request, idempotencyKey);
+            return response.email();
+        });
+
+        assertThat(outcomes).containsOnlyKeys(email);
+        assertThat(outcomes.get(email)).hasValue(ATTEMPTS);
+        verify(emailService, times(1)).sendVerificationEmail(eq(email), anyString());
+    }
+
+    @Test
+    void identicalRetriesWithoutKeyAreDeduplicated() {
+        String email = unique("nokey");
+
+        RegisterResponse first = authService.register(request(email, "password"), null);
+        RegisterResponse retry = authService.register(request(email, "password"), null);
+
+        assertThat(retry).isEqualTo(first);
+        verify(emailService, times(1)).sendVerificationEmail(eq(email), anyString());
+    }
+
+    @Test
+    void reusingKeyForDifferentPayloadIsRejected() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        authService.register(request(unique("first"), "password"), idempotencyKey);
+
+        assertThatThrownBy(() -> authService.register(request(unique("second"), "password"), idempotencyKey))
+                .isInstanceOfSatisfying(AuthException.class, e ->
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+    }
+
+    private Map<String, AtomicInteger> runConcurrently(IntFunction<String> attempt) throws Exception {
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(ATTEMPTS);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                final int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String outcome = attempt.apply(index);
+                    outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Surfaces anything other than the expected outcomes, such as a constraint violation
+                future.get();
+            }
+        }
+        return outcomes;
+    }
+
+    private static RegisterRequest request(String email, String password) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        request.setFirstName("Race");
+        request.setLastName("Condition");
+        return request;
+    }
+
+    private static String unique(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@fittrack.test";
+    }
+}
@@ -0,0 +1,141 @@
+package com.fit_track.service;
+
+import com.fit_track.datasource.ReadYourWritesTracker;
+import com.fit_track.dto.request.FoodLogRequest;
+import com.fit_track.dto.request.SyncChange;
+import com.fit_track.dto.request.SyncUploadRequest;
+import com.fit_track.dto.response.SyncResponse;
+import com.fit_track.dto.response.SyncResponse.FoodRow;
+import com.fit_track.dto.response.SyncUploadResponse;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.Versioned;
+import com.fit_track.event.LogChangedEvent;
+import com.fit_track.repository.FoodLogRepository;
+import com.fit_track.repository.SyncRepository;
+import com.fit_track.repository.SyncRepository.Cursor;
+import com.fit_track.repository.UserRepository;
+import com.fit_track.repository.WeighInRepository;
+import com.fit_track.repository.WorkoutSetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private final SyncRepository syncRepository = mock(SyncRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SyncService service = new SyncService();
+
+    @BeforeEach
+    void wire() {
+        ReflectionTestUtils.setField(service, "syncRepository", syncRepository);
+        ReflectionTestUtils.setField(service, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(service, "foodLogRepository", mock(FoodLogRepository.class));
+        ReflectionTestUtils.setField(service, "workoutSetRepository", mock(WorkoutSetRepository.class));
+        ReflectionTestUtils.setField(service, "weighInRepository", mock(WeighInRepository.class));
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "readYourWritesTracker",
+                new ReadYourWritesTracker(Duration.ofSeconds(5)));
+        ReflectionTestUtils.setField(service, "pageSize", 2);
+
+        // Tombstones up to 6 have been pruned
+        when(syncRepository.findCursor(USER_ID)).thenReturn(Optional.of(new Cursor(10, 0, 6)));
+        when(syncRepository.lockCursor(USER_ID)).thenReturn(Optional.of(new Cursor(10, 0, 6)));
+    }
+
+    @Test
+    void pullFromZeroPagesPastTheHorizon() {
+        when(syncRepository.findFoodLogsSince(USER_ID, 0, 2)).thenReturn(List.of(food(1, 1), food(2, 2)));
+        when(syncRepository.findFoodLogsSince(USER_ID, 2, 2)).thenReturn(List.of(food(3, 8)));
+
+        SyncResponse first = service.changesSince(USER_ID, 0, false);
+        SyncResponse next = service.changesSince(USER_ID, first.seq(), true);
+
+        assertThat(first.seq()).isEqualTo(2);
+        assertThat(first.more()).isTrue();
+        assertThat(next.reset()).isFalse();
+        assertThat(next.more()).isFalse();
+        assertThat(next.seq()).isEqualTo(10);
+        assertThat(next.food()).extracting(FoodRow::id).containsExactly(3L);
+        verify(syncRepository).findTombstonesSince(USER_ID, 2, 2);
+    }
+
+    @Test
+    void pullBehindTheHorizonStartsOver() {
+        when(syncRepository.findFoodLogsSince(USER_ID, 0, 2)).thenReturn(List.of(food(1, 1)));
+
+        SyncResponse response = service.changesSince(USER_ID, 3, false);
+
+        assertThat(response.reset()).isTrue();
+        assertThat(response.seq()).isEqualTo(10);
+        assertThat(response.food()).extracting(FoodRow::id).containsExactly(1L);
+        verify(syncRepository, never()).findTombstonesSince(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void editAgainstAnOldVersionIsAConflict() {
+        when(syncRepository.findFoodLog(USER_ID, 5L)).thenReturn(Optional.of(food(5, 9)));
+
+        SyncUploadResponse response = service.upload(USER_ID, upload("5", 7));
+
+        assertThat(response.applied()).isEmpty();
+        assertThat(response.conflicts()).singleElement().satisfies(conflict -> {
+            assertThat(conflict.ref()).isEqualTo("c1");
+            assertThat(conflict.current()).isEqualTo(FoodRow.of(food(5, 9)));
+        });
+        verify(syncRepository, never()).saveFoodLog(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void editAgainstTheCurrentVersionIsApplied() {
+        when(syncRepository.findFoodLog(USER_ID, 5L)).thenReturn(Optional.of(food(5, 9)));
+        when(syncRepository.saveFoodLog(any())).thenReturn(food(5, 11));
+
+        SyncUploadResponse response = service.upload(USER_ID, upload("5", 9));
+
+        assertThat(response.conflicts()).isEmpty();
+        assertThat(response.applied()).containsExactly(new SyncUploadResponse.Applied("c1", "5", 11));
+        verify(eventPublisher).publishEvent(new LogChangedEvent(USER_ID, food(5, 9).row(), true));
+        verify(eventPublisher).publishEvent(new LogChangedEvent(USER_ID, food(5, 11).row(), false));
+    }
+
+    private static Versioned<FoodLog> food(long id, long seq) {
+        return new Versioned<>(seq, new FoodLog(id, USER_ID, DAY, FoodLog.Meal.LUNCH, "Rice", 200, 4, 45, 0.5));
+    }
+
+    private static SyncUploadRequest upload(String key, long baseSeq) {
+        FoodLogRequest food = new FoodLogRequest();
+        food.setLoggedOn(DAY);
+        food.setMeal(FoodLog.Meal.LUNCH);
+        food.setName("Rice");
+        food.setCalories(200);
+        SyncChange change = new SyncChange();
+        change.setRef("c1");
+        change.setEntity("food");
+        change.setKey(key);
+        change.setBaseSeq(baseSeq);
+        change.setFood(food);
+        SyncUploadRequest request = new SyncUploadRequest();
+        request.setChanges(List.of(change));
+        return request;
+    }
+}
@@ -0,0 +1,169 @@
+package com.fit_track.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the janitor's batched deletes against a real Postgres migrated to the
+ * current schema.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UnverifiedAccountJanitorTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @BeforeEach
+    void clearUsers() {
+        jdbcTemplate.execute("TRUNCATE users CASCADE");
+    }
+
+    @Test
+    void purgesOnlyUnverifiedAccountsPastTheRetention() {
+        LocalDateTime old = LocalDateTime.now().minusDays(8);
+        for (int i = 0; i < 3; i++) {
+            user("stale" + i, false, old);
+        }
+        user("verified", true, old);
+        user("recent", false, LocalDateTime.now().minusDays(6));
+
+        int purged = janitor(2, 100).purgeUnverifiedAccounts();
+
+        assertThat(purged).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM users ORDER BY email", String.class))
+                .containsExactly("recent@fittrack.test", "verified@fittrack.test");
+        assertThat(purgedCount("unverified_account")).isEqualTo(3);
+    }
+
+    @Test
+    void purgeTakesTheAccountsDataWithIt() {
+        Long stale = user("stale", false, LocalDateTime.now().minusDays(8));
+        Long friend = user("friend", true, LocalDateTime.now());
+        food(stale, "Rice");
+        jdbcTemplate.update("DELETE FROM food_logs WHERE user_id = ?", stale);
+        food(stale, "Oats");
+        jdbcTemplate.update("INSERT INTO weigh_ins (user_id, measured_on, weight_kg) VALUES (?, current_date, 80)",
+                stale);
+        jdbcTemplate.update("INSERT INTO user_friends (user_id, friend_id) VALUES (?, ?), (?, ?)",
+                stale, friend, friend, stale);
+
+        assertThat(janitor(500, 100).purgeUnverifiedAccounts()).isEqualTo(1);
+
+        for (String table : List.of("food_logs", "weigh_ins", "sync_tombstones", "user_friends")) {
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class))
+                    .as(table).isZero();
+        }
+    }
+
+    @Test
+    void stopsAfterMaxBatches() {
+        for (int i = 0; i < 5; i++) {
+            user("stale" + i, false, LocalDateTime.now().minusDays(8));
+        }
+
+        int purged = janitor(2, 2).purgeUnverifiedAccounts();
+
+        assertThat(purged).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Integer.class)).isEqualTo(1);
+        assertThat(purgedCount("unverified_account")).isEqualTo(4);
+    }
+
+    @Test
+    void clearsCodesOnlyAfterTheGracePeriod() {
+        Long expired = user("expired", true, LocalDateTime.now());
+        Long withinGrace = user("grace", false, LocalDateTime.now());
+        jdbcTemplate.update("UPDATE users SET verification_code = '123456', verification_code_expires_at = ? "
+                + "WHERE id = ?", Timestamp.valueOf(LocalDateTime.now().minusHours(2)), expired);
+        jdbcTemplate.update("UPDATE users SET verification_code = '654321', verification_code_expires_at = ? "
+                + "WHERE id = ?", Timestamp.valueOf(LocalDateTime.now().minusMinutes(30)), withinGrace);
+
+        int cleared = janitor(500, 100).clearExpiredCodes();
+
+        assertThat(cleared).isEqualTo(1);
+        assertThat(code(expired)).isNull();
+        assertThat(code(withinGrace)).isEqualTo("654321");
+        assertThat(purgedCount("expired_verification_code")).isEqualTo(1);
+    }
+
+    @Test
+    void prunesOnlyExpiredRefreshFamilies() {
+        Long userId = user("refresh", true, LocalDateTime.now());
+        UUID expired = family(userId, LocalDateTime.now().minusMinutes(1));
+        UUID live = family(userId, LocalDateTime.now().plusDays(1));
+
+        int pruned = janitor(500, 100).pruneRefreshFamilies();
+
+        assertThat(pruned).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM refresh_token_families", UUID.class))
+                .containsExactly(live)
+                .doesNotContain(expired);
+        assertThat(purgedCount("expired_refresh_family")).isEqualTo(1);
+    }
+
+    private UnverifiedAccountJanitor janitor(int batchSize, int maxBatches) {
+        return new UnverifiedAccountJanitor(jdbcTemplate, transactionTemplate, meterRegistry,
+                Duration.ofDays(7), Duration.ofHours(1), batchSize, maxBatches);
+    }
+
+    private double purgedCount(String kind) {
+        return meterRegistry.get("fittrack.janitor.rows.purged").tag("kind", kind).counter().count();
+    }
+
+    private static Long user(String name, boolean verified, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO users (email, first_name, email_verified, created_at) VALUES (?, 'Sam', ?, ?)
+                        RETURNING id""",
+                Long.class, name + "@fittrack.test", verified, Timestamp.valueOf(createdAt));
+    }
+
+    private static void food(Long userId, String name) {
+        jdbcTemplate.update("INSERT INTO food_logs (user_id, logged_on, meal, name, calories) "
+                + "VALUES (?, current_date, 'LUNCH', ?, 200)", userId, name);
+    }
+
+    private static UUID family(Long userId, LocalDateTime expiresAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO refresh_token_families (id, user_id, generation, expires_at) "
+                + "VALUES (?, ?, 1, ?)", id, userId, Timestamp.valueOf(expiresAt));
+        return id;
+    }
+
+    private static String code(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT verification_code FROM users WHERE id = ?", String.class, userId);
+    }
+}
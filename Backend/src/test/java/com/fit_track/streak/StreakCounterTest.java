@@ -0,0 +1,92 @@
+package com.fit_track.streak;
+
+import com.fit_track.entity.User;
+import com.fit_track.entity.WeighIn;
+import com.fit_track.service.UserProfile;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreakCounterTest {
+
+    private final StreakRules rules = new StreakRules(0.1, 3);
+
+    @Test
+    void incrementalUpdatesMatchReplay() {
+        Random random = new Random(42);
+        TreeSet<Long> qualified = new TreeSet<>();
+        StreakCounter counter = new StreakCounter();
+
+        for (int i = 0; i < 20_000; i++) {
+            // Mostly toggling the latest period, like logging or deleting today, plus backdated edits
+            long frontier = 1_000 + i / 20;
+            long period = random.nextInt(10) < 8 ? frontier : 1_000 + random.nextInt(i / 20 + 1);
+            boolean applied;
+            if (qualified.add(period)) {
+                applied = counter.qualify(period);
+            } else {
+                qualified.remove(period);
+                applied = counter.disqualify(period);
+            }
+
+            StreakCounter expected = StreakCounter.replay(qualified.stream().mapToLong(Long::longValue).toArray());
+            if (!applied) {
+                counter = expected;
+            }
+            assertThat(counter).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void bestSurvivesANewRun() {
+        StreakCounter counter = StreakCounter.replay(new long[]{1, 2, 3, 7, 8});
+
+        assertThat(counter.getCurrent()).isEqualTo(2);
+        assertThat(counter.getBest()).isEqualTo(3);
+        assertThat(counter.disqualify(8)).isTrue();
+        assertThat(counter.getBest()).isEqualTo(3);
+        // Removing the last period of the latest run needs the earlier runs
+        assertThat(counter.disqualify(7)).isFalse();
+        assertThat(counter.qualify(2)).isFalse();
+    }
+
+    @Test
+    void streakLapsesAfterAMissedPeriod() {
+        StreakCounter counter = StreakCounter.replay(new long[]{10, 11, 12});
+
+        assertThat(counter.currentAsOf(13)).isEqualTo(3);
+        assertThat(counter.currentAsOf(14)).isZero();
+    }
+
+    @Test
+    void replayAwardsAchievementsOnTheDayTheyAreReached() {
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        List<DayActivity> days = new ArrayList<>();
+        for (int week = 0; week < 4; week++) {
+            for (int day : new int[]{0, 2, 4}) {
+                days.add(new DayActivity(monday.plusWeeks(week).plusDays(day), 0, 0, 5));
+            }
+        }
+        UserProfile profile = new UserProfile(1L, "a@fittrack.test", "A", "B", true, true,
+                User.Goal.LOSE_WEIGHT, User.ActivityLevel.SEDENTARY, 80.0, 75.0, 180, 30, User.Gender.MALE);
+        List<WeighIn> weighIns = List.of(
+                new WeighIn(1L, monday, 80.0),
+                new WeighIn(1L, monday.plusWeeks(3), 74.8));
+
+        StreakRules.Replay replay = rules.replay(days, weighIns, profile);
+
+        assertThat(replay.streaks().get(StreakKind.WORKOUT_WEEK).getBest()).isEqualTo(4);
+        assertThat(replay.workoutSets()).isEqualTo(60);
+        assertThat(replay.achievements())
+                .containsEntry(Achievement.FIRST_WORKOUT, monday)
+                .containsEntry(Achievement.WORKOUT_WEEK_STREAK_4, monday.plusWeeks(3).plusDays(4))
+                .containsEntry(Achievement.GOAL_WEIGHT_REACHED, monday.plusWeeks(3))
+                .doesNotContainKey(Achievement.SETS_100);
+    }
+}
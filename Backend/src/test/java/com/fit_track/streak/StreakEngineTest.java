@@ -0,0 +1,144 @@
+package com.fit_track.streak;
+
+import com.fit_track.datasource.ReadYourWritesTracker;
+import com.fit_track.dto.request.FoodLogRequest;
+import com.fit_track.dto.request.SyncChange;
+import com.fit_track.dto.request.SyncUploadRequest;
+import com.fit_track.entity.FoodLog;
+import com.fit_track.entity.User;
+import com.fit_track.repository.FoodLogRepository;
+import com.fit_track.repository.StreakRepository;
+import com.fit_track.repository.SyncRepository;
+import com.fit_track.repository.UserRepository;
+import com.fit_track.repository.WeighInRepository;
+import com.fit_track.repository.WorkoutSetRepository;
+import com.fit_track.service.SyncService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the engine the way production does: a log written inside a
+ * transaction, with the streak update running after that transaction commits.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StreakEngineTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static AnnotationConfigApplicationContext context;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void start() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        context.register(Config.class);
+        context.refresh();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @Test
+    void syncUploadUpdatesTheStreak() {
+        Long userId = jdbcTemplate.queryForObject("""
+                        INSERT INTO users (email, first_name, email_verified, created_at)
+                        VALUES ('streak@fittrack.test', 'Sam', true, now())
+                        RETURNING id""",
+                Long.class);
+        User user = new User("streak@fittrack.test", "password", "Sam", "Lee");
+        user.setId(userId);
+        when(context.getBean(UserRepository.class).findById(userId)).thenReturn(Optional.of(user));
+
+        context.getBean(SyncService.class).upload(userId, upload(LocalDate.now()));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT current FROM user_streaks WHERE user_id = ? AND kind = 'LOGGING'", Integer.class, userId))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT food_entries FROM user_activity_totals WHERE user_id = ?", Long.class, userId))
+                .isEqualTo(1);
+    }
+
+    private static SyncUploadRequest upload(LocalDate day) {
+        FoodLogRequest food = new FoodLogRequest();
+        food.setLoggedOn(day);
+        food.setMeal(FoodLog.Meal.BREAKFAST);
+        food.setName("Oats");
+        food.setCalories(350);
+        SyncChange change = new SyncChange();
+        change.setRef("c1");
+        change.setEntity("food");
+        change.setFood(food);
+        SyncUploadRequest request = new SyncUploadRequest();
+        request.setChanges(List.of(change));
+        return request;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({SyncService.class, SyncRepository.class, FoodLogRepository.class, WorkoutSetRepository.class,
+            WeighInRepository.class, StreakEngine.class, StreakRepository.class, StreakRules.class})
+    static class Config {
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ReadYourWritesTracker readYourWritesTracker() {
+            return new ReadYourWritesTracker(Duration.ofSeconds(5));
+        }
+
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+    }
+}
@@ -9,5 +9,7 @@ export const API_ENDPOINTS = {
     ONBOARDING: "/auth/onboarding",
     RESEND_CODE: "/auth/resend-verification",
     ME: "/auth/me",
+    REFRESH: "/auth/refresh",
+    LOGOUT: "/auth/logout",
   },
 } as const;
@@ -1,5 +1,6 @@
 export const STORAGE_KEYS = {
   TOKEN: "fit_track_token",
+  REFRESH_TOKEN: "fit_track_refresh_token",
   USER: "fit_track_user",
   REMEMBER_EMAIL: "fit_track_remember_email",
 } as const;
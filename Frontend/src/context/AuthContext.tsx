@@ -38,7 +38,7 @@ interface AuthContextType extends AuthState {
   verifyEmail: (email: string, code: string) => Promise<AuthResponse>;
   completeOnboarding: (data: OnboardingData) => Promise<AuthResponse>;
   resendVerificationCode: (email: string) => Promise<void>;
-  logout: () => void;
+  logout: () => Promise<void>;
 }
 
 type AuthAction =
@@ -193,8 +193,8 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     await authService.resendVerificationCode(email);
   };
 
-  const logout = (): void => {
-    authService.logout();
+  const logout = async (): Promise<void> => {
+    await authService.logout();
     dispatch({ type: "SET_UNAUTHENTICATED" });
   };
 
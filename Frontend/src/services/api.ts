@@ -2,9 +2,11 @@ import axios, {
   type AxiosInstance,
   type AxiosResponse,
   type AxiosError,
+  type InternalAxiosRequestConfig,
 } from "axios";
 import type { ApiError } from "../types/api";
-import { API_BASE_URL, API_TIMEOUT } from "../constants/api";
+import type { AuthResponse } from "../types/auth";
+import { API_BASE_URL, API_ENDPOINTS, API_TIMEOUT } from "../constants/api";
 import { STORAGE_KEYS } from "../constants/storage";
 
 const apiClient: AxiosInstance = axios.create({
@@ -28,11 +30,58 @@ apiClient.interceptors.request.use(
   }
 );
 
+type RetriableRequestConfig = InternalAxiosRequestConfig & { _retry?: boolean };
+
+// Shared so concurrent 401s trigger a single rotation of the refresh token
+let refreshPromise: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem(STORAGE_KEYS.REFRESH_TOKEN);
+    refreshPromise = axios
+      .post<AuthResponse>(
+        `${API_BASE_URL}${API_ENDPOINTS.AUTH.REFRESH}`,
+        { refreshToken },
+        { timeout: API_TIMEOUT }
+      )
+      .then((response) => {
+        localStorage.setItem(STORAGE_KEYS.TOKEN, response.data.token);
+        localStorage.setItem(
+          STORAGE_KEYS.REFRESH_TOKEN,
+          response.data.refreshToken
+        );
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 apiClient.interceptors.response.use(
   (response: AxiosResponse) => {
     return response;
   },
-  (error: AxiosError) => {
+  async (error: AxiosError) => {
+    const originalRequest = error.config as RetriableRequestConfig | undefined;
+
+    if (
+      error.response?.status === 401 &&
+      originalRequest &&
+      !originalRequest._retry &&
+      localStorage.getItem(STORAGE_KEYS.REFRESH_TOKEN)
+    ) {
+      originalRequest._retry = true;
+      try {
+        const token = await refreshAccessToken();
+        originalRequest.headers.Authorization = `Bearer ${token}`;
+        return apiClient(originalRequest);
+      } catch {
+        // Fall through to the normal 401 handling below
+      }
+    }
+
     const apiError: ApiError = {
       error: "An unexpected error occurred",
       status: error.response?.status,
@@ -46,6 +95,7 @@ apiClient.interceptors.response.use(
 
     if (error.response?.status === 401) {
       localStorage.removeItem(STORAGE_KEYS.TOKEN);
+      localStorage.removeItem(STORAGE_KEYS.REFRESH_TOKEN);
       localStorage.removeItem(STORAGE_KEYS.USER);
       window.location.href = "/login";
     }
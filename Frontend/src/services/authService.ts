@@ -79,14 +79,26 @@ class AuthService {
     return response.data;
   }
 
-  logout(): void {
-    this.clearAuthData();
-    window.location.href = "/login";
+  async logout(): Promise<void> {
+    // Revokes every token issued for this user. The request must go out while
+    // the access token is still stored; local state is cleared regardless.
+    try {
+      await apiClient.post(API_ENDPOINTS.AUTH.LOGOUT);
+    } catch {
+      // Nothing to do: the session ends locally either way
+    } finally {
+      this.clearAuthData();
+      window.location.href = "/login";
+    }
   }
 
   isAuthenticated(): boolean {
     const token = this.getToken();
-    return !!token && !this.isTokenExpired(token);
+    if (token && !this.isTokenExpired(token)) {
+      return true;
+    }
+    // An expired access token is renewed on the next API call
+    return !!localStorage.getItem(STORAGE_KEYS.REFRESH_TOKEN);
   }
 
   getToken(): string | null {
@@ -100,6 +112,7 @@ class AuthService {
 
   private setAuthData(authResponse: AuthResponse): void {
     localStorage.setItem(STORAGE_KEYS.TOKEN, authResponse.token);
+    localStorage.setItem(STORAGE_KEYS.REFRESH_TOKEN, authResponse.refreshToken);
 
     const user: User = {
       id: authResponse.id,
@@ -115,6 +128,7 @@ class AuthService {
 
   private clearAuthData(): void {
     localStorage.removeItem(STORAGE_KEYS.TOKEN);
+    localStorage.removeItem(STORAGE_KEYS.REFRESH_TOKEN);
     localStorage.removeItem(STORAGE_KEYS.USER);
   }
 
@@ -9,6 +9,7 @@ export interface User {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
   type: string;
   id: number;
   email: string;